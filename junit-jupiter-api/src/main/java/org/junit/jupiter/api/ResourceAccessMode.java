@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.junit.jupiter.api;
+
+import static org.junit.platform.commons.meta.API.Usage.Experimental;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * The access mode required by a test class or test method for a shared
+ * resource declared via {@link ResourceLock @ResourceLock}.
+ *
+ * @since 5.0
+ * @see ResourceLock
+ */
+@API(Experimental)
+public enum ResourceAccessMode {
+
+	/**
+	 * Require only read access to the resource; tests with read access to
+	 * the same resource may be executed concurrently.
+	 */
+	READ,
+
+	/**
+	 * Require exclusive read and write access to the resource.
+	 */
+	READ_WRITE
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.junit.jupiter.api;
+
+import static org.junit.platform.commons.meta.API.Usage.Experimental;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * {@code @ResourceLock} is a {@linkplain Repeatable repeatable} annotation
+ * that is used to declare that the annotated test class or test method
+ * requires access to a shared resource identified by a key.
+ *
+ * <p>If tests are executed in parallel, tests that declare a lock on the
+ * same resource are never executed concurrently unless all of them only
+ * require {@link ResourceAccessMode#READ READ} access. Tests that do not
+ * declare conflicting locks are not affected.
+ *
+ * <p>If declared on a test class, the lock is held for the execution of the
+ * entire class including its {@code @BeforeAll} and {@code @AfterAll}
+ * methods, and all tests within the class are executed sequentially.
+ *
+ * @since 5.0
+ * @see ResourceLocks
+ * @see ResourceAccessMode
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(ResourceLocks.class)
+@API(Experimental)
+public @interface ResourceLock {
+
+	/**
+	 * The key identifying the shared resource, for example
+	 * {@code "java.lang.System.properties"}.
+	 */
+	String value();
+
+	/**
+	 * The access mode required for the shared resource.
+	 *
+	 * <p>Defaults to {@link ResourceAccessMode#READ_WRITE READ_WRITE}.
+	 */
+	ResourceAccessMode mode() default ResourceAccessMode.READ_WRITE;
+
+}
@@ -46,6 +46,7 @@ import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestTag;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource;
 
 /**
  * {@link TestDescriptor} for tests based on Java classes.
@@ -119,6 +120,11 @@ public class ClassTestDescriptor extends JupiterTestDescriptor {
 
 	// --- Node ----------------------------------------------------------------
 
+	@Override
+	public Set<ExclusiveResource> getExclusiveResources() {
+		return getExclusiveResources(this.testClass);
+	}
+
 	@Override
 	public JupiterEngineExecutionContext prepare(JupiterEngineExecutionContext context) {
 		ExtensionRegistry registry = populateNewExtensionRegistryFromExtendWith(this.testClass,
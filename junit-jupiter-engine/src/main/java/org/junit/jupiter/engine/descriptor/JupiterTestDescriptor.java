@@ -26,6 +26,8 @@ import java.util.function.Function;
 import java.util.logging.Logger;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.ResourceAccessMode;
+import org.junit.jupiter.api.ResourceLock;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.extension.ConditionEvaluationResult;
 import org.junit.jupiter.api.extension.ContainerExtensionContext;
@@ -42,6 +44,8 @@ import org.junit.platform.commons.util.StringUtils;
 import org.junit.platform.engine.TestTag;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode;
 import org.junit.platform.engine.support.hierarchical.Node;
 
 /**
@@ -71,6 +75,18 @@ public abstract class JupiterTestDescriptor extends AbstractTestDescriptor
 		// @formatter:on
 	}
 
+	protected static Set<ExclusiveResource> getExclusiveResources(AnnotatedElement element) {
+		// @formatter:off
+		return findRepeatableAnnotations(element, ResourceLock.class).stream()
+				.map(resourceLock -> new ExclusiveResource(resourceLock.value(), toLockMode(resourceLock.mode())))
+				.collect(toCollection(LinkedHashSet::new));
+		// @formatter:on
+	}
+
+	private static LockMode toLockMode(ResourceAccessMode mode) {
+		return (mode == ResourceAccessMode.READ ? LockMode.READ : LockMode.READ_WRITE);
+	}
+
 	protected static <E extends AnnotatedElement> String determineDisplayName(E element,
 			Function<E, String> defaultDisplayNameGenerator) {
 
@@ -19,6 +19,7 @@ import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestTag;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource;
 
 /**
  * Base class for {@link TestDescriptor TestDescriptors} based on Java methods.
@@ -62,6 +63,11 @@ abstract class MethodBasedTestDescriptor extends JupiterTestDescriptor {
 		return generateDefaultDisplayName(testMethod);
 	}
 
+	@Override
+	public Set<ExclusiveResource> getExclusiveResources() {
+		return getExclusiveResources(getTestMethod());
+	}
+
 	private static String generateDefaultDisplayName(Method testMethod) {
 		return String.format("%s(%s)", testMethod.getName(),
 			StringUtils.nullSafeToString(Class::getSimpleName, testMethod.getParameterTypes()));
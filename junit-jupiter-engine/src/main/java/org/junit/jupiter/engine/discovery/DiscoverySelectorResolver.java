@@ -11,6 +11,7 @@
 package org.junit.jupiter.engine.discovery;
 
 import static org.junit.platform.commons.meta.API.Usage.Experimental;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.SELECTOR;
 import static org.junit.platform.commons.util.ReflectionUtils.findAllClassesInClasspathRoot;
 import static org.junit.platform.commons.util.ReflectionUtils.findAllClassesInPackage;
 import static org.junit.platform.engine.support.filter.ClasspathScanningSupport.buildClassNamePredicate;
@@ -19,8 +20,15 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestTemplate;
 import org.junit.jupiter.engine.discovery.predicates.IsScannableTestClass;
 import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.ClassFilePrefilter;
+import org.junit.platform.commons.util.DiscoveryProfile;
+import org.junit.platform.engine.DiscoverySelector;
 import org.junit.platform.engine.EngineDiscoveryRequest;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.discovery.ClassSelector;
@@ -43,30 +51,43 @@ public class DiscoverySelectorResolver {
 
 	private static final IsScannableTestClass isScannableTestClass = new IsScannableTestClass();
 
+	/**
+	 * Rules out scanned classes that neither declare nor inherit test
+	 * methods or nested test classes without loading them.
+	 */
+	private static final ClassFilePrefilter testClassPrefilter = ClassFilePrefilter.forTypes(Test.class,
+		TestFactory.class, TestTemplate.class, Nested.class);
+
 	public void resolveSelectors(EngineDiscoveryRequest request, TestDescriptor engineDescriptor) {
 		JavaElementsResolver javaElementsResolver = createJavaElementsResolver(engineDescriptor);
 		Predicate<String> classNamePredicate = buildClassNamePredicate(request);
 
-		request.getSelectorsByType(ClasspathRootSelector.class).forEach(selector -> {
-			findAllClassesInClasspathRoot(selector.getClasspathRoot(), isScannableTestClass,
+		request.getSelectorsByType(ClasspathRootSelector.class).forEach(selector -> profile(selector, () -> {
+			findAllClassesInClasspathRoot(selector.getClasspathRoot(), testClassPrefilter, isScannableTestClass,
+				classNamePredicate).forEach(javaElementsResolver::resolveClass);
+		}));
+		request.getSelectorsByType(PackageSelector.class).forEach(selector -> profile(selector, () -> {
+			findAllClassesInPackage(selector.getPackageName(), testClassPrefilter, isScannableTestClass,
 				classNamePredicate).forEach(javaElementsResolver::resolveClass);
-		});
-		request.getSelectorsByType(PackageSelector.class).forEach(selector -> {
-			findAllClassesInPackage(selector.getPackageName(), isScannableTestClass, classNamePredicate).forEach(
-				javaElementsResolver::resolveClass);
-		});
-		request.getSelectorsByType(ClassSelector.class).forEach(selector -> {
+		}));
+		request.getSelectorsByType(ClassSelector.class).forEach(selector -> profile(selector, () -> {
 			javaElementsResolver.resolveClass(selector.getJavaClass());
-		});
-		request.getSelectorsByType(MethodSelector.class).forEach(selector -> {
+		}));
+		request.getSelectorsByType(MethodSelector.class).forEach(selector -> profile(selector, () -> {
 			javaElementsResolver.resolveMethod(selector.getJavaClass(), selector.getJavaMethod());
-		});
-		request.getSelectorsByType(UniqueIdSelector.class).forEach(selector -> {
+		}));
+		request.getSelectorsByType(UniqueIdSelector.class).forEach(selector -> profile(selector, () -> {
 			javaElementsResolver.resolveUniqueId(selector.getUniqueId());
-		});
+		}));
 		engineDescriptor.pruneTree();
 	}
 
+	private static void profile(DiscoverySelector selector, Runnable resolution) {
+		long startTime = DiscoveryProfile.start();
+		resolution.run();
+		DiscoveryProfile.record(SELECTOR, selector, startTime);
+	}
+
 	private JavaElementsResolver createJavaElementsResolver(TestDescriptor engineDescriptor) {
 		Set<ElementResolver> resolvers = new HashSet<>();
 		resolvers.add(new TestContainerResolver());
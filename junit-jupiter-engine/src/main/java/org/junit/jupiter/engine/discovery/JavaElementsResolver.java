@@ -13,6 +13,7 @@ package org.junit.jupiter.engine.discovery;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toSet;
 import static org.junit.platform.commons.meta.API.Usage.Experimental;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASS_RESOLUTION;
 import static org.junit.platform.commons.util.ReflectionUtils.findMethods;
 import static org.junit.platform.commons.util.ReflectionUtils.findNestedClasses;
 
@@ -30,6 +31,7 @@ import java.util.logging.Logger;
 import org.junit.jupiter.engine.descriptor.ClassTestDescriptor;
 import org.junit.jupiter.engine.discovery.predicates.IsInnerClass;
 import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.DiscoveryProfile;
 import org.junit.platform.commons.util.ReflectionUtils;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.UniqueId;
@@ -53,8 +55,10 @@ class JavaElementsResolver {
 	}
 
 	void resolveClass(Class<?> testClass) {
+		long startTime = DiscoveryProfile.start();
 		Set<TestDescriptor> resolvedDescriptors = resolveContainerWithParents(testClass);
 		resolvedDescriptors.forEach(this::resolveChildren);
+		DiscoveryProfile.record(CLASS_RESOLUTION, testClass.getName(), startTime);
 
 		if (resolvedDescriptors.isEmpty()) {
 			LOG.warning(() -> format("Class '%s' could not be resolved", testClass.getName()));
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+/**
+ * A class file found by the {@link ClasspathScanner}, consisting of the fully
+ * qualified name of the class it declares and its location.
+ *
+ * @since 1.0
+ */
+final class ClassFile {
+
+	private final String className;
+	private final String location;
+
+	ClassFile(String className, String location) {
+		this.className = className;
+		this.location = location;
+	}
+
+	/**
+	 * Get the fully qualified name of the class declared in this class file.
+	 */
+	String getClassName() {
+		return this.className;
+	}
+
+	/**
+	 * Get the absolute location of this class file, for use in log messages.
+	 */
+	String getLocation() {
+		return this.location;
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("className", this.className)
+				.append("location", this.location)
+				.toString();
+		// @formatter:on
+	}
+
+}
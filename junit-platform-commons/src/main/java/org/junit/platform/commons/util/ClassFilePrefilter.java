@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.util.Collections.unmodifiableSet;
+import static java.util.logging.Level.FINE;
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Prefilter for classpath scans that rules out classes that cannot be
+ * accepted by the class filter of a test engine by reading their class
+ * files, so that they need not be loaded.
+ *
+ * <p>A class <em>might match</em> if it is annotated with one of the
+ * supplied types, declares a field or method annotated with one of them,
+ * declares a method returning one of them, or extends or implements one of
+ * them &mdash; directly, via meta-annotations, or via any of its
+ * superclasses, interfaces, or member classes. Class files of these types
+ * are read via the class loader of the scan, except for those of the JDK,
+ * which are known not to match. Classes whose class files cannot be read
+ * or parsed might always match.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.0
+ * @see ReflectionUtils#findAllClassesInClasspathRoot(java.net.URI, ClassFilePrefilter, Predicate, Predicate)
+ * @see ReflectionUtils#findAllClassesInPackage(String, ClassFilePrefilter, Predicate, Predicate)
+ */
+@API(Internal)
+public final class ClassFilePrefilter {
+
+	private static final Logger LOG = Logger.getLogger(ClassFilePrefilter.class.getName());
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	/**
+	 * Create a prefilter for classes that might refer to any of the supplied
+	 * types.
+	 *
+	 * @param types the annotation types, superclasses, interfaces, and method
+	 * return types to look for; never {@code null} or empty
+	 */
+	public static ClassFilePrefilter forTypes(Class<?>... types) {
+		Preconditions.notEmpty(types, "types must not be null or empty");
+		Preconditions.containsNoNullElements(types, "individual types must not be null");
+		Set<String> typeNames = new HashSet<>();
+		for (Class<?> type : types) {
+			typeNames.add(type.getName().replace('.', '/'));
+		}
+		return new ClassFilePrefilter(unmodifiableSet(typeNames));
+	}
+
+	private final Set<String> typeNames;
+
+	private ClassFilePrefilter(Set<String> typeNames) {
+		this.typeNames = typeNames;
+	}
+
+	/**
+	 * Create a predicate for the fully qualified names of classes that
+	 * might match, which caches the results for the types it encounters and
+	 * is therefore meant to be used for a single scan with the supplied
+	 * class loader.
+	 */
+	Predicate<String> createClassNameFilter(ClassLoader classLoader) {
+		return new Matcher(classLoader)::mightMatch;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).append("typeNames", this.typeNames).toString();
+	}
+
+	private class Matcher {
+
+		private final ClassLoader classLoader;
+		private final Map<String, Boolean> results = new ConcurrentHashMap<>();
+
+		Matcher(ClassLoader classLoader) {
+			this.classLoader = classLoader;
+		}
+
+		boolean mightMatch(String className) {
+			return reaches(className.replace('.', '/'), new Reachability());
+		}
+
+		/**
+		 * Determine whether one of the types looked for is reachable from the
+		 * supplied type, skipping types that are currently being visited, as
+		 * may happen for annotations that are meta-annotated with themselves
+		 * or each other. A result is cached unless it depends on a skipped
+		 * type that is visited on a shallower level.
+		 */
+		private boolean reaches(String typeName, Reachability reachability) {
+			if (typeNames.contains(typeName)) {
+				return true;
+			}
+			if (isJdkType(typeName)) {
+				return false;
+			}
+			Boolean result = this.results.get(typeName);
+			if (result != null) {
+				return result;
+			}
+			Integer visitedDepth = reachability.visiting.get(typeName);
+			if (visitedDepth != null) {
+				reachability.lowestSkippedDepth = Math.min(reachability.lowestSkippedDepth, visitedDepth);
+				return false;
+			}
+			int depth = reachability.visiting.size();
+			reachability.visiting.put(typeName, depth);
+			int outerLowestSkippedDepth = reachability.lowestSkippedDepth;
+			reachability.lowestSkippedDepth = Integer.MAX_VALUE;
+			ClassFileSummary summary = readSummary(typeName);
+			boolean reached = summary == null || reachesAny(summary, reachability);
+			if (reached || reachability.lowestSkippedDepth >= depth) {
+				this.results.put(typeName, reached);
+				reachability.lowestSkippedDepth = Integer.MAX_VALUE;
+			}
+			reachability.lowestSkippedDepth = Math.min(reachability.lowestSkippedDepth, outerLowestSkippedDepth);
+			reachability.visiting.remove(typeName);
+			return reached;
+		}
+
+		private boolean reachesAny(ClassFileSummary summary, Reachability reachability) {
+			for (String returnType : summary.getMethodReturnTypes()) {
+				if (typeNames.contains(returnType)) {
+					return true;
+				}
+			}
+			for (String annotationType : summary.getAnnotationTypes()) {
+				if (reaches(annotationType, reachability)) {
+					return true;
+				}
+			}
+			for (String superType : summary.getSuperTypes()) {
+				if (reaches(superType, reachability)) {
+					return true;
+				}
+			}
+			for (String memberClass : summary.getMemberClasses()) {
+				if (reaches(memberClass, reachability)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private ClassFileSummary readSummary(String typeName) {
+			try (InputStream inputStream = this.classLoader.getResourceAsStream(typeName + CLASS_FILE_SUFFIX)) {
+				if (inputStream == null) {
+					return null;
+				}
+				return ClassFileSummary.read(new BufferedInputStream(inputStream));
+			}
+			catch (IOException | RuntimeException ex) {
+				LOG.log(FINE, ex, () -> "Failed to read class file of " + typeName);
+				return null;
+			}
+		}
+
+		private boolean isJdkType(String typeName) {
+			return typeName.startsWith("java/") || typeName.startsWith("javax/") || typeName.startsWith("sun/")
+					|| typeName.startsWith("jdk/");
+		}
+
+	}
+
+	private static class Reachability {
+
+		final Map<String, Integer> visiting = new HashMap<>();
+		int lowestSkippedDepth = Integer.MAX_VALUE;
+
+	}
+
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The parts of a class file that are relevant to decide whether its class
+ * might be a test class, read straight from its bytes without defining the
+ * class.
+ *
+ * <p>Only the structure of the constant pool and the attributes that name
+ * other types are decoded; UTF-8 constants are decoded only if they are
+ * needed, and the bytecode of methods and all other attributes are skipped.
+ * All type names are internal names such as {@code org/example/MyTests}.
+ *
+ * @since 1.0
+ * @see ClassFilePrefilter
+ */
+class ClassFileSummary {
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations".getBytes(US_ASCII);
+	private static final byte[] INNER_CLASSES = "InnerClasses".getBytes(US_ASCII);
+
+	/**
+	 * Read the summary of the class file provided by the supplied stream,
+	 * which is not closed.
+	 *
+	 * @throws IOException if the stream cannot be read or does not provide a
+	 * valid class file
+	 */
+	static ClassFileSummary read(InputStream inputStream) throws IOException {
+		byte[] buffer = new byte[8192];
+		int length = 0;
+		for (int count; (count = inputStream.read(buffer, length, buffer.length - length)) >= 0;) {
+			length += count;
+			if (length == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+		}
+		try {
+			return new ClassFileSummary(buffer, length);
+		}
+		catch (IndexOutOfBoundsException ex) {
+			throw new IOException("Truncated class file", ex);
+		}
+	}
+
+	private final byte[] bytes;
+	private final int length;
+	private int position;
+
+	private final int[] utf8Offsets;
+	private final String[] utf8Constants;
+	private final int[] classNameIndices;
+	private final List<String> superTypes = new ArrayList<>();
+	private final Set<String> annotationTypes = new LinkedHashSet<>();
+	private final Set<String> methodReturnTypes = new LinkedHashSet<>();
+	private final List<String> memberClasses = new ArrayList<>();
+
+	private ClassFileSummary(byte[] bytes, int length) throws IOException {
+		this.bytes = bytes;
+		this.length = length;
+		if (readInt() != MAGIC) {
+			throw new IOException("Not a class file");
+		}
+		skip(4); // minor and major version
+
+		int constantPoolCount = readUnsignedShort();
+		this.utf8Offsets = new int[constantPoolCount];
+		this.utf8Constants = new String[constantPoolCount];
+		this.classNameIndices = new int[constantPoolCount];
+		readConstantPool();
+
+		skip(2); // access flags
+		int thisClass = readUnsignedShort();
+		int superClass = readUnsignedShort();
+		if (superClass != 0) {
+			this.superTypes.add(className(superClass));
+		}
+		int interfacesCount = readUnsignedShort();
+		for (int i = 0; i < interfacesCount; i++) {
+			this.superTypes.add(className(readUnsignedShort()));
+		}
+
+		int fieldsCount = readUnsignedShort();
+		for (int i = 0; i < fieldsCount; i++) {
+			readMember(false);
+		}
+		int methodsCount = readUnsignedShort();
+		for (int i = 0; i < methodsCount; i++) {
+			readMember(true);
+		}
+
+		int attributesCount = readUnsignedShort();
+		for (int i = 0; i < attributesCount; i++) {
+			int nameIndex = readUnsignedShort();
+			int attributeLength = readInt();
+			if (utf8Equals(nameIndex, RUNTIME_VISIBLE_ANNOTATIONS)) {
+				readAnnotations();
+			}
+			else if (utf8Equals(nameIndex, INNER_CLASSES)) {
+				readInnerClasses(thisClass);
+			}
+			else {
+				skip(attributeLength);
+			}
+		}
+	}
+
+	/**
+	 * Get the superclass, unless the class is {@code java.lang.Object}, and
+	 * all directly implemented interfaces.
+	 */
+	List<String> getSuperTypes() {
+		return Collections.unmodifiableList(this.superTypes);
+	}
+
+	/**
+	 * Get the types of all runtime-visible annotations of the class, its
+	 * fields and methods, including annotations nested in their values.
+	 */
+	Set<String> getAnnotationTypes() {
+		return Collections.unmodifiableSet(this.annotationTypes);
+	}
+
+	/**
+	 * Get the return types of all declared methods that return an object
+	 * that is not an array.
+	 */
+	Set<String> getMethodReturnTypes() {
+		return Collections.unmodifiableSet(this.methodReturnTypes);
+	}
+
+	/**
+	 * Get all member classes declared by the class.
+	 */
+	List<String> getMemberClasses() {
+		return Collections.unmodifiableList(this.memberClasses);
+	}
+
+	private void readConstantPool() throws IOException {
+		for (int i = 1; i < this.utf8Offsets.length; i++) {
+			int tag = readUnsignedByte();
+			switch (tag) {
+				case 1: // Utf8
+					this.utf8Offsets[i] = this.position;
+					skip(readUnsignedShort());
+					break;
+				case 7: // Class
+					this.classNameIndices[i] = readUnsignedShort();
+					break;
+				case 8: // String
+				case 16: // MethodType
+				case 19: // Module
+				case 20: // Package
+					skip(2);
+					break;
+				case 15: // MethodHandle
+					skip(3);
+					break;
+				case 3: // Integer
+				case 4: // Float
+				case 9: // Fieldref
+				case 10: // Methodref
+				case 11: // InterfaceMethodref
+				case 12: // NameAndType
+				case 17: // Dynamic
+				case 18: // InvokeDynamic
+					skip(4);
+					break;
+				case 5: // Long
+				case 6: // Double
+					skip(8);
+					i++;
+					break;
+				default:
+					throw new IOException("Invalid constant pool tag: " + tag);
+			}
+		}
+	}
+
+	private void readMember(boolean method) throws IOException {
+		skip(4); // access flags and name
+		int descriptorIndex = readUnsignedShort();
+		if (method && returnsObject(descriptorIndex)) {
+			String descriptor = utf8(descriptorIndex);
+			this.methodReturnTypes.add(typeName(descriptor.substring(descriptor.lastIndexOf(')') + 1)));
+		}
+		int attributesCount = readUnsignedShort();
+		for (int i = 0; i < attributesCount; i++) {
+			int nameIndex = readUnsignedShort();
+			int attributeLength = readInt();
+			if (utf8Equals(nameIndex, RUNTIME_VISIBLE_ANNOTATIONS)) {
+				readAnnotations();
+			}
+			else {
+				skip(attributeLength);
+			}
+		}
+	}
+
+	private void readAnnotations() throws IOException {
+		int annotationsCount = readUnsignedShort();
+		for (int i = 0; i < annotationsCount; i++) {
+			readAnnotation();
+		}
+	}
+
+	private void readAnnotation() throws IOException {
+		this.annotationTypes.add(typeName(utf8(readUnsignedShort())));
+		int elementValuePairsCount = readUnsignedShort();
+		for (int i = 0; i < elementValuePairsCount; i++) {
+			skip(2); // element name
+			readElementValue();
+		}
+	}
+
+	private void readElementValue() throws IOException {
+		int tag = readUnsignedByte();
+		switch (tag) {
+			case 'e': // enum constant: type and constant name
+				skip(4);
+				break;
+			case '@':
+				readAnnotation();
+				break;
+			case '[':
+				int valuesCount = readUnsignedShort();
+				for (int i = 0; i < valuesCount; i++) {
+					readElementValue();
+				}
+				break;
+			default: // constant or class literal
+				skip(2);
+		}
+	}
+
+	private void readInnerClasses(int thisClass) throws IOException {
+		int classesCount = readUnsignedShort();
+		for (int i = 0; i < classesCount; i++) {
+			int innerClass = readUnsignedShort();
+			int outerClass = readUnsignedShort();
+			skip(4); // inner name and inner class access flags
+			if (outerClass == thisClass && innerClass != 0) {
+				this.memberClasses.add(className(innerClass));
+			}
+		}
+	}
+
+	private String className(int classIndex) throws IOException {
+		if (classIndex >= this.classNameIndices.length) {
+			throw new IOException("Invalid class index: " + classIndex);
+		}
+		return utf8(this.classNameIndices[classIndex]);
+	}
+
+	/**
+	 * Determine whether the method descriptor with the supplied index
+	 * denotes an object type as its return type without decoding it.
+	 */
+	private boolean returnsObject(int descriptorIndex) throws IOException {
+		int offset = utf8Offset(descriptorIndex);
+		int end = offset + 2 + utf8Length(offset);
+		for (int i = end - 1; i > offset + 1; i--) {
+			if (this.bytes[i] == ')') {
+				return i + 1 < end && this.bytes[i + 1] == 'L';
+			}
+		}
+		return false;
+	}
+
+	private String utf8(int index) throws IOException {
+		int offset = utf8Offset(index);
+		String value = this.utf8Constants[index];
+		if (value == null) {
+			int utf8Length = utf8Length(offset);
+			boolean ascii = true;
+			for (int i = offset + 2; i < offset + 2 + utf8Length && ascii; i++) {
+				ascii = this.bytes[i] > 0;
+			}
+			value = ascii ? new String(this.bytes, offset + 2, utf8Length, US_ASCII)
+					: new DataInputStream(new ByteArrayInputStream(this.bytes, offset, this.length - offset)).readUTF();
+			this.utf8Constants[index] = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Compare the supplied ASCII bytes to the UTF-8 constant with the
+	 * supplied index without decoding it.
+	 */
+	private boolean utf8Equals(int index, byte[] ascii) throws IOException {
+		int offset = utf8Offset(index);
+		if (utf8Length(offset) != ascii.length) {
+			return false;
+		}
+		for (int i = 0; i < ascii.length; i++) {
+			if (this.bytes[offset + 2 + i] != ascii[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int utf8Offset(int index) throws IOException {
+		int offset = index < this.utf8Offsets.length ? this.utf8Offsets[index] : 0;
+		if (offset == 0) {
+			throw new IOException("Invalid UTF-8 constant index: " + index);
+		}
+		return offset;
+	}
+
+	private int utf8Length(int offset) {
+		return ((this.bytes[offset] & 0xFF) << 8) | (this.bytes[offset + 1] & 0xFF);
+	}
+
+	private static String typeName(String descriptor) {
+		if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
+			return descriptor.substring(1, descriptor.length() - 1);
+		}
+		return descriptor;
+	}
+
+	private int readUnsignedByte() throws IOException {
+		if (this.position >= this.length) {
+			throw new IOException("Truncated class file");
+		}
+		return this.bytes[this.position++] & 0xFF;
+	}
+
+	private int readUnsignedShort() throws IOException {
+		return (readUnsignedByte() << 8) | readUnsignedByte();
+	}
+
+	private int readInt() throws IOException {
+		return (readUnsignedShort() << 16) | readUnsignedShort();
+	}
+
+	private void skip(int count) throws IOException {
+		if (count < 0 || this.position + count > this.length) {
+			throw new IOException("Truncated class file");
+		}
+		this.position += count;
+	}
+
+}
@@ -37,7 +37,7 @@ class ClassFileVisitor extends SimpleFileVisitor<Path> {
 
 	@Override
 	public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
-		if (isNotPackageInfo(file) && isNotModuleInfo(file) && isClassFile(file)) {
+		if (isScannedClassFile(file)) {
 			classFileConsumer.accept(file);
 		}
 		return CONTINUE;
@@ -57,6 +57,14 @@ class ClassFileVisitor extends SimpleFileVisitor<Path> {
 		return CONTINUE;
 	}
 
+	/**
+	 * Determine whether the supplied file is a class file that is passed to
+	 * the consumer of this visitor.
+	 */
+	static boolean isScannedClassFile(Path file) {
+		return isNotPackageInfo(file) && isNotModuleInfo(file) && isClassFile(file);
+	}
+
 	private static boolean isNotPackageInfo(Path path) {
 		return !path.endsWith(PACKAGE_INFO_FILE_NAME);
 	}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.logging.Level.WARNING;
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Scope in which all classpath scans performed via {@link ReflectionUtils}
+ * keep a persistent index of the classpath roots they traverse in a
+ * directory, regardless of the thread performing them.
+ *
+ * <p>While a scope is open, the index of a directory contains the names of
+ * the class files and subdirectories of each of its subdirectories along
+ * with their modification times. A later scan of the same directory only
+ * lists the subdirectories whose modification time has changed and reuses
+ * the stored listings for all others. The index of a JAR file contains the
+ * names of its class files and is reused as long as the size and
+ * modification time of the JAR file are unchanged. Listings of directories
+ * and JAR files modified less than {@value #RACY_INTERVAL_MILLIS} ms before
+ * they were read are not stored, since they might change again without
+ * changing their modification time.
+ *
+ * <p>Each classpath root is stored in a file of its own. Unreadable files
+ * are ignored and failures to write them are logged.
+ *
+ * <p>Only one scope is in effect at a time; opening a new scope while
+ * another one is open replaces it until the new one is closed.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.0
+ */
+@API(Internal)
+public final class ClasspathIndex implements AutoCloseable {
+
+	static final long RACY_INTERVAL_MILLIS = 2000;
+
+	private static final Logger LOG = Logger.getLogger(ClasspathIndex.class.getName());
+
+	private static final String FORMAT_VERSION = "1";
+
+	private static final Object lock = new Object();
+
+	private static volatile ClasspathIndex current;
+
+	/**
+	 * Open a new scope in which the index of each classpath root is stored
+	 * in the supplied directory.
+	 *
+	 * @param directory the directory to store the index in; never
+	 * {@code null}; created on demand
+	 * @return the new scope; never {@code null}
+	 */
+	public static ClasspathIndex open(Path directory) {
+		Preconditions.notNull(directory, "directory must not be null");
+		synchronized (lock) {
+			ClasspathIndex scope = new ClasspathIndex(current, directory);
+			current = scope;
+			return scope;
+		}
+	}
+
+	/**
+	 * Get the index of the supplied directory in the scope currently in
+	 * effect.
+	 *
+	 * @return the index, which must be {@linkplain DirectoryIndex#save()
+	 * saved} after the directory has been traversed; empty if no scope is
+	 * open or the directory is not located in the default file system
+	 */
+	static Optional<DirectoryIndex> getDirectoryIndex(Path baseDir) {
+		ClasspathIndex scope = current;
+		if (scope == null || baseDir.getFileSystem() != FileSystems.getDefault()) {
+			return Optional.empty();
+		}
+		Path absoluteBaseDir = baseDir.toAbsolutePath().normalize();
+		return Optional.of(DirectoryIndex.load(absoluteBaseDir, scope.resolveFile("directory", absoluteBaseDir)));
+	}
+
+	/**
+	 * Get the index of the supplied JAR file from the scope currently in
+	 * effect, reading and storing it if no index is stored or the stored
+	 * index is out of date.
+	 *
+	 * @throws IOException if the JAR file cannot be read
+	 */
+	static JarIndex getJarIndex(Path jarFile) throws IOException {
+		ClasspathIndex scope = current;
+		if (scope == null) {
+			return JarIndex.read(jarFile);
+		}
+		Path file = scope.resolveFile("jar", jarFile);
+		Optional<JarIndex> storedJarIndex = JarIndex.load(file, jarFile);
+		if (storedJarIndex.isPresent() && storedJarIndex.get().isUpToDate()) {
+			return storedJarIndex.get();
+		}
+		long readTime = System.currentTimeMillis();
+		JarIndex jarIndex = JarIndex.read(jarFile);
+		if (readTime - jarIndex.getLastModifiedMillis() >= RACY_INTERVAL_MILLIS) {
+			jarIndex.store(file);
+		}
+		return jarIndex;
+	}
+
+	/**
+	 * Read the lines of the supplied index file following its header, which
+	 * consists of the format version and the supplied path.
+	 *
+	 * @return the lines; empty if the file does not exist, cannot be read, or
+	 * has a different header
+	 */
+	static Optional<List<String>> readLines(Path file, Path path) {
+		if (file == null || !Files.isRegularFile(file)) {
+			return Optional.empty();
+		}
+		try {
+			List<String> lines = Files.readAllLines(file, UTF_8);
+			if (lines.size() < 2 || !lines.get(0).equals(FORMAT_VERSION) || !lines.get(1).equals(path.toString())) {
+				return Optional.empty();
+			}
+			return Optional.of(lines.subList(2, lines.size()));
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Ignoring unreadable classpath index file: " + file);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Atomically replace the supplied index file with the header for the
+	 * supplied path followed by the supplied lines.
+	 */
+	static void writeLines(Path file, Path path, List<String> lines) {
+		List<String> allLines = new ArrayList<>(lines.size() + 2);
+		allLines.add(FORMAT_VERSION);
+		allLines.add(path.toString());
+		allLines.addAll(lines);
+		Path tempFile = null;
+		try {
+			Files.createDirectories(file.getParent());
+			tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			Files.write(tempFile, allLines, UTF_8);
+			Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Failed to write classpath index file: " + file);
+			deleteSilently(tempFile);
+		}
+	}
+
+	private static void deleteSilently(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException ex) {
+			// ignore
+		}
+	}
+
+	private final ClasspathIndex previous;
+	private final Path directory;
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+
+	private ClasspathIndex(ClasspathIndex previous, Path directory) {
+		this.previous = previous;
+		this.directory = directory;
+	}
+
+	private Path resolveFile(String kind, Path path) {
+		return this.directory.resolve(kind + "-" + hash(path.toString()));
+	}
+
+	private static String hash(String value) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new JUnitException("SHA-256 is not supported by this JVM", ex);
+		}
+		StringBuilder builder = new StringBuilder();
+		for (byte b : digest.digest(value.getBytes(UTF_8))) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Close this scope.
+	 *
+	 * <p>Closing a scope more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (this.closed.compareAndSet(false, true)) {
+			synchronized (lock) {
+				if (current == this) {
+					ClasspathIndex scope = this.previous;
+					while (scope != null && scope.closed.get()) {
+						scope = scope.previous;
+					}
+					current = scope;
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).append("directory", this.directory).toString();
+	}
+
+}
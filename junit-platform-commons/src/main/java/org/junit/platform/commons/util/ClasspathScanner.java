@@ -11,23 +11,32 @@
 package org.junit.platform.commons.util;
 
 import static java.lang.String.format;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static org.junit.platform.commons.meta.API.Usage.Internal;
 import static org.junit.platform.commons.util.BlacklistedExceptions.rethrowIfBlacklisted;
 import static org.junit.platform.commons.util.ClassFileVisitor.CLASS_FILE_SUFFIX;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASSPATH_ROOT;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASS_LOAD;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -56,6 +65,10 @@ class ClasspathScanner {
 	private static final char CLASSPATH_RESOURCE_PATH_SEPARATOR = '/';
 	private static final char PACKAGE_SEPARATOR_CHAR = '.';
 	private static final String PACKAGE_SEPARATOR_STRING = String.valueOf(PACKAGE_SEPARATOR_CHAR);
+	private static final String FILE_URI_SCHEME = "file";
+	private static final String JAR_URI_SCHEME = "jar";
+	private static final String JAR_FILE_EXTENSION = ".jar";
+	private static final String JAR_URI_SEPARATOR = "!";
 
 	/** Malformed class name InternalError like reported in #401. */
 	private static final String MALFORMED_CLASS_NAME_ERROR_MESSAGE = "Malformed class name";
@@ -85,33 +98,81 @@ class ClasspathScanner {
 
 	List<Class<?>> scanForClassesInPackage(String basePackageName, Predicate<Class<?>> classFilter,
 			Predicate<String> classNameFilter) {
+		return scanForClassesInPackage(basePackageName, null, classFilter, classNameFilter);
+	}
+
+	/**
+	 * @param classFilePrefilter the prefilter to apply to the class files of
+	 * classes that are included by the {@code classNameFilter} before they
+	 * are loaded; may be {@code null}
+	 */
+	List<Class<?>> scanForClassesInPackage(String basePackageName, ClassFilePrefilter classFilePrefilter,
+			Predicate<Class<?>> classFilter, Predicate<String> classNameFilter) {
 		assertPackageNameIsPlausible(basePackageName);
 		Preconditions.notNull(classFilter, "classFilter must not be null");
 		Preconditions.notNull(classNameFilter, "classNameFilter must not be null");
 		basePackageName = basePackageName.trim();
 
+		ClassLoader classLoader = getClassLoader();
 		return findClassesForUris(getRootUrisForPackage(basePackageName), basePackageName, classFilter,
-			classNameFilter);
+			prefilter(classNameFilter, classFilePrefilter, classLoader), classLoader);
 	}
 
 	List<Class<?>> scanForClassesInClasspathRoot(URI root, Predicate<Class<?>> classFilter,
 			Predicate<String> classNameFilter) {
+		return scanForClassesInClasspathRoot(root, null, classFilter, classNameFilter);
+	}
+
+	/**
+	 * @param classFilePrefilter the prefilter to apply to the class files of
+	 * classes that are included by the {@code classNameFilter} before they
+	 * are loaded; may be {@code null}
+	 */
+	List<Class<?>> scanForClassesInClasspathRoot(URI root, ClassFilePrefilter classFilePrefilter,
+			Predicate<Class<?>> classFilter, Predicate<String> classNameFilter) {
 		Preconditions.notNull(root, "root must not be null");
 		Preconditions.notNull(classFilter, "classFilter must not be null");
 		Preconditions.notNull(classNameFilter, "classNameFilter must not be null");
 
-		return findClassesForUri(root, DEFAULT_PACKAGE_NAME, classFilter, classNameFilter);
+		ClassLoader classLoader = getClassLoader();
+		return findClassesForUri(root, DEFAULT_PACKAGE_NAME, classFilter,
+			prefilter(classNameFilter, classFilePrefilter, classLoader), classLoader);
+	}
+
+	private static Predicate<String> prefilter(Predicate<String> classNameFilter,
+			ClassFilePrefilter classFilePrefilter, ClassLoader classLoader) {
+		if (classFilePrefilter == null) {
+			return classNameFilter;
+		}
+		return classNameFilter.and(classFilePrefilter.createClassNameFilter(classLoader));
 	}
 
 	/**
-	 * Recursively scan for classes in all of the supplied source directories.
+	 * Recursively scan for classes in all of the supplied source directories,
+	 * concurrently if a {@link ParallelClasspathScan} is in effect.
 	 */
 	private List<Class<?>> findClassesForUris(List<URI> baseUris, String basePackageName,
-			Predicate<Class<?>> classFilter, Predicate<String> classNameFilter) {
+			Predicate<Class<?>> classFilter, Predicate<String> classNameFilter, ClassLoader classLoader) {
+
+		ForkJoinPool forkJoinPool = ParallelClasspathScan.getForkJoinPool();
+		if (forkJoinPool != null && baseUris.size() > 1) {
+			List<ForkJoinTask<List<Class<?>>>> tasks = new ArrayList<>(baseUris.size());
+			for (URI baseUri : baseUris) {
+				tasks.add(forkJoinPool.submit(
+					() -> findClassesForUri(baseUri, basePackageName, classFilter, classNameFilter, classLoader)));
+			}
+			// @formatter:off
+			return tasks.stream()
+					.map(ForkJoinTask::join)
+					.flatMap(Collection::stream)
+					.distinct()
+					.collect(toList());
+			// @formatter:on
+		}
 
 		// @formatter:off
 		return baseUris.stream()
-				.map(baseUri -> findClassesForUri(baseUri, basePackageName, classFilter, classNameFilter))
+				.map(baseUri -> findClassesForUri(baseUri, basePackageName, classFilter, classNameFilter, classLoader))
 				.flatMap(Collection::stream)
 				.distinct()
 				.collect(toList());
@@ -119,10 +180,40 @@ class ClasspathScanner {
 	}
 
 	private List<Class<?>> findClassesForUri(URI baseUri, String basePackageName, Predicate<Class<?>> classFilter,
-			Predicate<String> classNameFilter) {
-		try (CloseablePath closeablePath = CloseablePath.create(baseUri)) {
-			Path baseDir = closeablePath.getPath();
-			return findClassesForPath(baseDir, basePackageName, classFilter, classNameFilter);
+			Predicate<String> classNameFilter, ClassLoader classLoader) {
+		List<ClassFile> classFiles = SharedClasspathScan.getClassFiles(baseUri, basePackageName,
+			() -> findClassFilesForUri(baseUri, basePackageName));
+		ForkJoinPool forkJoinPool = ParallelClasspathScan.getForkJoinPool();
+		if (forkJoinPool != null && classFiles.size() > ParallelClasspathScan.CLASS_LOAD_CHUNK_SIZE) {
+			Class<?>[] classes = new Class<?>[classFiles.size()];
+			ParallelClasspathScan.invoke(forkJoinPool,
+				new LoadClassesTask(classFiles, 0, classes.length, classFilter, classNameFilter, classLoader, classes));
+			List<Class<?>> result = new ArrayList<>();
+			for (Class<?> clazz : classes) {
+				if (clazz != null) {
+					result.add(clazz);
+				}
+			}
+			return result;
+		}
+		List<Class<?>> classes = new ArrayList<>();
+		for (ClassFile classFile : classFiles) {
+			processClassFileSafely(classFile, classFilter, classNameFilter, classLoader, classes::add);
+		}
+		return classes;
+	}
+
+	private List<ClassFile> findClassFilesForUri(URI baseUri, String basePackageName) {
+		long startTime = DiscoveryProfile.start();
+		try {
+			Optional<Path> jarFile = getLocalJarFile(baseUri);
+			if (jarFile.isPresent()) {
+				return findClassFilesInJarFile(jarFile.get(), getJarEntryDirectory(baseUri), basePackageName);
+			}
+			try (CloseablePath closeablePath = CloseablePath.create(baseUri)) {
+				Path baseDir = closeablePath.getPath();
+				return findClassFilesForPath(baseDir, basePackageName);
+			}
 		}
 		catch (PreconditionViolationException ex) {
 			throw ex;
@@ -131,37 +222,155 @@ class ClasspathScanner {
 			logWarning(ex, () -> "Error scanning files for URI " + baseUri);
 			return emptyList();
 		}
+		finally {
+			DiscoveryProfile.record(CLASSPATH_ROOT, baseUri.toString(), startTime);
+		}
 	}
 
-	private List<Class<?>> findClassesForPath(Path baseDir, String basePackageName, Predicate<Class<?>> classFilter,
-			Predicate<String> classNameFilter) {
+	/**
+	 * Get the JAR file denoted by the supplied URI if it is a local file,
+	 * either directly or via a {@code jar} URI that refers to a directory in
+	 * it. Other URIs, including those of nested JAR files, are traversed via
+	 * a zip file system.
+	 */
+	private static Optional<Path> getLocalJarFile(URI uri) throws URISyntaxException {
+		URI fileUri = uri;
+		if (JAR_URI_SCHEME.equals(uri.getScheme())) {
+			String schemeSpecificPart = uri.getRawSchemeSpecificPart();
+			int separatorIndex = schemeSpecificPart.indexOf(JAR_URI_SEPARATOR);
+			if (separatorIndex < 0 || separatorIndex != schemeSpecificPart.lastIndexOf(JAR_URI_SEPARATOR)) {
+				return Optional.empty();
+			}
+			fileUri = new URI(schemeSpecificPart.substring(0, separatorIndex));
+		}
+		if (!FILE_URI_SCHEME.equals(fileUri.getScheme()) || !fileUri.getPath().endsWith(JAR_FILE_EXTENSION)) {
+			return Optional.empty();
+		}
+		Path jarFile = Paths.get(fileUri).toAbsolutePath().normalize();
+		return Files.isRegularFile(jarFile) ? Optional.of(jarFile) : Optional.empty();
+	}
+
+	/**
+	 * Get the entry name of the directory in a JAR file the supplied URI
+	 * refers to, ending with a slash, or an empty string for its root.
+	 */
+	private static String getJarEntryDirectory(URI uri) {
+		if (!JAR_URI_SCHEME.equals(uri.getScheme())) {
+			return "";
+		}
+		String schemeSpecificPart = uri.getRawSchemeSpecificPart();
+		String entryPath = URI.create(
+			schemeSpecificPart.substring(schemeSpecificPart.indexOf(JAR_URI_SEPARATOR) + 1)).getPath();
+		String directory = entryPath.startsWith("/") ? entryPath.substring(1) : entryPath;
+		return directory.isEmpty() || directory.endsWith("/") ? directory : directory + '/';
+	}
+
+	private List<ClassFile> findClassFilesInJarFile(Path jarFile, String directory, String basePackageName)
+			throws IOException {
+		JarIndex jarIndex = JarIndexCache.getJarIndex(jarFile);
+		List<ClassFile> classFiles = new ArrayList<>();
+		for (String classFile : jarIndex.getClassFiles(directory)) {
+			String relativeClassName = classFile.substring(directory.length()).replace(
+				CLASSPATH_RESOURCE_PATH_SEPARATOR, PACKAGE_SEPARATOR_CHAR);
+			String fullyQualifiedClassName = basePackageName.isEmpty() ? relativeClassName
+					: basePackageName + PACKAGE_SEPARATOR_CHAR + relativeClassName;
+			classFiles.add(new ClassFile(fullyQualifiedClassName,
+				jarFile + JAR_URI_SEPARATOR + '/' + classFile + CLASS_FILE_SUFFIX));
+		}
+		return classFiles;
+	}
+
+	private List<ClassFile> findClassFilesForPath(Path baseDir, String basePackageName) {
 		Preconditions.condition(Files.exists(baseDir), () -> "baseDir must exist: " + baseDir);
-		List<Class<?>> classes = new ArrayList<>();
+		ForkJoinPool forkJoinPool = ParallelClasspathScan.getForkJoinPool();
+		boolean directory = Files.isDirectory(baseDir, NOFOLLOW_LINKS);
+		if (directory) {
+			Optional<List<ClassFile>> indexedClassFiles = findIndexedClassFiles(baseDir, basePackageName);
+			if (indexedClassFiles.isPresent()) {
+				return indexedClassFiles.get();
+			}
+		}
+		Optional<DirectoryIndex> directoryIndex = directory ? ClasspathIndex.getDirectoryIndex(baseDir)
+				: Optional.empty();
+		if ((forkJoinPool != null && directory) || directoryIndex.isPresent()) {
+			FindClassFilesTask task = new FindClassFilesTask(baseDir, baseDir, basePackageName,
+				directoryIndex.orElseGet(() -> DirectoryIndex.unpersisted(baseDir)));
+			List<ClassFile> classFiles = forkJoinPool != null ? ParallelClasspathScan.invoke(forkJoinPool, task)
+					: task.compute();
+			directoryIndex.ifPresent(DirectoryIndex::save);
+			return classFiles;
+		}
+		List<ClassFile> classFiles = new ArrayList<>();
 		try {
-			Files.walkFileTree(baseDir, new ClassFileVisitor(classFile -> processClassFileSafely(baseDir,
-				basePackageName, classFilter, classNameFilter, classFile, classes::add)));
+			Files.walkFileTree(baseDir,
+				new ClassFileVisitor(classFile -> addClassFileSafely(baseDir, basePackageName, classFile, classFiles)));
 		}
 		catch (IOException ex) {
 			logWarning(ex, () -> "I/O error scanning files in " + baseDir);
 		}
-		return classes;
+		return classFiles;
 	}
 
-	private void processClassFileSafely(Path baseDir, String basePackageName, Predicate<Class<?>> classFilter,
-			Predicate<String> classNameFilter, Path classFile, Consumer<Class<?>> classConsumer) {
-		Optional<Class<?>> clazz = Optional.empty();
+	/**
+	 * Find the class files of the supplied package and its subpackages that
+	 * are listed in the {@link TestClassIndex} of the classpath root directory
+	 * of the supplied base directory, if it has one.
+	 */
+	private Optional<List<ClassFile>> findIndexedClassFiles(Path baseDir, String basePackageName) {
+		Path classpathRoot = baseDir;
+		if (!basePackageName.isEmpty()) {
+			Path packageDir = baseDir.getFileSystem().getPath(packagePath(basePackageName));
+			if (!baseDir.endsWith(packageDir)) {
+				return Optional.empty();
+			}
+			for (int i = 0; i < packageDir.getNameCount() && classpathRoot != null; i++) {
+				classpathRoot = classpathRoot.getParent();
+			}
+			if (classpathRoot == null) {
+				return Optional.empty();
+			}
+		}
+		Path root = classpathRoot;
+		String prefix = basePackageName.isEmpty() ? "" : basePackageName + PACKAGE_SEPARATOR_CHAR;
+		return TestClassIndex.getClassNames(root).map(classNames -> {
+			List<ClassFile> classFiles = new ArrayList<>();
+			for (String className : classNames) {
+				if (className.startsWith(prefix)) {
+					classFiles.add(new ClassFile(className,
+						root.resolve(packagePath(className) + CLASS_FILE_SUFFIX).toAbsolutePath().toString()));
+				}
+			}
+			return classFiles;
+		});
+	}
+
+	private void addClassFileSafely(Path baseDir, String basePackageName, Path classFile,
+			List<ClassFile> classFiles) {
 		try {
 			String fullyQualifiedClassName = determineFullyQualifiedClassName(baseDir, basePackageName, classFile);
-			if (classNameFilter.test(fullyQualifiedClassName)) {
-				clazz = this.loadClass.apply(fullyQualifiedClassName, getClassLoader());
+			classFiles.add(new ClassFile(fullyQualifiedClassName, classFile.toAbsolutePath().toString()));
+		}
+		catch (Throwable throwable) {
+			handleThrowable(classFile.toAbsolutePath().toString(), throwable);
+		}
+	}
+
+	private void processClassFileSafely(ClassFile classFile, Predicate<Class<?>> classFilter,
+			Predicate<String> classNameFilter, ClassLoader classLoader, Consumer<Class<?>> classConsumer) {
+		Optional<Class<?>> clazz = Optional.empty();
+		try {
+			if (classNameFilter.test(classFile.getClassName())) {
+				long startTime = DiscoveryProfile.start();
+				clazz = this.loadClass.apply(classFile.getClassName(), classLoader);
+				DiscoveryProfile.record(CLASS_LOAD, classFile.getClassName(), startTime);
 				clazz.filter(classFilter).ifPresent(classConsumer);
 			}
 		}
 		catch (InternalError internalError) {
-			handleInternalError(classFile, clazz, internalError);
+			handleInternalError(classFile.getLocation(), clazz, internalError);
 		}
 		catch (Throwable throwable) {
-			handleThrowable(classFile, throwable);
+			handleThrowable(classFile.getLocation(), throwable);
 		}
 	}
 
@@ -193,43 +402,43 @@ class ClasspathScanner {
 		return subpackageName;
 	}
 
-	private void handleInternalError(Path classFile, Optional<Class<?>> clazz, InternalError ex) {
+	private void handleInternalError(String location, Optional<Class<?>> clazz, InternalError ex) {
 		if (MALFORMED_CLASS_NAME_ERROR_MESSAGE.equals(ex.getMessage())) {
-			logMalformedClassName(classFile, clazz, ex);
+			logMalformedClassName(location, clazz, ex);
 		}
 		else {
-			logGenericFileProcessingException(classFile, ex);
+			logGenericFileProcessingException(location, ex);
 		}
 	}
 
-	private void handleThrowable(Path classFile, Throwable throwable) {
+	private void handleThrowable(String location, Throwable throwable) {
 		rethrowIfBlacklisted(throwable);
-		logGenericFileProcessingException(classFile, throwable);
+		logGenericFileProcessingException(location, throwable);
 	}
 
-	private void logMalformedClassName(Path classFile, Optional<Class<?>> clazz, InternalError ex) {
+	private void logMalformedClassName(String location, Optional<Class<?>> clazz, InternalError ex) {
 		try {
 			if (clazz.isPresent()) {
 				// Do not use getSimpleName() or getCanonicalName() here because they will likely
 				// throw another exception due to the underlying error.
 				logWarning(ex,
 					() -> format("The java.lang.Class loaded from path [%s] has a malformed class name [%s].",
-						classFile.toAbsolutePath(), clazz.get().getName()));
+						location, clazz.get().getName()));
 			}
 			else {
 				logWarning(ex, () -> format("The java.lang.Class loaded from path [%s] has a malformed class name.",
-					classFile.toAbsolutePath()));
+					location));
 			}
 		}
 		catch (Throwable t) {
 			ex.addSuppressed(t);
-			logGenericFileProcessingException(classFile, ex);
+			logGenericFileProcessingException(location, ex);
 		}
 	}
 
-	private void logGenericFileProcessingException(Path classFile, Throwable throwable) {
+	private void logGenericFileProcessingException(String location, Throwable throwable) {
 		logWarning(throwable, () -> format("Failed to load java.lang.Class for path [%s] during classpath scanning.",
-			classFile.toAbsolutePath()));
+			location));
 	}
 
 	private ClassLoader getClassLoader() {
@@ -266,4 +475,111 @@ class ClasspathScanner {
 		LOG.log(Level.WARNING, throwable, msgSupplier);
 	}
 
+	/**
+	 * Finds the class files below a directory via the listings of a
+	 * {@link DirectoryIndex}. Inside a {@link ForkJoinPool}, each of its
+	 * subdirectories is traversed in a separate task; otherwise, they are
+	 * traversed one after another. Like {@link Files#walkFileTree}, it does
+	 * not follow symbolic links and lists class files in the order in which
+	 * entries are returned by their directories.
+	 */
+	private class FindClassFilesTask extends RecursiveTask<List<ClassFile>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path baseDir;
+		private final Path directory;
+		private final String basePackageName;
+		private final DirectoryIndex directoryIndex;
+
+		FindClassFilesTask(Path baseDir, Path directory, String basePackageName, DirectoryIndex directoryIndex) {
+			this.baseDir = baseDir;
+			this.directory = directory;
+			this.basePackageName = basePackageName;
+			this.directoryIndex = directoryIndex;
+		}
+
+		@Override
+		protected List<ClassFile> compute() {
+			List<ClassFile> classFiles = new ArrayList<>();
+			List<FindClassFilesTask> subtasks = new ArrayList<>();
+			List<Integer> positions = new ArrayList<>();
+			ClassFileVisitor visitor = new ClassFileVisitor(
+				classFile -> addClassFileSafely(this.baseDir, this.basePackageName, classFile, classFiles));
+			for (String entry : this.directoryIndex.list(this.directory, visitor)) {
+				Path path = this.directory.resolve(DirectoryIndex.getName(entry));
+				if (!DirectoryIndex.isDirectory(entry)) {
+					addClassFileSafely(this.baseDir, this.basePackageName, path, classFiles);
+				}
+				else if (inForkJoinPool()) {
+					FindClassFilesTask subtask = new FindClassFilesTask(this.baseDir, path, this.basePackageName,
+						this.directoryIndex);
+					subtask.fork();
+					subtasks.add(subtask);
+					positions.add(classFiles.size());
+				}
+				else {
+					classFiles.addAll(new FindClassFilesTask(this.baseDir, path, this.basePackageName,
+						this.directoryIndex).compute());
+				}
+			}
+			// Join in reverse order, so that the positions of earlier subdirectories remain valid.
+			for (int i = subtasks.size() - 1; i >= 0; i--) {
+				classFiles.addAll(positions.get(i), subtasks.get(i).join());
+			}
+			return classFiles;
+		}
+
+	}
+
+	/**
+	 * Loads the classes of a range of class files, splitting it into chunks
+	 * of up to {@value ParallelClasspathScan#CLASS_LOAD_CHUNK_SIZE} class
+	 * files, and stores the accepted ones at the positions of their class
+	 * files.
+	 */
+	private class LoadClassesTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<ClassFile> classFiles;
+		private final int from;
+		private final int to;
+		private final Predicate<Class<?>> classFilter;
+		private final Predicate<String> classNameFilter;
+		private final ClassLoader classLoader;
+		private final Class<?>[] classes;
+
+		LoadClassesTask(List<ClassFile> classFiles, int from, int to, Predicate<Class<?>> classFilter,
+				Predicate<String> classNameFilter, ClassLoader classLoader, Class<?>[] classes) {
+			this.classFiles = classFiles;
+			this.from = from;
+			this.to = to;
+			this.classFilter = classFilter;
+			this.classNameFilter = classNameFilter;
+			this.classLoader = classLoader;
+			this.classes = classes;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from > ParallelClasspathScan.CLASS_LOAD_CHUNK_SIZE) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(split(this.from, middle), split(middle, this.to));
+				return;
+			}
+			for (int i = this.from; i < this.to; i++) {
+				int index = i;
+				processClassFileSafely(this.classFiles.get(i), this.classFilter, this.classNameFilter,
+					this.classLoader, clazz -> this.classes[index] = clazz);
+			}
+		}
+
+		private LoadClassesTask split(int from, int to) {
+			return new LoadClassesTask(this.classFiles, from, to, this.classFilter, this.classNameFilter,
+				this.classLoader, this.classes);
+		}
+
+	}
+
 }
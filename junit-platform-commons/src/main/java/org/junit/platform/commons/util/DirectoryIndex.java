@@ -0,0 +1,238 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.Collections.emptyList;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listings of the directories below a base directory, each consisting of
+ * the names of the class files and subdirectories of a directory in the
+ * order in which they are returned by the directory, along with its
+ * modification time.
+ *
+ * <p>Names of subdirectories end with a slash. Like the
+ * {@link ClassFileVisitor}, listings exclude {@code package-info} and
+ * {@code module-info} class files and do not follow symbolic links.
+ *
+ * <p>An index that is not persistent lists every directory it is asked for.
+ * A persistent index reuses the stored listing of each directory whose
+ * modification time is unchanged and, when {@linkplain #save() saved},
+ * replaces the stored listings by those of the directories listed since it
+ * was loaded. It is safe for use by multiple threads, but meant to be used
+ * for a single traversal of its base directory only.
+ *
+ * @since 1.0
+ * @see ClasspathIndex
+ */
+final class DirectoryIndex {
+
+	private static final char DIRECTORY_SUFFIX = '/';
+	private static final String LISTING_PREFIX = "D\t";
+	private static final String ENTRY_PREFIX = "\t";
+
+	/**
+	 * Create an index of the supplied base directory that is not persistent.
+	 */
+	static DirectoryIndex unpersisted(Path baseDir) {
+		return new DirectoryIndex(baseDir, null, Collections.emptyMap());
+	}
+
+	/**
+	 * Load the index of the supplied base directory from the supplied index
+	 * file, which need not exist.
+	 */
+	static DirectoryIndex load(Path baseDir, Path file) {
+		Map<String, Listing> storedListings = new HashMap<>();
+		ClasspathIndex.readLines(file, baseDir).ifPresent(lines -> {
+			String key = null;
+			long lastModifiedMillis = 0;
+			List<String> entries = null;
+			try {
+				for (String line : lines) {
+					if (line.startsWith(ENTRY_PREFIX) && entries != null) {
+						entries.add(line.substring(ENTRY_PREFIX.length()));
+					}
+					else if (line.startsWith(LISTING_PREFIX)) {
+						if (key != null) {
+							storedListings.put(key, new Listing(lastModifiedMillis, entries));
+						}
+						String[] parts = line.split("\t", 3);
+						lastModifiedMillis = Long.parseLong(parts[1]);
+						key = parts[2];
+						entries = new ArrayList<>();
+					}
+					else {
+						throw new IllegalStateException("Invalid line: " + line);
+					}
+				}
+				if (key != null) {
+					storedListings.put(key, new Listing(lastModifiedMillis, entries));
+				}
+			}
+			catch (RuntimeException ex) {
+				storedListings.clear();
+			}
+		});
+		return new DirectoryIndex(baseDir, file, storedListings);
+	}
+
+	private final Path baseDir;
+	private final Path file;
+	private final Map<String, Listing> storedListings;
+	private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+	private volatile boolean modified;
+
+	private DirectoryIndex(Path baseDir, Path file, Map<String, Listing> storedListings) {
+		this.baseDir = baseDir;
+		this.file = file;
+		this.storedListings = storedListings;
+	}
+
+	/**
+	 * Get the names of the class files and subdirectories of the supplied
+	 * directory below the base directory, reporting I/O errors to the
+	 * supplied visitor.
+	 */
+	List<String> list(Path directory, ClassFileVisitor visitor) {
+		if (this.file == null) {
+			List<String> entries = new ArrayList<>();
+			read(directory, visitor, entries);
+			return entries;
+		}
+		String key = toKey(directory);
+		long lastModifiedMillis;
+		try {
+			lastModifiedMillis = Files.getLastModifiedTime(directory, NOFOLLOW_LINKS).toMillis();
+		}
+		catch (IOException ex) {
+			visitor.postVisitDirectory(directory, ex);
+			this.modified = true;
+			return emptyList();
+		}
+		Listing listing = this.storedListings.get(key);
+		if (listing == null || listing.lastModifiedMillis != lastModifiedMillis) {
+			long readTime = System.currentTimeMillis();
+			List<String> entries = new ArrayList<>();
+			boolean complete = read(directory, visitor, entries);
+			this.modified = true;
+			if (!complete || readTime - lastModifiedMillis < ClasspathIndex.RACY_INTERVAL_MILLIS) {
+				return entries;
+			}
+			listing = new Listing(lastModifiedMillis, entries);
+		}
+		this.listings.put(key, listing);
+		return listing.entries;
+	}
+
+	/**
+	 * Store the listings of all directories listed since this index was
+	 * loaded if any of them differs from the stored listings.
+	 */
+	void save() {
+		if (this.file == null || (!this.modified && this.listings.size() == this.storedListings.size())) {
+			return;
+		}
+		List<String> lines = new ArrayList<>();
+		this.listings.forEach((key, listing) -> {
+			lines.add(LISTING_PREFIX + listing.lastModifiedMillis + '\t' + key);
+			listing.entries.forEach(entry -> lines.add(ENTRY_PREFIX + entry));
+		});
+		ClasspathIndex.writeLines(this.file, this.baseDir, lines);
+	}
+
+	private String toKey(Path directory) {
+		return this.baseDir.relativize(directory.toAbsolutePath().normalize()).toString().replace(
+			directory.getFileSystem().getSeparator(), "/");
+	}
+
+	/**
+	 * Read the listing of the supplied directory into the supplied list.
+	 *
+	 * @return whether the directory could be listed completely and its
+	 * listing can be stored
+	 */
+	private static boolean read(Path directory, ClassFileVisitor visitor, List<String> entries) {
+		boolean complete = true;
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+			for (Path entry : directoryStream) {
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(entry, BasicFileAttributes.class, NOFOLLOW_LINKS);
+				}
+				catch (IOException ex) {
+					visitor.visitFileFailed(entry, ex);
+					complete = false;
+					continue;
+				}
+				String name = entry.getFileName().toString();
+				complete &= name.indexOf('\n') < 0 && name.indexOf('\r') < 0;
+				if (attributes.isDirectory()) {
+					entries.add(name + DIRECTORY_SUFFIX);
+				}
+				else if (ClassFileVisitor.isScannedClassFile(entry)) {
+					entries.add(name);
+				}
+			}
+		}
+		catch (IOException ex) {
+			visitor.postVisitDirectory(directory, ex);
+			complete = false;
+		}
+		catch (DirectoryIteratorException ex) {
+			visitor.postVisitDirectory(directory, ex.getCause());
+			complete = false;
+		}
+		return complete;
+	}
+
+	/**
+	 * Determine whether the supplied entry of a listing denotes a
+	 * subdirectory.
+	 */
+	static boolean isDirectory(String entry) {
+		return entry.charAt(entry.length() - 1) == DIRECTORY_SUFFIX;
+	}
+
+	/**
+	 * Get the name of the file or subdirectory denoted by the supplied entry
+	 * of a listing.
+	 */
+	static String getName(String entry) {
+		return isDirectory(entry) ? entry.substring(0, entry.length() - 1) : entry;
+	}
+
+	private static class Listing {
+
+		final long lastModifiedMillis;
+		final List<String> entries;
+
+		Listing(long lastModifiedMillis, List<String> entries) {
+			this.lastModifiedMillis = lastModifiedMillis;
+			this.entries = entries;
+		}
+
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Scope in which the durations of the steps of test discovery are recorded,
+ * regardless of the thread performing them.
+ *
+ * <p>Instrumented code obtains a start time via {@link #start()} before a
+ * step and {@linkplain #record(Section, Object, long) records} it
+ * afterwards. While no scope is open, both are no-ops apart from a volatile
+ * read. Durations recorded for the same section and name, e.g. a classpath
+ * root scanned by several engines, are summed up.
+ *
+ * <p>Only one scope records durations at a time; opening a new scope while
+ * another one is open replaces it until the new one is closed.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.0
+ */
+@API(Internal)
+public final class DiscoveryProfile implements AutoCloseable {
+
+	/**
+	 * The steps of test discovery that are recorded.
+	 */
+	public enum Section {
+
+		/** Discovery by a test engine, named by its ID. */
+		ENGINE,
+
+		/** Resolution of a discovery selector, named by the selector. */
+		SELECTOR,
+
+		/** Traversal of a classpath root or JAR file, named by its URI. */
+		CLASSPATH_ROOT,
+
+		/** Loading of a class found by a classpath scan, named by the class. */
+		CLASS_LOAD,
+
+		/**
+		 * Resolution of a class by a test engine, named by the class,
+		 * including any static initializers run in the process.
+		 */
+		CLASS_RESOLUTION
+
+	}
+
+	private static final Object lock = new Object();
+
+	private static volatile DiscoveryProfile current;
+
+	/**
+	 * Open a new scope in which discovery steps are recorded.
+	 *
+	 * @return the new scope; never {@code null}
+	 */
+	public static DiscoveryProfile open() {
+		synchronized (lock) {
+			DiscoveryProfile profile = new DiscoveryProfile(current);
+			current = profile;
+			return profile;
+		}
+	}
+
+	/**
+	 * Get the start time of a step to be {@linkplain #record recorded}.
+	 *
+	 * @return the current value of {@link System#nanoTime()} if a scope is
+	 * open; {@code 0} otherwise
+	 */
+	public static long start() {
+		return current != null ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Record that the step with the supplied section and name, which was
+	 * started at the supplied time, has just ended.
+	 *
+	 * <p>Has no effect if no scope is open or the step was started while no
+	 * scope was open.
+	 *
+	 * @param name the name of the step, which is converted to a string only
+	 * if the step is recorded
+	 * @param startTime the time returned by {@link #start()}
+	 */
+	public static void record(Section section, Object name, long startTime) {
+		DiscoveryProfile profile = current;
+		if (profile != null && startTime != 0L) {
+			profile.add(section, String.valueOf(name), System.nanoTime() - startTime);
+		}
+	}
+
+	private final DiscoveryProfile previous;
+	private final Map<Section, Map<String, Measurement>> measurements = new EnumMap<>(Section.class);
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+
+	private DiscoveryProfile(DiscoveryProfile previous) {
+		this.previous = previous;
+		for (Section section : Section.values()) {
+			this.measurements.put(section, new ConcurrentHashMap<>());
+		}
+	}
+
+	private void add(Section section, String name, long duration) {
+		this.measurements.get(section).computeIfAbsent(name, Measurement::new).add(duration);
+	}
+
+	/**
+	 * Get all measurements of the supplied section in descending order of
+	 * their total duration.
+	 */
+	public List<Measurement> getMeasurements(Section section) {
+		List<Measurement> result = new ArrayList<>(this.measurements.get(section).values());
+		result.sort(Comparator.comparingLong(Measurement::getTotalNanos).reversed().thenComparing(
+			Measurement::getName));
+		return result;
+	}
+
+	/**
+	 * Close this scope, so that it no longer records any durations.
+	 *
+	 * <p>Closing a scope more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (this.closed.compareAndSet(false, true)) {
+			synchronized (lock) {
+				if (current == this) {
+					DiscoveryProfile profile = this.previous;
+					while (profile != null && profile.closed.get()) {
+						profile = profile.previous;
+					}
+					current = profile;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The accumulated duration of all steps with the same section and name.
+	 */
+	@API(Internal)
+	public static final class Measurement {
+
+		private final String name;
+		private int count;
+		private long totalNanos;
+
+		private Measurement(String name) {
+			this.name = name;
+		}
+
+		private synchronized void add(long duration) {
+			this.count++;
+			this.totalNanos += duration;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public synchronized int getCount() {
+			return this.count;
+		}
+
+		public synchronized long getTotalNanos() {
+			return this.totalNanos;
+		}
+
+	}
+
+}
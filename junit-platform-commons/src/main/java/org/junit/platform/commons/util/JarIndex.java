@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.junit.platform.commons.util.ClassFileVisitor.CLASS_FILE_SUFFIX;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The names of all class files in a JAR file, read once from its central
+ * directory via a {@link ZipFile}, without reading any entries or creating
+ * {@link Path Paths} for them.
+ *
+ * <p>Class files are stored as entry names without their suffix, sorted so
+ * that the class files below a directory can be looked up by binary search.
+ * Like the {@link ClassFileVisitor}, the index excludes {@code package-info}
+ * and {@code module-info} class files. It also excludes class files below
+ * {@code META-INF}, such as versioned class files of multi-release JAR files,
+ * since their entry names do not denote their class names.
+ *
+ * @since 1.0
+ * @see JarIndexCache
+ * @see ClasspathIndex
+ */
+final class JarIndex {
+
+	private static final String PACKAGE_INFO_FILE_NAME = "package-info" + CLASS_FILE_SUFFIX;
+	private static final String MODULE_INFO_FILE_NAME = "module-info" + CLASS_FILE_SUFFIX;
+	private static final String META_INF_DIRECTORY = "META-INF/";
+
+	/**
+	 * Read the index of the supplied JAR file.
+	 *
+	 * @throws IOException if the JAR file cannot be read
+	 */
+	static JarIndex read(Path jarFile) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(jarFile, BasicFileAttributes.class);
+		List<String> classFiles = new ArrayList<>();
+		try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (isClassFile(name)) {
+					classFiles.add(name.substring(0, name.length() - CLASS_FILE_SUFFIX.length()));
+				}
+			}
+		}
+		String[] sortedClassFiles = classFiles.toArray(new String[classFiles.size()]);
+		Arrays.sort(sortedClassFiles);
+		return new JarIndex(jarFile, attributes.size(), attributes.lastModifiedTime().toMillis(), sortedClassFiles);
+	}
+
+	/**
+	 * Load the index of the supplied JAR file from the supplied index file.
+	 *
+	 * @return the index, which might be out of date; empty if the index file
+	 * does not exist or cannot be read
+	 * @see #store(Path)
+	 */
+	static Optional<JarIndex> load(Path file, Path jarFile) {
+		return ClasspathIndex.readLines(file, jarFile).flatMap(lines -> {
+			try {
+				String[] attributes = lines.get(0).split("\t");
+				String[] classFiles = lines.subList(1, lines.size()).toArray(new String[lines.size() - 1]);
+				return Optional.of(
+					new JarIndex(jarFile, Long.parseLong(attributes[0]), Long.parseLong(attributes[1]), classFiles));
+			}
+			catch (RuntimeException ex) {
+				return Optional.empty();
+			}
+		});
+	}
+
+	private static boolean isClassFile(String entryName) {
+		return entryName.endsWith(CLASS_FILE_SUFFIX) && !entryName.startsWith(META_INF_DIRECTORY)
+				&& !isFileName(entryName, PACKAGE_INFO_FILE_NAME) && !isFileName(entryName, MODULE_INFO_FILE_NAME);
+	}
+
+	private static boolean isFileName(String entryName, String fileName) {
+		return entryName.equals(fileName) || entryName.endsWith('/' + fileName);
+	}
+
+	private final Path jarFile;
+	private final long size;
+	private final long lastModifiedMillis;
+	private final String[] classFiles;
+
+	private JarIndex(Path jarFile, long size, long lastModifiedMillis, String[] classFiles) {
+		this.jarFile = jarFile;
+		this.size = size;
+		this.lastModifiedMillis = lastModifiedMillis;
+		this.classFiles = classFiles;
+	}
+
+	/**
+	 * Get the JAR file of this index.
+	 */
+	Path getJarFile() {
+		return this.jarFile;
+	}
+
+	/**
+	 * Get the last modified time of the JAR file when this index was read, in
+	 * milliseconds since the epoch.
+	 */
+	long getLastModifiedMillis() {
+		return this.lastModifiedMillis;
+	}
+
+	/**
+	 * Determine whether the JAR file still has the size and last modified
+	 * time it had when this index was read.
+	 */
+	boolean isUpToDate() {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(this.jarFile, BasicFileAttributes.class);
+			return attributes.size() == this.size
+					&& attributes.lastModifiedTime().toMillis() == this.lastModifiedMillis;
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Get the entry names of all class files below the supplied directory,
+	 * without their suffix, in lexicographical order.
+	 *
+	 * @param directory the entry name of the directory, ending with a slash,
+	 * or an empty string for the root of the JAR file
+	 */
+	List<String> getClassFiles(String directory) {
+		int from = Arrays.binarySearch(this.classFiles, directory);
+		if (from < 0) {
+			from = -from - 1;
+		}
+		int to = from;
+		while (to < this.classFiles.length && this.classFiles[to].startsWith(directory)) {
+			to++;
+		}
+		return Collections.unmodifiableList(Arrays.asList(this.classFiles).subList(from, to));
+	}
+
+	/**
+	 * Store this index in the supplied index file.
+	 *
+	 * @see #load(Path, Path)
+	 */
+	void store(Path file) {
+		List<String> lines = new ArrayList<>(this.classFiles.length + 1);
+		lines.add(this.size + "\t" + this.lastModifiedMillis);
+		for (String classFile : this.classFiles) {
+			if (classFile.indexOf('\n') >= 0 || classFile.indexOf('\r') >= 0) {
+				return;
+			}
+			lines.add(classFile);
+		}
+		ClasspathIndex.writeLines(file, this.jarFile, lines);
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("jarFile", this.jarFile)
+				.append("classFiles", this.classFiles.length)
+				.toString();
+		// @formatter:on
+	}
+
+}
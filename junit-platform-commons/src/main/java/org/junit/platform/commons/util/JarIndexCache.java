@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Cache of the indexes of the JAR files scanned by classpath scans performed
+ * via {@link ReflectionUtils}, meant to be kept for the lifetime of a
+ * launcher.
+ *
+ * <p>While a cache is {@linkplain #activate() active}, each JAR file is
+ * indexed only once; its index is read again only if the size or last
+ * modified time of the JAR file has changed in the meantime. While no cache
+ * is active, every scan of a JAR file reads its index.
+ *
+ * <p>Only one cache is active at a time; activating a cache while another one
+ * is active replaces it until the new activation is closed.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.0
+ */
+@API(Internal)
+public final class JarIndexCache {
+
+	private static final Object lock = new Object();
+
+	private static volatile Activation current;
+
+	/**
+	 * Get the index of the supplied JAR file from the active cache, obtaining
+	 * it from the {@link ClasspathIndex} if no cache is active or the cached
+	 * index is out of date.
+	 *
+	 * @throws IOException if the JAR file cannot be read
+	 */
+	static JarIndex getJarIndex(Path jarFile) throws IOException {
+		Activation activation = current;
+		if (activation == null) {
+			return ClasspathIndex.getJarIndex(jarFile);
+		}
+		Map<Path, JarIndex> jarIndexes = activation.cache.jarIndexes;
+		JarIndex jarIndex = jarIndexes.get(jarFile);
+		if (jarIndex == null || !jarIndex.isUpToDate()) {
+			jarIndex = ClasspathIndex.getJarIndex(jarFile);
+			jarIndexes.put(jarFile, jarIndex);
+		}
+		return jarIndex;
+	}
+
+	private final Map<Path, JarIndex> jarIndexes = new ConcurrentHashMap<>();
+
+	/**
+	 * Make this cache the active one until the returned activation is
+	 * closed.
+	 *
+	 * @return the new activation; never {@code null}
+	 */
+	public Activation activate() {
+		synchronized (lock) {
+			Activation activation = new Activation(current, this);
+			current = activation;
+			return activation;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).append("jarIndexes", this.jarIndexes.values()).toString();
+	}
+
+	/**
+	 * Activation of a {@link JarIndexCache}.
+	 */
+	@API(Internal)
+	public static final class Activation implements AutoCloseable {
+
+		private final Activation previous;
+		private final JarIndexCache cache;
+		private final AtomicBoolean closed = new AtomicBoolean(false);
+
+		private Activation(Activation previous, JarIndexCache cache) {
+			this.previous = previous;
+			this.cache = cache;
+		}
+
+		/**
+		 * Close this activation, making the previously active cache active
+		 * again unless it has been closed as well.
+		 *
+		 * <p>Closing an activation more than once has no effect.
+		 */
+		@Override
+		public void close() {
+			if (this.closed.compareAndSet(false, true)) {
+				synchronized (lock) {
+					if (current == this) {
+						Activation activation = this.previous;
+						while (activation != null && activation.closed.get()) {
+							activation = activation.previous;
+						}
+						current = activation;
+					}
+				}
+			}
+		}
+
+	}
+
+}
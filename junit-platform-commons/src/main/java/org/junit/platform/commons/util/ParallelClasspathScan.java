@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Scope in which all classpath scans performed via {@link ReflectionUtils}
+ * are parallelized in a {@link ForkJoinPool}, regardless of the thread
+ * performing them.
+ *
+ * <p>While a scope is open, the roots of a scan are traversed concurrently,
+ * subdirectories of a root are traversed in separate tasks, and the classes
+ * found are loaded in chunks of up to {@value #CLASS_LOAD_CHUNK_SIZE} class
+ * files each. Class loaders that are not registered as parallel capable
+ * serialize the loading of classes themselves. Results are merged in the
+ * order in which roots are returned by the class loader and entries are
+ * returned by their directories, so that a scan yields the same classes in
+ * the same order as it would without a scope.
+ *
+ * <p>Only one scope is in effect at a time; opening a new scope while
+ * another one is open replaces it until the new one is closed.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.0
+ */
+@API(Internal)
+public final class ParallelClasspathScan implements AutoCloseable {
+
+	static final int CLASS_LOAD_CHUNK_SIZE = 32;
+
+	private static final Object lock = new Object();
+
+	private static volatile ParallelClasspathScan current;
+
+	/**
+	 * Open a new scope in which classpath scans are parallelized in a
+	 * {@link ForkJoinPool} with the supplied parallelism.
+	 *
+	 * <p>Worker threads use the context class loader of the calling thread.
+	 *
+	 * @param parallelism the maximum number of worker threads; must be
+	 * positive
+	 * @return the new scope; never {@code null}
+	 */
+	public static ParallelClasspathScan open(int parallelism) {
+		Preconditions.condition(parallelism > 0, "parallelism must be positive");
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setContextClassLoader(contextClassLoader);
+			return thread;
+		}, null, false);
+		synchronized (lock) {
+			ParallelClasspathScan scope = new ParallelClasspathScan(current, forkJoinPool);
+			current = scope;
+			return scope;
+		}
+	}
+
+	/**
+	 * Get the pool of the scope currently in effect.
+	 *
+	 * @return the pool; {@code null} if no scope is open
+	 */
+	static ForkJoinPool getForkJoinPool() {
+		ParallelClasspathScan scope = current;
+		return scope != null ? scope.forkJoinPool : null;
+	}
+
+	/**
+	 * Perform the supplied task in the supplied pool and await its result,
+	 * running it directly if the current thread is one of its workers.
+	 */
+	static <T> T invoke(ForkJoinPool forkJoinPool, ForkJoinTask<T> task) {
+		return ForkJoinTask.getPool() == forkJoinPool ? task.invoke() : forkJoinPool.invoke(task);
+	}
+
+	private final ParallelClasspathScan previous;
+	private final ForkJoinPool forkJoinPool;
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+
+	private ParallelClasspathScan(ParallelClasspathScan previous, ForkJoinPool forkJoinPool) {
+		this.previous = previous;
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Close this scope and shut down its pool.
+	 *
+	 * <p>Closing a scope more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (this.closed.compareAndSet(false, true)) {
+			synchronized (lock) {
+				if (current == this) {
+					ParallelClasspathScan scope = this.previous;
+					while (scope != null && scope.closed.get()) {
+						scope = scope.previous;
+					}
+					current = scope;
+				}
+			}
+			this.forkJoinPool.shutdown();
+		}
+	}
+
+}
@@ -514,6 +514,23 @@ public final class ReflectionUtils {
 			classpathScanner.scanForClassesInClasspathRoot(root, classTester, classNameFilter));
 	}
 
+	/**
+	 * Find all classes in the supplied classpath root that are included by
+	 * the supplied {@code classNameFilter}, might match according to the
+	 * supplied {@link ClassFilePrefilter}, and are accepted by the supplied
+	 * {@code classTester}.
+	 *
+	 * <p>Classes ruled out by the prefilter are not loaded.
+	 *
+	 * @see #findAllClassesInClasspathRoot(URI, Predicate, Predicate)
+	 */
+	public static List<Class<?>> findAllClassesInClasspathRoot(URI root, ClassFilePrefilter classFilePrefilter,
+			Predicate<Class<?>> classTester, Predicate<String> classNameFilter) {
+		Preconditions.notNull(classFilePrefilter, "classFilePrefilter must not be null");
+		return Collections.unmodifiableList(
+			classpathScanner.scanForClassesInClasspathRoot(root, classFilePrefilter, classTester, classNameFilter));
+	}
+
 	/**
 	 * @see org.junit.platform.commons.support.ReflectionSupport#findAllClassesInPackage(String, Predicate, Predicate)
 	 */
@@ -524,6 +541,24 @@ public final class ReflectionUtils {
 			classpathScanner.scanForClassesInPackage(basePackageName, classTester, classNameFilter));
 	}
 
+	/**
+	 * Find all classes in the supplied package and its subpackages that are
+	 * included by the supplied {@code classNameFilter}, might match
+	 * according to the supplied {@link ClassFilePrefilter}, and are accepted
+	 * by the supplied {@code classTester}.
+	 *
+	 * <p>Classes ruled out by the prefilter are not loaded.
+	 *
+	 * @see #findAllClassesInPackage(String, Predicate, Predicate)
+	 */
+	public static List<Class<?>> findAllClassesInPackage(String basePackageName,
+			ClassFilePrefilter classFilePrefilter, Predicate<Class<?>> classTester,
+			Predicate<String> classNameFilter) {
+		Preconditions.notNull(classFilePrefilter, "classFilePrefilter must not be null");
+		return Collections.unmodifiableList(classpathScanner.scanForClassesInPackage(basePackageName,
+			classFilePrefilter, classTester, classNameFilter));
+	}
+
 	public static List<Class<?>> findNestedClasses(Class<?> clazz, Predicate<Class<?>> predicate) {
 		Preconditions.notNull(clazz, "Class must not be null");
 		Preconditions.notNull(predicate, "Predicate must not be null");
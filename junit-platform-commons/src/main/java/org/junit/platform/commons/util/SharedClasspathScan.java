@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.util.Collections.unmodifiableList;
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Scope in which the results of traversing classpath roots are shared by all
+ * classpath scans performed via {@link ReflectionUtils}, regardless of the
+ * thread performing them.
+ *
+ * <p>While at least one scope is open, the class files found below a given
+ * root and base package are determined only once. Subsequent scans of the
+ * same root and base package, e.g. by other test engines, reuse that result
+ * and only apply their own filters to it. Once the last open scope has been
+ * {@linkplain #close() closed}, all shared results are discarded.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.0
+ */
+@API(Internal)
+public final class SharedClasspathScan implements AutoCloseable {
+
+	private static final Object lock = new Object();
+
+	private static int openScopes = 0;
+
+	private static volatile Map<String, List<ClassFile>> classFilesByRoot;
+
+	/**
+	 * Open a new scope in which classpath scan results are shared.
+	 *
+	 * @return the new scope; never {@code null}
+	 */
+	public static SharedClasspathScan open() {
+		synchronized (lock) {
+			if (openScopes++ == 0) {
+				classFilesByRoot = new ConcurrentHashMap<>();
+			}
+		}
+		return new SharedClasspathScan();
+	}
+
+	/**
+	 * Get the class files found below the supplied root and base package,
+	 * invoking the supplied {@code scanner} only if no shared result is
+	 * available.
+	 *
+	 * <p>While a {@link ParallelClasspathScan} is in effect, the scanner
+	 * awaits tasks of its pool and is therefore not invoked while holding a
+	 * lock. If the same root and base package are then scanned concurrently,
+	 * both scans may traverse it, but only the first result is shared.
+	 */
+	static List<ClassFile> getClassFiles(URI root, String basePackageName, Supplier<List<ClassFile>> scanner) {
+		Map<String, List<ClassFile>> sharedResults = classFilesByRoot;
+		if (sharedResults == null) {
+			return scanner.get();
+		}
+		String key = basePackageName + "@" + root;
+		if (ParallelClasspathScan.getForkJoinPool() == null) {
+			return sharedResults.computeIfAbsent(key, ignored -> unmodifiableList(scanner.get()));
+		}
+		List<ClassFile> classFiles = sharedResults.get(key);
+		if (classFiles == null) {
+			classFiles = unmodifiableList(scanner.get());
+			List<ClassFile> sharedClassFiles = sharedResults.putIfAbsent(key, classFiles);
+			if (sharedClassFiles != null) {
+				classFiles = sharedClassFiles;
+			}
+		}
+		return classFiles;
+	}
+
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+
+	private SharedClasspathScan() {
+		/* no-op */
+	}
+
+	/**
+	 * Close this scope, discarding all shared results if it was the last one.
+	 *
+	 * <p>Closing a scope more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (this.closed.compareAndSet(false, true)) {
+			synchronized (lock) {
+				if (--openScopes == 0) {
+					classFilesByRoot = null;
+				}
+			}
+		}
+	}
+
+}
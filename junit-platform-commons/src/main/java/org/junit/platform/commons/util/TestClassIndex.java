@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import static java.util.logging.Level.WARNING;
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Scope in which all classpath scans performed via {@link ReflectionUtils}
+ * read the test class index of each classpath root directory that has one
+ * instead of traversing the directory, regardless of the thread performing
+ * them.
+ *
+ * <p>The test class index of a directory is stored in its
+ * {@value #RESOURCE_NAME} file and lists the fully qualified names of the
+ * classes in the directory that contain tests, as {@linkplain #write written}
+ * at build time after discovering the tests in the directory with all test
+ * engines and without any filters. A scan of a directory with an index finds
+ * the classes listed in it that belong to the scanned package. An index is
+ * outdated if any class file or directory below its classpath root has been
+ * modified after the index was written, e.g. since a class was added,
+ * recompiled, or deleted. Outdated and unreadable indexes are logged and
+ * ignored, so that the directory is traversed instead.
+ *
+ * <p>While at least one scope is open, the index of each directory is read
+ * only once. Once the last open scope has been {@linkplain #close() closed},
+ * all indexes read are discarded and scans traverse every directory again.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.0
+ */
+@API(Internal)
+public final class TestClassIndex implements AutoCloseable {
+
+	/**
+	 * Name of the file of a classpath root directory that stores its test
+	 * class index: {@value}
+	 */
+	public static final String RESOURCE_NAME = "META-INF/junit-platform/test-classes.index";
+
+	private static final Logger LOG = Logger.getLogger(TestClassIndex.class.getName());
+
+	private static final String FORMAT_VERSION = "1";
+
+	private static final Object lock = new Object();
+
+	private static int openScopes = 0;
+
+	private static volatile Map<Path, Optional<List<String>>> classNamesByRoot;
+
+	/**
+	 * Open a new scope in which test class indexes are read.
+	 *
+	 * @return the new scope; never {@code null}
+	 */
+	public static TestClassIndex open() {
+		synchronized (lock) {
+			if (openScopes++ == 0) {
+				classNamesByRoot = new ConcurrentHashMap<>();
+			}
+		}
+		return new TestClassIndex();
+	}
+
+	/**
+	 * Get the class names listed in the test class index of the supplied
+	 * classpath root directory.
+	 *
+	 * @return the class names; empty if no scope is open or the directory
+	 * has no readable index
+	 */
+	static Optional<List<String>> getClassNames(Path classpathRoot) {
+		Map<Path, Optional<List<String>>> indexes = classNamesByRoot;
+		if (indexes == null || classpathRoot.getFileSystem() != FileSystems.getDefault()) {
+			return Optional.empty();
+		}
+		return indexes.computeIfAbsent(classpathRoot.toAbsolutePath().normalize(), TestClassIndex::read);
+	}
+
+	private static Optional<List<String>> read(Path classpathRoot) {
+		Path file = classpathRoot.resolve(RESOURCE_NAME);
+		if (!Files.isRegularFile(file)) {
+			return Optional.empty();
+		}
+		try {
+			if (isOutdated(classpathRoot, Files.getLastModifiedTime(file))) {
+				LOG.warning(() -> "Ignoring outdated test class index: " + file);
+				return Optional.empty();
+			}
+			List<String> lines = Files.readAllLines(file, UTF_8);
+			if (lines.isEmpty() || !FORMAT_VERSION.equals(lines.get(0))) {
+				LOG.warning(() -> "Ignoring test class index in unsupported format: " + file);
+				return Optional.empty();
+			}
+			List<String> classNames = new ArrayList<>(lines.size() - 1);
+			for (String line : lines.subList(1, lines.size())) {
+				if (!line.isEmpty()) {
+					classNames.add(line);
+				}
+			}
+			return Optional.of(unmodifiableList(classNames));
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Failed to read test class index " + file);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Determine if any class file or directory below the supplied classpath
+	 * root has been modified after the supplied time.
+	 */
+	private static boolean isOutdated(Path classpathRoot, FileTime indexTime) throws IOException {
+		AtomicBoolean outdated = new AtomicBoolean(false);
+		Files.walkFileTree(classpathRoot, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+				return check(attributes);
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				if (!file.getFileName().toString().endsWith(ClassFileVisitor.CLASS_FILE_SUFFIX)) {
+					return FileVisitResult.CONTINUE;
+				}
+				return check(attributes);
+			}
+
+			private FileVisitResult check(BasicFileAttributes attributes) {
+				if (attributes.lastModifiedTime().compareTo(indexTime) > 0) {
+					outdated.set(true);
+					return FileVisitResult.TERMINATE;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return outdated.get();
+	}
+
+	/**
+	 * Write the test class index of the supplied classpath root directory,
+	 * replacing its current index, if any.
+	 *
+	 * @param classpathRoot the classpath root directory; never {@code null}
+	 * @param classNames the fully qualified names of the classes in the
+	 * directory that contain tests; never {@code null}
+	 * @return the file the index was written to
+	 * @throws IOException if the index cannot be written
+	 */
+	public static Path write(Path classpathRoot, Collection<String> classNames) throws IOException {
+		Preconditions.notNull(classpathRoot, "classpathRoot must not be null");
+		Preconditions.notNull(classNames, "classNames must not be null");
+		Preconditions.containsNoNullElements(classNames, "individual class names must not be null");
+		Path file = classpathRoot.resolve(RESOURCE_NAME);
+		Files.createDirectories(file.getParent());
+		List<String> lines = new ArrayList<>(classNames.size() + 1);
+		lines.add(FORMAT_VERSION);
+		lines.addAll(new TreeSet<>(classNames));
+		return Files.write(file, lines, UTF_8);
+	}
+
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+
+	private TestClassIndex() {
+		/* no-op */
+	}
+
+	/**
+	 * Close this scope, discarding all indexes read if it was the last one.
+	 *
+	 * <p>Closing a scope more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (this.closed.compareAndSet(false, true)) {
+			synchronized (lock) {
+				if (--openScopes == 0) {
+					classNamesByRoot = null;
+				}
+			}
+		}
+	}
+
+}
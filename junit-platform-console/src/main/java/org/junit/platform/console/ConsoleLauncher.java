@@ -17,6 +17,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 
 import org.junit.platform.commons.meta.API;
 import org.junit.platform.console.options.CommandLineOptions;
@@ -61,11 +62,24 @@ public class ConsoleLauncher {
 
 	ConsoleLauncherExecutionResult execute(String... args) {
 		CommandLineOptions options = commandLineOptionsParser.parse(args);
+		if (options.getUseDaemonFile().isPresent() && !options.isDisplayHelp()) {
+			return executeInDaemon(options.getUseDaemonFile().get(), args);
+		}
+		return execute(options);
+	}
+
+	ConsoleLauncherExecutionResult execute(CommandLineOptions options) {
 		try (PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(outStream, charset)))) {
 			if (options.isDisplayHelp()) {
 				commandLineOptionsParser.printHelp(out);
 				return ConsoleLauncherExecutionResult.success();
 			}
+			if (options.getStartDaemonFile().isPresent()) {
+				return runDaemon(options.getStartDaemonFile().get());
+			}
+			if (options.isWriteTestIndex()) {
+				return writeTestIndex(options, out);
+			}
 			return executeTests(options, out);
 		}
 		finally {
@@ -74,6 +88,44 @@ public class ConsoleLauncher {
 		}
 	}
 
+	private ConsoleLauncherExecutionResult runDaemon(Path addressFile) {
+		try {
+			new ConsoleLauncherDaemon(commandLineOptionsParser, addressFile).run(outStream);
+		}
+		catch (Exception exception) {
+			exception.printStackTrace(errStream);
+		}
+		return ConsoleLauncherExecutionResult.failed();
+	}
+
+	private ConsoleLauncherExecutionResult executeInDaemon(Path addressFile, String... args) {
+		try {
+			return ConsoleLauncherExecutionResult.forExitCode(
+				ConsoleLauncherDaemon.executeInDaemon(addressFile, args, outStream, errStream));
+		}
+		catch (Exception exception) {
+			exception.printStackTrace(errStream);
+			return ConsoleLauncherExecutionResult.failed();
+		}
+		finally {
+			outStream.flush();
+			errStream.flush();
+		}
+	}
+
+	private ConsoleLauncherExecutionResult writeTestIndex(CommandLineOptions options, PrintWriter out) {
+		try {
+			new ConsoleTestExecutor(options).writeTestIndex(out);
+			return ConsoleLauncherExecutionResult.success();
+		}
+		catch (Exception exception) {
+			exception.printStackTrace(errStream);
+			errStream.println();
+			commandLineOptionsParser.printHelp(out);
+		}
+		return ConsoleLauncherExecutionResult.failed();
+	}
+
 	private ConsoleLauncherExecutionResult executeTests(CommandLineOptions options, PrintWriter out) {
 		try {
 			TestExecutionSummary testExecutionSummary = new ConsoleTestExecutor(options).execute(out);
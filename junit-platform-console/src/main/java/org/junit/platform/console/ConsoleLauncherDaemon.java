@@ -0,0 +1,287 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.console;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.toList;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.console.options.CommandLineOptions;
+import org.junit.platform.console.options.CommandLineOptionsParser;
+
+/**
+ * Keeps a JVM with loaded test engines running and executes the requests of
+ * thin {@link ConsoleLauncher} clients in it, so that repeated test runs do
+ * not pay for JVM startup, engine class loading and JIT warmup.
+ *
+ * <p>The daemon listens on a local port, which is written to an address
+ * file along with a random secret that clients need to present. The
+ * address file is only readable by its owner, if supported by the file
+ * system. A client sends its working directory and command-line arguments;
+ * the daemon streams everything written to {@code System.out} and
+ * {@code System.err} back to the client, followed by the exit code.
+ *
+ * <p>Requests are executed one after another. Test classes must be supplied
+ * as additional classpath entries so that they are loaded by a fresh class
+ * loader for every request.
+ *
+ * @since 1.0
+ */
+class ConsoleLauncherDaemon {
+
+	private static final byte OUT = 1;
+	private static final byte ERR = 2;
+	private static final byte EXIT = 3;
+
+	private static final String USE_DAEMON_OPTION = "--use-daemon";
+
+	private static final int REQUEST_TIMEOUT_MILLIS = 10_000;
+
+	private final CommandLineOptionsParser commandLineOptionsParser;
+	private final Path addressFile;
+	private final byte[] secret;
+
+	ConsoleLauncherDaemon(CommandLineOptionsParser commandLineOptionsParser, Path addressFile) {
+		this.commandLineOptionsParser = commandLineOptionsParser;
+		this.addressFile = addressFile;
+		this.secret = new byte[32];
+		new SecureRandom().nextBytes(this.secret);
+	}
+
+	/**
+	 * Serve requests until this JVM is terminated.
+	 */
+	void run(PrintStream log) throws IOException {
+		try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			writeAddressFile(serverSocket.getLocalPort());
+			Runtime.getRuntime().addShutdownHook(new Thread(this::deleteAddressFile));
+			log.println("Daemon listening on port " + serverSocket.getLocalPort() + ", address written to "
+					+ this.addressFile.toAbsolutePath());
+			log.flush();
+			while (true) {
+				try (Socket socket = serverSocket.accept()) {
+					serve(socket);
+				}
+				catch (IOException | RuntimeException ex) {
+					// a single broken or malicious client must not stop the daemon
+					ex.printStackTrace(log);
+				}
+			}
+		}
+	}
+
+	private void serve(Socket socket) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+		if (in.readInt() != this.secret.length) {
+			return;
+		}
+		byte[] clientSecret = new byte[this.secret.length];
+		in.readFully(clientSecret);
+		if (!MessageDigest.isEqual(this.secret, clientSecret)) {
+			return;
+		}
+		Path workingDirectory = Paths.get(in.readUTF());
+		String[] args = new String[in.readInt()];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = in.readUTF();
+		}
+		socket.setSoTimeout(0);
+
+		PrintStream originalOut = System.out;
+		PrintStream originalErr = System.err;
+		PrintStream clientOut = new PrintStream(new FrameOutputStream(out, OUT), true);
+		PrintStream clientErr = new PrintStream(new FrameOutputStream(out, ERR), true);
+		int exitCode;
+		try {
+			System.setOut(clientOut);
+			System.setErr(clientErr);
+			exitCode = execute(workingDirectory, args, clientOut, clientErr);
+		}
+		finally {
+			System.setOut(originalOut);
+			System.setErr(originalErr);
+		}
+		synchronized (out) {
+			out.writeByte(EXIT);
+			out.writeInt(exitCode);
+			out.flush();
+		}
+	}
+
+	private int execute(Path workingDirectory, String[] args, PrintStream out, PrintStream err) {
+		CommandLineOptions options;
+		try {
+			options = this.commandLineOptionsParser.parse(args);
+		}
+		catch (JUnitException ex) {
+			ex.printStackTrace(err);
+			return ConsoleLauncherExecutionResult.failed().getExitCode();
+		}
+		// relative paths are relative to the client's working directory
+		options.setAdditionalClasspathEntries(resolve(workingDirectory, options.getAdditionalClasspathEntries()));
+		options.setSelectedClasspathEntries(resolve(workingDirectory, options.getSelectedClasspathEntries()));
+		options.setReportsDir(options.getReportsDir().map(workingDirectory::resolve).orElse(null));
+		options.setStartDaemonFile(null);
+		return new ConsoleLauncher(this.commandLineOptionsParser, out, err).execute(options).getExitCode();
+	}
+
+	private static List<Path> resolve(Path workingDirectory, List<Path> paths) {
+		return paths.stream().map(workingDirectory::resolve).collect(toList());
+	}
+
+	private void writeAddressFile(int port) throws IOException {
+		Path directory = this.addressFile.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path tempFile = Files.createTempFile(directory, this.addressFile.getFileName().toString(), ".tmp");
+		try {
+			Files.setPosixFilePermissions(tempFile, PosixFilePermissions.fromString("rw-------"));
+		}
+		catch (UnsupportedOperationException ex) {
+			// not a POSIX file system, rely on the directory's permissions
+		}
+		List<String> lines = Arrays.asList(String.valueOf(port), Base64.getEncoder().encodeToString(this.secret));
+		Files.write(tempFile, lines, UTF_8);
+		Files.move(tempFile, this.addressFile, REPLACE_EXISTING, ATOMIC_MOVE);
+	}
+
+	private void deleteAddressFile() {
+		try {
+			Files.deleteIfExists(this.addressFile);
+		}
+		catch (IOException ex) {
+			// ignore, the JVM is shutting down
+		}
+	}
+
+	/**
+	 * Execute the supplied command-line arguments in the daemon whose address
+	 * is stored in the supplied file, streaming its output to the supplied
+	 * streams.
+	 *
+	 * @return the exit code reported by the daemon
+	 */
+	static int executeInDaemon(Path addressFile, String[] args, PrintStream out, PrintStream err)
+			throws IOException {
+		List<String> lines = Files.readAllLines(addressFile, UTF_8);
+		if (lines.size() != 2) {
+			throw new JUnitException("Invalid daemon address file: " + addressFile);
+		}
+		byte[] secret = Base64.getDecoder().decode(lines.get(1));
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(lines.get(0)))) {
+			DataOutputStream requestOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			requestOut.writeInt(secret.length);
+			requestOut.write(secret);
+			requestOut.writeUTF(Paths.get("").toAbsolutePath().toString());
+			List<String> forwardedArgs = withoutUseDaemonOption(args);
+			requestOut.writeInt(forwardedArgs.size());
+			for (String arg : forwardedArgs) {
+				requestOut.writeUTF(arg);
+			}
+			requestOut.flush();
+
+			DataInputStream responseIn = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			byte[] buffer = new byte[8192];
+			while (true) {
+				byte frameType = responseIn.readByte();
+				if (frameType == EXIT) {
+					return responseIn.readInt();
+				}
+				int length = responseIn.readInt();
+				byte[] bytes = length <= buffer.length ? buffer : new byte[length];
+				responseIn.readFully(bytes, 0, length);
+				PrintStream target = frameType == ERR ? err : out;
+				target.write(bytes, 0, length);
+				target.flush();
+			}
+		}
+	}
+
+	private static List<String> withoutUseDaemonOption(String[] args) {
+		List<String> result = new ArrayList<>(args.length);
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals(USE_DAEMON_OPTION)) {
+				i++;
+			}
+			else if (!args[i].startsWith(USE_DAEMON_OPTION + "=")) {
+				result.add(args[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Writes everything written to it as frames of the supplied type to the
+	 * client; closing it only flushes the frames.
+	 */
+	private static class FrameOutputStream extends OutputStream {
+
+		private final DataOutputStream out;
+		private final byte frameType;
+
+		FrameOutputStream(DataOutputStream out, byte frameType) {
+			this.out = out;
+			this.frameType = frameType;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			synchronized (this.out) {
+				this.out.writeByte(this.frameType);
+				this.out.writeInt(length);
+				this.out.write(bytes, offset, length);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (this.out) {
+				this.out.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+	}
+
+}
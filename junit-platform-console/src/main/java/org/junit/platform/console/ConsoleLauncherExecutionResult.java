@@ -50,6 +50,10 @@ public class ConsoleLauncherExecutionResult {
 		return new ConsoleLauncherExecutionResult(FAILED);
 	}
 
+	static ConsoleLauncherExecutionResult forExitCode(int exitCode) {
+		return new ConsoleLauncherExecutionResult(exitCode);
+	}
+
 	static ConsoleLauncherExecutionResult forSummary(TestExecutionSummary summary) {
 		return new ConsoleLauncherExecutionResult(summary);
 	}
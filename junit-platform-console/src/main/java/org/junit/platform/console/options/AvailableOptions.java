@@ -29,6 +29,8 @@ import org.junit.platform.engine.discovery.ClassNameFilter;
 class AvailableOptions {
 
 	private static final String CP_OPTION = "cp";
+	private static final String USE_DAEMON_OPTION = "use-daemon";
+	private static final String SCAN_CLASS_PATH_OPTION = "scan-class-path";
 
 	private final OptionParser parser = new OptionParser();
 
@@ -38,6 +40,10 @@ class AvailableOptions {
 	private final OptionSpec<Details> details;
 	private final OptionSpec<Theme> theme;
 	private final OptionSpec<Path> additionalClasspathEntries;
+	private final OptionSpec<Integer> forks;
+	private final OptionSpec<Path> startDaemonFile;
+	private final OptionSpec<Path> useDaemonFile;
+	private final OptionSpec<Void> writeTestIndex;
 
 	// Reports
 	private final OptionSpec<Path> reportsDir;
@@ -95,6 +101,30 @@ class AvailableOptions {
 				.withValuesSeparatedBy(File.pathSeparatorChar) //
 				.describedAs("path1" + File.pathSeparator + "path2" + File.pathSeparator + "...");
 
+		forks = parser.accepts("forks",
+			"Execute tests in the given number of forked JVMs instead of the current one. Test classes are "
+					+ "distributed dynamically to whichever forked JVM is idle.") //
+				.withRequiredArg() //
+				.ofType(Integer.class) //
+				.defaultsTo(0);
+
+		startDaemonFile = parser.accepts("start-daemon",
+			"Start a daemon that keeps test engines loaded and executes the tests requested via --"
+					+ USE_DAEMON_OPTION + ". The daemon's address is written to the specified file.") //
+				.withRequiredArg() //
+				.withValuesConvertedBy(new PathConverter());
+
+		useDaemonFile = parser.accepts(USE_DAEMON_OPTION,
+			"Execute tests in the daemon whose address is stored in the specified file. All other options are "
+					+ "passed on to the daemon. Test classes must be supplied via -" + CP_OPTION + ".") //
+				.withRequiredArg() //
+				.withValuesConvertedBy(new PathConverter());
+
+		writeTestIndex = parser.accepts("write-test-index",
+			"Instead of executing tests, write an index of the classes that contain tests into each directory "
+					+ "selected via --" + SCAN_CLASS_PATH_OPTION + ". Test runs that enable test class indexes read "
+					+ "it instead of scanning the directory. Filters are ignored.");
+
 		// --- Reports ---------------------------------------------------------
 
 		reportsDir = parser.accepts("reports-dir", //
@@ -104,7 +134,7 @@ class AvailableOptions {
 
 		// --- Selectors -------------------------------------------------------
 
-		selectedClasspathEntries = parser.acceptsAll(asList("scan-class-path", "scan-classpath"), //
+		selectedClasspathEntries = parser.acceptsAll(asList(SCAN_CLASS_PATH_OPTION, "scan-classpath"), //
 			"Scan all directories on the classpath or explicit classpath roots. " //
 					+ "Without arguments, only directories on the system classpath as well as additional classpath " //
 					+ "entries supplied via -" + CP_OPTION + " (directories and JAR files) are scanned. " //
@@ -194,6 +224,10 @@ class AvailableOptions {
 		result.setDetails(detectedOptions.valueOf(this.details));
 		result.setTheme(detectedOptions.valueOf(this.theme));
 		result.setAdditionalClasspathEntries(detectedOptions.valuesOf(this.additionalClasspathEntries));
+		result.setForks(detectedOptions.valueOf(this.forks));
+		result.setStartDaemonFile(detectedOptions.valueOf(this.startDaemonFile));
+		result.setUseDaemonFile(detectedOptions.valueOf(this.useDaemonFile));
+		result.setWriteTestIndex(detectedOptions.has(this.writeTestIndex));
 
 		// Reports
 		result.setReportsDir(detectedOptions.valueOf(this.reportsDir));
@@ -64,6 +64,13 @@ public class CommandLineOptions {
 
 	private Path reportsDir;
 
+	private int forks;
+
+	private Path startDaemonFile;
+	private Path useDaemonFile;
+
+	private boolean writeTestIndex;
+
 	public boolean isDisplayHelp() {
 		return this.displayHelp;
 	}
@@ -247,6 +254,38 @@ public class CommandLineOptions {
 		this.reportsDir = reportsDir;
 	}
 
+	public int getForks() {
+		return this.forks;
+	}
+
+	public void setForks(int forks) {
+		this.forks = forks;
+	}
+
+	public Optional<Path> getStartDaemonFile() {
+		return Optional.ofNullable(this.startDaemonFile);
+	}
+
+	public void setStartDaemonFile(Path startDaemonFile) {
+		this.startDaemonFile = startDaemonFile;
+	}
+
+	public Optional<Path> getUseDaemonFile() {
+		return Optional.ofNullable(this.useDaemonFile);
+	}
+
+	public void setUseDaemonFile(Path useDaemonFile) {
+		this.useDaemonFile = useDaemonFile;
+	}
+
+	public boolean isWriteTestIndex() {
+		return this.writeTestIndex;
+	}
+
+	public void setWriteTestIndex(boolean writeTestIndex) {
+		this.writeTestIndex = writeTestIndex;
+	}
+
 	public List<Path> getSelectedClasspathEntries() {
 		return this.selectedClasspathEntries;
 	}
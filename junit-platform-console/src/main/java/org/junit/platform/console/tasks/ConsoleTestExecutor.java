@@ -10,26 +10,41 @@
 
 package org.junit.platform.console.tasks;
 
+import static java.util.Collections.singleton;
 import static org.junit.platform.commons.meta.API.Usage.Internal;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathRoots;
+import static org.junit.platform.launcher.LauncherConstants.TEST_CLASS_INDEX_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
 
 import java.io.PrintWriter;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.Preconditions;
 import org.junit.platform.commons.util.ReflectionUtils;
+import org.junit.platform.commons.util.TestClassIndex;
 import org.junit.platform.console.options.CommandLineOptions;
 import org.junit.platform.console.options.Details;
 import org.junit.platform.console.options.Theme;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
 import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
 import org.junit.platform.launcher.core.LauncherFactory;
 import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
 import org.junit.platform.launcher.listeners.TestExecutionSummary;
@@ -54,15 +69,98 @@ public class ConsoleTestExecutor {
 	}
 
 	public TestExecutionSummary execute(PrintWriter out) throws Exception {
-		return new CustomContextClassLoaderExecutor(createCustomClassLoader()).invoke(() -> executeTests(out));
+		Optional<ClassLoader> customClassLoader = createCustomClassLoader();
+		try {
+			return new CustomContextClassLoaderExecutor(customClassLoader).invoke(() -> executeTests(out));
+		}
+		finally {
+			// release the JAR files of additional classpath entries, e.g. for the next request of a daemon
+			if (customClassLoader.isPresent()) {
+				((URLClassLoader) customClassLoader.get()).close();
+			}
+		}
+	}
+
+	/**
+	 * Write the {@link TestClassIndex} of each selected classpath root
+	 * directory, listing the classes in it that contain tests discovered by
+	 * any test engine. Filters are not applied, so that the index can be used
+	 * by any later discovery.
+	 */
+	public void writeTestIndex(PrintWriter out) throws Exception {
+		Preconditions.condition(options.isScanClasspath(),
+			"Test class indexes can only be written for scanned classpath roots");
+		Optional<ClassLoader> customClassLoader = createCustomClassLoader();
+		try {
+			new CustomContextClassLoaderExecutor(customClassLoader).invoke(() -> writeTestIndexes(out));
+		}
+		finally {
+			if (customClassLoader.isPresent()) {
+				((URLClassLoader) customClassLoader.get()).close();
+			}
+		}
 	}
 
-	private TestExecutionSummary executeTests(PrintWriter out) {
+	private Void writeTestIndexes(PrintWriter out) throws Exception {
 		Launcher launcher = launcherSupplier.get();
-		SummaryGeneratingListener summaryListener = registerListeners(out, launcher);
+		for (Path classpathRoot : new DiscoveryRequestCreator().determineClasspathRoots(options)) {
+			if (Files.isDirectory(classpathRoot)) {
+				// @formatter:off
+				LauncherDiscoveryRequest discoveryRequest = request()
+						.selectors(selectClasspathRoots(singleton(classpathRoot)))
+						.configurationParameter(TEST_CLASS_INDEX_ENABLED_PROPERTY_NAME, "false")
+						.build();
+				// @formatter:on
+				Set<String> classNames = findTestClassNames(launcher.discover(discoveryRequest), classpathRoot);
+				Path file = TestClassIndex.write(classpathRoot, classNames);
+				out.printf("Wrote index of %d test classes to %s%n", classNames.size(), file);
+			}
+		}
+		return null;
+	}
 
+	private Set<String> findTestClassNames(TestPlan testPlan, Path classpathRoot) {
+		Set<String> classNames = new HashSet<>();
+		for (TestIdentifier root : testPlan.getRoots()) {
+			for (TestIdentifier testIdentifier : testPlan.getDescendants(root)) {
+				testIdentifier.getSource().flatMap(this::getClassName).filter(
+					className -> isInClasspathRoot(className, classpathRoot)).ifPresent(classNames::add);
+			}
+		}
+		return classNames;
+	}
+
+	private Optional<String> getClassName(TestSource source) {
+		if (source instanceof ClassSource) {
+			return Optional.of(((ClassSource) source).getClassName());
+		}
+		if (source instanceof MethodSource) {
+			return Optional.of(((MethodSource) source).getClassName());
+		}
+		return Optional.empty();
+	}
+
+	private boolean isInClasspathRoot(String className, Path classpathRoot) {
+		return Files.isRegularFile(classpathRoot.resolve(className.replace('.', '/') + ".class"));
+	}
+
+	private TestExecutionSummary executeTests(PrintWriter out) throws Exception {
+		Launcher launcher = launcherSupplier.get();
 		LauncherDiscoveryRequest discoveryRequest = new DiscoveryRequestCreator().toDiscoveryRequest(options);
-		launcher.execute(discoveryRequest);
+		SummaryGeneratingListener summaryListener;
+		if (options.getForks() > 0) {
+			summaryListener = new SummaryGeneratingListener();
+			List<TestExecutionListener> listeners = new ArrayList<>();
+			listeners.add(summaryListener);
+			createDetailsPrintingListener(out).ifPresent(listeners::add);
+			createXmlWritingListener(out).ifPresent(listeners::add);
+			new ForkedExecutionCoordinator(options.getForks(), options.getAdditionalClasspathEntries(),
+				listeners).execute(launcher.discover(discoveryRequest));
+		}
+		else {
+			summaryListener = registerListeners(out, launcher);
+			launcher.execute(discoveryRequest);
+		}
 
 		TestExecutionSummary summary = summaryListener.getSummary();
 		printSummary(summary, out);
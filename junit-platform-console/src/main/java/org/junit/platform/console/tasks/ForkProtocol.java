@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.console.tasks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ReflectionUtils;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.launcher.TestIdentifier;
+
+/**
+ * Messages exchanged between a {@link ForkedExecutionCoordinator} and its
+ * {@link ForkedTestWorker forked workers} over a local socket.
+ *
+ * <p>Every message starts with a single byte denoting its type. Tests and
+ * containers are referenced by unique ID; only identifiers of dynamically
+ * registered tests, throwables and the entries of report entries are
+ * transferred in full. Strings are encoded as their length followed by
+ * their UTF-8 bytes.
+ *
+ * @since 1.0
+ */
+final class ForkProtocol {
+
+	// coordinator -> worker
+
+	/** Followed by the number of unique IDs to select and the IDs. */
+	static final byte EXECUTE = 1;
+
+	static final byte SHUTDOWN = 2;
+
+	// worker -> coordinator
+
+	/** Sent once the worker is ready to execute the next work item. */
+	static final byte READY = 10;
+
+	/** Followed by the serialized {@link TestIdentifier}. */
+	static final byte DYNAMIC_TEST_REGISTERED = 11;
+
+	/** Followed by the unique ID and the reason. */
+	static final byte EXECUTION_SKIPPED = 12;
+
+	/** Followed by the unique ID. */
+	static final byte EXECUTION_STARTED = 13;
+
+	/** Followed by the unique ID and the {@link TestExecutionResult}. */
+	static final byte EXECUTION_FINISHED = 14;
+
+	/** Followed by the unique ID and the key-value pairs of the entry. */
+	static final byte REPORTING_ENTRY_PUBLISHED = 15;
+
+	private static final Status[] STATUSES = Status.values();
+
+	private ForkProtocol() {
+		/* no-op */
+	}
+
+	static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	static void writeResult(DataOutputStream out, TestExecutionResult result) throws IOException {
+		out.writeByte(result.getStatus().ordinal());
+		out.writeBoolean(result.getThrowable().isPresent());
+		if (result.getThrowable().isPresent()) {
+			writeObject(out, toSerializableThrowable(result.getThrowable().get()));
+		}
+	}
+
+	static TestExecutionResult readResult(DataInputStream in) throws IOException {
+		Status status = STATUSES[in.readUnsignedByte()];
+		Throwable throwable = in.readBoolean() ? (Throwable) readObject(in) : null;
+		switch (status) {
+			case SUCCESSFUL:
+				return TestExecutionResult.successful();
+			case ABORTED:
+				return TestExecutionResult.aborted(throwable);
+			default:
+				return TestExecutionResult.failed(throwable);
+		}
+	}
+
+	static void writeKeyValuePairs(DataOutputStream out, Map<String, String> keyValuePairs) throws IOException {
+		out.writeInt(keyValuePairs.size());
+		for (Map.Entry<String, String> entry : keyValuePairs.entrySet()) {
+			writeString(out, entry.getKey());
+			writeString(out, entry.getValue());
+		}
+	}
+
+	static Map<String, String> readKeyValuePairs(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		Map<String, String> keyValuePairs = new LinkedHashMap<>(size * 2);
+		for (int i = 0; i < size; i++) {
+			keyValuePairs.put(readString(in), readString(in));
+		}
+		return keyValuePairs;
+	}
+
+	static void writeObject(DataOutputStream out, Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+			objectOut.writeObject(object);
+		}
+		out.writeInt(bytes.size());
+		bytes.writeTo(out);
+	}
+
+	static Object readObject(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		try (ObjectInputStream objectIn = new ContextClassLoaderObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return objectIn.readObject();
+		}
+		catch (ClassNotFoundException ex) {
+			throw new IOException("Failed to deserialize object sent by forked JVM", ex);
+		}
+	}
+
+	/**
+	 * Replace the supplied throwable by a {@link JUnitException} with the
+	 * same message and stack trace if it or any of its causes cannot be
+	 * serialized.
+	 */
+	private static Throwable toSerializableThrowable(Throwable throwable) {
+		try {
+			new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(throwable);
+			return throwable;
+		}
+		catch (IOException ex) {
+			JUnitException replacement = new JUnitException(throwable.getClass().getName() + ": "
+					+ throwable.getMessage(),
+				throwable.getCause() != null ? toSerializableThrowable(throwable.getCause()) : null);
+			replacement.setStackTrace(throwable.getStackTrace());
+			return replacement;
+		}
+	}
+
+	/**
+	 * Resolves classes via the default class loader, which includes
+	 * additional classpath entries, instead of the latest user-defined one.
+	 */
+	private static class ContextClassLoaderObjectInputStream extends ObjectInputStream {
+
+		ContextClassLoaderObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(description.getName(), false, ReflectionUtils.getDefaultClassLoader());
+			}
+			catch (ClassNotFoundException ex) {
+				return super.resolveClass(description);
+			}
+		}
+
+	}
+
+}
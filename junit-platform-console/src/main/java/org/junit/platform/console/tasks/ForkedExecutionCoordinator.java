@@ -0,0 +1,361 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.console.tasks;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.platform.console.tasks.ForkProtocol.DYNAMIC_TEST_REGISTERED;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTE;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTION_FINISHED;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTION_SKIPPED;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTION_STARTED;
+import static org.junit.platform.console.tasks.ForkProtocol.READY;
+import static org.junit.platform.console.tasks.ForkProtocol.REPORTING_ENTRY_PUBLISHED;
+import static org.junit.platform.console.tasks.ForkProtocol.SHUTDOWN;
+import static org.junit.platform.console.tasks.ForkProtocol.readKeyValuePairs;
+import static org.junit.platform.console.tasks.ForkProtocol.readObject;
+import static org.junit.platform.console.tasks.ForkProtocol.readResult;
+import static org.junit.platform.console.tasks.ForkProtocol.readString;
+import static org.junit.platform.console.tasks.ForkProtocol.writeString;
+import static org.junit.platform.engine.TestExecutionResult.Status.SUCCESSFUL;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Executes a {@link TestPlan} in a number of forked JVMs.
+ *
+ * <p>The tests of every top-level container of the test plan, typically a
+ * test class, form a work item. Work items are put into a shared queue from
+ * which every {@link ForkedTestWorker} takes the next one as soon as it is
+ * done with the previous one, so that all workers stay busy until the queue
+ * is empty. The events reported by the workers are delivered to the
+ * supplied listeners one at a time, as if the test plan had been executed in
+ * the current JVM.
+ *
+ * <p>Engine descriptors are reported as started before the first and as
+ * finished after the last work item has been executed. If a worker
+ * terminates unexpectedly, all tests and containers of its current work
+ * item that have been started are reported as failed.
+ *
+ * @since 1.0
+ */
+class ForkedExecutionCoordinator {
+
+	private static final long CONNECT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	private final int forks;
+	private final List<Path> additionalClasspathEntries;
+	private final List<TestExecutionListener> listeners;
+
+	ForkedExecutionCoordinator(int forks, List<Path> additionalClasspathEntries,
+			List<TestExecutionListener> listeners) {
+		this.forks = forks;
+		this.additionalClasspathEntries = additionalClasspathEntries;
+		this.listeners = listeners;
+	}
+
+	void execute(TestPlan testPlan) throws IOException, InterruptedException {
+		Queue<WorkItem> workItems = new ConcurrentLinkedQueue<>(createWorkItems(testPlan));
+		Set<String> rootIds = testPlan.getRoots().stream().map(TestIdentifier::getUniqueId).collect(toSet());
+		Map<String, TestExecutionResult> engineFailures = new ConcurrentHashMap<>();
+
+		notifyListeners(listener -> listener.testPlanExecutionStarted(testPlan));
+		testPlan.getRoots().forEach(root -> notifyListeners(listener -> listener.executionStarted(root)));
+
+		int workers = Math.min(this.forks, workItems.size());
+		List<Process> processes = new ArrayList<>(workers);
+		List<Thread> threads = new ArrayList<>(workers);
+		try (ServerSocket serverSocket = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+			serverSocket.setSoTimeout((int) CONNECT_TIMEOUT_MILLIS);
+			for (int i = 0; i < workers; i++) {
+				processes.add(startWorker(serverSocket.getLocalPort()));
+			}
+			for (int i = 0; i < workers; i++) {
+				Socket socket = acceptWorker(serverSocket, threads.isEmpty());
+				if (socket == null) {
+					break;
+				}
+				Thread thread = new Thread(new Connection(socket, testPlan, rootIds, workItems, engineFailures),
+					"junit-fork-" + i);
+				thread.start();
+				threads.add(thread);
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+		finally {
+			for (Process process : processes) {
+				if (!process.waitFor(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					process.destroyForcibly();
+				}
+			}
+		}
+
+		testPlan.getRoots().forEach(root -> notifyListeners(listener -> listener.executionFinished(root,
+			engineFailures.getOrDefault(root.getUniqueId(), TestExecutionResult.successful()))));
+		notifyListeners(listener -> listener.testPlanExecutionFinished(testPlan));
+	}
+
+	private static List<WorkItem> createWorkItems(TestPlan testPlan) {
+		List<WorkItem> workItems = new ArrayList<>();
+		for (TestIdentifier root : testPlan.getRoots()) {
+			for (TestIdentifier topLevelIdentifier : testPlan.getChildren(root)) {
+				List<String> leafIds = new ArrayList<>();
+				collectLeafIds(testPlan, topLevelIdentifier, leafIds);
+				workItems.add(new WorkItem(topLevelIdentifier, leafIds));
+			}
+		}
+		return workItems;
+	}
+
+	private static void collectLeafIds(TestPlan testPlan, TestIdentifier identifier, List<String> leafIds) {
+		if (testPlan.getChildren(identifier).isEmpty()) {
+			leafIds.add(identifier.getUniqueId());
+		}
+		else {
+			testPlan.getChildren(identifier).forEach(child -> collectLeafIds(testPlan, child, leafIds));
+		}
+	}
+
+	private Process startWorker(int port) throws IOException {
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		List<String> command = new ArrayList<>();
+		command.add(java);
+		// @formatter:off
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+				.filter(argument -> !argument.startsWith("-agentlib:jdwp") && !argument.startsWith("-Xrunjdwp"))
+				.collect(toList()));
+		// @formatter:on
+		command.add("-cp");
+		command.add(createClasspath());
+		command.add(ForkedTestWorker.class.getName());
+		command.add(String.valueOf(port));
+		return new ProcessBuilder(command).inheritIO().start();
+	}
+
+	private String createClasspath() {
+		StringBuilder classpath = new StringBuilder(System.getProperty("java.class.path"));
+		for (Path entry : this.additionalClasspathEntries) {
+			classpath.append(File.pathSeparatorChar).append(entry.toAbsolutePath());
+		}
+		return classpath.toString();
+	}
+
+	private static Socket acceptWorker(ServerSocket serverSocket, boolean required) throws IOException {
+		try {
+			Socket socket = serverSocket.accept();
+			socket.setTcpNoDelay(true);
+			return socket;
+		}
+		catch (SocketTimeoutException ex) {
+			if (required) {
+				throw new JUnitException("No forked JVM connected within " + CONNECT_TIMEOUT_MILLIS + " ms", ex);
+			}
+			return null;
+		}
+	}
+
+	private void notifyListeners(Consumer<TestExecutionListener> notification) {
+		synchronized (this.listeners) {
+			this.listeners.forEach(notification);
+		}
+	}
+
+	private static class WorkItem {
+
+		private final TestIdentifier topLevelIdentifier;
+		private final List<String> uniqueIds;
+
+		WorkItem(TestIdentifier topLevelIdentifier, List<String> uniqueIds) {
+			this.topLevelIdentifier = topLevelIdentifier;
+			this.uniqueIds = uniqueIds;
+		}
+
+	}
+
+	/**
+	 * Serves a single worker: hands out work items and delivers its events.
+	 */
+	private class Connection implements Runnable {
+
+		private final Socket socket;
+		private final TestPlan testPlan;
+		private final Set<String> rootIds;
+		private final Queue<WorkItem> workItems;
+		private final Map<String, TestExecutionResult> engineFailures;
+		private final Deque<TestIdentifier> startedIdentifiers = new ArrayDeque<>();
+		private WorkItem currentWorkItem;
+		private boolean topLevelIdentifierStarted;
+
+		Connection(Socket socket, TestPlan testPlan, Set<String> rootIds, Queue<WorkItem> workItems,
+				Map<String, TestExecutionResult> engineFailures) {
+			this.socket = socket;
+			this.testPlan = testPlan;
+			this.rootIds = rootIds;
+			this.workItems = workItems;
+			this.engineFailures = engineFailures;
+		}
+
+		@Override
+		public void run() {
+			try (Socket socket = this.socket) {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				while (true) {
+					byte messageType = in.readByte();
+					if (messageType == READY) {
+						this.currentWorkItem = this.workItems.poll();
+						this.startedIdentifiers.clear();
+						this.topLevelIdentifierStarted = false;
+						if (this.currentWorkItem == null) {
+							out.writeByte(SHUTDOWN);
+							out.flush();
+							return;
+						}
+						out.writeByte(EXECUTE);
+						out.writeInt(this.currentWorkItem.uniqueIds.size());
+						for (String uniqueId : this.currentWorkItem.uniqueIds) {
+							writeString(out, uniqueId);
+						}
+						out.flush();
+					}
+					else {
+						handleEvent(messageType, in);
+					}
+				}
+			}
+			catch (IOException ex) {
+				failCurrentWorkItem(ex);
+			}
+		}
+
+		private void handleEvent(byte messageType, DataInputStream in) throws IOException {
+			switch (messageType) {
+				case DYNAMIC_TEST_REGISTERED: {
+					TestIdentifier testIdentifier = (TestIdentifier) readObject(in);
+					this.testPlan.add(testIdentifier);
+					notifyListeners(listener -> listener.dynamicTestRegistered(testIdentifier));
+					break;
+				}
+				case EXECUTION_SKIPPED: {
+					TestIdentifier testIdentifier = findTestIdentifier(readString(in));
+					String reason = readString(in);
+					if (testIdentifier != null) {
+						notifyListeners(listener -> listener.executionSkipped(testIdentifier, reason));
+					}
+					break;
+				}
+				case EXECUTION_STARTED: {
+					TestIdentifier testIdentifier = findTestIdentifier(readString(in));
+					if (testIdentifier != null) {
+						this.startedIdentifiers.push(testIdentifier);
+						this.topLevelIdentifierStarted |= testIdentifier.equals(
+							this.currentWorkItem.topLevelIdentifier);
+						notifyListeners(listener -> listener.executionStarted(testIdentifier));
+					}
+					break;
+				}
+				case EXECUTION_FINISHED: {
+					String uniqueId = readString(in);
+					TestIdentifier testIdentifier = findTestIdentifier(uniqueId);
+					TestExecutionResult result = readResult(in);
+					if (testIdentifier != null) {
+						this.startedIdentifiers.remove(testIdentifier);
+						notifyListeners(listener -> listener.executionFinished(testIdentifier, result));
+					}
+					else if (this.rootIds.contains(uniqueId) && result.getStatus() != SUCCESSFUL) {
+						this.engineFailures.putIfAbsent(uniqueId, result);
+					}
+					break;
+				}
+				case REPORTING_ENTRY_PUBLISHED: {
+					TestIdentifier testIdentifier = findTestIdentifier(readString(in));
+					ReportEntry entry = ReportEntry.from(readKeyValuePairs(in));
+					if (testIdentifier != null) {
+						notifyListeners(listener -> listener.reportingEntryPublished(testIdentifier, entry));
+					}
+					break;
+				}
+				default:
+					throw new IOException("Unknown message type: " + messageType);
+			}
+		}
+
+		/**
+		 * Find the identifier of a test or container, unless it is an engine
+		 * descriptor whose events are reported by the coordinator itself.
+		 */
+		private TestIdentifier findTestIdentifier(String uniqueId) {
+			if (this.rootIds.contains(uniqueId)) {
+				return null;
+			}
+			try {
+				return this.testPlan.getTestIdentifier(uniqueId);
+			}
+			catch (PreconditionViolationException ex) {
+				// discovered by the worker but not by the coordinator
+				return null;
+			}
+		}
+
+		private void failCurrentWorkItem(IOException cause) {
+			if (this.currentWorkItem == null) {
+				return;
+			}
+			JUnitException exception = new JUnitException("Forked JVM terminated unexpectedly", cause);
+			if (!this.topLevelIdentifierStarted) {
+				TestIdentifier topLevelIdentifier = this.currentWorkItem.topLevelIdentifier;
+				notifyListeners(listener -> listener.executionStarted(topLevelIdentifier));
+				this.startedIdentifiers.push(topLevelIdentifier);
+			}
+			while (!this.startedIdentifiers.isEmpty()) {
+				TestIdentifier testIdentifier = this.startedIdentifiers.pop();
+				notifyListeners(
+					listener -> listener.executionFinished(testIdentifier, TestExecutionResult.failed(exception)));
+			}
+			this.currentWorkItem = null;
+		}
+
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.console.tasks;
+
+import static org.junit.platform.commons.meta.API.Usage.Internal;
+import static org.junit.platform.console.tasks.ForkProtocol.DYNAMIC_TEST_REGISTERED;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTE;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTION_FINISHED;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTION_SKIPPED;
+import static org.junit.platform.console.tasks.ForkProtocol.EXECUTION_STARTED;
+import static org.junit.platform.console.tasks.ForkProtocol.READY;
+import static org.junit.platform.console.tasks.ForkProtocol.REPORTING_ENTRY_PUBLISHED;
+import static org.junit.platform.console.tasks.ForkProtocol.SHUTDOWN;
+import static org.junit.platform.console.tasks.ForkProtocol.readString;
+import static org.junit.platform.console.tasks.ForkProtocol.writeKeyValuePairs;
+import static org.junit.platform.console.tasks.ForkProtocol.writeObject;
+import static org.junit.platform.console.tasks.ForkProtocol.writeResult;
+import static org.junit.platform.console.tasks.ForkProtocol.writeString;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.meta.API;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.discovery.UniqueIdSelector;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+/**
+ * Entry point of the JVMs forked by a {@link ForkedExecutionCoordinator}.
+ *
+ * <p>A worker connects to the coordinator listening on the local port
+ * supplied as its only argument, repeatedly asks for work items, executes
+ * the selected tests and streams all execution events back to the
+ * coordinator, until the coordinator tells it to shut down.
+ *
+ * @since 1.0
+ */
+@API(Internal)
+public class ForkedTestWorker {
+
+	public static void main(String... args) throws IOException {
+		if (args.length != 1) {
+			throw new JUnitException("Usage: ForkedTestWorker <port>");
+		}
+		int exitCode;
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			exitCode = new ForkedTestWorker(LauncherFactory.create(), in, out).run();
+		}
+		// terminate even if tests left non-daemon threads behind
+		System.exit(exitCode);
+	}
+
+	private final Launcher launcher;
+	private final DataInputStream in;
+	private final DataOutputStream out;
+
+	ForkedTestWorker(Launcher launcher, DataInputStream in, DataOutputStream out) {
+		this.launcher = launcher;
+		this.in = in;
+		this.out = out;
+	}
+
+	/**
+	 * Execute work items until the coordinator tells this worker to shut
+	 * down or the connection to it is lost.
+	 *
+	 * @return the exit code of this JVM
+	 */
+	int run() {
+		try {
+			serve();
+			return 0;
+		}
+		catch (IOException ex) {
+			// the coordinator is gone, there is no one left to report to
+			ex.printStackTrace();
+			return 1;
+		}
+	}
+
+	private void serve() throws IOException {
+		StreamingListener listener = new StreamingListener();
+		while (true) {
+			this.out.writeByte(READY);
+			this.out.flush();
+			byte command = this.in.readByte();
+			if (command == SHUTDOWN) {
+				return;
+			}
+			if (command != EXECUTE) {
+				throw new IOException("Unknown command: " + command);
+			}
+			int size = this.in.readInt();
+			List<UniqueIdSelector> selectors = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				selectors.add(selectUniqueId(readString(this.in)));
+			}
+			this.launcher.execute(request().selectors(selectors).build(), listener);
+			if (listener.failure != null) {
+				throw listener.failure;
+			}
+		}
+	}
+
+	/**
+	 * Writes all events to the coordinator; once writing failed, all further
+	 * events are dropped.
+	 */
+	private class StreamingListener implements TestExecutionListener {
+
+		private volatile IOException failure;
+
+		@Override
+		public void dynamicTestRegistered(TestIdentifier testIdentifier) {
+			send(DYNAMIC_TEST_REGISTERED, () -> writeObject(out, testIdentifier));
+		}
+
+		@Override
+		public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+			send(EXECUTION_SKIPPED, () -> {
+				writeString(out, testIdentifier.getUniqueId());
+				writeString(out, String.valueOf(reason));
+			});
+		}
+
+		@Override
+		public void executionStarted(TestIdentifier testIdentifier) {
+			send(EXECUTION_STARTED, () -> writeString(out, testIdentifier.getUniqueId()));
+		}
+
+		@Override
+		public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+			send(EXECUTION_FINISHED, () -> {
+				writeString(out, testIdentifier.getUniqueId());
+				writeResult(out, testExecutionResult);
+			});
+		}
+
+		@Override
+		public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+			send(REPORTING_ENTRY_PUBLISHED, () -> {
+				writeString(out, testIdentifier.getUniqueId());
+				writeKeyValuePairs(out, entry.getKeyValuePairs());
+			});
+		}
+
+		private synchronized void send(byte messageType, MessageWriter writer) {
+			if (this.failure != null) {
+				return;
+			}
+			try {
+				out.writeByte(messageType);
+				writer.write();
+				// flush eagerly so the coordinator knows which test was running if this JVM dies
+				out.flush();
+			}
+			catch (IOException ex) {
+				this.failure = ex;
+			}
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface MessageWriter {
+
+		void write() throws IOException;
+
+	}
+
+}
@@ -31,6 +31,15 @@ import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.TestPlan;
 
 /**
+ * Data about the execution of a {@link TestPlan} that is required to write
+ * XML reports.
+ *
+ * <p>Dynamically registered tests are recorded when they are registered,
+ * since they may be removed from the test plan as soon as they have
+ * finished if streaming execution is enabled. Once the report of a root
+ * has been written, all data about its descendants is {@linkplain #discard
+ * discarded}.
+ *
  * @since 1.0
  */
 class XmlReportData {
@@ -42,6 +51,8 @@ class XmlReportData {
 	private final Map<TestIdentifier, Instant> startInstants = new ConcurrentHashMap<>();
 	private final Map<TestIdentifier, Instant> endInstants = new ConcurrentHashMap<>();
 	private final Map<TestIdentifier, List<ReportEntry>> reportEntries = new ConcurrentHashMap<>();
+	private final Map<String, TestIdentifier> dynamicTests = new ConcurrentHashMap<>();
+	private final Map<String, List<TestIdentifier>> dynamicChildren = new ConcurrentHashMap<>();
 
 	private final TestPlan testPlan;
 	private final Clock clock;
@@ -51,14 +62,16 @@ class XmlReportData {
 		this.clock = clock;
 	}
 
-	TestPlan getTestPlan() {
-		return testPlan;
-	}
-
 	Clock getClock() {
 		return clock;
 	}
 
+	void markDynamicTestRegistered(TestIdentifier testIdentifier) {
+		dynamicTests.put(testIdentifier.getUniqueId(), testIdentifier);
+		testIdentifier.getParentId().ifPresent(
+			parentId -> dynamicChildren.computeIfAbsent(parentId, key -> new ArrayList<>()).add(testIdentifier));
+	}
+
 	void markSkipped(TestIdentifier testIdentifier, String reason) {
 		skippedTests.put(testIdentifier, reason == null ? "" : reason);
 	}
@@ -107,7 +120,7 @@ class XmlReportData {
 		if (finishedTests.containsKey(testIdentifier)) {
 			return Optional.of(finishedTests.get(testIdentifier));
 		}
-		Optional<TestIdentifier> parent = testPlan.getParent(testIdentifier);
+		Optional<TestIdentifier> parent = getParent(testIdentifier);
 		Optional<TestIdentifier> ancestor = findAncestor(parent, finishedTests::containsKey);
 		if (ancestor.isPresent()) {
 			TestExecutionResult result = finishedTests.get(ancestor.get());
@@ -122,6 +135,53 @@ class XmlReportData {
 		return reportEntries.getOrDefault(testIdentifier, emptyList());
 	}
 
+	Optional<TestIdentifier> getParent(TestIdentifier testIdentifier) {
+		return testIdentifier.getParentId().map(parentId -> {
+			TestIdentifier dynamicParent = dynamicTests.get(parentId);
+			return dynamicParent != null ? dynamicParent : testPlan.getTestIdentifier(parentId);
+		});
+	}
+
+	/**
+	 * Get all descendants of the supplied {@link TestIdentifier} in the same
+	 * order as {@link TestPlan#getDescendants}, including dynamic tests that
+	 * have already been removed from the test plan.
+	 */
+	List<TestIdentifier> getDescendants(TestIdentifier parent) {
+		List<TestIdentifier> descendants = new ArrayList<>();
+		collectDescendants(parent, descendants);
+		return descendants;
+	}
+
+	private void collectDescendants(TestIdentifier parent, List<TestIdentifier> descendants) {
+		List<TestIdentifier> children = new ArrayList<>();
+		for (TestIdentifier child : testPlan.getChildren(parent.getUniqueId())) {
+			if (!dynamicTests.containsKey(child.getUniqueId())) {
+				children.add(child);
+			}
+		}
+		children.addAll(dynamicChildren.getOrDefault(parent.getUniqueId(), emptyList()));
+		descendants.addAll(children);
+		children.forEach(child -> collectDescendants(child, descendants));
+	}
+
+	/**
+	 * Discard all data about the supplied root and its descendants.
+	 */
+	void discard(TestIdentifier root) {
+		List<TestIdentifier> testIdentifiers = getDescendants(root);
+		testIdentifiers.add(root);
+		for (TestIdentifier testIdentifier : testIdentifiers) {
+			finishedTests.remove(testIdentifier);
+			skippedTests.remove(testIdentifier);
+			startInstants.remove(testIdentifier);
+			endInstants.remove(testIdentifier);
+			reportEntries.remove(testIdentifier);
+			dynamicTests.remove(testIdentifier.getUniqueId());
+			dynamicChildren.remove(testIdentifier.getUniqueId());
+		}
+	}
+
 	private Optional<TestIdentifier> findSkippedAncestor(TestIdentifier testIdentifier) {
 		return findAncestor(Optional.of(testIdentifier), skippedTests::containsKey);
 	}
@@ -133,7 +193,7 @@ class XmlReportData {
 			if (predicate.test(current.get())) {
 				return current;
 			}
-			current = testPlan.getParent(current.get());
+			current = getParent(current.get());
 		}
 		return Optional.empty();
 	}
@@ -50,7 +50,7 @@ class XmlReportWriter {
 
 	void writeXmlReport(TestIdentifier testIdentifier, Writer out) throws XMLStreamException {
 		// @formatter:off
-		List<TestIdentifier> tests = reportData.getTestPlan().getDescendants(testIdentifier)
+		List<TestIdentifier> tests = reportData.getDescendants(testIdentifier)
 				.stream()
 				.filter(TestIdentifier::isTest)
 				.collect(toList());
@@ -149,7 +149,7 @@ class XmlReportWriter {
 
 	private String getClassName(TestIdentifier testIdentifier) {
 		// @formatter:off
-		return reportData.getTestPlan().getParent(testIdentifier)
+		return reportData.getParent(testIdentifier)
 				.map(TestIdentifier::getLegacyReportingName)
 				.orElse("<unrooted>");
 		// @formatter:on
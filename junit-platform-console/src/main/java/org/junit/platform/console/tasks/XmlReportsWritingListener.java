@@ -69,6 +69,11 @@ class XmlReportsWritingListener implements TestExecutionListener {
 		this.reportData = null;
 	}
 
+	@Override
+	public void dynamicTestRegistered(TestIdentifier testIdentifier) {
+		reportData.markDynamicTestRegistered(testIdentifier);
+	}
+
 	@Override
 	public void executionSkipped(TestIdentifier testIdentifier, String reason) {
 		reportData.markSkipped(testIdentifier, reason);
@@ -95,6 +100,7 @@ class XmlReportsWritingListener implements TestExecutionListener {
 		if (isARoot(testIdentifier)) {
 			String rootName = UniqueId.parse(testIdentifier.getUniqueId()).getSegments().get(0).getValue();
 			writeXmlReportSafely(testIdentifier, rootName);
+			reportData.discard(testIdentifier);
 		}
 	}
 
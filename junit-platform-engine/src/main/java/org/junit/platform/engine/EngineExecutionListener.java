@@ -14,6 +14,7 @@ import static org.junit.platform.commons.meta.API.Usage.Experimental;
 
 import org.junit.platform.commons.meta.API;
 import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.engine.reporting.ExecutionTimings;
 import org.junit.platform.engine.reporting.ReportEntry;
 
 /**
@@ -122,4 +123,21 @@ public interface EngineExecutionListener {
 	 */
 	void reportingEntryPublished(TestDescriptor testDescriptor, ReportEntry entry);
 
+	/**
+	 * May be called in order to publish the durations of the individual
+	 * lifecycle phases of executing the supplied {@code testDescriptor}.
+	 *
+	 * <p>If called, this method must be called <em>before</em>
+	 * {@linkplain #executionFinished finishing} or
+	 * {@linkplain #executionSkipped skipping} the test or container.
+	 *
+	 * <p>The default implementation does nothing.
+	 *
+	 * @param testDescriptor the descriptor of the test or container that has
+	 * been executed or skipped
+	 * @param timings the durations of the executed lifecycle phases
+	 */
+	default void executionTimingsRecorded(TestDescriptor testDescriptor, ExecutionTimings timings) {
+	}
+
 }
@@ -12,12 +12,17 @@ package org.junit.platform.engine;
 
 import static org.junit.platform.commons.meta.API.Usage.Experimental;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.Preconditions;
 
 /**
  * Mutable descriptor for a test or container that has been discovered by a
@@ -137,6 +142,36 @@ public interface TestDescriptor {
 	 */
 	void removeChild(TestDescriptor descriptor);
 
+	/**
+	 * Order the <em>children</em> of this descriptor.
+	 *
+	 * <p>The supplied {@code orderer} receives a mutable copy of the current
+	 * children and must return a list that contains exactly the same
+	 * children, in the order in which they should subsequently be returned
+	 * by {@link #getChildren()}.
+	 *
+	 * <p>The default implementation removes all children and adds them again
+	 * in the new order.
+	 *
+	 * @param orderer the function used to order the children; never
+	 * {@code null}
+	 */
+	default void orderChildren(UnaryOperator<List<TestDescriptor>> orderer) {
+		Preconditions.notNull(orderer, "orderer must not be null");
+		Set<? extends TestDescriptor> children = getChildren();
+		List<TestDescriptor> orderedChildren = orderer.apply(new ArrayList<>(children));
+		Preconditions.notNull(orderedChildren, "orderer must not return null");
+		Preconditions.condition(
+			orderedChildren.size() == children.size() && new HashSet<>(orderedChildren).equals(children),
+			"orderer must neither add nor remove children");
+		if (!orderedChildren.equals(new ArrayList<>(children))) {
+			orderedChildren.forEach(child -> {
+				removeChild(child);
+				addChild(child);
+			});
+		}
+	}
+
 	/**
 	 * Remove this non-root descriptor from its parent and remove all the
 	 * children from this descriptor.
@@ -83,6 +83,10 @@ public class UniqueId implements Cloneable, Serializable {
 	private final UniqueIdFormat uniqueIdFormat;
 	private final List<Segment> segments = new ArrayList<>();
 
+	// lazily computed, since a UniqueId is immutable once it has been created
+	private transient int hashCode;
+	private transient String toString;
+
 	private UniqueId(UniqueIdFormat uniqueIdFormat, Segment segment) {
 		this.uniqueIdFormat = uniqueIdFormat;
 		this.segments.add(segment);
@@ -169,16 +173,29 @@ public class UniqueId implements Cloneable, Serializable {
 
 	@Override
 	public int hashCode() {
-		return this.segments.hashCode();
+		int value = this.hashCode;
+		if (value == 0) {
+			value = this.segments.hashCode();
+			this.hashCode = value;
+		}
+		return value;
 	}
 
 	/**
 	 * Generate the unique, formatted string representation of this {@code UniqueId}
 	 * using the configured {@link UniqueIdFormat}.
+	 *
+	 * <p>The string representation is only generated once and cached
+	 * afterwards.
 	 */
 	@Override
 	public String toString() {
-		return this.uniqueIdFormat.format(this);
+		String value = this.toString;
+		if (value == null) {
+			value = this.uniqueIdFormat.format(this);
+			this.toString = value;
+		}
+		return value;
 	}
 
 	/**
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.junit.platform.engine.reporting;
+
+import static org.junit.platform.commons.meta.API.Usage.Experimental;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.ToStringBuilder;
+
+/**
+ * {@code ExecutionTimings} encapsulates the durations of the individual
+ * lifecycle {@linkplain Phase phases} of executing a single test or container.
+ *
+ * <p>Durations are measured using a monotonic clock, i.e.
+ * {@link System#nanoTime()}, and are therefore not affected by changes of
+ * the system time.
+ *
+ * @since 1.0
+ * @see #from(Map)
+ * @see org.junit.platform.engine.EngineExecutionListener#executionTimingsRecorded
+ */
+@API(Experimental)
+public final class ExecutionTimings {
+
+	/**
+	 * Lifecycle phases of executing a test or container.
+	 *
+	 * <p>For engines based on {@code HierarchicalTestEngine}, each phase
+	 * corresponds to the method of the same name in {@code Node}.
+	 */
+	public enum Phase {
+
+		/**
+		 * Preparation of the execution context.
+		 */
+		PREPARE,
+
+		/**
+		 * Determination of whether execution should be skipped.
+		 */
+		SHOULD_BE_SKIPPED,
+
+		/**
+		 * Execution of the <em>before</em> behavior, e.g. {@code @BeforeAll}
+		 * methods of a test class.
+		 */
+		BEFORE,
+
+		/**
+		 * Execution of the behavior of a test, including any dynamic tests it
+		 * registers but excluding the execution of its static children.
+		 */
+		EXECUTE,
+
+		/**
+		 * Execution of the <em>after</em> behavior, e.g. {@code @AfterAll}
+		 * methods of a test class.
+		 */
+		AFTER
+
+	}
+
+	private final Map<Phase, Duration> durations;
+
+	/**
+	 * Factory for creating a new {@code ExecutionTimings} from a map of
+	 * phases to their durations.
+	 *
+	 * @param durations the durations of all phases that were executed; never
+	 * {@code null}; keys and values must not be {@code null}
+	 */
+	public static ExecutionTimings from(Map<Phase, Duration> durations) {
+		Preconditions.notNull(durations, "durations must not be null");
+		return new ExecutionTimings(durations);
+	}
+
+	private ExecutionTimings(Map<Phase, Duration> durations) {
+		Map<Phase, Duration> copy = new EnumMap<>(Phase.class);
+		durations.forEach((phase, duration) -> copy.put(Preconditions.notNull(phase, "phase must not be null"),
+			Preconditions.notNull(duration, "duration must not be null")));
+		this.durations = Collections.unmodifiableMap(copy);
+	}
+
+	/**
+	 * Get the duration of the supplied {@code phase}, if it was executed.
+	 *
+	 * @param phase the phase to look up; never {@code null}
+	 */
+	public Optional<Duration> getDuration(Phase phase) {
+		Preconditions.notNull(phase, "phase must not be null");
+		return Optional.ofNullable(this.durations.get(phase));
+	}
+
+	/**
+	 * Get an unmodifiable map of all executed phases to their durations,
+	 * in the order of the {@link Phase} constants.
+	 */
+	public Map<Phase, Duration> getDurations() {
+		return this.durations;
+	}
+
+	/**
+	 * Get the sum of the durations of all executed phases.
+	 */
+	public Duration getTotalDuration() {
+		return this.durations.values().stream().reduce(Duration.ZERO, Duration::plus);
+	}
+
+	@Override
+	public String toString() {
+		ToStringBuilder builder = new ToStringBuilder(this);
+		this.durations.forEach((phase, duration) -> builder.append(phase.name(), duration));
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.junit.platform.commons.meta.API.Usage.Experimental;
+
+import java.util.Objects;
+
+import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.ToStringBuilder;
+
+/**
+ * Immutable value object for a shared resource that a {@link Node} requires
+ * exclusive or shared access to during its execution.
+ *
+ * <p>If parallel execution is enabled, a {@link HierarchicalTestEngine}
+ * never executes two nodes that require access to the same resource
+ * concurrently unless both of them only require
+ * {@link LockMode#READ READ} access.
+ *
+ * @since 1.0
+ * @see Node#getExclusiveResources()
+ */
+@API(Experimental)
+public final class ExclusiveResource {
+
+	private final String key;
+	private final LockMode lockMode;
+
+	/**
+	 * Create a new {@code ExclusiveResource}.
+	 *
+	 * @param key the identifier of the resource; never {@code null} or blank
+	 * @param lockMode the lock mode to use to synchronize access to the
+	 * resource; never {@code null}
+	 */
+	public ExclusiveResource(String key, LockMode lockMode) {
+		this.key = Preconditions.notBlank(key, "key must not be null or blank");
+		this.lockMode = Preconditions.notNull(lockMode, "lockMode must not be null");
+	}
+
+	/**
+	 * Get the identifier of this resource.
+	 */
+	public String getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Get the lock mode required for this resource.
+	 */
+	public LockMode getLockMode() {
+		return this.lockMode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof ExclusiveResource) {
+			ExclusiveResource that = (ExclusiveResource) obj;
+			return this.key.equals(that.key) && this.lockMode == that.lockMode;
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.key, this.lockMode);
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("key", this.key)
+				.append("lockMode", this.lockMode)
+				.toString();
+		// @formatter:on
+	}
+
+	/**
+	 * Supported lock modes for an {@link ExclusiveResource}.
+	 */
+	public enum LockMode {
+
+		/**
+		 * Require only shared read access to the resource.
+		 */
+		READ,
+
+		/**
+		 * Require exclusive read and write access to the resource.
+		 */
+		READ_WRITE
+
+	}
+
+}
@@ -27,6 +27,38 @@ import org.junit.platform.engine.TestEngine;
 @API(Experimental)
 public abstract class HierarchicalTestEngine<C extends EngineExecutionContext> implements TestEngine {
 
+	/**
+	 * Property name used to enable parallel execution of the {@linkplain Node
+	 * nodes} in the hierarchy: {@value}
+	 *
+	 * <p>If enabled, sibling nodes whose {@linkplain Node#getExecutionMode()
+	 * execution mode} is {@link Node.ExecutionMode#CONCURRENT CONCURRENT} are
+	 * executed concurrently in a {@link java.util.concurrent.ForkJoinPool}.
+	 *
+	 * <p>The default behavior is to execute all nodes sequentially in the
+	 * calling thread.
+	 *
+	 * @see #PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME
+	 */
+	public static final String PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME = "junit.execution.parallel.enabled";
+
+	/**
+	 * Property name used to configure the desired parallelism, i.e. the
+	 * maximum number of threads used to execute nodes, if parallel execution
+	 * is enabled: {@value}
+	 *
+	 * <p>The value must be a positive integer. If not set, the number of
+	 * {@linkplain Runtime#availableProcessors() available processors} is used.
+	 *
+	 * <p>If the engine is executed by a worker thread of a
+	 * {@link java.util.concurrent.ForkJoinPool ForkJoinPool}, e.g. when the
+	 * launcher executes several engines concurrently, nodes are executed in
+	 * that pool instead, and its parallelism applies.
+	 *
+	 * @see #PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME
+	 */
+	public static final String PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME = "junit.execution.parallel.parallelism";
+
 	/**
 	 * Create an initial {@linkplain #createExecutionContext execution
 	 * context}, execute the behavior of all {@linkplain Node nodes} in the
@@ -35,12 +67,26 @@ public abstract class HierarchicalTestEngine<C extends EngineExecutionContext> i
 	 * its {@linkplain ExecutionRequest#getEngineExecutionListener() execution
 	 * listener} of test execution events.
 	 *
+	 * <p>If {@linkplain #PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME parallel
+	 * execution} is enabled, all events are reported to the execution listener
+	 * in a serialized fashion, i.e. the listener is never notified by multiple
+	 * threads at the same time.
+	 *
 	 * @see Node
 	 * @see #createExecutionContext
 	 */
 	@Override
 	public final void execute(ExecutionRequest request) {
-		new HierarchicalTestExecutor<>(request, createExecutionContext(request)).execute();
+		ParallelExecutionConfiguration configuration = ParallelExecutionConfiguration.from(
+			request.getConfigurationParameters());
+		ExecutionRequest effectiveRequest = request;
+		if (configuration.isEnabled()) {
+			effectiveRequest = new ExecutionRequest(request.getRootTestDescriptor(),
+				new SynchronizedEngineExecutionListener(request.getEngineExecutionListener()),
+				request.getConfigurationParameters());
+		}
+		new HierarchicalTestExecutor<>(effectiveRequest, createExecutionContext(effectiveRequest),
+			configuration).execute();
 	}
 
 	/**
@@ -12,11 +12,27 @@ package org.junit.platform.engine.support.hierarchical;
 
 import static org.junit.platform.commons.util.BlacklistedExceptions.rethrowIfBlacklisted;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.Lock;
+
 import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestEngine;
 import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.engine.reporting.ExecutionTimings;
+import org.junit.platform.engine.reporting.ExecutionTimings.Phase;
+import org.junit.platform.engine.support.hierarchical.Node.ExecutionMode;
 import org.junit.platform.engine.support.hierarchical.Node.SkipResult;
 
 /**
@@ -29,6 +45,30 @@ import org.junit.platform.engine.support.hierarchical.Node.SkipResult;
  * executing nodes in the hierarchy in the appropriate order as well as
  * firing the necessary events in the {@link EngineExecutionListener}.
  *
+ * <p>If {@linkplain ParallelExecutionConfiguration#isEnabled() parallel
+ * execution} is enabled, all nodes are executed in a dedicated
+ * {@link ForkJoinPool}, or in the pool of the calling thread if it is a
+ * worker thread of a {@code ForkJoinPool} itself, and the children of a container whose
+ * {@linkplain Node#getExecutionMode() execution mode} is
+ * {@link ExecutionMode#CONCURRENT CONCURRENT} are forked so that they may
+ * be executed concurrently. Children with execution mode
+ * {@link ExecutionMode#SAME_THREAD SAME_THREAD} are executed sequentially
+ * in the thread of their parent. Dynamic tests are always executed
+ * immediately in the thread that registers them. Access to the
+ * {@linkplain Node#getExclusiveResources() exclusive resources} of nodes is
+ * synchronized via {@link NodeLocks}.
+ *
+ * <p>The durations of the individual lifecycle phases of each node are
+ * measured and {@linkplain EngineExecutionListener#executionTimingsRecorded
+ * reported} before the node is reported as finished or skipped.
+ *
+ * <p>Nodes are executed iteratively using an explicit work stack of
+ * {@link NodeExecution NodeExecutions} rather than recursively, so that the
+ * stack depth required to execute a tree of nodes does not depend on the
+ * depth of the tree. Only dynamic tests, which must be executed immediately
+ * while their registering node is still being executed, are executed on a
+ * nested work stack.
+ *
  * @param <C> the type of {@code EngineExecutionContext} used by the
  * {@code HierarchicalTestEngine}
  * @since 1.0
@@ -40,73 +80,259 @@ class HierarchicalTestExecutor<C extends EngineExecutionContext> {
 	private final TestDescriptor rootTestDescriptor;
 	private final EngineExecutionListener listener;
 	private final C rootContext;
+	private final ParallelExecutionConfiguration configuration;
+	private final NodeLocks nodeLocks;
 
 	HierarchicalTestExecutor(ExecutionRequest request, C rootContext) {
+		this(request, rootContext, ParallelExecutionConfiguration.from(request.getConfigurationParameters()));
+	}
+
+	HierarchicalTestExecutor(ExecutionRequest request, C rootContext, ParallelExecutionConfiguration configuration) {
 		this.rootTestDescriptor = request.getRootTestDescriptor();
 		this.listener = request.getEngineExecutionListener();
 		this.rootContext = rootContext;
+		this.configuration = configuration;
+		this.nodeLocks = (configuration.isEnabled() ? new NodeLocks(this.rootTestDescriptor) : NodeLocks.NONE);
 	}
 
 	void execute() {
-		execute(this.rootTestDescriptor, this.rootContext);
+		if (!this.configuration.isEnabled()) {
+			execute(this.rootTestDescriptor, this.rootContext);
+			return;
+		}
+		if (ForkJoinTask.inForkJoinPool()) {
+			// Share the pool of the caller, e.g. when engines are executed concurrently.
+			new NodeExecutionTask(this.rootTestDescriptor, this.rootContext).invoke();
+			return;
+		}
+		ForkJoinPool forkJoinPool = new ForkJoinPool(this.configuration.getParallelism());
+		try {
+			forkJoinPool.invoke(new NodeExecutionTask(this.rootTestDescriptor, this.rootContext));
+		}
+		finally {
+			forkJoinPool.shutdownNow();
+		}
 	}
 
 	private void execute(TestDescriptor testDescriptor, C parentContext) {
-		Node<C> node = asNode(testDescriptor);
+		Deque<NodeExecution> workStack = new ArrayDeque<>();
+		workStack.push(new NodeExecution(testDescriptor, parentContext));
+		while (!workStack.isEmpty()) {
+			workStack.pop().proceed(workStack);
+		}
+	}
 
-		C preparedContext;
-		try {
-			preparedContext = node.prepare(parentContext);
-			SkipResult skipResult = node.shouldBeSkipped(preparedContext);
-			if (skipResult.isSkipped()) {
-				this.listener.executionSkipped(testDescriptor, skipResult.getReason().orElse("<unknown>"));
-				return;
+	private boolean isForkable(TestDescriptor child) {
+		return this.configuration.isEnabled() && ForkJoinTask.inForkJoinPool()
+				&& asNode(child).getExecutionMode() == ExecutionMode.CONCURRENT
+				&& !this.nodeLocks.isExecutedInSameThread(child);
+	}
+
+	/**
+	 * Record the duration of the supplied phase, which started at the supplied
+	 * time, and return the current time as the start time of the next phase.
+	 */
+	private static long recordDuration(Map<Phase, Duration> durations, Phase phase, long startTime) {
+		long endTime = System.nanoTime();
+		durations.put(phase, Duration.ofNanos(endTime - startTime));
+		return endTime;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Node<C> asNode(TestDescriptor testDescriptor) {
+		return (testDescriptor instanceof Node ? (Node<C>) testDescriptor : noOpNode);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final Node noOpNode = new Node() {
+	};
+
+	/**
+	 * The execution of a single node, split into two steps which are
+	 * performed when the execution is popped off the work stack: the first
+	 * step prepares the node, executes its <em>before</em> and
+	 * <em>execute</em> behavior, and pushes the execution itself followed by
+	 * its children onto the work stack; the second step waits for forked
+	 * children and executes the <em>after</em> behavior.
+	 */
+	private class NodeExecution {
+
+		private final TestDescriptor testDescriptor;
+		private final Node<C> node;
+		private final C parentContext;
+		private final Map<Phase, Duration> durations = new EnumMap<>(Phase.class);
+		private final Deque<NodeExecutionTask> forkedTasks = new ArrayDeque<>();
+
+		private List<Lock> locks;
+		private C context;
+		private TestExecutionResult result;
+
+		NodeExecution(TestDescriptor testDescriptor, C parentContext) {
+			this.testDescriptor = testDescriptor;
+			this.node = asNode(testDescriptor);
+			this.parentContext = parentContext;
+		}
+
+		void proceed(Deque<NodeExecution> workStack) {
+			boolean firstStep = (this.locks == null);
+			if (firstStep) {
+				this.locks = nodeLocks.getLocks(this.testDescriptor);
+				NodeLocks.acquire(this.locks);
+			}
+			boolean completed = true;
+			try {
+				completed = (firstStep ? !start(workStack) : awaitForkedChildrenAndFinish(workStack));
+			}
+			finally {
+				if (completed) {
+					NodeLocks.release(this.locks);
+				}
 			}
 		}
-		catch (Throwable throwable) {
-			rethrowIfBlacklisted(throwable);
-			// We call executionStarted first to comply with the contract of EngineExecutionListener
-			this.listener.executionStarted(testDescriptor);
-			this.listener.executionFinished(testDescriptor, TestExecutionResult.failed(throwable));
-			return;
+
+		/**
+		 * @return {@code true} if the node has been started and needs to be
+		 * finished later on
+		 */
+		private boolean start(Deque<NodeExecution> workStack) {
+			try {
+				long startTime = System.nanoTime();
+				try {
+					this.context = this.node.prepare(this.parentContext);
+				}
+				finally {
+					startTime = recordDuration(this.durations, Phase.PREPARE, startTime);
+				}
+				SkipResult skipResult;
+				try {
+					skipResult = this.node.shouldBeSkipped(this.context);
+				}
+				finally {
+					recordDuration(this.durations, Phase.SHOULD_BE_SKIPPED, startTime);
+				}
+				if (skipResult.isSkipped()) {
+					listener.executionTimingsRecorded(this.testDescriptor, ExecutionTimings.from(this.durations));
+					listener.executionSkipped(this.testDescriptor, skipResult.getReason().orElse("<unknown>"));
+					return false;
+				}
+			}
+			catch (Throwable throwable) {
+				rethrowIfBlacklisted(throwable);
+				// We call executionStarted first to comply with the contract of EngineExecutionListener
+				listener.executionStarted(this.testDescriptor);
+				listener.executionTimingsRecorded(this.testDescriptor, ExecutionTimings.from(this.durations));
+				listener.executionFinished(this.testDescriptor, TestExecutionResult.failed(throwable));
+				return false;
+			}
+
+			listener.executionStarted(this.testDescriptor);
+
+			this.result = singleTestExecutor.executeSafely(() -> {
+				long startTime = System.nanoTime();
+				try {
+					this.context = this.node.before(this.context);
+				}
+				finally {
+					startTime = recordDuration(this.durations, Phase.BEFORE, startTime);
+				}
+				C dynamicTestContext = this.context;
+				try {
+					this.context = this.node.execute(this.context, dynamicTestDescriptor -> {
+						listener.dynamicTestRegistered(dynamicTestDescriptor);
+						execute(dynamicTestDescriptor, dynamicTestContext);
+					});
+				}
+				finally {
+					recordDuration(this.durations, Phase.EXECUTE, startTime);
+				}
+			});
+
+			workStack.push(this);
+
+			// If a node is NOT a leaf, execute its children.
+			// Note: executing children for a leaf could result in accidental
+			// execution of dynamically added children.
+			if (this.result.getStatus() == Status.SUCCESSFUL && !this.node.isLeaf()) {
+				scheduleChildren(workStack);
+			}
+			return true;
+		}
+
+		private void scheduleChildren(Deque<NodeExecution> workStack) {
+			List<NodeExecution> sameThreadChildren = new ArrayList<>();
+			for (TestDescriptor child : new ArrayList<>(this.testDescriptor.getChildren())) {
+				if (isForkable(child)) {
+					NodeExecutionTask task = new NodeExecutionTask(child, this.context);
+					task.fork();
+					this.forkedTasks.push(task);
+				}
+				else {
+					sameThreadChildren.add(new NodeExecution(child, this.context));
+				}
+			}
+			// Push in reverse order so that children are executed in their original order.
+			for (int i = sameThreadChildren.size() - 1; i >= 0; i--) {
+				workStack.push(sameThreadChildren.get(i));
+			}
 		}
 
-		this.listener.executionStarted(testDescriptor);
+		/**
+		 * Wait for all forked children to finish and finish the node afterwards.
+		 * Children that have not been stolen by another worker yet are executed
+		 * on the current work stack, in which case finishing is postponed.
+		 *
+		 * @return {@code true} if the node has been finished
+		 */
+		private boolean awaitForkedChildrenAndFinish(Deque<NodeExecution> workStack) {
+			while (!this.forkedTasks.isEmpty()) {
+				NodeExecutionTask task = this.forkedTasks.pop();
+				if (task.tryUnfork()) {
+					workStack.push(this);
+					workStack.push(new NodeExecution(task.testDescriptor, task.parentContext));
+					return false;
+				}
+				task.join();
+			}
+			finish();
+			return true;
+		}
 
-		TestExecutionResult result = singleTestExecutor.executeSafely(() -> {
-			C context = preparedContext;
+		private void finish() {
+			long startTime = System.nanoTime();
+			TestExecutionResult afterResult;
 			try {
-				context = node.before(context);
-				C dynamicTestContext = context;
-				context = node.execute(context, dynamicTestDescriptor -> {
-					this.listener.dynamicTestRegistered(dynamicTestDescriptor);
-					execute(dynamicTestDescriptor, dynamicTestContext);
-				});
-
-				// If a node is NOT a leaf, execute its children recursively.
-				// Note: executing children for a leaf could result in accidental
-				// execution of dynamically added children.
-				if (!node.isLeaf()) {
-					for (TestDescriptor child : testDescriptor.getChildren()) {
-						execute(child, context);
-					}
-				}
+				afterResult = singleTestExecutor.executeSafely(() -> this.node.after(this.context));
 			}
 			finally {
-				node.after(context);
+				recordDuration(this.durations, Phase.AFTER, startTime);
+			}
+			// An exception thrown by the after behavior takes precedence.
+			if (afterResult.getStatus() != Status.SUCCESSFUL) {
+				this.result = afterResult;
 			}
-		});
 
-		this.listener.executionFinished(testDescriptor, result);
-	}
+			listener.executionTimingsRecorded(this.testDescriptor, ExecutionTimings.from(this.durations));
+			listener.executionFinished(this.testDescriptor, this.result);
+		}
 
-	@SuppressWarnings("unchecked")
-	private Node<C> asNode(TestDescriptor testDescriptor) {
-		return (testDescriptor instanceof Node ? (Node<C>) testDescriptor : noOpNode);
 	}
 
-	@SuppressWarnings("rawtypes")
-	private static final Node noOpNode = new Node() {
-	};
+	@SuppressWarnings("serial")
+	private class NodeExecutionTask extends RecursiveAction {
+
+		private final TestDescriptor testDescriptor;
+		private final C parentContext;
+
+		NodeExecutionTask(TestDescriptor testDescriptor, C parentContext) {
+			this.testDescriptor = testDescriptor;
+			this.parentContext = parentContext;
+		}
+
+		@Override
+		protected void compute() {
+			execute(this.testDescriptor, this.parentContext);
+		}
+
+	}
 
 }
@@ -12,7 +12,9 @@ package org.junit.platform.engine.support.hierarchical;
 
 import static org.junit.platform.commons.meta.API.Usage.Experimental;
 
+import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.platform.commons.meta.API;
 import org.junit.platform.commons.util.ToStringBuilder;
@@ -128,6 +130,23 @@ public interface Node<C extends EngineExecutionContext> {
 	default void after(C context) throws Exception {
 	}
 
+	/**
+	 * Get the preferred {@linkplain ExecutionMode execution mode} for this node.
+	 *
+	 * <p>The execution mode is only a hint: it is honored if parallel execution
+	 * has been enabled via the
+	 * {@value HierarchicalTestEngine#PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME}
+	 * configuration parameter and ignored otherwise.
+	 *
+	 * <p>The default implementation returns {@link ExecutionMode#CONCURRENT}.
+	 *
+	 * @return the execution mode of this node; never {@code null}
+	 * @see ExecutionMode
+	 */
+	default ExecutionMode getExecutionMode() {
+		return ExecutionMode.CONCURRENT;
+	}
+
 	/**
 	 * The result of determining whether the execution of a given {@code context}
 	 * should be <em>skipped</em>.
@@ -197,6 +216,47 @@ public interface Node<C extends EngineExecutionContext> {
 		}
 	}
 
+	/**
+	 * Get the set of {@linkplain ExclusiveResource exclusive resources}
+	 * required to execute this node.
+	 *
+	 * <p>If parallel execution is enabled, locks for the resources of a node
+	 * and of all of its descendants are acquired before the node is executed
+	 * and released after it has finished. The descendants of such a node are
+	 * executed in the same thread regardless of their
+	 * {@linkplain #getExecutionMode() execution mode}.
+	 *
+	 * <p>The default implementation returns an empty set.
+	 *
+	 * @return the set of exclusive resources required by this node; never
+	 * {@code null} but potentially empty
+	 * @see ExclusiveResource
+	 */
+	default Set<ExclusiveResource> getExclusiveResources() {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Supported execution modes for a {@link Node} when parallel execution
+	 * is enabled.
+	 *
+	 * @see Node#getExecutionMode()
+	 */
+	enum ExecutionMode {
+
+		/**
+		 * Execute the node in the same thread as its parent, sequentially
+		 * with respect to any other {@code SAME_THREAD} siblings.
+		 */
+		SAME_THREAD,
+
+		/**
+		 * Allow the node to be executed concurrently with its siblings.
+		 */
+		CONCURRENT
+
+	}
+
 	/**
 	 * Executor for additional, dynamic test descriptors discovered during
 	 * execution of a {@link Node}.
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.junit.platform.engine.support.hierarchical;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySortedMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode;
+
+/**
+ * Assignment of locks for the {@linkplain Node#getExclusiveResources()
+ * exclusive resources} of the nodes in a test tree.
+ *
+ * <p>Locks are only ever acquired by the topmost nodes that require
+ * exclusive resources themselves, and they cover the resources of all
+ * nodes in their subtrees. Since all descendants of such a node are executed
+ * in the same thread and no further locks are acquired while holding them,
+ * and since locks are always acquired in the natural order of their keys,
+ * the locking scheme is free of deadlocks.
+ *
+ * @since 1.0
+ * @see ExclusiveResource
+ */
+class NodeLocks {
+
+	static final NodeLocks NONE = new NodeLocks();
+
+	private final Map<String, ReadWriteLock> locksByKey = new HashMap<>();
+	private final Map<TestDescriptor, List<Lock>> locksByDescriptor = new HashMap<>();
+	private final Set<TestDescriptor> sameThreadDescriptors = new HashSet<>();
+
+	private NodeLocks() {
+	}
+
+	NodeLocks(TestDescriptor rootDescriptor) {
+		assignLocks(rootDescriptor, collectResourcesBySubtree(rootDescriptor));
+	}
+
+	/**
+	 * Get the locks that must be held while executing the supplied descriptor,
+	 * ordered by the keys of their resources.
+	 */
+	List<Lock> getLocks(TestDescriptor descriptor) {
+		return this.locksByDescriptor.getOrDefault(descriptor, emptyList());
+	}
+
+	/**
+	 * Determine if the supplied descriptor must be executed in the thread of
+	 * its parent since one of its ancestors holds the locks for it.
+	 */
+	boolean isExecutedInSameThread(TestDescriptor descriptor) {
+		return this.sameThreadDescriptors.contains(descriptor);
+	}
+
+	static void acquire(List<Lock> locks) {
+		for (int i = 0; i < locks.size(); i++) {
+			try {
+				ForkJoinPool.managedBlock(new LockAcquisition(locks.get(i)));
+			}
+			catch (InterruptedException ex) {
+				release(locks.subList(0, i));
+				Thread.currentThread().interrupt();
+				throw new JUnitException("Interrupted while acquiring locks for exclusive resources", ex);
+			}
+		}
+	}
+
+	static void release(List<Lock> locks) {
+		for (int i = locks.size() - 1; i >= 0; i--) {
+			locks.get(i).unlock();
+		}
+	}
+
+	/**
+	 * Collect the resources of all subtrees that require any resources,
+	 * visiting the tree iteratively in reverse pre-order so that all
+	 * descendants of a node are visited before the node itself.
+	 */
+	private static Map<TestDescriptor, SortedMap<String, LockMode>> collectResourcesBySubtree(
+			TestDescriptor rootDescriptor) {
+
+		Map<TestDescriptor, SortedMap<String, LockMode>> resourcesBySubtree = new HashMap<>();
+		List<TestDescriptor> preOrder = preOrder(rootDescriptor);
+		for (int i = preOrder.size() - 1; i >= 0; i--) {
+			TestDescriptor descriptor = preOrder.get(i);
+			SortedMap<String, LockMode> resources = new TreeMap<>();
+			if (descriptor instanceof Node) {
+				((Node<?>) descriptor).getExclusiveResources().forEach(
+					resource -> addResource(resources, resource.getKey(), resource.getLockMode()));
+			}
+			for (TestDescriptor child : descriptor.getChildren()) {
+				resourcesBySubtree.getOrDefault(child, emptySortedMap()).forEach(
+					(key, lockMode) -> addResource(resources, key, lockMode));
+			}
+			if (!resources.isEmpty()) {
+				resourcesBySubtree.put(descriptor, resources);
+			}
+		}
+		return resourcesBySubtree;
+	}
+
+	private static void addResource(SortedMap<String, LockMode> resources, String key, LockMode lockMode) {
+		resources.merge(key, lockMode, (a, b) -> (a == LockMode.READ_WRITE ? a : b));
+	}
+
+	private void assignLocks(TestDescriptor rootDescriptor,
+			Map<TestDescriptor, SortedMap<String, LockMode>> resourcesBySubtree) {
+
+		Deque<TestDescriptor> stack = new ArrayDeque<>();
+		stack.push(rootDescriptor);
+		while (!stack.isEmpty()) {
+			TestDescriptor descriptor = stack.pop();
+			SortedMap<String, LockMode> resources = resourcesBySubtree.get(descriptor);
+			if (resources == null) {
+				continue;
+			}
+			if (!requiresOwnResources(descriptor)) {
+				descriptor.getChildren().forEach(stack::push);
+				continue;
+			}
+			List<Lock> locks = new ArrayList<>(resources.size());
+			resources.forEach((key, lockMode) -> {
+				ReadWriteLock readWriteLock = this.locksByKey.computeIfAbsent(key, k -> new ReentrantReadWriteLock());
+				locks.add(lockMode == LockMode.READ ? readWriteLock.readLock() : readWriteLock.writeLock());
+			});
+			this.locksByDescriptor.put(descriptor, locks);
+			List<TestDescriptor> subtree = preOrder(descriptor);
+			this.sameThreadDescriptors.addAll(subtree.subList(1, subtree.size()));
+		}
+	}
+
+	private static List<TestDescriptor> preOrder(TestDescriptor rootDescriptor) {
+		List<TestDescriptor> result = new ArrayList<>();
+		Deque<TestDescriptor> stack = new ArrayDeque<>();
+		stack.push(rootDescriptor);
+		while (!stack.isEmpty()) {
+			TestDescriptor descriptor = stack.pop();
+			result.add(descriptor);
+			List<TestDescriptor> children = new ArrayList<>(descriptor.getChildren());
+			for (int i = children.size() - 1; i >= 0; i--) {
+				stack.push(children.get(i));
+			}
+		}
+		return result;
+	}
+
+	private static boolean requiresOwnResources(TestDescriptor descriptor) {
+		return descriptor instanceof Node && !((Node<?>) descriptor).getExclusiveResources().isEmpty();
+	}
+
+	private static class LockAcquisition implements ForkJoinPool.ManagedBlocker {
+
+		private final Lock lock;
+		private boolean acquired;
+
+		LockAcquisition(Lock lock) {
+			this.lock = lock;
+		}
+
+		@Override
+		public boolean block() throws InterruptedException {
+			if (!this.acquired) {
+				this.lock.lockInterruptibly();
+				this.acquired = true;
+			}
+			return true;
+		}
+
+		@Override
+		public boolean isReleasable() {
+			return this.acquired || (this.acquired = this.lock.tryLock());
+		}
+
+	}
+
+}
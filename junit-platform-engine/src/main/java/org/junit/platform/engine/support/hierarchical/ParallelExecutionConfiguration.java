@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine.PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME;
+
+import java.util.Optional;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ToStringBuilder;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * Configuration of parallel execution within a {@link HierarchicalTestExecutor},
+ * resolved from the {@link ConfigurationParameters} of an execution request.
+ *
+ * @since 1.0
+ * @see HierarchicalTestEngine#PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME
+ * @see HierarchicalTestEngine#PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME
+ */
+class ParallelExecutionConfiguration {
+
+	static final ParallelExecutionConfiguration SEQUENTIAL = new ParallelExecutionConfiguration(false, 1);
+
+	static ParallelExecutionConfiguration from(ConfigurationParameters configurationParameters) {
+		if (configurationParameters == null
+				|| !configurationParameters.getBoolean(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME).orElse(false)) {
+			return SEQUENTIAL;
+		}
+		Optional<String> parallelism = configurationParameters.get(PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME);
+		return new ParallelExecutionConfiguration(true,
+			parallelism.map(ParallelExecutionConfiguration::parseParallelism).orElseGet(
+				() -> Runtime.getRuntime().availableProcessors()));
+	}
+
+	private static int parseParallelism(String value) {
+		int parallelism;
+		try {
+			parallelism = Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			throw new JUnitException(String.format("Invalid value for configuration parameter [%s]: %s",
+				PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME, value), ex);
+		}
+		if (parallelism < 1) {
+			throw new JUnitException(String.format("Configuration parameter [%s] must be positive but was: %d",
+				PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME, parallelism));
+		}
+		return parallelism;
+	}
+
+	private final boolean enabled;
+	private final int parallelism;
+
+	ParallelExecutionConfiguration(boolean enabled, int parallelism) {
+		this.enabled = enabled;
+		this.parallelism = parallelism;
+	}
+
+	boolean isEnabled() {
+		return this.enabled;
+	}
+
+	int getParallelism() {
+		return this.parallelism;
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("enabled", this.enabled)
+				.append("parallelism", this.parallelism)
+				.toString();
+		// @formatter:on
+	}
+
+}
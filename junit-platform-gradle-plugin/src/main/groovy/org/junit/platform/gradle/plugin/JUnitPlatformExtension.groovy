@@ -72,6 +72,19 @@ class JUnitPlatformExtension {
 	 */
 	boolean enableStandardTestTask = false
 
+	/**
+	 * Whether or not to write a test class index into the output directory of
+	 * the test classes whenever they are compiled.
+	 *
+	 * <p>The index lists the test classes found by discovering the tests in
+	 * that directory with all test engines. The {@code junitPlatformTest} task
+	 * then reads the index instead of scanning the directory, unless any class
+	 * file in it has been modified after the index was written.
+	 *
+	 * <p>Defaults to {@code false}.
+	 */
+	boolean writeTestIndex = false
+
 	/**
 	 * Select test execution plan details mode.
 	 *
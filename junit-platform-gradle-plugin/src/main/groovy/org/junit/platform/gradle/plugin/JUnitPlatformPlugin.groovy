@@ -16,6 +16,7 @@ import org.gradle.api.plugins.JavaBasePlugin
 import org.gradle.api.tasks.JavaExec
 import org.gradle.util.GradleVersion
 import org.junit.platform.console.ConsoleLauncher
+import org.junit.platform.launcher.LauncherConstants
 
 /**
  * @since 1.0
@@ -99,6 +100,10 @@ class JUnitPlatformPlugin implements Plugin<Project> {
 				systemProperty 'java.util.logging.manager', junitExtension.logManager
 			}
 
+			if (junitExtension.writeTestIndex) {
+				systemProperty LauncherConstants.TEST_CLASS_INDEX_ENABLED_PROPERTY_NAME, 'true'
+			}
+
 			configureTaskDependencies(project, it, junitExtension)
 
 			// Build the classpath from the user's test runtime classpath and the JUnit
@@ -113,6 +118,27 @@ class JUnitPlatformPlugin implements Plugin<Project> {
 			main = ConsoleLauncher.class.getName()
 			args buildArgs(project, junitExtension, reportsDir)
 		}
+
+		if (junitExtension.writeTestIndex) {
+			configureTestIndex(project)
+		}
+	}
+
+	private void configureTestIndex(project) {
+		def compileTestJavaTask = project.tasks.getByName('compileTestJava')
+
+		// Discovering the tests may require the resources of the test source set.
+		compileTestJavaTask.dependsOn project.tasks.getByName('processTestResources')
+
+		// Write the index as part of the compilation, so that it is an output of
+		// the compile task and written again whenever the test classes change.
+		compileTestJavaTask.doLast {
+			project.javaexec {
+				classpath = project.sourceSets.test.runtimeClasspath + project.configurations.junitPlatform
+				main = ConsoleLauncher.class.getName()
+				args '--write-test-index', '--scan-class-path', project.sourceSets.test.output.classesDir
+			}
+		}
 	}
 
 	private void configureTaskDependencies(project, junitTask, junitExtension) {
@@ -117,6 +117,32 @@ apply plugin: 'org.junit.platform.gradle.plugin'
 		result.output.contains('1 tests failed')
 	}
 
+	def "writes test index when compiling test classes if enabled"() {
+		given:
+		javaPlugin()
+		javaFile()
+		succeedingTestFile()
+		buildFile << """
+junitPlatform {
+	writeTestIndex true
+}
+"""
+
+		when:
+		BuildResult result = GradleRunner.create()
+			.withProjectDir(testProjectDir.root)
+			.withPluginClasspath(pluginClasspath)
+			.withArguments('build')
+			.build()
+
+		then:
+		result.task(':junitPlatformTest').outcome == TaskOutcome.SUCCESS
+		result.output.contains('1 tests successful')
+		Path indexFile = Paths.get(testProjectDir.root.toString(), 'build', 'classes', 'test', 'META-INF',
+			'junit-platform', 'test-classes.index')
+		Files.readAllLines(indexFile) == ['1', 'org.junit.gradletest.AdderTest']
+	}
+
 	private static String splitClasspath(List<File> dependencies) {
 		return dependencies
 			.collect { it.absolutePath.replace('\\', '\\\\') } // escape backslashes in Windows paths
@@ -167,6 +167,37 @@ class JUnitPlatformPluginSpec extends Specification {
 		testTask.enabled == true
 	}
 
+	def "writeTestIndex set to true"() {
+		given:
+		project.apply plugin: 'org.junit.platform.gradle.plugin'
+
+		when:
+		project.junitPlatform { writeTestIndex true }
+		project.evaluate()
+
+		then:
+		Task compileTestJavaTask = project.tasks.findByName('compileTestJava')
+		compileTestJavaTask.dependsOn.contains(project.tasks.findByName('processTestResources'))
+
+		Task junitTask = project.tasks.findByName('junitPlatformTest')
+		junitTask.systemProperties['junit.platform.discovery.testindex.enabled'] == 'true'
+	}
+
+	def "test index is not written by default"() {
+		given:
+		project.apply plugin: 'org.junit.platform.gradle.plugin'
+
+		when:
+		project.evaluate()
+
+		then:
+		Task compileTestJavaTask = project.tasks.findByName('compileTestJava')
+		!compileTestJavaTask.dependsOn.contains(project.tasks.findByName('processTestResources'))
+
+		Task junitTask = project.tasks.findByName('junitPlatformTest')
+		!junitTask.systemProperties.containsKey('junit.platform.discovery.testindex.enabled')
+	}
+
 	def "when buildDir is set to non-standard location, it will be honored"() {
 		given:
 		project.apply plugin: 'java'
@@ -34,7 +34,9 @@ import org.junit.platform.commons.meta.API;
  *
  * <p>Clients of this interface may optionally call {@link #discover} prior to
  * {@link #execute} in order to inspect the {@link TestPlan} before executing
- * it.
+ * it. A discovered {@code TestPlan} may be passed to
+ * {@link #execute(TestPlan, TestExecutionListener...)} in order to execute it
+ * without discovering its tests a second time.
  *
  * <p>Prior to executing tests, clients of this interface should
  * {@linkplain #registerTestExecutionListeners register} one or more
@@ -88,4 +90,26 @@ public interface Launcher {
 	 * @param listeners additional test execution listeners; never {@code null}
 	 */
 	void execute(LauncherDiscoveryRequest launcherDiscoveryRequest, TestExecutionListener... listeners);
+
+	/**
+	 * Execute the supplied {@link TestPlan} which was previously returned by
+	 * {@link #discover} of this launcher, and notify {@linkplain
+	 * #registerTestExecutionListeners registered listeners} about the progress
+	 * and results of the execution.
+	 *
+	 * <p>In contrast to {@link #execute(LauncherDiscoveryRequest, TestExecutionListener...)},
+	 * registered engines are not queried again; the tests contained in the
+	 * supplied test plan are executed as discovered. Listeners receive the
+	 * supplied {@code TestPlan} instance. Since a test plan may be modified
+	 * during execution, e.g. when dynamic tests are registered, each
+	 * {@code TestPlan} may only be executed once.
+	 *
+	 * <p>Supplied test execution listeners are registered in addition to already
+	 * registered listeners but only for the supplied test plan.
+	 *
+	 * @param testPlan the test plan to execute; never {@code null}
+	 * @param listeners additional test execution listeners; never {@code null}
+	 * @since 1.0
+	 */
+	void execute(TestPlan testPlan, TestExecutionListener... listeners);
 }
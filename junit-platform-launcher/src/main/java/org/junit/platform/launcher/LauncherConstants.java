@@ -0,0 +1,393 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher;
+
+import static org.junit.platform.commons.meta.API.Usage.Experimental;
+
+import org.junit.platform.commons.meta.API;
+
+/**
+ * Collection of constants related to the {@link Launcher}.
+ *
+ * <p>All properties are read from the
+ * {@linkplain LauncherDiscoveryRequest#getConfigurationParameters()
+ * configuration parameters} of the request supplied to the {@code Launcher}.
+ *
+ * @since 1.0
+ */
+@API(Experimental)
+public final class LauncherConstants {
+
+	/**
+	 * Property name used to enable concurrent discovery of tests by all
+	 * registered {@linkplain org.junit.platform.engine.TestEngine test engines}:
+	 * {@value}
+	 *
+	 * <p>If enabled, engines discover their tests concurrently in a bounded
+	 * thread pool. The discovered engine descriptors are nevertheless
+	 * collected in the order in which the engines are registered.
+	 *
+	 * <p>The default behavior is to let engines discover their tests one after
+	 * another in the calling thread.
+	 *
+	 * @see #DISCOVERY_PARALLELISM_PROPERTY_NAME
+	 */
+	public static final String PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME = "junit.platform.discovery.parallel.enabled";
+
+	/**
+	 * Property name used to configure the maximum number of threads used for
+	 * concurrent discovery and parallel classpath scans: {@value}
+	 *
+	 * <p>The value must be a positive integer. If not set, the number of
+	 * {@linkplain Runtime#availableProcessors() available processors} is used.
+	 * No more threads than there are engines to query are ever created for
+	 * concurrent discovery.
+	 *
+	 * @see #PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME
+	 * @see #PARALLEL_SCAN_ENABLED_PROPERTY_NAME
+	 */
+	public static final String DISCOVERY_PARALLELISM_PROPERTY_NAME = "junit.platform.discovery.parallel.parallelism";
+
+	/**
+	 * Property name used to enable sharing the results of classpath scans
+	 * between all engines during discovery: {@value}
+	 *
+	 * <p>If enabled, each classpath root and base package is traversed only
+	 * once per discovery, even if several engines scan it for test classes.
+	 *
+	 * <p>The default behavior is to let every engine traverse the classpath on
+	 * its own.
+	 */
+	public static final String SHARED_SCAN_ENABLED_PROPERTY_NAME = "junit.platform.discovery.sharedscan.enabled";
+
+	/**
+	 * Property name used to enable parallel classpath scans by all engines
+	 * during discovery: {@value}
+	 *
+	 * <p>If enabled, the classpath roots of a scan, their subdirectories,
+	 * and the classes found in them are processed concurrently in a
+	 * fork-join pool whose size is configured via
+	 * {@link #DISCOVERY_PARALLELISM_PROPERTY_NAME}. The classes found are
+	 * nevertheless returned in the same order as by a sequential scan.
+	 *
+	 * <p>The default behavior is to scan the classpath in the thread
+	 * performing the scan.
+	 */
+	public static final String PARALLEL_SCAN_ENABLED_PROPERTY_NAME = "junit.platform.discovery.parallelscan.enabled";
+
+	/**
+	 * Property name used to enable pipelined discovery and execution: {@value}
+	 *
+	 * <p>If enabled, the launcher scans the classpath roots and packages
+	 * selected by a request itself while tests are being executed, instead of
+	 * letting every engine scan them before the first test is executed.
+	 * Classes found by the scan are passed to all engines in batches of
+	 * {@linkplain org.junit.platform.engine.discovery.ClassSelector class
+	 * selectors}, and each batch is executed as soon as it has been
+	 * discovered. Tests of subsequent batches are added to the
+	 * {@link org.junit.platform.launcher.TestPlan TestPlan} during execution
+	 * and reported to listeners as dynamically registered tests. All other
+	 * selectors are resolved in the first batch.
+	 *
+	 * <p>Only private, abstract, local, anonymous, and inner classes are
+	 * skipped by the scan; all other classes are resolved as if they had been
+	 * selected explicitly. Pipelining only applies when a request is executed
+	 * directly; it cannot be combined with
+	 * {@linkplain #SHARD_COUNT_PROPERTY_NAME sharding} or ordering by
+	 * {@linkplain #EXECUTION_ORDER_PROPERTY_NAME execution history}, which
+	 * require the complete test plan. Since batches are discovered one engine
+	 * at a time, it cannot be combined with
+	 * {@linkplain #PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME parallel discovery},
+	 * {@linkplain #SHARED_SCAN_ENABLED_PROPERTY_NAME shared classpath scans},
+	 * or the {@linkplain #DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME discovery
+	 * cache} either.
+	 *
+	 * <p>The default behavior is to discover all tests before executing any
+	 * of them.
+	 */
+	public static final String PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME = "junit.platform.discovery.pipelined.enabled";
+
+	/**
+	 * Property name used to configure the file a profile of the discovery
+	 * phase is written to: {@value}
+	 *
+	 * <p>If set, the launcher records how long every engine took to discover
+	 * its tests, how long every selector took to be resolved, how long every
+	 * classpath root took to be scanned, and which 50 classes took longest to
+	 * be loaded and to be resolved by an engine, including their static
+	 * initializers. The profile is written once discovery has finished as a
+	 * text file with one line per measurement, consisting of the section,
+	 * the number of measurements, their total duration in microseconds, and
+	 * the name, separated by tabs. Measurements of the same section are
+	 * listed in descending order of their total duration. If
+	 * {@linkplain #PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME pipelining} is
+	 * enabled, the profile covers all batches and is written once the last
+	 * one has been executed.
+	 *
+	 * <p>The default behavior is to not profile discovery.
+	 */
+	public static final String DISCOVERY_PROFILE_FILE_PROPERTY_NAME = "junit.platform.discovery.profile.file";
+
+	/**
+	 * Property name used to configure the directory of an on-disk cache of the
+	 * discovery results of requests that select classpath roots: {@value}
+	 *
+	 * <p>If set, the unique IDs discovered by each engine in each classpath
+	 * root are stored in the configured directory, along with a fingerprint
+	 * of the root. The fingerprint of a JAR file is derived from the checksums
+	 * of its entries; the fingerprint of a directory is derived from the
+	 * sizes and modification times of its class files. As long as the
+	 * fingerprint of a root is unchanged, engines resolve the cached unique
+	 * IDs instead of scanning the root again. Only classpath roots that
+	 * changed are scanned.
+	 *
+	 * <p>Changes to other classpath roots, such as superclasses of test
+	 * classes, do not invalidate the entry of a root. Requests that contain
+	 * other kinds of selectors are never cached.
+	 *
+	 * <p>The default behavior is to not cache discovery results.
+	 */
+	public static final String DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME = "junit.platform.discovery.cache.directory";
+
+	/**
+	 * Property name used to configure the directory of a persistent index of
+	 * the classpath roots scanned during discovery: {@value}
+	 *
+	 * <p>If set, the names of the class files and subdirectories of every
+	 * directory below a scanned classpath root are stored in the configured
+	 * directory, along with the modification time of the directory. Later
+	 * scans only list directories whose modification time has changed and
+	 * reuse the stored names for all others. The class files of a JAR file
+	 * are stored along with its size and modification time and reused as
+	 * long as both are unchanged.
+	 *
+	 * <p>Unlike {@link #DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME}, the index
+	 * applies to all classpath scans, including scans for packages, and
+	 * engines still load and filter the classes found.
+	 *
+	 * <p>The default behavior is to traverse every classpath root anew.
+	 */
+	public static final String CLASSPATH_INDEX_DIRECTORY_PROPERTY_NAME = "junit.platform.discovery.index.directory";
+
+	/**
+	 * Property name used to enable reading the test class indexes of
+	 * classpath root directories during discovery: {@value}
+	 *
+	 * <p>If enabled, classpath scans of a directory that contains a test
+	 * class index, as written by the {@code --write-test-index} option of the
+	 * {@code ConsoleLauncher}, only consider the classes listed in the index
+	 * instead of loading every class in the directory. An index is ignored,
+	 * and the directory scanned as usual, if any class file or directory in
+	 * it has been modified after the index was written.
+	 *
+	 * <p>The default behavior is to ignore test class indexes.
+	 */
+	public static final String TEST_CLASS_INDEX_ENABLED_PROPERTY_NAME = "junit.platform.discovery.testindex.enabled";
+
+	/**
+	 * Property name used to enable test impact analysis and to configure the
+	 * file its index is stored in: {@value}
+	 *
+	 * <p>If set, the launcher stores a hash and the referenced classes of every
+	 * class file located in a directory on the classpath in the configured
+	 * file. For every test class whose executed tests all passed, it additionally
+	 * stores a hash of all classes the test class transitively refers to and
+	 * of the sizes and modification times of all JAR files on the classpath
+	 * and of all other files in its directories. During discovery, the tests
+	 * of all test classes whose hash is unchanged are excluded from the test
+	 * plan.
+	 *
+	 * <p>Dependencies are determined statically from the constant pools of
+	 * the class files. Classes that are only accessed reflectively by name
+	 * are therefore not taken into account. Since resources cannot be
+	 * attributed to test classes, a change to any resource causes all test
+	 * classes to be executed again.
+	 *
+	 * <p>Skipped tests, e.g. disabled test methods, do not prevent recording
+	 * their test class. A test class that is skipped as a whole is not
+	 * recorded, however, so that it is executed once it is no longer skipped.
+	 *
+	 * <p>The default behavior is to execute all discovered tests.
+	 */
+	public static final String IMPACT_ANALYSIS_INDEX_PROPERTY_NAME = "junit.platform.impact.index";
+
+	/**
+	 * Property name used to configure the file the duration and outcome of
+	 * the last execution of every test and container are stored in: {@value}
+	 *
+	 * <p>If set, the launcher records the history of every execution in the
+	 * configured file.
+	 *
+	 * @see #EXECUTION_ORDER_PROPERTY_NAME
+	 */
+	public static final String EXECUTION_HISTORY_FILE_PROPERTY_NAME = "junit.platform.history.file";
+
+	/**
+	 * Property name used to configure the order in which tests are executed:
+	 * {@value}
+	 *
+	 * <h3>Supported Values</h3>
+	 *
+	 * <ul>
+	 * <li>{@code discovery}: execute tests in the order in which they were
+	 * discovered; this is the default.
+	 * <li>{@code history}: execute tests whose last execution failed first,
+	 * followed by all other tests in ascending order of the duration of their
+	 * last execution. Tests that have never been executed are executed
+	 * before all tests that passed. Requires
+	 * {@link #EXECUTION_HISTORY_FILE_PROPERTY_NAME} to be set.
+	 * </ul>
+	 *
+	 * <p>Tests are reordered by reordering the children of all
+	 * {@linkplain org.junit.platform.engine.TestDescriptor test descriptors}.
+	 * Engines that do not execute children in that order are unaffected.
+	 */
+	public static final String EXECUTION_ORDER_PROPERTY_NAME = "junit.platform.execution.order";
+
+	/**
+	 * Property name used to configure the number of shards the test plan is
+	 * partitioned into: {@value}
+	 *
+	 * <p>If set to a value greater than one, the top-level containers of all
+	 * engines, typically test classes, are partitioned into the configured
+	 * number of shards and only the tests of the shard configured via
+	 * {@link #SHARD_INDEX_PROPERTY_NAME} are executed. Every test is assigned
+	 * to exactly one shard, provided that all shards are configured with the
+	 * same discovery request and execution history.
+	 *
+	 * <p>If {@link #EXECUTION_HISTORY_FILE_PROPERTY_NAME} refers to an
+	 * existing history, shards are balanced by the durations of the last
+	 * executions. Otherwise, containers are assigned by the hash code of
+	 * their unique ID.
+	 *
+	 * <p>The default behavior is to execute all tests in a single shard.
+	 */
+	public static final String SHARD_COUNT_PROPERTY_NAME = "junit.platform.shard.count";
+
+	/**
+	 * Property name used to configure the zero-based index of the shard whose
+	 * tests should be executed: {@value}
+	 *
+	 * <p>The value must be less than the value of
+	 * {@link #SHARD_COUNT_PROPERTY_NAME}, which is required if this property
+	 * is set.
+	 */
+	public static final String SHARD_INDEX_PROPERTY_NAME = "junit.platform.shard.index";
+
+	/**
+	 * Property name used to enable concurrent execution of the tests of all
+	 * {@linkplain org.junit.platform.engine.TestEngine test engines}: {@value}
+	 *
+	 * <p>If enabled, the root descriptors of all engines are executed at the
+	 * same time by the worker threads of a single
+	 * {@link java.util.concurrent.ForkJoinPool ForkJoinPool}. Engines that
+	 * execute their tests in parallel themselves, such as
+	 * {@link org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine
+	 * HierarchicalTestEngine}, do so in that pool, too, so that all engines
+	 * together never use more worker threads than configured.
+	 *
+	 * <p>Events are delivered to
+	 * {@linkplain org.junit.platform.launcher.TestExecutionListener listeners}
+	 * by one thread at a time.
+	 *
+	 * <p>The default behavior is to execute engines one after another in the
+	 * calling thread.
+	 *
+	 * @see #ENGINES_PARALLELISM_PROPERTY_NAME
+	 */
+	public static final String PARALLEL_ENGINES_ENABLED_PROPERTY_NAME = "junit.platform.engines.parallel.enabled";
+
+	/**
+	 * Property name used to configure the number of worker threads shared by
+	 * all engines if they are executed concurrently: {@value}
+	 *
+	 * <p>The value must be a positive integer. If not set, the number of
+	 * {@linkplain Runtime#availableProcessors() available processors} is used.
+	 *
+	 * @see #PARALLEL_ENGINES_ENABLED_PROPERTY_NAME
+	 */
+	public static final String ENGINES_PARALLELISM_PROPERTY_NAME = "junit.platform.engines.parallel.parallelism";
+
+	/**
+	 * Property name used to enable asynchronous delivery of events to
+	 * {@linkplain org.junit.platform.launcher.TestExecutionListener listeners}:
+	 * {@value}
+	 *
+	 * <p>If enabled, events are published to a bounded buffer and delivered to
+	 * each listener by a dedicated background thread, in the order in which
+	 * they were published. All pending events are delivered before the
+	 * launcher returns from executing a test plan. Exceptions thrown by
+	 * listeners are rethrown once all events have been delivered. Listeners
+	 * registered while tests are executed are not notified.
+	 *
+	 * <p>The default behavior is to notify all listeners synchronously in the
+	 * thread that reports the event.
+	 *
+	 * @see #ASYNC_LISTENERS_CAPACITY_PROPERTY_NAME
+	 * @see #ASYNC_BACKPRESSURE_PROPERTY_NAME
+	 */
+	public static final String ASYNC_LISTENERS_ENABLED_PROPERTY_NAME = "junit.platform.listeners.async.enabled";
+
+	/**
+	 * Property name used to configure the number of events that may be
+	 * buffered if listeners are notified asynchronously: {@value}
+	 *
+	 * <p>The value must be a positive integer and is rounded up to the next
+	 * power of two. The default capacity is {@code 1024}.
+	 *
+	 * @see #ASYNC_LISTENERS_ENABLED_PROPERTY_NAME
+	 */
+	public static final String ASYNC_LISTENERS_CAPACITY_PROPERTY_NAME = "junit.platform.listeners.async.capacity";
+
+	/**
+	 * Property name used to configure what happens if an event is reported
+	 * while the buffer of asynchronously notified listeners is full: {@value}
+	 *
+	 * <h3>Supported Values</h3>
+	 *
+	 * <ul>
+	 * <li>{@code block}: wait until the slowest listener has consumed an event;
+	 * this is the default.
+	 * <li>{@code discard_optional}: discard reporting entries and execution
+	 * timings; wait for all other events.
+	 * </ul>
+	 *
+	 * @see #ASYNC_LISTENERS_ENABLED_PROPERTY_NAME
+	 */
+	public static final String ASYNC_BACKPRESSURE_PROPERTY_NAME = "junit.platform.listeners.async.backpressure";
+
+	/**
+	 * Property name used to enable streaming execution: {@value}
+	 *
+	 * <p>If enabled, dynamically registered tests and containers, such as
+	 * dynamic tests and invocations of test templates, are removed from the
+	 * {@link org.junit.platform.launcher.TestPlan TestPlan} and released by
+	 * their parents as soon as all listeners have been notified that they
+	 * have finished or have been skipped. Thus, memory consumption does not
+	 * grow with the number of dynamic tests that are executed.
+	 * {@linkplain org.junit.platform.launcher.TestExecutionListener Listeners}
+	 * must not query the test plan for identifiers of finished dynamic tests
+	 * but record what they need when they are notified.
+	 *
+	 * <p>Streaming execution cannot be combined with
+	 * {@linkplain #ASYNC_LISTENERS_ENABLED_PROPERTY_NAME asynchronous listeners},
+	 * since tests would be removed before the listeners have been notified.
+	 *
+	 * <p>The default behavior is to retain all tests until the test plan has
+	 * been executed.
+	 */
+	public static final String STREAMING_EXECUTION_ENABLED_PROPERTY_NAME = "junit.platform.execution.streaming.enabled";
+
+	private LauncherConstants() {
+		/* no-op */
+	}
+
+}
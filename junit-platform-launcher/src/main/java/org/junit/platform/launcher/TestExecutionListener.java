@@ -15,6 +15,7 @@ import static org.junit.platform.commons.meta.API.Usage.Experimental;
 import org.junit.platform.commons.meta.API;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.engine.reporting.ExecutionTimings;
 import org.junit.platform.engine.reporting.ReportEntry;
 
 /**
@@ -155,5 +156,21 @@ public interface TestExecutionListener {
 	default void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
 	}
 
+	/**
+	 * Called when the durations of the individual lifecycle phases of a test
+	 * or container have been recorded by its engine.
+	 *
+	 * <p>If called, this method will be called <em>before</em>
+	 * {@linkplain #executionFinished finishing} or
+	 * {@linkplain #executionSkipped skipping} the test or container. Engines
+	 * are not required to record timings.
+	 *
+	 * @param testIdentifier describes the test or container to which the
+	 * timings pertain
+	 * @param timings the durations of the executed lifecycle phases
+	 */
+	default void executionTimingsRecorded(TestIdentifier testIdentifier, ExecutionTimings timings) {
+	}
+
 	///CLOVER:ON
 }
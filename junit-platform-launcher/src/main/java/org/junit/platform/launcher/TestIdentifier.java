@@ -10,6 +10,7 @@
 
 package org.junit.platform.launcher;
 
+import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
 import static org.junit.platform.commons.meta.API.Usage.Experimental;
 import static org.junit.platform.commons.meta.API.Usage.Internal;
@@ -72,9 +73,27 @@ public final class TestIdentifier implements Serializable {
 		this.parentId = parentId;
 		this.displayName = displayName;
 		this.source = source;
-		this.tags = unmodifiableSet(new LinkedHashSet<>(tags));
+		this.tags = (tags.isEmpty() ? emptySet() : unmodifiableSet(new LinkedHashSet<>(tags)));
 		this.type = type;
-		this.legacyReportingName = legacyReportingName;
+		// share the display name instance if equal to save memory in large test plans
+		this.legacyReportingName = (Objects.equals(legacyReportingName, displayName) ? displayName
+				: legacyReportingName);
+	}
+
+	/**
+	 * Get a copy of this identifier that references the supplied parent ID,
+	 * which must be equal to the current one.
+	 *
+	 * <p>Used by {@link TestPlan} to share the unique ID instance of a parent
+	 * with all of its children.
+	 */
+	TestIdentifier withParentId(String parentId) {
+		// identity comparison on purpose, equal instances need not be copied
+		if (this.parentId == parentId) {
+			return this;
+		}
+		return new TestIdentifier(this.uniqueId, this.displayName, this.source, this.tags, this.type, parentId,
+			this.legacyReportingName);
 	}
 
 	/**
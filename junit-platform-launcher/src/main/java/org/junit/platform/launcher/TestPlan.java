@@ -15,13 +15,20 @@ import static java.util.Collections.unmodifiableSet;
 import static org.junit.platform.commons.meta.API.Usage.Experimental;
 import static org.junit.platform.commons.meta.API.Usage.Internal;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 
 import org.junit.platform.commons.meta.API;
@@ -47,18 +54,57 @@ import org.junit.platform.engine.TestDescriptor.Visitor;
  * test is registered at runtime, it is added to the original test plan and
  * reported to {@link TestExecutionListener} implementations.
  *
+ * <p>Internally, each identifier is assigned an integer index. The tree is
+ * stored in arrays of parent and child indices, and the unique ID of each
+ * parent is shared with the identifiers of its children. The descendants
+ * of every identifier are precomputed as a contiguous range of an array of
+ * indices the first time they are queried. If identifiers are added
+ * afterwards, descendants are collected by an iterative traversal instead.
+ * The indices of {@linkplain #remove(String) removed} identifiers are reused,
+ * so that a plan whose finished tests are removed during execution does not
+ * grow beyond the number of tests that are executing concurrently.
+ * All operations are thread-safe.
+ *
  * @since 1.0
  * @see Launcher
  * @see TestExecutionListener
  */
 @API(Experimental)
-public final class TestPlan {
+public class TestPlan {
+
+	private static final int NO_INDEX = -1;
+
+	/** Value of {@code descendantRangesSize} once an identifier has been removed. */
+	private static final int INVALIDATED = -2;
+
+	private static final int INITIAL_CAPACITY = 32;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Integer> indices = new HashMap<>(INITIAL_CAPACITY);
 
-	private final Set<TestIdentifier> roots = Collections.synchronizedSet(new LinkedHashSet<>(4));
+	/** Indices of children whose parent has not been added yet, keyed by parent ID. */
+	private final Map<String, List<Integer>> pendingChildren = new HashMap<>();
 
-	private final Map<String, Set<TestIdentifier>> children = new ConcurrentHashMap<>(32);
+	private TestIdentifier[] identifiers = new TestIdentifier[INITIAL_CAPACITY];
+	private int[] parents = new int[INITIAL_CAPACITY];
+	private int[] firstChildren = new int[INITIAL_CAPACITY];
+	private int[] lastChildren = new int[INITIAL_CAPACITY];
+	private int[] nextSiblings = new int[INITIAL_CAPACITY];
+	private int size = 0;
 
-	private final Map<String, TestIdentifier> allIdentifiers = new ConcurrentHashMap<>(32);
+	/** Indices of removed identifiers that are reused by subsequently added ones. */
+	private int[] freeIndices = new int[0];
+	private int freeCount = 0;
+
+	private int firstRoot = NO_INDEX;
+	private int lastRoot = NO_INDEX;
+
+	/** Descendants of all identifiers; those of index {@code i} start at {@code descendantStarts[i]}. */
+	private int[] descendants;
+	private int[] descendantStarts;
+	private int[] descendantCounts;
+	private volatile int descendantRangesSize = NO_INDEX;
 
 	/**
 	 * Construct a new {@code TestPlan} from the supplied collection of
@@ -80,7 +126,14 @@ public final class TestPlan {
 		return testPlan;
 	}
 
-	private TestPlan() {
+	/**
+	 * Construct a new, empty {@code TestPlan}.
+	 *
+	 * <p>Intended to be used only by {@link Launcher} implementations that
+	 * need to associate additional state with a discovered test plan.
+	 */
+	@API(Internal)
+	protected TestPlan() {
 		/* no-op */
 	}
 
@@ -91,15 +144,88 @@ public final class TestPlan {
 	 */
 	public void add(TestIdentifier testIdentifier) {
 		Preconditions.notNull(testIdentifier, "testIdentifier must not be null");
-		allIdentifiers.put(testIdentifier.getUniqueId(), testIdentifier);
-		if (testIdentifier.getParentId().isPresent()) {
-			String parentId = testIdentifier.getParentId().get();
-			Set<TestIdentifier> directChildren = children.computeIfAbsent(parentId,
-				key -> Collections.synchronizedSet(new LinkedHashSet<>(16)));
-			directChildren.add(testIdentifier);
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			Integer existingIndex = this.indices.get(testIdentifier.getUniqueId());
+			if (existingIndex != null) {
+				this.identifiers[existingIndex] = testIdentifier;
+				return;
+			}
+			int index;
+			if (this.freeCount > 0) {
+				index = this.freeIndices[--this.freeCount];
+			}
+			else {
+				ensureCapacity(this.size + 1);
+				index = this.size++;
+			}
+			String parentId = testIdentifier.getParentId().orElse(null);
+			int parentIndex = (parentId == null ? NO_INDEX : indexOf(parentId));
+			this.identifiers[index] = (parentIndex == NO_INDEX ? testIdentifier
+					: testIdentifier.withParentId(this.identifiers[parentIndex].getUniqueId()));
+			this.parents[index] = parentIndex;
+			this.firstChildren[index] = NO_INDEX;
+			this.lastChildren[index] = NO_INDEX;
+			this.nextSiblings[index] = NO_INDEX;
+			this.indices.put(this.identifiers[index].getUniqueId(), index);
+
+			if (parentId == null) {
+				appendRoot(index);
+			}
+			else if (parentIndex == NO_INDEX) {
+				this.pendingChildren.computeIfAbsent(parentId, key -> new ArrayList<>()).add(index);
+			}
+			else {
+				appendChild(parentIndex, index);
+			}
+			adoptPendingChildren(index);
 		}
-		else {
-			roots.add(testIdentifier);
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove the {@link TestIdentifier} with the supplied unique ID from this
+	 * test plan.
+	 *
+	 * <p>Only identifiers without children may be removed; a container may be
+	 * removed once all of its children have been removed. Removing an
+	 * identifier that is not present in this test plan has no effect.
+	 *
+	 * <p>Intended to be used only by {@link Launcher} implementations that
+	 * release identifiers of finished tests during execution.
+	 *
+	 * @param uniqueId the unique ID of the identifier to remove; never
+	 * {@code null} or blank
+	 * @throws PreconditionViolationException if the identifier with the
+	 * supplied unique ID has children
+	 */
+	@API(Internal)
+	public void remove(String uniqueId) throws PreconditionViolationException {
+		Preconditions.notBlank(uniqueId, "unique ID must not be null or blank");
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			Integer index = this.indices.get(uniqueId);
+			if (index == null) {
+				return;
+			}
+			boolean hasChildren = this.firstChildren[index] != NO_INDEX || this.pendingChildren.containsKey(uniqueId);
+			Preconditions.condition(!hasChildren,
+				() -> "Cannot remove TestIdentifier with unique ID [" + uniqueId + "] since it has children.");
+			unlink(index);
+			this.indices.remove(uniqueId);
+			this.identifiers[index] = null;
+			this.descendantRangesSize = INVALIDATED;
+			if (this.freeCount == this.freeIndices.length) {
+				this.freeIndices = Arrays.copyOf(this.freeIndices, Math.max(INITIAL_CAPACITY, this.freeCount * 2));
+			}
+			this.freeIndices[this.freeCount++] = index;
+		}
+		finally {
+			writeLock.unlock();
 		}
 	}
 
@@ -109,7 +235,18 @@ public final class TestPlan {
 	 * @return an unmodifiable set of the root identifiers
 	 */
 	public Set<TestIdentifier> getRoots() {
-		return unmodifiableSet(roots);
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			Set<TestIdentifier> roots = new LinkedHashSet<>(4);
+			for (int index = this.firstRoot; index != NO_INDEX; index = this.nextSiblings[index]) {
+				roots.add(this.identifiers[index]);
+			}
+			return unmodifiableSet(roots);
+		}
+		finally {
+			readLock.unlock();
+		}
 	}
 
 	/**
@@ -149,7 +286,31 @@ public final class TestPlan {
 	 */
 	public Set<TestIdentifier> getChildren(String parentId) {
 		Preconditions.notBlank(parentId, "parent ID must not be null or blank");
-		return children.containsKey(parentId) ? unmodifiableSet(children.get(parentId)) : emptySet();
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			int parentIndex = indexOf(parentId);
+			if (parentIndex == NO_INDEX) {
+				List<Integer> pending = this.pendingChildren.get(parentId);
+				if (pending == null) {
+					return emptySet();
+				}
+				Set<TestIdentifier> children = new LinkedHashSet<>(pending.size() * 2);
+				pending.forEach(index -> children.add(this.identifiers[index]));
+				return unmodifiableSet(children);
+			}
+			if (this.firstChildren[parentIndex] == NO_INDEX) {
+				return emptySet();
+			}
+			Set<TestIdentifier> children = new LinkedHashSet<>(16);
+			for (int index = this.firstChildren[parentIndex]; index != NO_INDEX; index = this.nextSiblings[index]) {
+				children.add(this.identifiers[index]);
+			}
+			return unmodifiableSet(children);
+		}
+		finally {
+			readLock.unlock();
+		}
 	}
 
 	/**
@@ -163,9 +324,22 @@ public final class TestPlan {
 	 */
 	public TestIdentifier getTestIdentifier(String uniqueId) throws PreconditionViolationException {
 		Preconditions.notBlank(uniqueId, "unique ID must not be null or blank");
-		Preconditions.condition(allIdentifiers.containsKey(uniqueId),
+		int index;
+		TestIdentifier testIdentifier = null;
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			index = indexOf(uniqueId);
+			if (index != NO_INDEX) {
+				testIdentifier = this.identifiers[index];
+			}
+		}
+		finally {
+			readLock.unlock();
+		}
+		Preconditions.condition(index != NO_INDEX,
 			() -> "No TestIdentifier with unique ID [" + uniqueId + "] has been added to this TestPlan.");
-		return allIdentifiers.get(uniqueId);
+		return testIdentifier;
 	}
 
 	/**
@@ -178,25 +352,260 @@ public final class TestPlan {
 	 */
 	public long countTestIdentifiers(Predicate<? super TestIdentifier> predicate) {
 		Preconditions.notNull(predicate, "Predicate must not be null");
-		return allIdentifiers.values().stream().filter(predicate).count();
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			long count = 0;
+			for (int index = 0; index < this.size; index++) {
+				if (this.identifiers[index] != null && predicate.test(this.identifiers[index])) {
+					count++;
+				}
+			}
+			return count;
+		}
+		finally {
+			readLock.unlock();
+		}
 	}
 
 	/**
 	 * Get all descendants of the supplied {@link TestIdentifier} (i.e.,
 	 * all of its children and their children, recursively).
 	 *
+	 * <p>The returned set contains the children of the supplied identifier,
+	 * followed by the descendants of each child in turn.
+	 *
 	 * @param parent the identifier to look up the descendants for; never {@code null}
 	 * @return an unmodifiable set of the parent's descendants, potentially empty
 	 */
 	public Set<TestIdentifier> getDescendants(TestIdentifier parent) {
 		Preconditions.notNull(parent, "parent must not be null");
+		computeDescendantRangesIfNecessary();
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			int parentIndex = indexOf(parent.getUniqueId());
+			if (parentIndex != NO_INDEX && this.descendantRangesSize == this.size) {
+				int start = this.descendantStarts[parentIndex];
+				int count = this.descendantCounts[parentIndex];
+				Set<TestIdentifier> result = new LinkedHashSet<>(Math.max(16, count * 2));
+				for (int position = start; position < start + count; position++) {
+					result.add(this.identifiers[this.descendants[position]]);
+				}
+				return unmodifiableSet(result);
+			}
+			return unmodifiableSet(collectDescendants(parent.getUniqueId(), parentIndex));
+		}
+		finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Collect the descendants of the supplied parent by traversing the tree
+	 * iteratively, in the same order as the precomputed descendant ranges.
+	 *
+	 * <p>Must be called while holding the lock.
+	 */
+	private Set<TestIdentifier> collectDescendants(String parentId, int parentIndex) {
 		Set<TestIdentifier> result = new LinkedHashSet<>(16);
-		Set<TestIdentifier> children = getChildren(parent);
-		result.addAll(children);
-		for (TestIdentifier child : children) {
-			result.addAll(getDescendants(child));
+		Deque<Integer> stack = new ArrayDeque<>();
+		List<Integer> children = (parentIndex == NO_INDEX
+				? this.pendingChildren.getOrDefault(parentId, new ArrayList<>())
+				: getChildIndices(parentIndex));
+		while (true) {
+			for (Integer child : children) {
+				result.add(this.identifiers[child]);
+			}
+			for (int i = children.size() - 1; i >= 0; i--) {
+				stack.push(children.get(i));
+			}
+			if (stack.isEmpty()) {
+				return result;
+			}
+			children = getChildIndices(stack.pop());
+		}
+	}
+
+	private List<Integer> getChildIndices(int parentIndex) {
+		List<Integer> children = new ArrayList<>();
+		for (int index = this.firstChildren[parentIndex]; index != NO_INDEX; index = this.nextSiblings[index]) {
+			children.add(index);
+		}
+		return children;
+	}
+
+	/**
+	 * Lay out the descendants of all identifiers in a single array, so that
+	 * the descendants of each identifier form a contiguous range.
+	 *
+	 * <p>The descendants of an identifier start with its children, followed
+	 * by the descendants of each child in turn. Ranges are only computed if
+	 * they have never been computed before, every identifier is reachable
+	 * from a root, and no identifier has been removed.
+	 */
+	private void computeDescendantRangesIfNecessary() {
+		if (this.descendantRangesSize != NO_INDEX) {
+			return;
+		}
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			if (this.descendantRangesSize != NO_INDEX || !this.pendingChildren.isEmpty()) {
+				return;
+			}
+			int[] order = computeBreadthFirstOrder();
+			int[] counts = new int[this.size];
+			for (int i = this.size - 1; i >= 0; i--) {
+				int index = order[i];
+				if (this.parents[index] != NO_INDEX) {
+					counts[this.parents[index]] += counts[index] + 1;
+				}
+			}
+			int[] starts = new int[this.size];
+			int[] layout = new int[this.size];
+			int position = 0;
+			for (int root = this.firstRoot; root != NO_INDEX; root = this.nextSiblings[root]) {
+				layout[position++] = root;
+				starts[root] = position;
+				position += counts[root];
+			}
+			for (int index : order) {
+				int childPosition = starts[index];
+				for (int child = this.firstChildren[index]; child != NO_INDEX; child = this.nextSiblings[child]) {
+					layout[childPosition++] = child;
+				}
+				for (int child = this.firstChildren[index]; child != NO_INDEX; child = this.nextSiblings[child]) {
+					starts[child] = childPosition;
+					childPosition += counts[child];
+				}
+			}
+			this.descendants = layout;
+			this.descendantStarts = starts;
+			this.descendantCounts = counts;
+			this.descendantRangesSize = this.size;
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Compute the indices of all identifiers reachable from a root in
+	 * breadth-first order, so that every parent precedes its children.
+	 *
+	 * <p>Must be called while holding the lock.
+	 */
+	private int[] computeBreadthFirstOrder() {
+		int[] order = new int[this.size];
+		int tail = 0;
+		for (int root = this.firstRoot; root != NO_INDEX; root = this.nextSiblings[root]) {
+			order[tail++] = root;
+		}
+		for (int head = 0; head < tail; head++) {
+			for (int child = this.firstChildren[order[head]]; child != NO_INDEX; child = this.nextSiblings[child]) {
+				order[tail++] = child;
+			}
+		}
+		return order;
+	}
+
+	private int indexOf(String uniqueId) {
+		Integer index = this.indices.get(uniqueId);
+		return (index == null ? NO_INDEX : index);
+	}
+
+	private void appendRoot(int index) {
+		if (this.lastRoot == NO_INDEX) {
+			this.firstRoot = index;
+		}
+		else {
+			this.nextSiblings[this.lastRoot] = index;
+		}
+		this.lastRoot = index;
+	}
+
+	private void appendChild(int parentIndex, int index) {
+		if (this.lastChildren[parentIndex] == NO_INDEX) {
+			this.firstChildren[parentIndex] = index;
+		}
+		else {
+			this.nextSiblings[this.lastChildren[parentIndex]] = index;
+		}
+		this.lastChildren[parentIndex] = index;
+	}
+
+	/**
+	 * Unlink the identifier with the supplied index from its parent, the
+	 * roots, or the pending children of its parent.
+	 *
+	 * <p>Siblings are traversed starting with the first one, which makes
+	 * removing identifiers in the order they were added cheap.
+	 */
+	private void unlink(int index) {
+		int parentIndex = this.parents[index];
+		if (parentIndex == NO_INDEX) {
+			String parentId = this.identifiers[index].getParentId().orElse(null);
+			if (parentId != null) {
+				List<Integer> pending = this.pendingChildren.get(parentId);
+				pending.remove(Integer.valueOf(index));
+				if (pending.isEmpty()) {
+					this.pendingChildren.remove(parentId);
+				}
+				return;
+			}
+		}
+		int first = (parentIndex == NO_INDEX ? this.firstRoot : this.firstChildren[parentIndex]);
+		int previous = NO_INDEX;
+		for (int current = first; current != index; current = this.nextSiblings[current]) {
+			previous = current;
+		}
+		int next = this.nextSiblings[index];
+		if (previous == NO_INDEX) {
+			if (parentIndex == NO_INDEX) {
+				this.firstRoot = next;
+			}
+			else {
+				this.firstChildren[parentIndex] = next;
+			}
+		}
+		else {
+			this.nextSiblings[previous] = next;
+		}
+		if (next == NO_INDEX) {
+			if (parentIndex == NO_INDEX) {
+				this.lastRoot = previous;
+			}
+			else {
+				this.lastChildren[parentIndex] = previous;
+			}
+		}
+	}
+
+	private void adoptPendingChildren(int parentIndex) {
+		if (this.pendingChildren.isEmpty()) {
+			return;
+		}
+		String parentId = this.identifiers[parentIndex].getUniqueId();
+		List<Integer> pending = this.pendingChildren.remove(parentId);
+		if (pending != null) {
+			for (Integer child : pending) {
+				this.identifiers[child] = this.identifiers[child].withParentId(parentId);
+				this.parents[child] = parentIndex;
+				appendChild(parentIndex, child);
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.identifiers.length) {
+			int newLength = Math.max(capacity, this.identifiers.length * 2);
+			this.identifiers = Arrays.copyOf(this.identifiers, newLength);
+			this.parents = Arrays.copyOf(this.parents, newLength);
+			this.firstChildren = Arrays.copyOf(this.firstChildren, newLength);
+			this.lastChildren = Arrays.copyOf(this.lastChildren, newLength);
+			this.nextSiblings = Arrays.copyOf(this.nextSiblings, newLength);
 		}
-		return unmodifiableSet(result);
 	}
 
 }
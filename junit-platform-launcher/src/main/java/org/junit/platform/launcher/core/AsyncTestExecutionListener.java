@@ -0,0 +1,316 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ExecutionTimings;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * {@link TestExecutionListener} that delivers all events to a fixed list of
+ * listeners asynchronously, so that slow listeners do not delay the
+ * execution of tests.
+ *
+ * <p>Events are published to a bounded ring buffer. Every listener is
+ * notified by a dedicated background thread which consumes all events
+ * published since its last visit as one batch, so that each listener
+ * receives all events in the order in which they were published. A slot
+ * of the ring buffer is reused only once all listeners have consumed its
+ * event. If the buffer is full, the {@link BackpressurePolicy} determines
+ * whether publishing blocks or optional events are discarded.
+ *
+ * <p>{@link #testPlanExecutionFinished} waits until all listeners have
+ * consumed all events and stops the background threads. If any listener
+ * threw an exception, it is rethrown by that method.
+ *
+ * @since 1.0
+ */
+class AsyncTestExecutionListener implements TestExecutionListener {
+
+	private static final Logger LOG = Logger.getLogger(AsyncTestExecutionListener.class.getName());
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/**
+	 * Policy that determines what happens if an event is published while the
+	 * ring buffer is full.
+	 */
+	enum BackpressurePolicy {
+
+		/**
+		 * Block the publishing thread until the slowest listener has consumed
+		 * an event.
+		 */
+		BLOCK,
+
+		/**
+		 * Discard reporting entries and execution timings, which do not
+		 * affect the state of the test plan; block for all other events.
+		 */
+		DISCARD_OPTIONAL
+
+	}
+
+	/**
+	 * Create an {@code AsyncTestExecutionListener} for the supplied listeners
+	 * and start its background threads.
+	 */
+	static AsyncTestExecutionListener start(List<TestExecutionListener> listeners, int capacity,
+			BackpressurePolicy backpressurePolicy) {
+		AsyncTestExecutionListener asyncListener = new AsyncTestExecutionListener(listeners, capacity,
+			backpressurePolicy);
+		asyncListener.consumers.forEach(EventConsumer::start);
+		return asyncListener;
+	}
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition eventsPublished = this.lock.newCondition();
+	private final Condition eventsConsumed = this.lock.newCondition();
+
+	private final Object[] events;
+	private final int mask;
+	private final BackpressurePolicy backpressurePolicy;
+	private final List<EventConsumer> consumers;
+
+	// guarded by lock
+	private long publishedSequence = 0;
+	private long discardedEvents = 0;
+	private boolean shutdown = false;
+
+	private AsyncTestExecutionListener(List<TestExecutionListener> listeners, int capacity,
+			BackpressurePolicy backpressurePolicy) {
+		this.events = new Object[ceilingPowerOfTwo(capacity)];
+		this.mask = this.events.length - 1;
+		this.backpressurePolicy = backpressurePolicy;
+		this.consumers = new ArrayList<>(listeners.size());
+		for (TestExecutionListener listener : listeners) {
+			this.consumers.add(new EventConsumer(listener, this.consumers.size() + 1));
+		}
+	}
+
+	private static int ceilingPowerOfTwo(int value) {
+		int capacity = Math.min(value, MAXIMUM_CAPACITY);
+		int highestOneBit = Integer.highestOneBit(capacity);
+		return (highestOneBit == capacity ? capacity : highestOneBit << 1);
+	}
+
+	@Override
+	public void testPlanExecutionStarted(TestPlan testPlan) {
+		publish(listener -> listener.testPlanExecutionStarted(testPlan), false);
+	}
+
+	@Override
+	public void testPlanExecutionFinished(TestPlan testPlan) {
+		publish(listener -> listener.testPlanExecutionFinished(testPlan), false);
+		flush();
+		shutdown();
+		rethrowListenerFailures();
+	}
+
+	@Override
+	public void dynamicTestRegistered(TestIdentifier testIdentifier) {
+		publish(listener -> listener.dynamicTestRegistered(testIdentifier), false);
+	}
+
+	@Override
+	public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+		publish(listener -> listener.executionSkipped(testIdentifier, reason), false);
+	}
+
+	@Override
+	public void executionStarted(TestIdentifier testIdentifier) {
+		publish(listener -> listener.executionStarted(testIdentifier), false);
+	}
+
+	@Override
+	public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+		publish(listener -> listener.executionFinished(testIdentifier, testExecutionResult), false);
+	}
+
+	@Override
+	public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+		publish(listener -> listener.reportingEntryPublished(testIdentifier, entry), true);
+	}
+
+	@Override
+	public void executionTimingsRecorded(TestIdentifier testIdentifier, ExecutionTimings timings) {
+		publish(listener -> listener.executionTimingsRecorded(testIdentifier, timings), true);
+	}
+
+	/**
+	 * Stop all background threads once they have consumed all events that
+	 * have been published so far.
+	 *
+	 * <p>Calling this method more than once has no effect.
+	 */
+	void shutdown() {
+		this.lock.lock();
+		try {
+			this.shutdown = true;
+			this.eventsPublished.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void publish(Consumer<TestExecutionListener> event, boolean optional) {
+		this.lock.lock();
+		try {
+			while (this.publishedSequence - getConsumedSequence() >= this.events.length) {
+				if (optional && this.backpressurePolicy == BackpressurePolicy.DISCARD_OPTIONAL) {
+					this.discardedEvents++;
+					return;
+				}
+				this.eventsConsumed.awaitUninterruptibly();
+			}
+			this.events[(int) (this.publishedSequence & this.mask)] = event;
+			this.publishedSequence++;
+			this.eventsPublished.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void flush() {
+		this.lock.lock();
+		try {
+			while (getConsumedSequence() < this.publishedSequence) {
+				this.eventsConsumed.awaitUninterruptibly();
+			}
+			if (this.discardedEvents > 0) {
+				long discarded = this.discardedEvents;
+				LOG.warning(() -> String.format(
+					"Discarded %d optional events because test execution listeners could not keep up.", discarded));
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Get the sequence up to which all listeners have consumed events.
+	 *
+	 * <p>Must be called while holding the lock.
+	 */
+	private long getConsumedSequence() {
+		long consumedSequence = this.publishedSequence;
+		for (EventConsumer consumer : this.consumers) {
+			consumedSequence = Math.min(consumedSequence, consumer.consumedSequence);
+		}
+		return consumedSequence;
+	}
+
+	private void rethrowListenerFailures() {
+		Throwable failure = null;
+		for (EventConsumer consumer : this.consumers) {
+			if (consumer.failure != null) {
+				if (failure == null) {
+					failure = consumer.failure;
+				}
+				else {
+					failure.addSuppressed(consumer.failure);
+				}
+			}
+		}
+		if (failure != null) {
+			throw ExceptionUtils.throwAsUncheckedException(failure);
+		}
+	}
+
+	/**
+	 * Delivers all published events to a single listener in a background
+	 * thread, which is named after the position and class of the listener.
+	 */
+	private class EventConsumer implements Runnable {
+
+		private final TestExecutionListener listener;
+		private final Thread thread;
+
+		// guarded by lock
+		private long consumedSequence = 0;
+
+		// written by the background thread before consumedSequence is advanced
+		private Throwable failure;
+
+		EventConsumer(TestExecutionListener listener, int number) {
+			this.listener = listener;
+			this.thread = new Thread(this, "junit-listener-" + number + "-" + listener.getClass().getName());
+			this.thread.setDaemon(true);
+		}
+
+		void start() {
+			this.thread.start();
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				long from;
+				long to;
+				lock.lock();
+				try {
+					while (this.consumedSequence == publishedSequence && !shutdown) {
+						eventsPublished.awaitUninterruptibly();
+					}
+					if (this.consumedSequence == publishedSequence) {
+						return;
+					}
+					from = this.consumedSequence;
+					to = publishedSequence;
+				}
+				finally {
+					lock.unlock();
+				}
+				for (long sequence = from; sequence < to; sequence++) {
+					deliver(events[(int) (sequence & mask)]);
+				}
+				lock.lock();
+				try {
+					this.consumedSequence = to;
+					eventsConsumed.signalAll();
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void deliver(Object event) {
+			try {
+				((Consumer<TestExecutionListener>) event).accept(this.listener);
+			}
+			catch (Throwable t) {
+				if (this.failure == null) {
+					this.failure = t;
+				}
+				else if (this.failure != t) {
+					this.failure.addSuppressed(t);
+				}
+			}
+		}
+	}
+
+}
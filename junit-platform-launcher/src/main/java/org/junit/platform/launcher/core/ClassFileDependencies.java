@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Extracts the names of all classes a class file refers to from its
+ * constant pool.
+ *
+ * <p>Besides class constants, all UTF-8 constants are searched for type
+ * descriptors, so that types that only appear in field and method
+ * signatures or annotations are found as well. The result may therefore
+ * contain names that do not denote a class at all; callers are expected to
+ * ignore unknown names.
+ *
+ * @since 1.0
+ */
+class ClassFileDependencies {
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private ClassFileDependencies() {
+		/* no-op */
+	}
+
+	/**
+	 * Parse the supplied class file.
+	 *
+	 * @return the binary names of all referenced classes, excluding the
+	 * class itself
+	 * @throws IOException if the supplied bytes are not a valid class file
+	 */
+	static Set<String> parse(byte[] classFile) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a class file");
+		}
+		in.readUnsignedShort(); // minor version
+		in.readUnsignedShort(); // major version
+
+		int constantPoolCount = in.readUnsignedShort();
+		String[] utf8Constants = new String[constantPoolCount];
+		int[] classNameIndices = new int[constantPoolCount];
+		for (int i = 1; i < constantPoolCount; i++) {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+				case 1: // Utf8
+					utf8Constants[i] = in.readUTF();
+					break;
+				case 7: // Class
+					classNameIndices[i] = in.readUnsignedShort();
+					break;
+				case 8: // String
+				case 16: // MethodType
+				case 19: // Module
+				case 20: // Package
+					in.readUnsignedShort();
+					break;
+				case 15: // MethodHandle
+					in.readUnsignedByte();
+					in.readUnsignedShort();
+					break;
+				case 3: // Integer
+				case 4: // Float
+				case 9: // Fieldref
+				case 10: // Methodref
+				case 11: // InterfaceMethodref
+				case 12: // NameAndType
+				case 17: // Dynamic
+				case 18: // InvokeDynamic
+					in.readInt();
+					break;
+				case 5: // Long
+				case 6: // Double
+					in.readLong();
+					i++;
+					break;
+				default:
+					throw new IOException("Invalid constant pool tag: " + tag);
+			}
+		}
+		in.readUnsignedShort(); // access flags
+		int thisClass = in.readUnsignedShort();
+
+		Set<String> dependencies = new TreeSet<>();
+		for (int classNameIndex : classNameIndices) {
+			String name = utf8Constants[classNameIndex];
+			if (name != null && !name.startsWith("[")) {
+				dependencies.add(name.replace('/', '.'));
+			}
+		}
+		for (String constant : utf8Constants) {
+			if (constant != null) {
+				addTypeDescriptors(constant, dependencies);
+			}
+		}
+		if (thisClass < constantPoolCount && utf8Constants[classNameIndices[thisClass]] != null) {
+			dependencies.remove(utf8Constants[classNameIndices[thisClass]].replace('/', '.'));
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Add the names of all object types of the form {@code Lpkg/Name;} found
+	 * in the supplied constant.
+	 */
+	private static void addTypeDescriptors(String constant, Set<String> dependencies) {
+		int start = constant.indexOf('L');
+		while (start >= 0) {
+			int end = start + 1;
+			while (end < constant.length() && isNameCharacter(constant.charAt(end))) {
+				end++;
+			}
+			if (end < constant.length() && end > start + 1 && constant.charAt(end) == ';') {
+				dependencies.add(constant.substring(start + 1, end).replace('/', '.'));
+				start = constant.indexOf('L', end + 1);
+			}
+			else {
+				start = constant.indexOf('L', start + 1);
+			}
+		}
+	}
+
+	private static boolean isNameCharacter(char c) {
+		return c == '/' || Character.isJavaIdentifierPart(c);
+	}
+
+}
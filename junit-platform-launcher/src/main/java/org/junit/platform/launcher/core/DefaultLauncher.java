@@ -10,13 +10,36 @@
 
 package org.junit.platform.launcher.core;
 
+import static java.util.Collections.singletonList;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.ENGINE;
+
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 
 import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ClasspathIndex;
+import org.junit.platform.commons.util.DiscoveryProfile;
+import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.JarIndexCache;
+import org.junit.platform.commons.util.ParallelClasspathScan;
 import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.SharedClasspathScan;
+import org.junit.platform.commons.util.TestClassIndex;
 import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.FilterResult;
 import org.junit.platform.engine.TestDescriptor;
@@ -24,6 +47,7 @@ import org.junit.platform.engine.TestEngine;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.PostDiscoveryFilter;
 import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestPlan;
 
@@ -41,6 +65,7 @@ class DefaultLauncher implements Launcher {
 	private static final Logger LOG = Logger.getLogger(DefaultLauncher.class.getName());
 
 	private final TestExecutionListenerRegistry listenerRegistry = new TestExecutionListenerRegistry();
+	private final JarIndexCache jarIndexCache = new JarIndexCache();
 	private final Iterable<TestEngine> testEngines;
 
 	/**
@@ -76,7 +101,8 @@ class DefaultLauncher implements Launcher {
 	@Override
 	public TestPlan discover(LauncherDiscoveryRequest discoveryRequest) {
 		Preconditions.notNull(discoveryRequest, "LauncherDiscoveryRequest must not be null");
-		return TestPlan.from(discoverRoot(discoveryRequest, "discovery").getEngineDescriptors());
+		return discoverTestPlan(discoveryRequest, "discovery",
+			DiscoveryConfiguration.from(discoveryRequest.getConfigurationParameters()));
 	}
 
 	@Override
@@ -84,16 +110,138 @@ class DefaultLauncher implements Launcher {
 		Preconditions.notNull(discoveryRequest, "LauncherDiscoveryRequest must not be null");
 		Preconditions.notNull(listeners, "TestExecutionListener array must not be null");
 		Preconditions.containsNoNullElements(listeners, "individual listeners must not be null");
-		execute(discoverRoot(discoveryRequest, "execution"), discoveryRequest.getConfigurationParameters(), listeners);
+		DiscoveryConfiguration configuration = DiscoveryConfiguration.from(
+			discoveryRequest.getConfigurationParameters());
+		if (configuration.isPipelined()) {
+			executePipelined(discoveryRequest, configuration, listeners);
+		}
+		else {
+			execute(discoverTestPlan(discoveryRequest, "execution", configuration), listeners);
+		}
+	}
+
+	@Override
+	public void execute(TestPlan testPlan, TestExecutionListener... listeners) {
+		Preconditions.notNull(testPlan, "TestPlan must not be null");
+		Preconditions.condition(
+			testPlan instanceof InternalTestPlan && ((InternalTestPlan) testPlan).isDiscoveredBy(this),
+			"TestPlan must have been discovered by this Launcher");
+		Preconditions.notNull(listeners, "TestExecutionListener array must not be null");
+		Preconditions.containsNoNullElements(listeners, "individual listeners must not be null");
+		execute((InternalTestPlan) testPlan, listeners);
 	}
 
 	TestExecutionListenerRegistry getTestExecutionListenerRegistry() {
 		return listenerRegistry;
 	}
 
-	private Root discoverRoot(LauncherDiscoveryRequest discoveryRequest, String phase) {
+	private InternalTestPlan discoverTestPlan(LauncherDiscoveryRequest discoveryRequest, String phase,
+			DiscoveryConfiguration configuration) {
+		List<TestExecutionListener> builtInListeners = new ArrayList<>();
+		DiscoveryProfile profile = openProfile(configuration);
+		Root root;
+		try {
+			root = discoverRoot(discoveryRequest, phase, configuration);
+		}
+		finally {
+			closeProfile(profile, configuration);
+		}
+		Optional<ExecutionHistory> executionHistory = configuration.getExecutionHistoryFile().map(
+			ExecutionHistory::load);
+		if (configuration.getShardCount() > 1) {
+			TestSharding sharding = TestSharding.partition(root, configuration.getShardCount(), executionHistory);
+			applyPostDiscoveryFilter(root, sharding.createFilter(configuration.getShardIndex()));
+		}
+		if (configuration.getImpactAnalysisIndex().isPresent()) {
+			TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(configuration.getImpactAnalysisIndex().get());
+			applyPostDiscoveryFilter(root, impactAnalysis.createFilter());
+			builtInListeners.add(impactAnalysis.createRecordingListener());
+		}
+		if (executionHistory.isPresent()) {
+			if (configuration.isOrderedByExecutionHistory()) {
+				executionHistory.get().order(root);
+			}
+			builtInListeners.add(executionHistory.get().createRecordingListener());
+		}
+		return InternalTestPlan.from(this, root, discoveryRequest.getConfigurationParameters(), builtInListeners);
+	}
+
+	private static DiscoveryProfile openProfile(DiscoveryConfiguration configuration) {
+		return configuration.getProfileFile().isPresent() ? DiscoveryProfile.open() : null;
+	}
+
+	private static void closeProfile(DiscoveryProfile profile, DiscoveryConfiguration configuration) {
+		if (profile != null) {
+			profile.close();
+			DiscoveryProfileReport.write(profile, configuration.getProfileFile().get());
+		}
+	}
+
+	private void applyPostDiscoveryFilter(Root root, PostDiscoveryFilter postDiscoveryFilter) {
+		root.applyPostDiscoveryFilters(singletonList(postDiscoveryFilter));
+		root.prune();
+	}
+
+	private Root discoverRoot(LauncherDiscoveryRequest discoveryRequest, String phase,
+			DiscoveryConfiguration configuration) {
+
+		List<TestEngine> testEngines = getTestEnginesToDiscover(discoveryRequest, phase);
+		SharedClasspathScan sharedClasspathScan = configuration.isSharedClasspathScan() ? SharedClasspathScan.open()
+				: null;
+		ParallelClasspathScan parallelClasspathScan = openParallelClasspathScan(configuration);
+		JarIndexCache.Activation jarIndexCacheActivation = this.jarIndexCache.activate();
+		ClasspathIndex classpathIndex = openClasspathIndex(configuration);
+		TestClassIndex testClassIndex = configuration.isTestClassIndex() ? TestClassIndex.open() : null;
+		DiscoveryCache discoveryCache = configuration.getCacheDirectory().map(DiscoveryCache::new).orElse(null);
+		List<TestDescriptor> engineRoots;
+		try {
+			if (configuration.isParallel() && testEngines.size() > 1) {
+				engineRoots = discoverConcurrently(testEngines, discoveryRequest, phase,
+					configuration.getParallelism(), discoveryCache);
+			}
+			else {
+				engineRoots = new ArrayList<>(testEngines.size());
+				for (TestEngine testEngine : testEngines) {
+					engineRoots.add(discoverEngineRoot(testEngine, discoveryRequest, phase, discoveryCache));
+				}
+			}
+		}
+		finally {
+			if (testClassIndex != null) {
+				testClassIndex.close();
+			}
+			if (classpathIndex != null) {
+				classpathIndex.close();
+			}
+			jarIndexCacheActivation.close();
+			if (sharedClasspathScan != null) {
+				sharedClasspathScan.close();
+			}
+			if (parallelClasspathScan != null) {
+				parallelClasspathScan.close();
+			}
+		}
+
 		Root root = new Root();
+		for (int i = 0; i < testEngines.size(); i++) {
+			root.add(testEngines.get(i), engineRoots.get(i));
+		}
+		root.applyPostDiscoveryFilters(discoveryRequest.getPostDiscoveryFilters());
+		root.prune();
+		return root;
+	}
+
+	private static ParallelClasspathScan openParallelClasspathScan(DiscoveryConfiguration configuration) {
+		return configuration.isParallelClasspathScan() ? ParallelClasspathScan.open(configuration.getParallelism())
+				: null;
+	}
+
+	private static ClasspathIndex openClasspathIndex(DiscoveryConfiguration configuration) {
+		return configuration.getClasspathIndexDirectory().map(ClasspathIndex::open).orElse(null);
+	}
 
+	private List<TestEngine> getTestEnginesToDiscover(LauncherDiscoveryRequest discoveryRequest, String phase) {
+		List<TestEngine> testEngines = new ArrayList<>();
 		for (TestEngine testEngine : this.testEngines) {
 			// @formatter:off
 			boolean engineIsExcluded = discoveryRequest.getEngineFilters().stream()
@@ -107,36 +255,326 @@ class DefaultLauncher implements Launcher {
 					testEngine.getId(), phase));
 				continue;
 			}
+			testEngines.add(testEngine);
+		}
+		return testEngines;
+	}
 
-			LOG.fine(() -> String.format("Discovering tests during Launcher %s phase in engine '%s'.", phase,
-				testEngine.getId()));
+	/**
+	 * Let the supplied engines discover their tests concurrently in a thread
+	 * pool of bounded size, returning their root descriptors in the order of
+	 * the supplied engines.
+	 *
+	 * <p>Worker threads use the context class loader of the calling thread.
+	 */
+	private List<TestDescriptor> discoverConcurrently(List<TestEngine> testEngines,
+			LauncherDiscoveryRequest discoveryRequest, String phase, int parallelism, DiscoveryCache discoveryCache) {
 
-			UniqueId uniqueEngineId = UniqueId.forEngine(testEngine.getId());
-			TestDescriptor engineRoot = testEngine.discover(discoveryRequest, uniqueEngineId);
-			Preconditions.notNull(engineRoot,
-				() -> String.format(
-					"The discover() method for TestEngine with ID '%s' must return a non-null root TestDescriptor.",
-					testEngine.getId()));
-			root.add(testEngine, engineRoot);
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executorService = Executors.newFixedThreadPool(Math.min(parallelism, testEngines.size()),
+			runnable -> {
+				Thread thread = new Thread(runnable, "junit-discovery-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				thread.setContextClassLoader(contextClassLoader);
+				return thread;
+			});
+		try {
+			List<Future<TestDescriptor>> futures = new ArrayList<>(testEngines.size());
+			for (TestEngine testEngine : testEngines) {
+				futures.add(executorService.submit(
+					() -> discoverEngineRoot(testEngine, discoveryRequest, phase, discoveryCache)));
+			}
+			List<TestDescriptor> engineRoots = new ArrayList<>(futures.size());
+			for (Future<TestDescriptor> future : futures) {
+				engineRoots.add(awaitEngineRoot(future));
+			}
+			return engineRoots;
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private static TestDescriptor awaitEngineRoot(Future<TestDescriptor> future) {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException ex) {
+			throw ExceptionUtils.throwAsUncheckedException(ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new JUnitException("Interrupted while waiting for test engines to discover tests", ex);
 		}
-		root.applyPostDiscoveryFilters(discoveryRequest);
-		root.prune();
-		return root;
 	}
 
-	private void execute(Root root, ConfigurationParameters configurationParameters,
+	/**
+	 * Let the supplied engine discover its tests, resolving the unique IDs
+	 * cached by the supplied {@link DiscoveryCache}, if any, instead of
+	 * scanning unchanged classpath roots.
+	 */
+	private TestDescriptor discoverEngineRoot(TestEngine testEngine, LauncherDiscoveryRequest discoveryRequest,
+			String phase, DiscoveryCache discoveryCache) {
+
+		LOG.fine(() -> String.format("Discovering tests during Launcher %s phase in engine '%s'.", phase,
+			testEngine.getId()));
+
+		DiscoveryCache.Lookup lookup = discoveryCache != null ? discoveryCache.lookup(testEngine, discoveryRequest)
+				: null;
+		UniqueId uniqueEngineId = UniqueId.forEngine(testEngine.getId());
+		long startTime = DiscoveryProfile.start();
+		TestDescriptor engineRoot = testEngine.discover(
+			lookup != null ? lookup.getDiscoveryRequest() : discoveryRequest, uniqueEngineId);
+		DiscoveryProfile.record(ENGINE, testEngine.getId(), startTime);
+		Preconditions.notNull(engineRoot,
+			() -> String.format(
+				"The discover() method for TestEngine with ID '%s' must return a non-null root TestDescriptor.",
+				testEngine.getId()));
+		if (lookup != null) {
+			lookup.store(engineRoot);
+		}
+		return engineRoot;
+	}
+
+	private void execute(InternalTestPlan testPlan, TestExecutionListener... listeners) {
+		execute(testPlan, (testExecutionListener, configuration) -> {
+			ExecutionListenerAdapter engineExecutionListener = new ExecutionListenerAdapter(testPlan,
+				testExecutionListener, configuration.isStreaming());
+			executeEngines(testPlan.getRoot(), engineExecutionListener, testPlan.getConfigurationParameters(),
+				configuration);
+		}, listeners);
+	}
+
+	/**
+	 * Mark the supplied test plan as started and let the supplied execution
+	 * execute its engines, notifying the built-in listeners of the test plan
+	 * and the supplied listeners.
+	 */
+	private void execute(InternalTestPlan testPlan, BiConsumer<TestExecutionListener, ExecutionConfiguration> execution,
 			TestExecutionListener... listeners) {
+
+		testPlan.markStarted();
+		ExecutionConfiguration configuration = ExecutionConfiguration.from(testPlan.getConfigurationParameters());
 		TestExecutionListenerRegistry listenerRegistry = buildListenerRegistryForExecution(listeners);
-		TestPlan testPlan = TestPlan.from(root.getEngineDescriptors());
-		TestExecutionListener testExecutionListener = listenerRegistry.getCompositeTestExecutionListener();
+		List<TestExecutionListener> builtInListeners = testPlan.getBuiltInListeners();
+		if (!configuration.isAsyncListeners()) {
+			execute(testPlan,
+				withBuiltInListeners(builtInListeners, listenerRegistry.getCompositeTestExecutionListener()),
+				execution, configuration);
+			return;
+		}
+		AsyncTestExecutionListener asyncListener = listenerRegistry.getAsyncCompositeTestExecutionListener(
+			configuration.getAsyncListenersCapacity(), configuration.getBackpressurePolicy());
+		try {
+			execute(testPlan, withBuiltInListeners(builtInListeners, asyncListener), execution, configuration);
+		}
+		finally {
+			asyncListener.shutdown();
+		}
+	}
+
+	private void execute(TestPlan testPlan, TestExecutionListener testExecutionListener,
+			BiConsumer<TestExecutionListener, ExecutionConfiguration> execution,
+			ExecutionConfiguration configuration) {
 		testExecutionListener.testPlanExecutionStarted(testPlan);
-		ExecutionListenerAdapter engineExecutionListener = new ExecutionListenerAdapter(testPlan,
-			testExecutionListener);
+		execution.accept(testExecutionListener, configuration);
+		testExecutionListener.testPlanExecutionFinished(testPlan);
+	}
+
+	private void executeEngines(Root root, EngineExecutionListener engineExecutionListener,
+			ConfigurationParameters configurationParameters, ExecutionConfiguration configuration) {
+		if (configuration.isParallel()) {
+			executeConcurrently(root, engineExecutionListener, configurationParameters,
+				configuration.getParallelism());
+		}
+		else {
+			for (TestEngine testEngine : root.getTestEngines()) {
+				TestDescriptor testDescriptor = root.getTestDescriptorFor(testEngine);
+				testEngine.execute(
+					new ExecutionRequest(testDescriptor, engineExecutionListener, configurationParameters));
+			}
+		}
+	}
+
+	/**
+	 * Discover and execute the tests of the supplied request in batches while
+	 * the classpath roots and packages it selects are being scanned.
+	 *
+	 * <p>The root descriptor of every engine is executed once for the initial
+	 * batch and once for every subsequent batch it discovered tests in. The
+	 * descriptors of subsequent batches are added to the test plan and
+	 * reported as dynamically registered before they are executed. In
+	 * streaming mode, they are removed from the test plan again once their
+	 * batch has been executed.
+	 *
+	 * @see PipelinedDiscovery
+	 * @see PipelinedExecutionListener
+	 */
+	private void executePipelined(LauncherDiscoveryRequest discoveryRequest, DiscoveryConfiguration configuration,
+			TestExecutionListener... listeners) {
+
+		List<TestEngine> testEngines = getTestEnginesToDiscover(discoveryRequest, "execution");
+		List<PostDiscoveryFilter> postDiscoveryFilters = new ArrayList<>(discoveryRequest.getPostDiscoveryFilters());
+		List<TestExecutionListener> builtInListeners = new ArrayList<>();
+		if (configuration.getImpactAnalysisIndex().isPresent()) {
+			TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(configuration.getImpactAnalysisIndex().get());
+			postDiscoveryFilters.add(impactAnalysis.createFilter());
+			builtInListeners.add(impactAnalysis.createRecordingListener());
+		}
+		configuration.getExecutionHistoryFile().map(ExecutionHistory::load).ifPresent(
+			executionHistory -> builtInListeners.add(executionHistory.createRecordingListener()));
+
+		DiscoveryProfile profile = openProfile(configuration);
+		ParallelClasspathScan parallelClasspathScan = openParallelClasspathScan(configuration);
+		JarIndexCache.Activation jarIndexCacheActivation = this.jarIndexCache.activate();
+		ClasspathIndex classpathIndex = openClasspathIndex(configuration);
+		TestClassIndex testClassIndex = configuration.isTestClassIndex() ? TestClassIndex.open() : null;
+		try (PipelinedDiscovery pipelinedDiscovery = PipelinedDiscovery.start(discoveryRequest)) {
+			Root initialRoot = discoverBatch(testEngines, pipelinedDiscovery.getInitialRequest(),
+				postDiscoveryFilters);
+			InternalTestPlan testPlan = InternalTestPlan.from(this, initialRoot,
+				discoveryRequest.getConfigurationParameters(), builtInListeners);
+			execute(testPlan, (testExecutionListener, executionConfiguration) -> {
+				ExecutionListenerAdapter executionListenerAdapter = new ExecutionListenerAdapter(testPlan,
+					testExecutionListener, executionConfiguration.isStreaming());
+				PipelinedExecutionListener engineExecutionListener = new PipelinedExecutionListener(
+					executionListenerAdapter);
+				executeEngines(initialRoot, engineExecutionListener, testPlan.getConfigurationParameters(),
+					executionConfiguration);
+				for (Optional<LauncherDiscoveryRequest> request = pipelinedDiscovery.nextRequest(); request.isPresent();
+						request = pipelinedDiscovery.nextRequest()) {
+					Root root = withoutEmptyEngines(discoverBatch(testEngines, request.get(), postDiscoveryFilters));
+					List<TestDescriptor> descriptors = registerBatch(root, testPlan, testExecutionListener);
+					executeEngines(root, engineExecutionListener, testPlan.getConfigurationParameters(),
+						executionConfiguration);
+					if (executionConfiguration.isStreaming()) {
+						for (int i = descriptors.size() - 1; i >= 0; i--) {
+							testPlan.remove(descriptors.get(i));
+						}
+					}
+				}
+				engineExecutionListener.finishEngines();
+			}, listeners);
+		}
+		finally {
+			if (testClassIndex != null) {
+				testClassIndex.close();
+			}
+			if (classpathIndex != null) {
+				classpathIndex.close();
+			}
+			jarIndexCacheActivation.close();
+			if (parallelClasspathScan != null) {
+				parallelClasspathScan.close();
+			}
+			closeProfile(profile, configuration);
+		}
+	}
+
+	private Root discoverBatch(List<TestEngine> testEngines, LauncherDiscoveryRequest discoveryRequest,
+			List<PostDiscoveryFilter> postDiscoveryFilters) {
+		Root root = new Root();
+		for (TestEngine testEngine : testEngines) {
+			root.add(testEngine, discoverEngineRoot(testEngine, discoveryRequest, "execution", null));
+		}
+		root.applyPostDiscoveryFilters(postDiscoveryFilters);
+		root.prune();
+		return root;
+	}
+
+	private static Root withoutEmptyEngines(Root root) {
+		Root result = new Root();
 		for (TestEngine testEngine : root.getTestEngines()) {
-			TestDescriptor testDescriptor = root.getTestDescriptorFor(testEngine);
-			testEngine.execute(new ExecutionRequest(testDescriptor, engineExecutionListener, configurationParameters));
+			TestDescriptor engineDescriptor = root.getTestDescriptorFor(testEngine);
+			if (!engineDescriptor.getChildren().isEmpty()) {
+				result.add(testEngine, engineDescriptor);
+			}
 		}
-		testExecutionListener.testPlanExecutionFinished(testPlan);
+		return result;
+	}
+
+	/**
+	 * Add all descriptors of the supplied batch except for the engine
+	 * descriptors to the test plan and notify the supplied listener.
+	 *
+	 * @return the added descriptors; parents precede their children
+	 */
+	private static List<TestDescriptor> registerBatch(Root root, InternalTestPlan testPlan,
+			TestExecutionListener testExecutionListener) {
+		List<TestDescriptor> descriptors = new ArrayList<>();
+		TestDescriptor.Visitor visitor = descriptor -> {
+			testExecutionListener.dynamicTestRegistered(testPlan.add(descriptor));
+			descriptors.add(descriptor);
+		};
+		for (TestDescriptor engineDescriptor : root.getEngineDescriptors()) {
+			new ArrayList<>(engineDescriptor.getChildren()).forEach(child -> child.accept(visitor));
+		}
+		return descriptors;
+	}
+
+	/**
+	 * Execute the root descriptors of all engines concurrently in a
+	 * {@link ForkJoinPool} with the supplied parallelism, which is shared by
+	 * all engines that execute their tests in parallel themselves.
+	 *
+	 * <p>Waits for all engines to finish; if any engine threw an exception,
+	 * the first one is rethrown with all others added as suppressed.
+	 */
+	private void executeConcurrently(Root root, EngineExecutionListener engineExecutionListener,
+			ConfigurationParameters configurationParameters, int parallelism) {
+
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setContextClassLoader(contextClassLoader);
+			return thread;
+		}, null, false);
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for (TestEngine testEngine : root.getTestEngines()) {
+				TestDescriptor testDescriptor = root.getTestDescriptorFor(testEngine);
+				tasks.add(forkJoinPool.submit(() -> testEngine.execute(
+					new ExecutionRequest(testDescriptor, engineExecutionListener, configurationParameters))));
+			}
+			Throwable failure = null;
+			for (ForkJoinTask<?> task : tasks) {
+				try {
+					task.join();
+				}
+				catch (Throwable t) {
+					if (failure == null) {
+						failure = t;
+					}
+					else {
+						failure.addSuppressed(t);
+					}
+				}
+			}
+			if (failure != null) {
+				throw ExceptionUtils.throwAsUncheckedException(failure);
+			}
+		}
+		finally {
+			forkJoinPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Compose the built-in listeners of a test plan with the supplied
+	 * listener. Built-in listeners are always notified synchronously, even if
+	 * all other listeners are notified asynchronously, since they measure the
+	 * duration of tests.
+	 */
+	private static TestExecutionListener withBuiltInListeners(List<TestExecutionListener> builtInListeners,
+			TestExecutionListener listener) {
+		if (builtInListeners.isEmpty()) {
+			return listener;
+		}
+		TestExecutionListenerRegistry registry = new TestExecutionListenerRegistry();
+		registry.registerListeners(builtInListeners.toArray(new TestExecutionListener[0]));
+		registry.registerListeners(listener);
+		return registry.getCompositeTestExecutionListener();
 	}
 
 	private TestExecutionListenerRegistry buildListenerRegistryForExecution(TestExecutionListener... listeners) {
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.logging.Level.WARNING;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.DiscoveryFilter;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestEngine;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClasspathRootSelector;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+
+/**
+ * On-disk cache of the unique IDs discovered by a {@link TestEngine} per
+ * {@link ClasspathRootSelector}.
+ *
+ * <p>Each entry is stored in a file of its own in the cache directory. It is
+ * keyed by the ID and version of the engine, the URI of the classpath root,
+ * and the discovery filters of the request; and it is valid as long as the
+ * fingerprint of the classpath root is unchanged. The fingerprint of a JAR
+ * file is derived from the names and CRC-32 checksums of its entries; the
+ * fingerprint of a directory is derived from the names, sizes, and
+ * modification times of its class files.
+ *
+ * <p>A {@link Lookup} replaces the selector of each classpath root with a
+ * valid entry by {@linkplain org.junit.platform.engine.discovery.UniqueIdSelector
+ * unique ID selectors} for the cached IDs, so that the engine resolves them
+ * directly instead of scanning the root. Only classpath roots without a
+ * valid entry are scanned and stored afterwards.
+ *
+ * <p>Requests containing any other kind of selector, or discovery filters
+ * whose {@link Object#toString()} method is not overridden, are passed
+ * through unchanged.
+ *
+ * <p>Instances are safe for use by multiple threads and are meant to be used
+ * for a single discovery only, since fingerprints are computed only once.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants#DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME
+ */
+class DiscoveryCache {
+
+	private static final Logger LOG = Logger.getLogger(DiscoveryCache.class.getName());
+
+	private static final String FORMAT_VERSION = "1";
+
+	private final Path directory;
+	private final Map<URI, Optional<RootFingerprint>> fingerprints = new ConcurrentHashMap<>();
+
+	DiscoveryCache(Path directory) {
+		this.directory = Preconditions.notNull(directory, "directory must not be null");
+	}
+
+	/**
+	 * Look up the cached unique IDs for all classpath roots selected by the
+	 * supplied request.
+	 *
+	 * @return a lookup providing the request to be passed to the supplied
+	 * engine; never {@code null}
+	 */
+	Lookup lookup(TestEngine testEngine, LauncherDiscoveryRequest discoveryRequest) {
+		List<DiscoverySelector> selectors = discoveryRequest.getSelectorsByType(DiscoverySelector.class);
+		Optional<String> filtersKey = computeFiltersKey(discoveryRequest);
+		if (selectors.isEmpty() || !filtersKey.isPresent()
+				|| !selectors.stream().allMatch(ClasspathRootSelector.class::isInstance)) {
+			return new Lookup(discoveryRequest, Collections.emptyList(), Collections.emptyList());
+		}
+
+		List<DiscoverySelector> resolvedSelectors = new ArrayList<>();
+		List<Entry> hits = new ArrayList<>();
+		List<Entry> misses = new ArrayList<>();
+		for (DiscoverySelector selector : selectors) {
+			URI root = ((ClasspathRootSelector) selector).getClasspathRoot();
+			Optional<RootFingerprint> fingerprint = this.fingerprints.computeIfAbsent(root,
+				DiscoveryCache::computeFingerprint);
+			if (!fingerprint.isPresent()) {
+				resolvedSelectors.add(selector);
+				continue;
+			}
+			Entry entry = new Entry(
+				hash(FORMAT_VERSION, testEngine.getId(), testEngine.getVersion().orElse(""), root.toString(),
+					filtersKey.get()),
+				fingerprint.get());
+			Optional<List<String>> uniqueIds = read(entry);
+			if (uniqueIds.isPresent()) {
+				LOG.fine(() -> String.format("Resolving %d cached unique IDs of classpath root [%s] in engine '%s'.",
+					uniqueIds.get().size(), root, testEngine.getId()));
+				entry.uniqueIds.addAll(uniqueIds.get());
+				uniqueIds.get().forEach(uniqueId -> resolvedSelectors.add(selectUniqueId(uniqueId)));
+				hits.add(entry);
+			}
+			else {
+				resolvedSelectors.add(selector);
+				misses.add(entry);
+			}
+		}
+		return new Lookup(new ResolvedDiscoveryRequest(discoveryRequest, resolvedSelectors), hits, misses);
+	}
+
+	private static Optional<String> computeFiltersKey(LauncherDiscoveryRequest discoveryRequest) {
+		List<String> keys = new ArrayList<>();
+		for (DiscoveryFilter<?> filter : discoveryRequest.getDiscoveryFiltersByType(DiscoveryFilter.class)) {
+			String description = filter.toString();
+			String identityDescription = filter.getClass().getName() + "@" + Integer.toHexString(filter.hashCode());
+			if (description.equals(identityDescription)) {
+				return Optional.empty();
+			}
+			keys.add(filter.getClass().getName() + ":" + description);
+		}
+		return Optional.of(String.join("\n", keys));
+	}
+
+	private Optional<List<String>> read(Entry entry) {
+		Path file = this.directory.resolve(entry.key);
+		if (!Files.isRegularFile(file)) {
+			return Optional.empty();
+		}
+		try {
+			List<String> lines = Files.readAllLines(file, UTF_8);
+			if (lines.isEmpty() || !lines.get(0).equals(entry.fingerprint.checksum)) {
+				return Optional.empty();
+			}
+			List<String> uniqueIds = new ArrayList<>(lines.subList(1, lines.size()));
+			uniqueIds.forEach(UniqueId::parse);
+			return Optional.of(uniqueIds);
+		}
+		catch (IOException | JUnitException ex) {
+			LOG.log(WARNING, ex, () -> "Ignoring unreadable discovery cache entry: " + file);
+			return Optional.empty();
+		}
+	}
+
+	private void write(Entry entry) {
+		Path file = this.directory.resolve(entry.key);
+		List<String> lines = new ArrayList<>(entry.uniqueIds.size() + 1);
+		lines.add(entry.fingerprint.checksum);
+		lines.addAll(entry.uniqueIds);
+		Path tempFile = null;
+		try {
+			Files.createDirectories(this.directory);
+			tempFile = Files.createTempFile(this.directory, entry.key, ".tmp");
+			Files.write(tempFile, lines, UTF_8);
+			Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Failed to write discovery cache entry: " + file);
+			deleteSilently(tempFile);
+		}
+	}
+
+	private static void deleteSilently(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException ex) {
+			// ignore
+		}
+	}
+
+	private static Optional<RootFingerprint> computeFingerprint(URI root) {
+		try {
+			Path path = Paths.get(root);
+			if (Files.isDirectory(path)) {
+				return Optional.of(computeDirectoryFingerprint(path));
+			}
+			if (Files.isRegularFile(path)) {
+				return Optional.of(computeJarFingerprint(path));
+			}
+		}
+		catch (Exception ex) {
+			LOG.log(WARNING, ex, () -> "Failed to compute fingerprint of classpath root: " + root);
+		}
+		return Optional.empty();
+	}
+
+	private static RootFingerprint computeDirectoryFingerprint(Path directory) throws IOException {
+		SortedMap<String, String> classFiles = new TreeMap<>();
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				String relativePath = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(),
+					"/");
+				if (attributes.isRegularFile() && relativePath.endsWith(".class")) {
+					classFiles.put(relativePath, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return RootFingerprint.from(classFiles);
+	}
+
+	private static RootFingerprint computeJarFingerprint(Path jarFile) throws IOException {
+		SortedMap<String, String> entries = new TreeMap<>();
+		try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry zipEntry = zipEntries.nextElement();
+				if (!zipEntry.isDirectory()) {
+					entries.put(zipEntry.getName(), zipEntry.getSize() + ":" + Long.toHexString(zipEntry.getCrc()));
+				}
+			}
+		}
+		return RootFingerprint.from(entries);
+	}
+
+	private static String hash(String... values) {
+		MessageDigest digest = newDigest();
+		for (String value : values) {
+			digest.update(value.getBytes(UTF_8));
+			digest.update((byte) 0);
+		}
+		return toHexString(digest.digest());
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new JUnitException("SHA-256 is not supported by this JVM", ex);
+		}
+	}
+
+	private static String toHexString(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return builder.toString();
+	}
+
+	private static List<TestDescriptor> collectLeaves(TestDescriptor engineDescriptor) {
+		List<TestDescriptor> leaves = new ArrayList<>();
+		Deque<TestDescriptor> stack = new ArrayDeque<>();
+		pushChildren(stack, engineDescriptor);
+		while (!stack.isEmpty()) {
+			TestDescriptor descriptor = stack.pop();
+			if (descriptor.getChildren().isEmpty()) {
+				leaves.add(descriptor);
+			}
+			else {
+				pushChildren(stack, descriptor);
+			}
+		}
+		return leaves;
+	}
+
+	private static void pushChildren(Deque<TestDescriptor> stack, TestDescriptor descriptor) {
+		List<TestDescriptor> children = new ArrayList<>(descriptor.getChildren());
+		for (int i = children.size() - 1; i >= 0; i--) {
+			stack.push(children.get(i));
+		}
+	}
+
+	private static Optional<String> findClassName(TestDescriptor descriptor) {
+		for (TestDescriptor current = descriptor; current != null; current = current.getParent().orElse(null)) {
+			Optional<TestSource> source = current.getSource();
+			if (source.isPresent() && source.get() instanceof ClassSource) {
+				return Optional.of(((ClassSource) source.get()).getClassName());
+			}
+			if (source.isPresent() && source.get() instanceof MethodSource) {
+				return Optional.of(((MethodSource) source.get()).getClassName());
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * The result of looking up the cache entries for a discovery request.
+	 */
+	class Lookup {
+
+		private final LauncherDiscoveryRequest discoveryRequest;
+		private final List<Entry> hits;
+		private final List<Entry> misses;
+
+		private Lookup(LauncherDiscoveryRequest discoveryRequest, List<Entry> hits, List<Entry> misses) {
+			this.discoveryRequest = discoveryRequest;
+			this.hits = hits;
+			this.misses = misses;
+		}
+
+		/**
+		 * Get the request to be passed to the engine.
+		 */
+		LauncherDiscoveryRequest getDiscoveryRequest() {
+			return this.discoveryRequest;
+		}
+
+		/**
+		 * Store the unique IDs discovered for all classpath roots without a
+		 * valid cache entry.
+		 *
+		 * <p>The unique IDs of the leaves of the supplied engine descriptor are
+		 * attributed to classpath roots based on the class names of their
+		 * {@linkplain TestDescriptor#getSource() sources}. If a leaf cannot be
+		 * attributed and more than one classpath root was scanned, nothing is
+		 * stored.
+		 */
+		void store(TestDescriptor engineDescriptor) {
+			if (this.misses.isEmpty()) {
+				return;
+			}
+			Set<String> cachedUniqueIds = new HashSet<>();
+			this.hits.forEach(entry -> cachedUniqueIds.addAll(entry.uniqueIds));
+
+			for (TestDescriptor leaf : collectLeaves(engineDescriptor)) {
+				String uniqueId = leaf.getUniqueId().toString();
+				if (cachedUniqueIds.contains(uniqueId)) {
+					continue;
+				}
+				if (uniqueId.indexOf('\n') >= 0 || uniqueId.indexOf('\r') >= 0) {
+					return;
+				}
+				Optional<String> className = findClassName(leaf);
+				List<Entry> owners = className.map(
+					name -> this.misses.stream().filter(entry -> entry.fingerprint.containsClass(name)).collect(
+						Collectors.toList())).orElse(Collections.emptyList());
+				if (owners.isEmpty()) {
+					if (this.misses.size() > 1) {
+						return;
+					}
+					owners = this.misses;
+				}
+				owners.forEach(entry -> entry.uniqueIds.add(uniqueId));
+			}
+			this.misses.forEach(DiscoveryCache.this::write);
+		}
+
+	}
+
+	private static class Entry {
+
+		private final String key;
+		private final RootFingerprint fingerprint;
+		private final List<String> uniqueIds = new ArrayList<>();
+
+		Entry(String key, RootFingerprint fingerprint) {
+			this.key = key;
+			this.fingerprint = fingerprint;
+		}
+
+	}
+
+	private static class RootFingerprint {
+
+		private final String checksum;
+		private final Set<String> classNames;
+
+		static RootFingerprint from(SortedMap<String, String> attributesByFileName) {
+			Set<String> classNames = new HashSet<>();
+			MessageDigest digest = newDigest();
+			attributesByFileName.forEach((fileName, attributes) -> {
+				digest.update(fileName.getBytes(UTF_8));
+				digest.update((byte) 0);
+				digest.update(attributes.getBytes(UTF_8));
+				digest.update((byte) 0);
+				if (fileName.endsWith(".class")) {
+					classNames.add(fileName.substring(0, fileName.length() - ".class".length()).replace('/', '.'));
+				}
+			});
+			return new RootFingerprint(toHexString(digest.digest()), classNames);
+		}
+
+		private RootFingerprint(String checksum, Set<String> classNames) {
+			this.checksum = checksum;
+			this.classNames = classNames;
+		}
+
+		boolean containsClass(String className) {
+			return this.classNames.contains(className);
+		}
+
+	}
+
+}
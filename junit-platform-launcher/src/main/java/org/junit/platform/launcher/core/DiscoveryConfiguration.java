@@ -0,0 +1,376 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.junit.platform.launcher.LauncherConstants.CLASSPATH_INDEX_DIRECTORY_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.DISCOVERY_PARALLELISM_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.DISCOVERY_PROFILE_FILE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.EXECUTION_HISTORY_FILE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.EXECUTION_ORDER_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.IMPACT_ANALYSIS_INDEX_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.PARALLEL_SCAN_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_COUNT_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_INDEX_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARED_SCAN_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.TEST_CLASS_INDEX_ENABLED_PROPERTY_NAME;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ToStringBuilder;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * Configuration of the discovery phase of the {@link DefaultLauncher},
+ * resolved from the {@link ConfigurationParameters} of a discovery request.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants
+ */
+class DiscoveryConfiguration {
+
+	static final DiscoveryConfiguration DEFAULT = new Builder().build();
+
+	static DiscoveryConfiguration from(ConfigurationParameters configurationParameters) {
+		if (configurationParameters == null) {
+			return DEFAULT;
+		}
+		boolean parallel = configurationParameters.getBoolean(PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME).orElse(false);
+		Optional<String> parallelism = configurationParameters.get(DISCOVERY_PARALLELISM_PROPERTY_NAME);
+		boolean sharedClasspathScan = configurationParameters.getBoolean(
+			SHARED_SCAN_ENABLED_PROPERTY_NAME).orElse(false);
+		boolean parallelClasspathScan = configurationParameters.getBoolean(
+			PARALLEL_SCAN_ENABLED_PROPERTY_NAME).orElse(false);
+		Path cacheDirectory = configurationParameters.get(DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME).map(
+			value -> parsePath(DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME, value)).orElse(null);
+		Path impactAnalysisIndex = configurationParameters.get(IMPACT_ANALYSIS_INDEX_PROPERTY_NAME).map(
+			value -> parsePath(IMPACT_ANALYSIS_INDEX_PROPERTY_NAME, value)).orElse(null);
+		Path executionHistoryFile = configurationParameters.get(EXECUTION_HISTORY_FILE_PROPERTY_NAME).map(
+			value -> parsePath(EXECUTION_HISTORY_FILE_PROPERTY_NAME, value)).orElse(null);
+		boolean orderedByExecutionHistory = configurationParameters.get(EXECUTION_ORDER_PROPERTY_NAME).map(
+			DiscoveryConfiguration::parseOrderedByExecutionHistory).orElse(false);
+		if (orderedByExecutionHistory && executionHistoryFile == null) {
+			throw new JUnitException(String.format("Configuration parameter [%s] is required if [%s] is 'history'",
+				EXECUTION_HISTORY_FILE_PROPERTY_NAME, EXECUTION_ORDER_PROPERTY_NAME));
+		}
+		Optional<Integer> shardIndex = configurationParameters.get(SHARD_INDEX_PROPERTY_NAME).map(
+			value -> parseInt(SHARD_INDEX_PROPERTY_NAME, value));
+		int shardCount = configurationParameters.get(SHARD_COUNT_PROPERTY_NAME).map(
+			value -> parseInt(SHARD_COUNT_PROPERTY_NAME, value)).orElse(1);
+		if (shardCount < 1) {
+			throw new JUnitException(String.format("Configuration parameter [%s] must be positive but was: %d",
+				SHARD_COUNT_PROPERTY_NAME, shardCount));
+		}
+		if (shardIndex.isPresent() && (shardIndex.get() < 0 || shardIndex.get() >= shardCount)) {
+			throw new JUnitException(
+				String.format("Configuration parameter [%s] must be between 0 and %d but was: %d",
+					SHARD_INDEX_PROPERTY_NAME, shardCount - 1, shardIndex.get()));
+		}
+		if (shardCount > 1 && !shardIndex.isPresent()) {
+			throw new JUnitException(String.format("Configuration parameter [%s] is required if [%s] is set",
+				SHARD_INDEX_PROPERTY_NAME, SHARD_COUNT_PROPERTY_NAME));
+		}
+		boolean pipelined = configurationParameters.getBoolean(PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME).orElse(
+			false);
+		if (pipelined && (shardCount > 1 || orderedByExecutionHistory)) {
+			throw new JUnitException(String.format("Configuration parameter [%s] cannot be combined with [%s] or [%s]",
+				PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME, SHARD_COUNT_PROPERTY_NAME, EXECUTION_ORDER_PROPERTY_NAME));
+		}
+		if (pipelined && (parallel || sharedClasspathScan || cacheDirectory != null)) {
+			throw new JUnitException(
+				String.format("Configuration parameter [%s] cannot be combined with [%s], [%s], or [%s]",
+					PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME, PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME,
+					SHARED_SCAN_ENABLED_PROPERTY_NAME, DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME));
+		}
+		Path profileFile = configurationParameters.get(DISCOVERY_PROFILE_FILE_PROPERTY_NAME).map(
+			value -> parsePath(DISCOVERY_PROFILE_FILE_PROPERTY_NAME, value)).orElse(null);
+		Path classpathIndexDirectory = configurationParameters.get(CLASSPATH_INDEX_DIRECTORY_PROPERTY_NAME).map(
+			value -> parsePath(CLASSPATH_INDEX_DIRECTORY_PROPERTY_NAME, value)).orElse(null);
+		boolean testClassIndex = configurationParameters.getBoolean(TEST_CLASS_INDEX_ENABLED_PROPERTY_NAME).orElse(
+			false);
+		int effectiveParallelism = !parallel && !parallelClasspathScan ? 1
+				: parallelism.map(DiscoveryConfiguration::parseParallelism).orElseGet(
+					() -> Runtime.getRuntime().availableProcessors());
+		// @formatter:off
+		return new Builder()
+				.parallel(parallel)
+				.parallelism(effectiveParallelism)
+				.sharedClasspathScan(sharedClasspathScan)
+				.parallelClasspathScan(parallelClasspathScan)
+				.cacheDirectory(cacheDirectory)
+				.impactAnalysisIndex(impactAnalysisIndex)
+				.executionHistoryFile(executionHistoryFile)
+				.orderedByExecutionHistory(orderedByExecutionHistory)
+				.shardIndex(shardIndex.orElse(0))
+				.shardCount(shardCount)
+				.pipelined(pipelined)
+				.profileFile(profileFile)
+				.classpathIndexDirectory(classpathIndexDirectory)
+				.testClassIndex(testClassIndex)
+				.build();
+		// @formatter:on
+	}
+
+	private static int parseParallelism(String value) {
+		int parallelism = parseInt(DISCOVERY_PARALLELISM_PROPERTY_NAME, value);
+		if (parallelism < 1) {
+			throw new JUnitException(String.format("Configuration parameter [%s] must be positive but was: %d",
+				DISCOVERY_PARALLELISM_PROPERTY_NAME, parallelism));
+		}
+		return parallelism;
+	}
+
+	private static int parseInt(String propertyName, String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			throw new JUnitException(
+				String.format("Invalid value for configuration parameter [%s]: %s", propertyName, value), ex);
+		}
+	}
+
+	private static boolean parseOrderedByExecutionHistory(String value) {
+		switch (value.trim().toLowerCase()) {
+			case "discovery":
+				return false;
+			case "history":
+				return true;
+			default:
+				throw new JUnitException(String.format("Invalid value for configuration parameter [%s]: %s",
+					EXECUTION_ORDER_PROPERTY_NAME, value));
+		}
+	}
+
+	private static Path parsePath(String propertyName, String value) {
+		try {
+			return Paths.get(value.trim());
+		}
+		catch (InvalidPathException ex) {
+			throw new JUnitException(
+				String.format("Invalid value for configuration parameter [%s]: %s", propertyName, value), ex);
+		}
+	}
+
+	private final boolean parallel;
+	private final int parallelism;
+	private final boolean sharedClasspathScan;
+	private final boolean parallelClasspathScan;
+	private final Path cacheDirectory;
+	private final Path impactAnalysisIndex;
+	private final Path executionHistoryFile;
+	private final boolean orderedByExecutionHistory;
+	private final int shardIndex;
+	private final int shardCount;
+	private final boolean pipelined;
+	private final Path profileFile;
+	private final Path classpathIndexDirectory;
+	private final boolean testClassIndex;
+
+	private DiscoveryConfiguration(Builder builder) {
+		this.parallel = builder.parallel;
+		this.parallelism = builder.parallelism;
+		this.sharedClasspathScan = builder.sharedClasspathScan;
+		this.parallelClasspathScan = builder.parallelClasspathScan;
+		this.cacheDirectory = builder.cacheDirectory;
+		this.impactAnalysisIndex = builder.impactAnalysisIndex;
+		this.executionHistoryFile = builder.executionHistoryFile;
+		this.orderedByExecutionHistory = builder.orderedByExecutionHistory;
+		this.shardIndex = builder.shardIndex;
+		this.shardCount = builder.shardCount;
+		this.pipelined = builder.pipelined;
+		this.profileFile = builder.profileFile;
+		this.classpathIndexDirectory = builder.classpathIndexDirectory;
+		this.testClassIndex = builder.testClassIndex;
+	}
+
+	boolean isParallel() {
+		return this.parallel;
+	}
+
+	int getParallelism() {
+		return this.parallelism;
+	}
+
+	boolean isSharedClasspathScan() {
+		return this.sharedClasspathScan;
+	}
+
+	boolean isParallelClasspathScan() {
+		return this.parallelClasspathScan;
+	}
+
+	Optional<Path> getCacheDirectory() {
+		return Optional.ofNullable(this.cacheDirectory);
+	}
+
+	Optional<Path> getImpactAnalysisIndex() {
+		return Optional.ofNullable(this.impactAnalysisIndex);
+	}
+
+	Optional<Path> getExecutionHistoryFile() {
+		return Optional.ofNullable(this.executionHistoryFile);
+	}
+
+	boolean isOrderedByExecutionHistory() {
+		return this.orderedByExecutionHistory;
+	}
+
+	int getShardIndex() {
+		return this.shardIndex;
+	}
+
+	int getShardCount() {
+		return this.shardCount;
+	}
+
+	boolean isPipelined() {
+		return this.pipelined;
+	}
+
+	Optional<Path> getProfileFile() {
+		return Optional.ofNullable(this.profileFile);
+	}
+
+	Optional<Path> getClasspathIndexDirectory() {
+		return Optional.ofNullable(this.classpathIndexDirectory);
+	}
+
+	boolean isTestClassIndex() {
+		return this.testClassIndex;
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("parallel", this.parallel)
+				.append("parallelism", this.parallelism)
+				.append("sharedClasspathScan", this.sharedClasspathScan)
+				.append("parallelClasspathScan", this.parallelClasspathScan)
+				.append("cacheDirectory", this.cacheDirectory)
+				.append("impactAnalysisIndex", this.impactAnalysisIndex)
+				.append("executionHistoryFile", this.executionHistoryFile)
+				.append("orderedByExecutionHistory", this.orderedByExecutionHistory)
+				.append("shardIndex", this.shardIndex)
+				.append("shardCount", this.shardCount)
+				.append("pipelined", this.pipelined)
+				.append("profileFile", this.profileFile)
+				.append("classpathIndexDirectory", this.classpathIndexDirectory)
+				.append("testClassIndex", this.testClassIndex)
+				.toString();
+		// @formatter:on
+	}
+
+	/**
+	 * Builder for {@link DiscoveryConfiguration}; every property that is not
+	 * set keeps its value of {@link DiscoveryConfiguration#DEFAULT}.
+	 */
+	static class Builder {
+
+		private boolean parallel = false;
+		private int parallelism = 1;
+		private boolean sharedClasspathScan = false;
+		private boolean parallelClasspathScan = false;
+		private Path cacheDirectory;
+		private Path impactAnalysisIndex;
+		private Path executionHistoryFile;
+		private boolean orderedByExecutionHistory = false;
+		private int shardIndex = 0;
+		private int shardCount = 1;
+		private boolean pipelined = false;
+		private Path profileFile;
+		private Path classpathIndexDirectory;
+		private boolean testClassIndex = false;
+
+		Builder parallel(boolean parallel) {
+			this.parallel = parallel;
+			return this;
+		}
+
+		Builder parallelism(int parallelism) {
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		Builder sharedClasspathScan(boolean sharedClasspathScan) {
+			this.sharedClasspathScan = sharedClasspathScan;
+			return this;
+		}
+
+		Builder parallelClasspathScan(boolean parallelClasspathScan) {
+			this.parallelClasspathScan = parallelClasspathScan;
+			return this;
+		}
+
+		Builder cacheDirectory(Path cacheDirectory) {
+			this.cacheDirectory = cacheDirectory;
+			return this;
+		}
+
+		Builder impactAnalysisIndex(Path impactAnalysisIndex) {
+			this.impactAnalysisIndex = impactAnalysisIndex;
+			return this;
+		}
+
+		Builder executionHistoryFile(Path executionHistoryFile) {
+			this.executionHistoryFile = executionHistoryFile;
+			return this;
+		}
+
+		Builder orderedByExecutionHistory(boolean orderedByExecutionHistory) {
+			this.orderedByExecutionHistory = orderedByExecutionHistory;
+			return this;
+		}
+
+		Builder shardIndex(int shardIndex) {
+			this.shardIndex = shardIndex;
+			return this;
+		}
+
+		Builder shardCount(int shardCount) {
+			this.shardCount = shardCount;
+			return this;
+		}
+
+		Builder pipelined(boolean pipelined) {
+			this.pipelined = pipelined;
+			return this;
+		}
+
+		Builder profileFile(Path profileFile) {
+			this.profileFile = profileFile;
+			return this;
+		}
+
+		Builder classpathIndexDirectory(Path classpathIndexDirectory) {
+			this.classpathIndexDirectory = classpathIndexDirectory;
+			return this;
+		}
+
+		Builder testClassIndex(boolean testClassIndex) {
+			this.testClassIndex = testClassIndex;
+			return this;
+		}
+
+		DiscoveryConfiguration build() {
+			return new DiscoveryConfiguration(this);
+		}
+
+	}
+
+}
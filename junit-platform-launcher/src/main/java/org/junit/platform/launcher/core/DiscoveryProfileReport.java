@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.logging.Level.WARNING;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASS_LOAD;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASS_RESOLUTION;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.junit.platform.commons.util.DiscoveryProfile;
+import org.junit.platform.commons.util.DiscoveryProfile.Measurement;
+import org.junit.platform.commons.util.DiscoveryProfile.Section;
+
+/**
+ * Writes the measurements of a {@link DiscoveryProfile} to a text file.
+ *
+ * <p>The file contains one line per measurement, consisting of the section,
+ * the number of recorded steps, their total duration in microseconds, and
+ * the name, separated by tabs. Sections are listed in the order in which
+ * they are declared, and measurements of the same section in descending
+ * order of their total duration. Of the classes that were loaded or
+ * resolved, only the {@value #MAX_CLASSES} slowest ones are listed.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants#DISCOVERY_PROFILE_FILE_PROPERTY_NAME
+ */
+class DiscoveryProfileReport {
+
+	private static final Logger LOG = Logger.getLogger(DiscoveryProfileReport.class.getName());
+
+	static final int MAX_CLASSES = 50;
+
+	private DiscoveryProfileReport() {
+		/* no-op */
+	}
+
+	static void write(DiscoveryProfile profile, Path file) {
+		Path tempFile = null;
+		try {
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+				for (Section section : Section.values()) {
+					List<Measurement> measurements = profile.getMeasurements(section);
+					if ((section == CLASS_LOAD || section == CLASS_RESOLUTION) && measurements.size() > MAX_CLASSES) {
+						measurements = measurements.subList(0, MAX_CLASSES);
+					}
+					for (Measurement measurement : measurements) {
+						writer.write(section + "\t" + measurement.getCount() + "\t"
+								+ TimeUnit.NANOSECONDS.toMicros(measurement.getTotalNanos()) + "\t"
+								+ measurement.getName());
+						writer.newLine();
+					}
+				}
+			}
+			Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Failed to write discovery profile: " + file);
+			if (tempFile != null && !tempFile.toFile().delete()) {
+				LOG.warning("Failed to delete temporary file: " + tempFile);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.junit.platform.launcher.LauncherConstants.ASYNC_BACKPRESSURE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.ASYNC_LISTENERS_CAPACITY_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.ASYNC_LISTENERS_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.ENGINES_PARALLELISM_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.PARALLEL_ENGINES_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.STREAMING_EXECUTION_ENABLED_PROPERTY_NAME;
+
+import java.util.Locale;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ToStringBuilder;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.launcher.core.AsyncTestExecutionListener.BackpressurePolicy;
+
+/**
+ * Configuration of the execution phase of the {@link DefaultLauncher},
+ * resolved from the {@link ConfigurationParameters} of a discovery request.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants
+ */
+class ExecutionConfiguration {
+
+	static final int DEFAULT_ASYNC_LISTENERS_CAPACITY = 1024;
+
+	static final ExecutionConfiguration DEFAULT = new ExecutionConfiguration(false, 1, false,
+		DEFAULT_ASYNC_LISTENERS_CAPACITY, BackpressurePolicy.BLOCK, false);
+
+	static ExecutionConfiguration from(ConfigurationParameters configurationParameters) {
+		if (configurationParameters == null) {
+			return DEFAULT;
+		}
+		boolean parallel = configurationParameters.getBoolean(PARALLEL_ENGINES_ENABLED_PROPERTY_NAME).orElse(false);
+		int parallelism = !parallel ? 1
+				: configurationParameters.get(ENGINES_PARALLELISM_PROPERTY_NAME).map(
+					value -> parsePositiveInteger(ENGINES_PARALLELISM_PROPERTY_NAME, value)).orElseGet(
+						() -> Runtime.getRuntime().availableProcessors());
+		boolean asyncListeners = configurationParameters.getBoolean(ASYNC_LISTENERS_ENABLED_PROPERTY_NAME).orElse(
+			false);
+		int asyncListenersCapacity = configurationParameters.get(ASYNC_LISTENERS_CAPACITY_PROPERTY_NAME).map(
+			value -> parsePositiveInteger(ASYNC_LISTENERS_CAPACITY_PROPERTY_NAME, value)).orElse(
+				DEFAULT_ASYNC_LISTENERS_CAPACITY);
+		BackpressurePolicy backpressurePolicy = configurationParameters.get(
+			ASYNC_BACKPRESSURE_PROPERTY_NAME).map(ExecutionConfiguration::parseBackpressurePolicy).orElse(
+				BackpressurePolicy.BLOCK);
+		boolean streaming = configurationParameters.getBoolean(STREAMING_EXECUTION_ENABLED_PROPERTY_NAME).orElse(
+			false);
+		if (streaming && asyncListeners) {
+			throw new JUnitException(String.format("Configuration parameter [%s] cannot be combined with [%s]",
+				STREAMING_EXECUTION_ENABLED_PROPERTY_NAME, ASYNC_LISTENERS_ENABLED_PROPERTY_NAME));
+		}
+		return new ExecutionConfiguration(parallel, parallelism, asyncListeners, asyncListenersCapacity,
+			backpressurePolicy, streaming);
+	}
+
+	private static int parsePositiveInteger(String propertyName, String value) {
+		int result;
+		try {
+			result = Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			throw new JUnitException(
+				String.format("Invalid value for configuration parameter [%s]: %s", propertyName, value), ex);
+		}
+		if (result < 1) {
+			throw new JUnitException(
+				String.format("Configuration parameter [%s] must be positive but was: %d", propertyName, result));
+		}
+		return result;
+	}
+
+	private static BackpressurePolicy parseBackpressurePolicy(String value) {
+		try {
+			return BackpressurePolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException ex) {
+			throw new JUnitException(String.format("Invalid value for configuration parameter [%s]: %s",
+				ASYNC_BACKPRESSURE_PROPERTY_NAME, value), ex);
+		}
+	}
+
+	private final boolean parallel;
+	private final int parallelism;
+	private final boolean asyncListeners;
+	private final int asyncListenersCapacity;
+	private final BackpressurePolicy backpressurePolicy;
+	private final boolean streaming;
+
+	ExecutionConfiguration(boolean parallel, int parallelism, boolean asyncListeners, int asyncListenersCapacity,
+			BackpressurePolicy backpressurePolicy, boolean streaming) {
+		this.parallel = parallel;
+		this.parallelism = parallelism;
+		this.asyncListeners = asyncListeners;
+		this.asyncListenersCapacity = asyncListenersCapacity;
+		this.backpressurePolicy = backpressurePolicy;
+		this.streaming = streaming;
+	}
+
+	boolean isParallel() {
+		return this.parallel;
+	}
+
+	int getParallelism() {
+		return this.parallelism;
+	}
+
+	boolean isAsyncListeners() {
+		return this.asyncListeners;
+	}
+
+	int getAsyncListenersCapacity() {
+		return this.asyncListenersCapacity;
+	}
+
+	BackpressurePolicy getBackpressurePolicy() {
+		return this.backpressurePolicy;
+	}
+
+	boolean isStreaming() {
+		return this.streaming;
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("parallel", this.parallel)
+				.append("parallelism", this.parallelism)
+				.append("asyncListeners", this.asyncListeners)
+				.append("asyncListenersCapacity", this.asyncListenersCapacity)
+				.append("backpressurePolicy", this.backpressurePolicy)
+				.append("streaming", this.streaming)
+				.toString();
+		// @formatter:on
+	}
+
+}
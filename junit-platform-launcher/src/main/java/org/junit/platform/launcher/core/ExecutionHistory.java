@@ -0,0 +1,234 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.logging.Level.WARNING;
+import static org.junit.platform.engine.TestExecutionResult.Status.SUCCESSFUL;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * History of the duration and outcome of the last execution of every test
+ * and container, keyed by unique ID.
+ *
+ * <p>The history is stored in a text file with one line per unique ID,
+ * consisting of the duration in milliseconds, {@code F} or {@code S}
+ * depending on whether the execution failed or succeeded, and the unique
+ * ID, separated by tabs.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants#EXECUTION_HISTORY_FILE_PROPERTY_NAME
+ */
+class ExecutionHistory {
+
+	private static final Logger LOG = Logger.getLogger(ExecutionHistory.class.getName());
+
+	/**
+	 * Order failed descriptors first, then by ascending expected duration.
+	 */
+	private static final Comparator<Expectation> EXPECTATION_ORDER = Comparator.comparing(
+		(Expectation expectation) -> !expectation.failed).thenComparingLong(expectation -> expectation.duration);
+
+	/**
+	 * Load the history stored in the supplied file, if it exists.
+	 */
+	static ExecutionHistory load(Path file) {
+		ExecutionHistory history = new ExecutionHistory(file);
+		if (Files.isRegularFile(file)) {
+			history.read();
+		}
+		return history;
+	}
+
+	private final Path file;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private ExecutionHistory(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Get the duration of the last execution of the supplied unique ID in
+	 * milliseconds, or {@code -1} if it has never been executed.
+	 */
+	long getDuration(String uniqueId) {
+		Entry entry = this.entries.get(uniqueId);
+		return entry != null ? entry.duration : -1;
+	}
+
+	/**
+	 * Determine whether the last execution of the supplied unique ID failed.
+	 */
+	boolean hasFailed(String uniqueId) {
+		Entry entry = this.entries.get(uniqueId);
+		return entry != null && entry.failed;
+	}
+
+	/**
+	 * Order the children of all descriptors in the supplied {@link Root} so
+	 * that descriptors whose last execution failed come first, followed by
+	 * all others in ascending order of their expected duration.
+	 *
+	 * <p>A container is considered failed if it or any of its descendants
+	 * failed; its expected duration is the sum of the expected durations of
+	 * its children. Tests that have never been executed are expected to take
+	 * no time at all, so that they are executed early. Descriptors that are
+	 * expected to be equal retain their relative order.
+	 */
+	void order(Root root) {
+		root.getEngineDescriptors().forEach(this::order);
+	}
+
+	private Expectation order(TestDescriptor descriptor) {
+		String uniqueId = descriptor.getUniqueId().toString();
+		if (descriptor.getChildren().isEmpty()) {
+			return new Expectation(hasFailed(uniqueId), Math.max(0, getDuration(uniqueId)));
+		}
+		Map<TestDescriptor, Expectation> expectations = new HashMap<>();
+		boolean failed = hasFailed(uniqueId);
+		long duration = 0;
+		for (TestDescriptor child : new ArrayList<>(descriptor.getChildren())) {
+			Expectation expectation = order(child);
+			expectations.put(child, expectation);
+			failed |= expectation.failed;
+			duration += expectation.duration;
+		}
+		descriptor.orderChildren(children -> {
+			children.sort(Comparator.comparing(expectations::get, EXPECTATION_ORDER));
+			return children;
+		});
+		return new Expectation(failed, duration);
+	}
+
+	/**
+	 * Create a listener that records the duration and outcome of all
+	 * executed tests and containers and stores the history once the test
+	 * plan has been executed.
+	 */
+	TestExecutionListener createRecordingListener() {
+		return new RecordingListener();
+	}
+
+	private void read() {
+		try (BufferedReader reader = Files.newBufferedReader(this.file, UTF_8)) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				String[] parts = line.split("\t", 3);
+				if (parts.length == 3) {
+					this.entries.put(parts[2], new Entry(Long.parseLong(parts[0]), "F".equals(parts[1])));
+				}
+			}
+		}
+		catch (IOException | NumberFormatException ex) {
+			LOG.log(WARNING, ex, () -> "Ignoring unreadable execution history: " + this.file);
+			this.entries.clear();
+		}
+	}
+
+	void write() {
+		Path tempFile = null;
+		try {
+			Path directory = this.file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			tempFile = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+				for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+					writer.write(entry.getValue().duration + "\t" + (entry.getValue().failed ? "F" : "S") + "\t"
+							+ entry.getKey());
+					writer.newLine();
+				}
+			}
+			Files.move(tempFile, this.file, REPLACE_EXISTING, ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Failed to write execution history: " + this.file);
+			if (tempFile != null && !tempFile.toFile().delete()) {
+				LOG.warning("Failed to delete temporary file: " + tempFile);
+			}
+		}
+	}
+
+	void record(String uniqueId, long duration, boolean failed) {
+		this.entries.put(uniqueId, new Entry(duration, failed));
+	}
+
+	private static class Entry {
+
+		private final long duration;
+		private final boolean failed;
+
+		Entry(long duration, boolean failed) {
+			this.duration = duration;
+			this.failed = failed;
+		}
+
+	}
+
+	private static class Expectation {
+
+		private final boolean failed;
+		private final long duration;
+
+		Expectation(boolean failed, long duration) {
+			this.failed = failed;
+			this.duration = duration;
+		}
+
+	}
+
+	/**
+	 * Records the duration and outcome of all executed tests and containers.
+	 */
+	private class RecordingListener implements TestExecutionListener {
+
+		private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+
+		@Override
+		public void executionStarted(TestIdentifier testIdentifier) {
+			this.startTimes.put(testIdentifier.getUniqueId(), System.nanoTime());
+		}
+
+		@Override
+		public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+			Long startTime = this.startTimes.remove(testIdentifier.getUniqueId());
+			if (startTime != null) {
+				long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+				record(testIdentifier.getUniqueId(), duration, testExecutionResult.getStatus() != SUCCESSFUL);
+			}
+		}
+
+		@Override
+		public void testPlanExecutionFinished(TestPlan testPlan) {
+			write();
+		}
+
+	}
+
+}
@@ -10,9 +10,14 @@
 
 package org.junit.platform.launcher.core;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.reporting.ExecutionTimings;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestIdentifier;
@@ -22,22 +27,55 @@ import org.junit.platform.launcher.TestPlan;
  * An {@code ExecutionListenerAdapter} adapts a {@link TestPlan} and a corresponding
  * {@link TestExecutionListener} to the {@link EngineExecutionListener} API.
  *
+ * <p>An adapter may be used by several engines that are executed
+ * concurrently. It is thread-safe as long as the adapted
+ * {@code TestExecutionListener} is; dynamically registered tests are added
+ * to the thread-safe {@code TestPlan} before listeners are notified.
+ *
+ * <p>In streaming mode, dynamically registered tests are removed from the
+ * {@code TestPlan} and from their parent descriptors once listeners have
+ * been notified that they finished or have been skipped. Statically
+ * discovered descriptors are retained, since engines may still iterate
+ * over them and their number is bounded by the size of the test sources.
+ *
+ * <p>If the adapted {@code TestPlan} is an {@link InternalTestPlan}, the
+ * {@link TestIdentifier} of an event is resolved directly from the
+ * descriptor's {@link UniqueId}, so that no unique ID strings are formatted
+ * or looked up while tests are being executed.
+ *
  * @since 1.0
  */
 class ExecutionListenerAdapter implements EngineExecutionListener {
 
 	private final TestPlan testPlan;
+	private final InternalTestPlan internalTestPlan;
 	private final TestExecutionListener testExecutionListener;
+	private final Set<UniqueId> dynamicTestIds;
 
 	ExecutionListenerAdapter(TestPlan testPlan, TestExecutionListener testExecutionListener) {
+		this(testPlan, testExecutionListener, false);
+	}
+
+	ExecutionListenerAdapter(TestPlan testPlan, TestExecutionListener testExecutionListener, boolean streaming) {
 		this.testPlan = testPlan;
+		this.internalTestPlan = testPlan instanceof InternalTestPlan ? (InternalTestPlan) testPlan : null;
 		this.testExecutionListener = testExecutionListener;
+		this.dynamicTestIds = streaming ? ConcurrentHashMap.newKeySet() : null;
 	}
 
 	@Override
 	public void dynamicTestRegistered(TestDescriptor testDescriptor) {
-		TestIdentifier testIdentifier = TestIdentifier.from(testDescriptor);
-		this.testPlan.add(testIdentifier);
+		TestIdentifier testIdentifier;
+		if (this.internalTestPlan != null) {
+			testIdentifier = this.internalTestPlan.add(testDescriptor);
+		}
+		else {
+			testIdentifier = TestIdentifier.from(testDescriptor);
+			this.testPlan.add(testIdentifier);
+		}
+		if (this.dynamicTestIds != null) {
+			this.dynamicTestIds.add(testDescriptor.getUniqueId());
+		}
 		this.testExecutionListener.dynamicTestRegistered(testIdentifier);
 	}
 
@@ -49,11 +87,13 @@ class ExecutionListenerAdapter implements EngineExecutionListener {
 	@Override
 	public void executionSkipped(TestDescriptor testDescriptor, String reason) {
 		this.testExecutionListener.executionSkipped(getTestIdentifier(testDescriptor), reason);
+		releaseIfDynamic(testDescriptor);
 	}
 
 	@Override
 	public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
 		this.testExecutionListener.executionFinished(getTestIdentifier(testDescriptor), testExecutionResult);
+		releaseIfDynamic(testDescriptor);
 	}
 
 	@Override
@@ -61,7 +101,34 @@ class ExecutionListenerAdapter implements EngineExecutionListener {
 		this.testExecutionListener.reportingEntryPublished(getTestIdentifier(testDescriptor), entry);
 	}
 
+	@Override
+	public void executionTimingsRecorded(TestDescriptor testDescriptor, ExecutionTimings timings) {
+		this.testExecutionListener.executionTimingsRecorded(getTestIdentifier(testDescriptor), timings);
+	}
+
+	/**
+	 * Remove the supplied descriptor from the test plan and its parent if it
+	 * has been registered dynamically and streaming is enabled.
+	 *
+	 * <p>Children always finish before their parents, so a dynamic container
+	 * has no children left by the time it is released itself.
+	 */
+	private void releaseIfDynamic(TestDescriptor testDescriptor) {
+		if (this.dynamicTestIds != null && this.dynamicTestIds.remove(testDescriptor.getUniqueId())) {
+			if (this.internalTestPlan != null) {
+				this.internalTestPlan.remove(testDescriptor);
+			}
+			else {
+				this.testPlan.remove(testDescriptor.getUniqueId().toString());
+			}
+			testDescriptor.removeFromHierarchy();
+		}
+	}
+
 	private TestIdentifier getTestIdentifier(TestDescriptor testDescriptor) {
+		if (this.internalTestPlan != null) {
+			return this.internalTestPlan.getTestIdentifier(testDescriptor);
+		}
 		return this.testPlan.getTestIdentifier(testDescriptor.getUniqueId().toString());
 	}
 
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestDescriptor.Visitor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * {@link TestPlan} created by the {@link DefaultLauncher} which retains the
+ * discovered {@link Root} so that it can be executed without rediscovering
+ * its tests.
+ *
+ * <p>The {@link TestIdentifier} of every {@link TestDescriptor} that is
+ * added via {@link #add(TestDescriptor)} is additionally mapped to the
+ * descriptor's {@link UniqueId}. Since engines report events for the
+ * descriptors they discovered or registered, which share their
+ * {@code UniqueId} instances, {@link #getTestIdentifier(TestDescriptor)}
+ * resolves the identifier of an event without formatting, validating, or
+ * allocating anything.
+ *
+ * @since 1.0
+ */
+class InternalTestPlan extends TestPlan {
+
+	private final AtomicBoolean executionStarted = new AtomicBoolean(false);
+	private final Launcher launcher;
+	private final Root root;
+	private final ConfigurationParameters configurationParameters;
+	private final List<TestExecutionListener> builtInListeners;
+	private final Map<UniqueId, TestIdentifier> identifiersByUniqueId = new ConcurrentHashMap<>();
+
+	static InternalTestPlan from(Root root, ConfigurationParameters configurationParameters) {
+		return from(null, root, configurationParameters, Collections.emptyList());
+	}
+
+	static InternalTestPlan from(Launcher launcher, Root root, ConfigurationParameters configurationParameters,
+			List<TestExecutionListener> builtInListeners) {
+		InternalTestPlan testPlan = new InternalTestPlan(launcher, root, configurationParameters, builtInListeners);
+		Visitor visitor = testPlan::add;
+		root.getEngineDescriptors().forEach(engineDescriptor -> engineDescriptor.accept(visitor));
+		return testPlan;
+	}
+
+	private InternalTestPlan(Launcher launcher, Root root, ConfigurationParameters configurationParameters,
+			List<TestExecutionListener> builtInListeners) {
+		this.launcher = launcher;
+		this.root = root;
+		this.configurationParameters = configurationParameters;
+		this.builtInListeners = builtInListeners;
+	}
+
+	/**
+	 * Add a {@link TestIdentifier} for the supplied descriptor to this test
+	 * plan.
+	 *
+	 * @return the added identifier
+	 */
+	TestIdentifier add(TestDescriptor testDescriptor) {
+		TestIdentifier testIdentifier = TestIdentifier.from(testDescriptor);
+		add(testIdentifier);
+		this.identifiersByUniqueId.put(testDescriptor.getUniqueId(), testIdentifier);
+		return testIdentifier;
+	}
+
+	/**
+	 * Get the {@link TestIdentifier} of the supplied descriptor.
+	 *
+	 * @throws PreconditionViolationException if no identifier with the unique
+	 * ID of the supplied descriptor is present in this test plan
+	 */
+	TestIdentifier getTestIdentifier(TestDescriptor testDescriptor) throws PreconditionViolationException {
+		TestIdentifier testIdentifier = this.identifiersByUniqueId.get(testDescriptor.getUniqueId());
+		return testIdentifier != null ? testIdentifier : getTestIdentifier(testDescriptor.getUniqueId().toString());
+	}
+
+	/**
+	 * Remove the {@link TestIdentifier} of the supplied descriptor from this
+	 * test plan.
+	 *
+	 * @see #remove(String)
+	 */
+	void remove(TestDescriptor testDescriptor) throws PreconditionViolationException {
+		super.remove(testDescriptor.getUniqueId().toString());
+		this.identifiersByUniqueId.remove(testDescriptor.getUniqueId());
+	}
+
+	@Override
+	public void remove(String uniqueId) throws PreconditionViolationException {
+		super.remove(uniqueId);
+		this.identifiersByUniqueId.remove(UniqueId.parse(uniqueId));
+	}
+
+	/**
+	 * Mark this test plan as being executed.
+	 *
+	 * <p>Since engines may modify their test descriptors during execution,
+	 * e.g. by registering dynamic tests, a test plan may only be executed once.
+	 */
+	void markStarted() {
+		Preconditions.condition(this.executionStarted.compareAndSet(false, true),
+			"TestPlan must only be executed once");
+	}
+
+	/**
+	 * Determine if this test plan was discovered by the supplied launcher.
+	 */
+	boolean isDiscoveredBy(Launcher launcher) {
+		return this.launcher == launcher;
+	}
+
+	Root getRoot() {
+		return this.root;
+	}
+
+	ConfigurationParameters getConfigurationParameters() {
+		return this.configurationParameters;
+	}
+
+	/**
+	 * Get the listeners the launcher itself registered for the execution of
+	 * this test plan, e.g. to record the outcome of the executed tests.
+	 */
+	List<TestExecutionListener> getBuiltInListeners() {
+		return this.builtInListeners;
+	}
+
+}
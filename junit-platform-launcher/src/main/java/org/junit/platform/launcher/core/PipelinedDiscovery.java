@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.support.filter.ClasspathScanningSupport.buildClassNamePredicate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.ReflectionUtils;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.engine.discovery.ClasspathRootSelector;
+import org.junit.platform.engine.discovery.PackageSelector;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+
+/**
+ * Splits a {@link LauncherDiscoveryRequest} into a sequence of requests that
+ * can be discovered and executed one after another while the classpath is
+ * still being scanned.
+ *
+ * <p>The {@linkplain #getInitialRequest() initial request} contains all
+ * selectors of the original request except for classpath root and package
+ * selectors. Those are scanned by a background thread, which applies the
+ * class name and package name filters of the original request. Each
+ * {@linkplain #nextRequest() subsequent request} selects all classes found
+ * since the previous one was created.
+ *
+ * <p>Classes that are selected by a class selector of the original request,
+ * or by more than one scanned selector, are only selected once. Classes
+ * that are only selected by a method selector are still scanned, so that
+ * their remaining tests are discovered as well.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants#PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME
+ */
+class PipelinedDiscovery implements AutoCloseable {
+
+	/** Marks the end of the scan; never a scanned class, since it is primitive. */
+	private static final Class<?> END_OF_SCAN = void.class;
+
+	/**
+	 * Start scanning the classpath roots and packages selected by the supplied
+	 * request.
+	 */
+	static PipelinedDiscovery start(LauncherDiscoveryRequest discoveryRequest) {
+		PipelinedDiscovery discovery = new PipelinedDiscovery(discoveryRequest);
+		discovery.scanner.start();
+		return discovery;
+	}
+
+	private final LauncherDiscoveryRequest discoveryRequest;
+	private final List<DiscoverySelector> initialSelectors = new ArrayList<>();
+	private final Set<String> selectedClassNames = new HashSet<>();
+	private final BlockingQueue<Class<?>> scannedClasses = new LinkedBlockingQueue<>();
+	private final Thread scanner;
+	private volatile boolean closed;
+	private volatile Throwable scanFailure;
+	private boolean endOfScan;
+
+	private PipelinedDiscovery(LauncherDiscoveryRequest discoveryRequest) {
+		this.discoveryRequest = discoveryRequest;
+		List<ClasspathRootSelector> classpathRootSelectors = new ArrayList<>();
+		List<PackageSelector> packageSelectors = new ArrayList<>();
+		for (DiscoverySelector selector : discoveryRequest.getSelectorsByType(DiscoverySelector.class)) {
+			if (selector instanceof ClasspathRootSelector) {
+				classpathRootSelectors.add((ClasspathRootSelector) selector);
+			}
+			else if (selector instanceof PackageSelector) {
+				packageSelectors.add((PackageSelector) selector);
+			}
+			else {
+				this.initialSelectors.add(selector);
+				if (selector instanceof ClassSelector) {
+					this.selectedClassNames.add(((ClassSelector) selector).getClassName());
+				}
+			}
+		}
+		this.scanner = new Thread(() -> scan(classpathRootSelectors, packageSelectors), "junit-pipelined-discovery");
+		this.scanner.setDaemon(true);
+		this.scanner.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+	}
+
+	/**
+	 * Get the request for all selectors that do not require scanning.
+	 */
+	LauncherDiscoveryRequest getInitialRequest() {
+		return new ResolvedDiscoveryRequest(this.discoveryRequest, this.initialSelectors);
+	}
+
+	/**
+	 * Wait until at least one more class has been found or the scan has
+	 * finished, and get a request for all classes found since the last call.
+	 *
+	 * @return the request, or an empty {@code Optional} if the scan has
+	 * finished and all found classes have been requested
+	 */
+	Optional<LauncherDiscoveryRequest> nextRequest() {
+		if (this.endOfScan) {
+			return Optional.empty();
+		}
+		List<Class<?>> classes = new ArrayList<>();
+		classes.add(takeScannedClass());
+		this.scannedClasses.drainTo(classes);
+		List<DiscoverySelector> selectors = new ArrayList<>(classes.size());
+		for (Class<?> clazz : classes) {
+			if (clazz == END_OF_SCAN) {
+				this.endOfScan = true;
+			}
+			else {
+				selectors.add(selectClass(clazz));
+			}
+		}
+		if (this.endOfScan && this.scanFailure != null) {
+			throw ExceptionUtils.throwAsUncheckedException(this.scanFailure);
+		}
+		if (selectors.isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.of(new ResolvedDiscoveryRequest(this.discoveryRequest, selectors));
+	}
+
+	private Class<?> takeScannedClass() {
+		try {
+			return this.scannedClasses.take();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new JUnitException("Interrupted while waiting for the classpath to be scanned", ex);
+		}
+	}
+
+	/**
+	 * Stop scanning; classes that have not been scanned yet are skipped
+	 * without being loaded.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+	}
+
+	private void scan(List<ClasspathRootSelector> classpathRootSelectors, List<PackageSelector> packageSelectors) {
+		try {
+			Set<String> scannedClassNames = new HashSet<>(this.selectedClassNames);
+			Predicate<String> classNamePredicate = buildClassNamePredicate(this.discoveryRequest).and(
+				className -> !this.closed && !scannedClassNames.contains(className));
+			Predicate<Class<?>> classTester = clazz -> {
+				if (isCandidate(clazz) && scannedClassNames.add(clazz.getName())) {
+					this.scannedClasses.add(clazz);
+				}
+				return false;
+			};
+			for (ClasspathRootSelector selector : classpathRootSelectors) {
+				ReflectionUtils.findAllClassesInClasspathRoot(selector.getClasspathRoot(), classTester,
+					classNamePredicate);
+			}
+			for (PackageSelector selector : packageSelectors) {
+				ReflectionUtils.findAllClassesInPackage(selector.getPackageName(), classTester, classNamePredicate);
+			}
+		}
+		catch (Throwable t) {
+			this.scanFailure = t;
+		}
+		finally {
+			this.scannedClasses.add(END_OF_SCAN);
+		}
+	}
+
+	private static boolean isCandidate(Class<?> clazz) {
+		if (ReflectionUtils.isPrivate(clazz) || ReflectionUtils.isAbstract(clazz)) {
+			return false;
+		}
+		if (clazz.isLocalClass() || clazz.isAnonymousClass() || clazz.isSynthetic()) {
+			return false;
+		}
+		return !clazz.isMemberClass() || ReflectionUtils.isStatic(clazz);
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.junit.platform.engine.TestExecutionResult.Status.SUCCESSFUL;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.reporting.ExecutionTimings;
+import org.junit.platform.engine.reporting.ReportEntry;
+
+/**
+ * {@link EngineExecutionListener} for pipelined execution, during which the
+ * root descriptor of every engine is executed once per batch of discovered
+ * tests.
+ *
+ * <p>Listeners are notified that an engine started when it is executed for
+ * the first time and that it finished once {@link #finishEngines()} is
+ * called after all batches have been executed. The reported result is the
+ * first unsuccessful result of any batch or, if there is none, a
+ * successful one. All other events are passed through unchanged.
+ *
+ * @since 1.0
+ * @see PipelinedDiscovery
+ */
+class PipelinedExecutionListener implements EngineExecutionListener {
+
+	private final EngineExecutionListener delegate;
+	private final Map<UniqueId, TestDescriptor> engineDescriptors = new LinkedHashMap<>();
+	private final Map<UniqueId, TestExecutionResult> engineResults = new LinkedHashMap<>();
+	private final Map<UniqueId, String> skippedEngines = new LinkedHashMap<>();
+
+	PipelinedExecutionListener(EngineExecutionListener delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void dynamicTestRegistered(TestDescriptor testDescriptor) {
+		this.delegate.dynamicTestRegistered(testDescriptor);
+	}
+
+	@Override
+	public void executionSkipped(TestDescriptor testDescriptor, String reason) {
+		if (testDescriptor.isRoot()) {
+			synchronized (this) {
+				this.engineDescriptors.putIfAbsent(testDescriptor.getUniqueId(), testDescriptor);
+				if (!this.engineResults.containsKey(testDescriptor.getUniqueId())) {
+					this.skippedEngines.putIfAbsent(testDescriptor.getUniqueId(), reason);
+				}
+			}
+			return;
+		}
+		this.delegate.executionSkipped(testDescriptor, reason);
+	}
+
+	@Override
+	public void executionStarted(TestDescriptor testDescriptor) {
+		if (testDescriptor.isRoot()) {
+			synchronized (this) {
+				this.engineDescriptors.putIfAbsent(testDescriptor.getUniqueId(), testDescriptor);
+				this.skippedEngines.remove(testDescriptor.getUniqueId());
+				if (this.engineResults.putIfAbsent(testDescriptor.getUniqueId(),
+					TestExecutionResult.successful()) != null) {
+					return;
+				}
+			}
+		}
+		this.delegate.executionStarted(testDescriptor);
+	}
+
+	@Override
+	public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+		if (testDescriptor.isRoot()) {
+			synchronized (this) {
+				this.engineResults.merge(testDescriptor.getUniqueId(), testExecutionResult,
+					(previous, current) -> previous.getStatus() == SUCCESSFUL ? current : previous);
+			}
+			return;
+		}
+		this.delegate.executionFinished(testDescriptor, testExecutionResult);
+	}
+
+	@Override
+	public void reportingEntryPublished(TestDescriptor testDescriptor, ReportEntry entry) {
+		this.delegate.reportingEntryPublished(testDescriptor, entry);
+	}
+
+	@Override
+	public void executionTimingsRecorded(TestDescriptor testDescriptor, ExecutionTimings timings) {
+		this.delegate.executionTimingsRecorded(testDescriptor, timings);
+	}
+
+	/**
+	 * Report the merged results of all engines that have been executed, and
+	 * that all other engines have been skipped.
+	 */
+	synchronized void finishEngines() {
+		this.engineResults.forEach(
+			(uniqueId, result) -> this.delegate.executionFinished(this.engineDescriptors.get(uniqueId), result));
+		this.skippedEngines.forEach(
+			(uniqueId, reason) -> this.delegate.executionSkipped(this.engineDescriptors.get(uniqueId), reason));
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.DiscoveryFilter;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.launcher.EngineFilter;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * A {@link LauncherDiscoveryRequest} that replaces the selectors of the
+ * original request.
+ *
+ * @since 1.0
+ */
+class ResolvedDiscoveryRequest implements LauncherDiscoveryRequest {
+
+	private final LauncherDiscoveryRequest delegate;
+	private final List<DiscoverySelector> selectors;
+
+	ResolvedDiscoveryRequest(LauncherDiscoveryRequest delegate, List<DiscoverySelector> selectors) {
+		this.delegate = delegate;
+		this.selectors = selectors;
+	}
+
+	@Override
+	public <T extends DiscoverySelector> List<T> getSelectorsByType(Class<T> selectorType) {
+		Preconditions.notNull(selectorType, "selectorType must not be null");
+		return this.selectors.stream().filter(selectorType::isInstance).map(selectorType::cast).collect(
+			Collectors.toList());
+	}
+
+	@Override
+	public <T extends DiscoveryFilter<?>> List<T> getDiscoveryFiltersByType(Class<T> filterType) {
+		return this.delegate.getDiscoveryFiltersByType(filterType);
+	}
+
+	@Override
+	public ConfigurationParameters getConfigurationParameters() {
+		return this.delegate.getConfigurationParameters();
+	}
+
+	@Override
+	public List<EngineFilter> getEngineFilters() {
+		return this.delegate.getEngineFilters();
+	}
+
+	@Override
+	public List<PostDiscoveryFilter> getPostDiscoveryFilters() {
+		return this.delegate.getPostDiscoveryFilters();
+	}
+
+}
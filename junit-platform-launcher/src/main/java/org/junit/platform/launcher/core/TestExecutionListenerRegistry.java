@@ -10,86 +10,149 @@
 
 package org.junit.platform.launcher.core;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Consumer;
 
 import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ExecutionTimings;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.AsyncTestExecutionListener.BackpressurePolicy;
 
 /**
+ * Registry of {@link TestExecutionListener TestExecutionListeners}.
+ *
+ * <p>Listeners may be registered while events are being delivered. The
+ * {@linkplain #getCompositeTestExecutionListener() composite listener}
+ * delivers events to all registered listeners by one thread at a time, so
+ * that listeners need not be thread-safe even if engines are executed
+ * concurrently. Listeners are held in an array that is replaced whenever a
+ * listener is registered, so that delivering an event allocates nothing.
+ *
  * @since 1.0
  */
 class TestExecutionListenerRegistry {
 
-	private final List<TestExecutionListener> testExecutionListeners;
+	private static final TestExecutionListener[] NO_LISTENERS = new TestExecutionListener[0];
+
+	private final Object registrationLock = new Object();
+	private volatile TestExecutionListener[] testExecutionListeners;
 
 	TestExecutionListenerRegistry() {
 		this(null);
 	}
 
 	TestExecutionListenerRegistry(TestExecutionListenerRegistry source) {
-		this.testExecutionListeners = new ArrayList<>();
-		if (source != null) {
-			this.testExecutionListeners.addAll(source.testExecutionListeners);
-		}
+		this.testExecutionListeners = source != null ? source.testExecutionListeners : NO_LISTENERS;
 	}
 
 	List<TestExecutionListener> getTestExecutionListeners() {
-		return testExecutionListeners;
+		return Collections.unmodifiableList(Arrays.asList(this.testExecutionListeners));
 	}
 
 	void registerListeners(TestExecutionListener... listeners) {
-		Collections.addAll(this.testExecutionListeners, listeners);
-	}
-
-	private void notifyTestExecutionListeners(Consumer<TestExecutionListener> consumer) {
-		this.testExecutionListeners.forEach(consumer);
+		synchronized (this.registrationLock) {
+			TestExecutionListener[] current = this.testExecutionListeners;
+			TestExecutionListener[] updated = Arrays.copyOf(current, current.length + listeners.length);
+			System.arraycopy(listeners, 0, updated, current.length, listeners.length);
+			this.testExecutionListeners = updated;
+		}
 	}
 
 	TestExecutionListener getCompositeTestExecutionListener() {
 		return new CompositeTestExecutionListener();
 	}
 
+	/**
+	 * Create a composite listener that notifies all currently registered
+	 * listeners asynchronously.
+	 *
+	 * @see AsyncTestExecutionListener
+	 */
+	AsyncTestExecutionListener getAsyncCompositeTestExecutionListener(int capacity,
+			BackpressurePolicy backpressurePolicy) {
+		return AsyncTestExecutionListener.start(getTestExecutionListeners(), capacity, backpressurePolicy);
+	}
+
+	/**
+	 * Delivers every event to all listeners that are registered when the
+	 * event is delivered, while holding the lock of the registry.
+	 */
 	private class CompositeTestExecutionListener implements TestExecutionListener {
 
 		@Override
 		public void dynamicTestRegistered(TestIdentifier testIdentifier) {
-			notifyTestExecutionListeners(listener -> listener.dynamicTestRegistered(testIdentifier));
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.dynamicTestRegistered(testIdentifier);
+				}
+			}
 		}
 
 		@Override
 		public void executionSkipped(TestIdentifier testIdentifier, String reason) {
-			notifyTestExecutionListeners(listener -> listener.executionSkipped(testIdentifier, reason));
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.executionSkipped(testIdentifier, reason);
+				}
+			}
 		}
 
 		@Override
 		public void executionStarted(TestIdentifier testIdentifier) {
-			notifyTestExecutionListeners(listener -> listener.executionStarted(testIdentifier));
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.executionStarted(testIdentifier);
+				}
+			}
 		}
 
 		@Override
 		public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
-			notifyTestExecutionListeners(listener -> listener.executionFinished(testIdentifier, testExecutionResult));
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.executionFinished(testIdentifier, testExecutionResult);
+				}
+			}
 		}
 
 		@Override
 		public void testPlanExecutionStarted(TestPlan testPlan) {
-			notifyTestExecutionListeners(listener -> listener.testPlanExecutionStarted(testPlan));
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.testPlanExecutionStarted(testPlan);
+				}
+			}
 		}
 
 		@Override
 		public void testPlanExecutionFinished(TestPlan testPlan) {
-			notifyTestExecutionListeners(listener -> listener.testPlanExecutionFinished(testPlan));
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.testPlanExecutionFinished(testPlan);
+				}
+			}
 		}
 
 		@Override
 		public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
-			notifyTestExecutionListeners(listener -> listener.reportingEntryPublished(testIdentifier, entry));
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.reportingEntryPublished(testIdentifier, entry);
+				}
+			}
+		}
+
+		@Override
+		public void executionTimingsRecorded(TestIdentifier testIdentifier, ExecutionTimings timings) {
+			synchronized (TestExecutionListenerRegistry.this) {
+				for (TestExecutionListener listener : testExecutionListeners) {
+					listener.executionTimingsRecorded(testIdentifier, timings);
+				}
+			}
 		}
 
 	}
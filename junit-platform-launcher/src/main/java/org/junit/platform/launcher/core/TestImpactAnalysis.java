@@ -0,0 +1,504 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.logging.Level.WARNING;
+import static org.junit.platform.engine.TestExecutionResult.Status.SUCCESSFUL;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Test impact analysis based on an index of the class files in the
+ * directories on the classpath.
+ *
+ * <p>For every class file, the index stores a hash of its content and the
+ * classes it refers to in its constant pool. For every test class whose
+ * tests all passed, it stores the <em>footprint</em> of the test class, a
+ * hash of the content of all classes it transitively depends on and of the
+ * sizes and modification times of all JAR files on the classpath and of all
+ * other files in its directories, e.g. test data or service registrations.
+ * A test class is only executed again once its footprint changed.
+ *
+ * <p>Class files are only read and parsed again if their size or
+ * modification time changed.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants#IMPACT_ANALYSIS_INDEX_PROPERTY_NAME
+ */
+class TestImpactAnalysis {
+
+	private static final Logger LOG = Logger.getLogger(TestImpactAnalysis.class.getName());
+
+	private static final int MAGIC = 0x4A544941;
+	private static final int VERSION = 1;
+
+	/**
+	 * Open the index stored in the supplied file and update it for the
+	 * classpath of the current thread's context class loader.
+	 */
+	static TestImpactAnalysis open(Path indexFile) {
+		return open(indexFile, getClasspathRoots());
+	}
+
+	/**
+	 * Open the index stored in the supplied file and update it for the
+	 * supplied classpath roots.
+	 */
+	static TestImpactAnalysis open(Path indexFile, List<Path> classpathRoots) {
+		TestImpactAnalysis impactAnalysis = new TestImpactAnalysis(indexFile);
+		Map<String, ClassEntry> previousClasses = new HashMap<>();
+		impactAnalysis.read(previousClasses);
+		MessageDigest resources = newDigest();
+		for (Path classpathRoot : classpathRoots) {
+			if (Files.isDirectory(classpathRoot)) {
+				impactAnalysis.scan(classpathRoot, previousClasses, resources);
+			}
+			else if (Files.isRegularFile(classpathRoot)) {
+				updateResources(resources, classpathRoot);
+			}
+		}
+		impactAnalysis.resourcesFingerprint = toLong(resources.digest());
+		impactAnalysis.recordedFootprints.keySet().retainAll(impactAnalysis.classes.keySet());
+		return impactAnalysis;
+	}
+
+	private static List<Path> getClasspathRoots() {
+		Set<Path> classpathRoots = new LinkedHashSet<>();
+		for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if (!entry.isEmpty()) {
+				classpathRoots.add(Paths.get(entry));
+			}
+		}
+		for (ClassLoader classLoader = Thread.currentThread().getContextClassLoader(); classLoader != null;
+				classLoader = classLoader.getParent()) {
+			if (classLoader instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+					toPath(url).ifPresent(classpathRoots::add);
+				}
+			}
+		}
+		return new ArrayList<>(classpathRoots);
+	}
+
+	private static Optional<Path> toPath(URL url) {
+		if (!"file".equals(url.getProtocol())) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(Paths.get(url.toURI()));
+		}
+		catch (URISyntaxException | IllegalArgumentException ex) {
+			return Optional.empty();
+		}
+	}
+
+	private static void updateResources(MessageDigest resources, Path library) {
+		try {
+			updateResources(resources, library.toString(), Files.size(library),
+				Files.getLastModifiedTime(library).toMillis());
+		}
+		catch (IOException ex) {
+			throw new JUnitException("Failed to read attributes of " + library, ex);
+		}
+	}
+
+	private static void updateResources(MessageDigest resources, String name, long size, long lastModified) {
+		resources.update(name.getBytes(UTF_8));
+		resources.update(ByteBuffer.allocate(16).putLong(size).putLong(lastModified).array());
+	}
+
+	private final Path indexFile;
+	private final Map<String, ClassEntry> classes = new LinkedHashMap<>();
+	private final Map<String, Long> recordedFootprints = new ConcurrentHashMap<>();
+	private final Map<String, Long> footprints = new ConcurrentHashMap<>();
+	private long resourcesFingerprint;
+
+	private TestImpactAnalysis(Path indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * Create a filter that excludes all tests of test classes whose
+	 * footprint is unchanged since their tests last passed.
+	 */
+	PostDiscoveryFilter createFilter() {
+		return descriptor -> {
+			Optional<String> className = findClassName(descriptor);
+			if (className.isPresent() && !isAffected(className.get())) {
+				return FilterResult.excluded("Unaffected by changes since last successful execution");
+			}
+			return FilterResult.included("Affected by changes since last successful execution");
+		};
+	}
+
+	/**
+	 * Create a listener that records the footprints of all test classes
+	 * whose tests passed and stores the index once the test plan has been
+	 * executed.
+	 */
+	TestExecutionListener createRecordingListener() {
+		return new RecordingListener();
+	}
+
+	boolean isAffected(String className) {
+		if (!this.classes.containsKey(className)) {
+			return true;
+		}
+		Long recordedFootprint = this.recordedFootprints.get(className);
+		return recordedFootprint == null || recordedFootprint != getFootprint(className);
+	}
+
+	void recordSuccessfulExecution(Set<String> classNames) {
+		for (String className : classNames) {
+			if (this.classes.containsKey(className)) {
+				this.recordedFootprints.put(className, getFootprint(className));
+			}
+		}
+	}
+
+	private long getFootprint(String className) {
+		Long footprint = this.footprints.get(className);
+		if (footprint == null) {
+			footprint = computeFootprint(className);
+			this.footprints.put(className, footprint);
+		}
+		return footprint;
+	}
+
+	private long computeFootprint(String className) {
+		SortedSet<String> closure = new TreeSet<>();
+		Deque<String> pending = new ArrayDeque<>();
+		pending.add(className);
+		while (!pending.isEmpty()) {
+			String current = pending.poll();
+			ClassEntry entry = this.classes.get(current);
+			if (entry != null && closure.add(current)) {
+				pending.addAll(entry.dependencies);
+			}
+		}
+		MessageDigest digest = newDigest();
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		digest.update(buffer.putLong(0, this.resourcesFingerprint).array());
+		for (String name : closure) {
+			digest.update(name.getBytes(UTF_8));
+			digest.update(buffer.putLong(0, this.classes.get(name).hash).array());
+		}
+		return toLong(digest.digest());
+	}
+
+	private void scan(Path classpathRoot, Map<String, ClassEntry> previousClasses, MessageDigest resources) {
+		SortedMap<String, BasicFileAttributes> resourceAttributes = new TreeMap<>();
+		Path absoluteIndexFile = this.indexFile.toAbsolutePath().normalize();
+		try {
+			Files.walkFileTree(classpathRoot, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+					String relativePath = classpathRoot.relativize(file).toString().replace(
+						file.getFileSystem().getSeparator(), "/");
+					if (attributes.isRegularFile() && relativePath.endsWith(".class")) {
+						String className = relativePath.substring(0, relativePath.length() - ".class".length()).replace(
+							'/', '.');
+						if (!classes.containsKey(className)) {
+							classes.put(className, update(file, className, attributes, previousClasses.get(className)));
+						}
+					}
+					else if (attributes.isRegularFile()
+							&& !file.toAbsolutePath().normalize().equals(absoluteIndexFile)) {
+						resourceAttributes.put(relativePath, attributes);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException ex) {
+			throw new JUnitException("Failed to scan classpath root " + classpathRoot, ex);
+		}
+		// Sorted by relative path since the order of directory entries is unspecified
+		resourceAttributes.forEach((relativePath, attributes) -> updateResources(resources,
+			classpathRoot.resolve(relativePath).toString(), attributes.size(),
+			attributes.lastModifiedTime().toMillis()));
+	}
+
+	private static ClassEntry update(Path file, String className, BasicFileAttributes attributes,
+			ClassEntry previous) throws IOException {
+
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+			return previous;
+		}
+		byte[] bytes = Files.readAllBytes(file);
+		Set<String> dependencies;
+		try {
+			dependencies = ClassFileDependencies.parse(bytes);
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Failed to parse class file: " + file);
+			dependencies = Collections.emptySet();
+		}
+		return new ClassEntry(size, lastModified, toLong(newDigest().digest(bytes)), new ArrayList<>(dependencies));
+	}
+
+	private void read(Map<String, ClassEntry> previousClasses) {
+		if (!Files.isRegularFile(this.indexFile)) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(
+			new BufferedInputStream(Files.newInputStream(this.indexFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				LOG.warning(() -> "Ignoring test impact analysis index of unknown format: " + this.indexFile);
+				return;
+			}
+			int classCount = in.readInt();
+			String[] names = new String[classCount];
+			int[][] dependencyIndices = new int[classCount][];
+			ClassEntry[] entries = new ClassEntry[classCount];
+			for (int i = 0; i < classCount; i++) {
+				names[i] = in.readUTF();
+				long size = in.readLong();
+				long lastModified = in.readLong();
+				long hash = in.readLong();
+				dependencyIndices[i] = new int[in.readInt()];
+				for (int j = 0; j < dependencyIndices[i].length; j++) {
+					dependencyIndices[i][j] = in.readInt();
+				}
+				entries[i] = new ClassEntry(size, lastModified, hash, new ArrayList<>(dependencyIndices[i].length));
+			}
+			for (int i = 0; i < classCount; i++) {
+				for (int dependencyIndex : dependencyIndices[i]) {
+					entries[i].dependencies.add(names[dependencyIndex]);
+				}
+				previousClasses.put(names[i], entries[i]);
+			}
+			int footprintCount = in.readInt();
+			for (int i = 0; i < footprintCount; i++) {
+				String className = names[in.readInt()];
+				this.recordedFootprints.put(className, in.readLong());
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			LOG.log(WARNING, ex, () -> "Ignoring unreadable test impact analysis index: " + this.indexFile);
+			previousClasses.clear();
+			this.recordedFootprints.clear();
+		}
+	}
+
+	/**
+	 * Store the index, omitting dependencies on classes that are not located
+	 * in a directory on the classpath.
+	 */
+	void write() {
+		Map<String, Integer> indices = new HashMap<>();
+		this.classes.keySet().forEach(name -> indices.put(name, indices.size()));
+		Path tempFile = null;
+		try {
+			Path directory = this.indexFile.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			tempFile = Files.createTempFile(directory, this.indexFile.getFileName().toString(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(this.classes.size());
+				for (Map.Entry<String, ClassEntry> entry : this.classes.entrySet()) {
+					ClassEntry classEntry = entry.getValue();
+					out.writeUTF(entry.getKey());
+					out.writeLong(classEntry.size);
+					out.writeLong(classEntry.lastModified);
+					out.writeLong(classEntry.hash);
+					List<Integer> dependencyIndices = new ArrayList<>(classEntry.dependencies.size());
+					for (String dependency : classEntry.dependencies) {
+						Integer index = indices.get(dependency);
+						if (index != null) {
+							dependencyIndices.add(index);
+						}
+					}
+					out.writeInt(dependencyIndices.size());
+					for (int index : dependencyIndices) {
+						out.writeInt(index);
+					}
+				}
+				Map<String, Long> footprints = new LinkedHashMap<>(this.recordedFootprints);
+				out.writeInt(footprints.size());
+				for (Map.Entry<String, Long> entry : footprints.entrySet()) {
+					out.writeInt(indices.get(entry.getKey()));
+					out.writeLong(entry.getValue());
+				}
+			}
+			Files.move(tempFile, this.indexFile, REPLACE_EXISTING, ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			LOG.log(WARNING, ex, () -> "Failed to write test impact analysis index: " + this.indexFile);
+			if (tempFile != null && !tempFile.toFile().delete()) {
+				LOG.warning("Failed to delete temporary file: " + tempFile);
+			}
+		}
+	}
+
+	private static Optional<String> findClassName(TestDescriptor descriptor) {
+		for (TestDescriptor current = descriptor; current != null; current = current.getParent().orElse(null)) {
+			Optional<String> className = current.getSource().flatMap(TestImpactAnalysis::getClassName);
+			if (className.isPresent()) {
+				return className;
+			}
+		}
+		return Optional.empty();
+	}
+
+	private static Optional<String> getClassName(TestSource source) {
+		if (source instanceof ClassSource) {
+			return Optional.of(((ClassSource) source).getClassName());
+		}
+		if (source instanceof MethodSource) {
+			return Optional.of(((MethodSource) source).getClassName());
+		}
+		return Optional.empty();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new JUnitException("SHA-256 is not supported by this JVM", ex);
+		}
+	}
+
+	private static long toLong(byte[] digest) {
+		return ByteBuffer.wrap(digest).getLong();
+	}
+
+	private static class ClassEntry {
+
+		private final long size;
+		private final long lastModified;
+		private final long hash;
+		private final List<String> dependencies;
+
+		ClassEntry(long size, long lastModified, long hash, List<String> dependencies) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hash = hash;
+			this.dependencies = dependencies;
+		}
+
+	}
+
+	/**
+	 * Records the test classes whose executed tests all passed.
+	 */
+	private class RecordingListener implements TestExecutionListener {
+
+		private final Set<String> successfulClassNames = new HashSet<>();
+		private final Set<String> unrecordedClassNames = new HashSet<>();
+		private TestPlan testPlan;
+
+		@Override
+		public void testPlanExecutionStarted(TestPlan testPlan) {
+			this.testPlan = testPlan;
+		}
+
+		/**
+		 * Skipped tests do not prevent recording their test class, but a
+		 * skipped test class itself is not recorded.
+		 */
+		@Override
+		public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+			testIdentifier.getSource().filter(ClassSource.class::isInstance).map(ClassSource.class::cast).map(
+				ClassSource::getClassName).ifPresent(this.unrecordedClassNames::add);
+		}
+
+		@Override
+		public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+			Optional<String> className = findClassName(testIdentifier);
+			if (className.isPresent()) {
+				if (testExecutionResult.getStatus() == SUCCESSFUL) {
+					this.successfulClassNames.add(className.get());
+				}
+				else {
+					this.unrecordedClassNames.add(className.get());
+				}
+			}
+		}
+
+		@Override
+		public void testPlanExecutionFinished(TestPlan testPlan) {
+			this.successfulClassNames.removeAll(this.unrecordedClassNames);
+			recordSuccessfulExecution(this.successfulClassNames);
+			write();
+		}
+
+		private Optional<String> findClassName(TestIdentifier testIdentifier) {
+			TestIdentifier current = testIdentifier;
+			while (current != null) {
+				Optional<String> className = current.getSource().flatMap(TestImpactAnalysis::getClassName);
+				if (className.isPresent()) {
+					return className;
+				}
+				current = this.testPlan.getParent(current).orElse(null);
+			}
+			return Optional.empty();
+		}
+
+	}
+
+}
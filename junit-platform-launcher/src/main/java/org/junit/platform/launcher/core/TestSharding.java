@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * Partition of the test descriptors of a {@link Root} into a number of
+ * shards that can be executed independently, e.g. on different CI nodes.
+ *
+ * <p>The unit of partitioning is a <em>top-level descriptor</em>, i.e. a
+ * direct child of an engine descriptor, which typically represents a test
+ * class. All descendants of a top-level descriptor are assigned to the same
+ * shard.
+ *
+ * <p>If an {@link ExecutionHistory} with the duration of at least one
+ * top-level descriptor is available, top-level descriptors are assigned in
+ * descending order of their duration to the shard with the lowest total
+ * duration so far; top-level descriptors without a recorded duration are
+ * expected to take the average duration. Otherwise, top-level descriptors
+ * are assigned by the hash code of their unique ID.
+ *
+ * <p>Since the partition only depends on the unique IDs of the top-level
+ * descriptors and the history, every shard computes the same partition as
+ * long as they discover the same tests and use the same history, so that
+ * every test is executed in exactly one shard.
+ *
+ * @since 1.0
+ * @see org.junit.platform.launcher.LauncherConstants#SHARD_COUNT_PROPERTY_NAME
+ */
+class TestSharding {
+
+	/**
+	 * Partition the test descriptors of the supplied {@link Root} into
+	 * {@code shardCount} shards, balancing them by the durations recorded in
+	 * the supplied history, if present.
+	 */
+	static TestSharding partition(Root root, int shardCount, Optional<ExecutionHistory> executionHistory) {
+		List<UniqueId> topLevelIds = new ArrayList<>();
+		root.getEngineDescriptors().forEach(
+			engineDescriptor -> engineDescriptor.getChildren().forEach(child -> topLevelIds.add(child.getUniqueId())));
+
+		Map<UniqueId, Long> durations = new HashMap<>();
+		executionHistory.ifPresent(history -> topLevelIds.forEach(uniqueId -> {
+			long duration = history.getDuration(uniqueId.toString());
+			if (duration >= 0) {
+				durations.put(uniqueId, duration);
+			}
+		}));
+
+		Map<UniqueId, Integer> shards = new HashMap<>();
+		if (durations.isEmpty()) {
+			topLevelIds.forEach(
+				uniqueId -> shards.put(uniqueId, Math.floorMod(uniqueId.toString().hashCode(), shardCount)));
+		}
+		else {
+			long averageDuration = durations.values().stream().mapToLong(Long::longValue).sum() / durations.size();
+			topLevelIds.forEach(uniqueId -> durations.putIfAbsent(uniqueId, averageDuration));
+			Comparator<UniqueId> byDescendingDuration = Comparator.comparing(durations::get, Comparator.reverseOrder());
+			topLevelIds.sort(byDescendingDuration.thenComparing(UniqueId::toString));
+			long[] loads = new long[shardCount];
+			for (UniqueId uniqueId : topLevelIds) {
+				int shard = indexOfMinimum(loads);
+				loads[shard] += durations.get(uniqueId);
+				shards.put(uniqueId, shard);
+			}
+		}
+		return new TestSharding(shards);
+	}
+
+	private static int indexOfMinimum(long[] values) {
+		int index = 0;
+		for (int i = 1; i < values.length; i++) {
+			if (values[i] < values[index]) {
+				index = i;
+			}
+		}
+		return index;
+	}
+
+	private final Map<UniqueId, Integer> shards;
+
+	private TestSharding(Map<UniqueId, Integer> shards) {
+		this.shards = shards;
+	}
+
+	/**
+	 * Get the index of the shard the supplied descriptor is assigned to, or
+	 * {@code -1} if it is not part of the partitioned {@link Root}.
+	 */
+	int getShard(TestDescriptor descriptor) {
+		return findTopLevelDescriptor(descriptor).map(this.shards::get).orElse(-1);
+	}
+
+	/**
+	 * Create a filter that only includes descriptors assigned to the shard
+	 * with the supplied index.
+	 */
+	PostDiscoveryFilter createFilter(int shardIndex) {
+		return descriptor -> FilterResult.includedIf(getShard(descriptor) == shardIndex,
+			() -> "Assigned to shard " + shardIndex, () -> "Not assigned to shard " + shardIndex);
+	}
+
+	private Optional<UniqueId> findTopLevelDescriptor(TestDescriptor descriptor) {
+		TestDescriptor current = descriptor;
+		while (current.getParent().isPresent() && current.getParent().get().getParent().isPresent()) {
+			current = current.getParent().get();
+		}
+		return current.getParent().isPresent() ? Optional.of(current.getUniqueId()) : Optional.empty();
+	}
+
+}
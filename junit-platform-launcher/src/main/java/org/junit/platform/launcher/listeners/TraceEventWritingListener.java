@@ -0,0 +1,298 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.listeners;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.WARNING;
+import static org.junit.platform.commons.meta.API.Usage.Experimental;
+import static org.junit.platform.engine.reporting.ExecutionTimings.Phase.AFTER;
+import static org.junit.platform.engine.reporting.ExecutionTimings.Phase.BEFORE;
+import static org.junit.platform.engine.reporting.ExecutionTimings.Phase.EXECUTE;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ExecutionTimings;
+import org.junit.platform.engine.reporting.ExecutionTimings.Phase;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * {@link TestExecutionListener} that writes a timeline of the execution of
+ * a {@link TestPlan} to a file in the JSON-based <em>Trace Event Format</em>,
+ * which can be opened in trace viewers such as {@code chrome://tracing} or
+ * Perfetto.
+ *
+ * <p>Every container and test that is executed is represented by a span on
+ * the thread it was started on. If {@linkplain ExecutionTimings execution
+ * timings} are reported for it, the <em>before</em>, <em>execute</em>, and
+ * <em>after</em> phases are represented by nested spans, so that, for
+ * example, slow {@code @BeforeAll} methods stand out. Skipped containers and
+ * tests, as well as published {@link ReportEntry ReportEntries}, are
+ * represented by instant events.
+ *
+ * <p>Timestamps and thread IDs are determined when this listener is
+ * notified. It should therefore not be notified asynchronously. The file is
+ * written while tests are being executed and overwritten every time a test
+ * plan is executed. If it cannot be written, a warning is logged and the
+ * remaining events are discarded.
+ *
+ * @since 1.0
+ */
+@API(Experimental)
+public class TraceEventWritingListener implements TestExecutionListener {
+
+	private static final Logger LOG = Logger.getLogger(TraceEventWritingListener.class.getName());
+
+	private static final int PROCESS_ID = 1;
+
+	private final Path outputFile;
+	private final Map<String, Span> spans = new HashMap<>();
+	private final Set<Long> namedThreads = new HashSet<>();
+	private Writer writer;
+	private boolean firstEvent;
+	private long startTime;
+
+	/**
+	 * Create a {@code TraceEventWritingListener} that writes to the supplied
+	 * file.
+	 *
+	 * @param outputFile the file to write to; never {@code null}; missing
+	 * parent directories are created
+	 */
+	public TraceEventWritingListener(Path outputFile) {
+		this.outputFile = Preconditions.notNull(outputFile, "outputFile must not be null");
+	}
+
+	@Override
+	public synchronized void testPlanExecutionStarted(TestPlan testPlan) {
+		this.spans.clear();
+		this.namedThreads.clear();
+		this.startTime = System.nanoTime();
+		try {
+			Path directory = this.outputFile.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			this.writer = Files.newBufferedWriter(this.outputFile, UTF_8);
+			this.writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+			this.firstEvent = true;
+			writeEvent("process_name", "M", 0L, 0L, null, singletonArgs("name", "JUnit Platform"), "");
+		}
+		catch (IOException ex) {
+			handleException(ex);
+		}
+	}
+
+	@Override
+	public synchronized void testPlanExecutionFinished(TestPlan testPlan) {
+		if (this.writer != null) {
+			try {
+				this.writer.write("\n]}\n");
+				this.writer.close();
+			}
+			catch (IOException ex) {
+				LOG.log(WARNING, ex, () -> "Failed to write trace events: " + this.outputFile);
+			}
+			this.writer = null;
+		}
+		this.spans.clear();
+	}
+
+	@Override
+	public synchronized void executionSkipped(TestIdentifier testIdentifier, String reason) {
+		Map<String, String> args = singletonArgs("uniqueId", testIdentifier.getUniqueId());
+		if (reason != null) {
+			args.put("reason", reason);
+		}
+		writeInstant(testIdentifier.getDisplayName(), "skipped", args);
+	}
+
+	@Override
+	public synchronized void executionStarted(TestIdentifier testIdentifier) {
+		this.spans.put(testIdentifier.getUniqueId(), new Span(now(), nameCurrentThread()));
+	}
+
+	@Override
+	public synchronized void executionTimingsRecorded(TestIdentifier testIdentifier, ExecutionTimings timings) {
+		Span span = this.spans.get(testIdentifier.getUniqueId());
+		if (span != null) {
+			span.timings = timings;
+		}
+	}
+
+	@Override
+	public synchronized void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+		Span span = this.spans.remove(testIdentifier.getUniqueId());
+		if (span == null) {
+			return;
+		}
+		long endTime = now();
+		Map<String, String> args = singletonArgs("uniqueId", testIdentifier.getUniqueId());
+		args.put("status", testExecutionResult.getStatus().name());
+		testExecutionResult.getThrowable().ifPresent(throwable -> args.put("throwable", throwable.toString()));
+		writeEvent(testIdentifier.getDisplayName(), "X", span.startTime, span.threadId,
+			testIdentifier.isContainer() ? "container" : "test", args, duration(endTime - span.startTime));
+		if (span.timings != null) {
+			long before = micros(span.timings.getDuration(BEFORE));
+			long execute = micros(span.timings.getDuration(EXECUTE));
+			long after = micros(span.timings.getDuration(AFTER));
+			writePhase(BEFORE, span.startTime, before, span.threadId);
+			writePhase(EXECUTE, span.startTime + before, execute, span.threadId);
+			writePhase(AFTER, endTime - after, after, span.threadId);
+		}
+	}
+
+	@Override
+	public synchronized void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+		Map<String, String> args = singletonArgs("uniqueId", testIdentifier.getUniqueId());
+		args.putAll(entry.getKeyValuePairs());
+		writeInstant("ReportEntry", "report", args);
+	}
+
+	private void writePhase(Phase phase, long startTime, long duration, long threadId) {
+		if (duration > 0) {
+			writeEvent(phase.name().toLowerCase(), "X", startTime, threadId, "phase", null, duration(duration));
+		}
+	}
+
+	private void writeInstant(String name, String category, Map<String, String> args) {
+		writeEvent(name, "i", now(), nameCurrentThread(), category, args, ",\"s\":\"t\"");
+	}
+
+	/**
+	 * Get the ID of the current thread, writing a metadata event with its
+	 * name when it is encountered for the first time.
+	 */
+	private long nameCurrentThread() {
+		Thread thread = Thread.currentThread();
+		if (this.namedThreads.add(thread.getId())) {
+			writeEvent("thread_name", "M", 0L, thread.getId(), null, singletonArgs("name", thread.getName()), "");
+		}
+		return thread.getId();
+	}
+
+	private void writeEvent(String name, String phase, long timestamp, long threadId, String category,
+			Map<String, String> args, String additionalFields) {
+		if (this.writer == null) {
+			return;
+		}
+		StringBuilder builder = new StringBuilder(128);
+		builder.append(this.firstEvent ? "\n" : ",\n");
+		builder.append("{\"name\":").append(quote(name));
+		builder.append(",\"ph\":\"").append(phase).append('"');
+		builder.append(",\"ts\":").append(timestamp);
+		builder.append(",\"pid\":").append(PROCESS_ID);
+		builder.append(",\"tid\":").append(threadId);
+		if (category != null) {
+			builder.append(",\"cat\":").append(quote(category));
+		}
+		if (args != null) {
+			builder.append(",\"args\":{");
+			String separator = "";
+			for (Map.Entry<String, String> arg : args.entrySet()) {
+				builder.append(separator).append(quote(arg.getKey())).append(':').append(quote(arg.getValue()));
+				separator = ",";
+			}
+			builder.append('}');
+		}
+		builder.append(additionalFields).append('}');
+		this.firstEvent = false;
+		try {
+			this.writer.write(builder.toString());
+		}
+		catch (IOException ex) {
+			handleException(ex);
+		}
+	}
+
+	private static String duration(long duration) {
+		return ",\"dur\":" + duration;
+	}
+
+	private void handleException(IOException ex) {
+		LOG.log(WARNING, ex, () -> "Failed to write trace events: " + this.outputFile);
+		if (this.writer != null) {
+			try {
+				this.writer.close();
+			}
+			catch (IOException closeException) {
+				ex.addSuppressed(closeException);
+			}
+			this.writer = null;
+		}
+	}
+
+	private long now() {
+		return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - this.startTime);
+	}
+
+	private static long micros(Optional<Duration> duration) {
+		return duration.map(value -> TimeUnit.NANOSECONDS.toMicros(value.toNanos())).orElse(0L);
+	}
+
+	private static Map<String, String> singletonArgs(String key, String value) {
+		Map<String, String> args = new LinkedHashMap<>();
+		args.put(key, value);
+		return args;
+	}
+
+	private static String quote(String value) {
+		StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				default:
+					if (c < 0x20) {
+						builder.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						builder.append(c);
+					}
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+	private static class Span {
+
+		final long startTime;
+		final long threadId;
+		ExecutionTimings timings;
+
+		Span(long startTime, long threadId) {
+			this.startTime = startTime;
+			this.threadId = threadId;
+		}
+
+	}
+
+}
@@ -128,7 +128,7 @@ public class JUnitPlatform extends Runner implements Filterable {
 	public void run(RunNotifier notifier) {
 		JUnitPlatformRunnerListener listener = new JUnitPlatformRunnerListener(this.testTree, notifier);
 		this.launcher.registerTestExecutionListeners(listener);
-		this.launcher.execute(this.discoveryRequest);
+		this.launcher.execute(this.testTree.getTestPlan());
 	}
 
 	private JUnitPlatformTestTree generateTestTree() {
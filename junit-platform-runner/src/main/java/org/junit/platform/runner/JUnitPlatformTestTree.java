@@ -70,6 +70,10 @@ class JUnitPlatformTestTree {
 		testPlan.getRoots().forEach(testIdentifier -> buildDescription(testIdentifier, suiteDescription, testPlan));
 	}
 
+	TestPlan getTestPlan() {
+		return this.plan;
+	}
+
 	void addDynamicDescription(TestIdentifier newIdentifier, String parentId) {
 		Description parent = getDescription(this.plan.getTestIdentifier(parentId));
 		this.plan.add(newIdentifier);
@@ -30,8 +30,8 @@ class ClasspathRootSelectorResolver extends DiscoverySelectorResolver<ClasspathR
 
 	@Override
 	void resolve(ClasspathRootSelector selector, TestClassCollector collector) {
-		findAllClassesInClasspathRoot(selector.getClasspathRoot(), classTester, classNamePredicate).forEach(
-			collector::addCompletely);
+		findAllClassesInClasspathRoot(selector.getClasspathRoot(), classFilePrefilter, classTester,
+			classNamePredicate).forEach(collector::addCompletely);
 	}
 
 }
@@ -10,7 +10,13 @@
 
 package org.junit.vintage.engine.discovery;
 
+import junit.framework.TestCase;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.platform.commons.util.ClassFilePrefilter;
 import org.junit.platform.engine.DiscoverySelector;
+import org.junit.runner.RunWith;
 
 /**
  * @since 4.12
@@ -19,6 +25,15 @@ abstract class DiscoverySelectorResolver<T extends DiscoverySelector> {
 
 	protected static final IsPotentialJUnit4TestClass classTester = new IsPotentialJUnit4TestClass();
 
+	/**
+	 * Rules out scanned classes for which no runner would be built without
+	 * loading them: classes that neither declare nor inherit test methods,
+	 * {@code @RunWith} or {@code @Ignore} annotations, a {@code suite()}
+	 * method, or {@link TestCase} as a superclass.
+	 */
+	protected static final ClassFilePrefilter classFilePrefilter = ClassFilePrefilter.forTypes(Test.class,
+		RunWith.class, Ignore.class, TestCase.class, junit.framework.Test.class);
+
 	private final Class<T> selectorClass;
 
 	DiscoverySelectorResolver(Class<T> selectorClass) {
@@ -12,6 +12,7 @@ package org.junit.vintage.engine.discovery;
 
 import static java.util.Arrays.asList;
 import static org.junit.platform.commons.meta.API.Usage.Internal;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.SELECTOR;
 import static org.junit.platform.engine.Filter.adaptFilter;
 import static org.junit.platform.engine.Filter.composeFilters;
 import static org.junit.platform.engine.support.filter.ClasspathScanningSupport.buildClassNamePredicate;
@@ -22,6 +23,7 @@ import java.util.function.Predicate;
 import java.util.logging.Logger;
 
 import org.junit.platform.commons.meta.API;
+import org.junit.platform.commons.util.DiscoveryProfile;
 import org.junit.platform.engine.DiscoverySelector;
 import org.junit.platform.engine.EngineDiscoveryRequest;
 import org.junit.platform.engine.Filter;
@@ -71,8 +73,11 @@ public class JUnit4DiscoveryRequestResolver {
 
 	private <T extends DiscoverySelector> void resolveSelectorsOfSingleType(EngineDiscoveryRequest discoveryRequest,
 			DiscoverySelectorResolver<T> selectorResolver, TestClassCollector collector) {
-		discoveryRequest.getSelectorsByType(selectorResolver.getSelectorClass()).forEach(
-			selector -> selectorResolver.resolve(selector, collector));
+		discoveryRequest.getSelectorsByType(selectorResolver.getSelectorClass()).forEach(selector -> {
+			long startTime = DiscoveryProfile.start();
+			selectorResolver.resolve(selector, collector);
+			DiscoveryProfile.record(SELECTOR, selector, startTime);
+		});
 	}
 
 	private Set<TestClassRequest> filterAndConvertToTestClassRequests(EngineDiscoveryRequest discoveryRequest,
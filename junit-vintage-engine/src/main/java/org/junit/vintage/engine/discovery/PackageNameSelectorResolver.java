@@ -30,8 +30,8 @@ class PackageNameSelectorResolver extends DiscoverySelectorResolver<PackageSelec
 
 	@Override
 	void resolve(PackageSelector selector, TestClassCollector collector) {
-		findAllClassesInPackage(selector.getPackageName(), classTester, classNamePredicate).forEach(
-			collector::addCompletely);
+		findAllClassesInPackage(selector.getPackageName(), classFilePrefilter, classTester,
+			classNamePredicate).forEach(collector::addCompletely);
 	}
 
 }
@@ -12,6 +12,7 @@ package org.junit.vintage.engine.discovery;
 
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toCollection;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASS_RESOLUTION;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -22,6 +23,7 @@ import java.util.Set;
 import java.util.function.IntFunction;
 import java.util.logging.Logger;
 
+import org.junit.platform.commons.util.DiscoveryProfile;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.runner.Description;
 import org.junit.runner.Runner;
@@ -52,10 +54,12 @@ class TestClassRequestResolver {
 		RunnerBuilder runnerBuilder = new DefensiveAllDefaultPossibilitiesBuilder();
 		for (TestClassRequest request : requests) {
 			Class<?> testClass = request.getTestClass();
+			long startTime = DiscoveryProfile.start();
 			Runner runner = runnerBuilder.safeRunnerForClass(testClass);
 			if (runner != null) {
 				addRunnerTestDescriptor(request, testClass, runner);
 			}
+			DiscoveryProfile.record(CLASS_RESOLUTION, testClass.getName(), startTime);
 		}
 	}
 
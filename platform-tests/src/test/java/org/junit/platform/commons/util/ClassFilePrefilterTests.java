@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ClassFilePrefilter}.
+ *
+ * @since 1.0
+ */
+class ClassFilePrefilterTests {
+
+	private final ClassFilePrefilter prefilter = ClassFilePrefilter.forTypes(Marker.class, MarkerInterface.class);
+
+	private final Predicate<String> classNameFilter = prefilter.createClassNameFilter(getClass().getClassLoader());
+
+	@Test
+	void rejectsClassesThatDoNotReferToAnyType() {
+		assertThat(classNameFilter.test(PlainClass.class.getName())).isFalse();
+		assertThat(classNameFilter.test(ClassWithCyclicMetaAnnotation.class.getName())).isFalse();
+		assertThat(classNameFilter.test(ClassWithCyclicMetaAnnotation.class.getName())).isFalse();
+	}
+
+	@Test
+	void acceptsClassesThatReferToTypesDirectly() {
+		assertThat(classNameFilter.test(AnnotatedClass.class.getName())).isTrue();
+		assertThat(classNameFilter.test(ClassWithAnnotatedMethod.class.getName())).isTrue();
+		assertThat(classNameFilter.test(ClassWithAnnotatedField.class.getName())).isTrue();
+		assertThat(classNameFilter.test(ClassImplementingInterface.class.getName())).isTrue();
+		assertThat(classNameFilter.test(ClassWithMethodReturningInterface.class.getName())).isTrue();
+	}
+
+	@Test
+	void acceptsClassesThatReferToTypesIndirectly() {
+		assertThat(classNameFilter.test(ClassWithMetaAnnotatedMethod.class.getName())).isTrue();
+		assertThat(classNameFilter.test(SubclassOfClassWithAnnotatedMethod.class.getName())).isTrue();
+		assertThat(classNameFilter.test(ClassImplementingInterfaceWithAnnotatedDefaultMethod.class.getName())).isTrue();
+		assertThat(classNameFilter.test(ClassWithMemberClassWithAnnotatedMethod.class.getName())).isTrue();
+	}
+
+	@Test
+	void acceptsClassesWhoseClassFilesCannotBeRead() {
+		assertThat(classNameFilter.test("org.example.DoesNotExist")).isTrue();
+	}
+
+	@Test
+	void scanLoadsOnlyClassesThatMightMatch() {
+		List<Class<?>> loadedClasses = new ArrayList<>();
+		ClasspathScanner classpathScanner = new ClasspathScanner(ReflectionUtils::getDefaultClassLoader,
+			(name, classLoader) -> {
+				Optional<Class<?>> loadedClass = ReflectionUtils.loadClass(name, classLoader);
+				loadedClass.ifPresent(loadedClasses::add);
+				return loadedClass;
+			});
+
+		List<Class<?>> classes = classpathScanner.scanForClassesInPackage(getClass().getPackage().getName(), prefilter,
+			clazz -> true, className -> className.startsWith(ClassFilePrefilterTests.class.getName()));
+
+		assertThat(classes).contains(AnnotatedClass.class, SubclassOfClassWithAnnotatedMethod.class).doesNotContain(
+			PlainClass.class, ClassWithCyclicMetaAnnotation.class);
+		assertThat(loadedClasses).containsExactlyElementsOf(classes);
+	}
+
+	@Test
+	void rejectsMissingTypes() {
+		assertThrows(PreconditionViolationException.class, () -> ClassFilePrefilter.forTypes());
+		assertThrows(PreconditionViolationException.class, () -> ClassFilePrefilter.forTypes(Marker.class, null));
+	}
+
+	// -------------------------------------------------------------------------
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Marker {
+	}
+
+	interface MarkerInterface {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Marker
+	@interface MetaMarker {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Cyclic
+	@interface Cyclic {
+	}
+
+	static class PlainClass {
+
+		String plainMethod() {
+			return "";
+		}
+	}
+
+	@Cyclic
+	static class ClassWithCyclicMetaAnnotation {
+	}
+
+	@Marker
+	static class AnnotatedClass {
+	}
+
+	static class ClassWithAnnotatedMethod {
+
+		@Marker
+		void annotatedMethod() {
+		}
+	}
+
+	static class ClassWithAnnotatedField {
+
+		@Marker
+		Object annotatedField;
+	}
+
+	static class ClassImplementingInterface implements MarkerInterface {
+	}
+
+	static class ClassWithMethodReturningInterface {
+
+		MarkerInterface method() {
+			return null;
+		}
+	}
+
+	static class ClassWithMetaAnnotatedMethod {
+
+		@MetaMarker
+		void metaAnnotatedMethod() {
+		}
+	}
+
+	static class SubclassOfClassWithAnnotatedMethod extends ClassWithAnnotatedMethod {
+	}
+
+	interface InterfaceWithAnnotatedDefaultMethod {
+
+		@Marker
+		default void annotatedDefaultMethod() {
+		}
+	}
+
+	static class ClassImplementingInterfaceWithAnnotatedDefaultMethod implements InterfaceWithAnnotatedDefaultMethod {
+	}
+
+	static class ClassWithMemberClassWithAnnotatedMethod {
+
+		class MemberClass extends ClassWithAnnotatedMethod {
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+
+/**
+ * Unit tests for {@link ClasspathIndex}.
+ *
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class ClasspathIndexTests {
+
+	private final FileTime past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+
+	private final ClasspathScanner classpathScanner = new ClasspathScanner(ReflectionUtils::getDefaultClassLoader,
+		(name, classLoader) -> Optional.empty());
+
+	@Test
+	void providesNoDirectoryIndexIfNoScopeIsOpen(@Root Path tempDir) {
+		assertThat(ClasspathIndex.getDirectoryIndex(tempDir)).isEmpty();
+	}
+
+	@Test
+	void reusesStoredListingsOfDirectoriesWhoseModificationTimeIsUnchanged(@Root Path tempDir) throws Exception {
+		Path indexDir = tempDir.resolve("index");
+		Path classesDir = tempDir.resolve("classes");
+		Path packageDir = Files.createDirectories(classesDir.resolve("org/example"));
+		Files.createFile(packageDir.resolve("A.class"));
+		Files.createFile(packageDir.resolve("package-info.class"));
+		Files.createFile(packageDir.resolve("readme.txt"));
+		setModificationTimes(past, classesDir, classesDir.resolve("org"), packageDir);
+
+		try (ClasspathIndex scope = ClasspathIndex.open(indexDir)) {
+			assertThat(scanForClassNames(classesDir)).containsExactly("org.example.A");
+			assertThat(countFiles(indexDir)).isEqualTo(1);
+
+			Files.createFile(packageDir.resolve("B.class"));
+			setModificationTimes(past, packageDir);
+			assertThat(scanForClassNames(classesDir)).containsExactly("org.example.A");
+
+			setModificationTimes(FileTime.fromMillis(past.toMillis() + 1000), packageDir);
+			assertThat(scanForClassNames(classesDir)).containsOnly("org.example.A", "org.example.B");
+		}
+	}
+
+	@Test
+	void doesNotStoreListingsOfRecentlyModifiedDirectories(@Root Path tempDir) throws Exception {
+		Path indexDir = tempDir.resolve("index");
+		Path classesDir = Files.createDirectories(tempDir.resolve("classes"));
+		Files.createFile(classesDir.resolve("A.class"));
+
+		try (ClasspathIndex scope = ClasspathIndex.open(indexDir)) {
+			assertThat(scanForClassNames(classesDir)).containsExactly("A");
+
+			FileTime modificationTime = Files.getLastModifiedTime(classesDir);
+			Files.createFile(classesDir.resolve("B.class"));
+			setModificationTimes(modificationTime, classesDir);
+			assertThat(scanForClassNames(classesDir)).containsOnly("A", "B");
+		}
+	}
+
+	@Test
+	void storesIndexOfJarFileUntilItIsModified(@Root Path tempDir) throws Exception {
+		Path indexDir = tempDir.resolve("index");
+		Path jarFile = createJarFile(tempDir.resolve("test.jar"), "org/example/A.class");
+		setModificationTimes(past, jarFile);
+
+		try (ClasspathIndex scope = ClasspathIndex.open(indexDir)) {
+			assertThat(ClasspathIndex.getJarIndex(jarFile).getClassFiles("")).containsExactly("org/example/A");
+			assertThat(countFiles(indexDir)).isEqualTo(1);
+			JarIndex storedJarIndex = ClasspathIndex.getJarIndex(jarFile);
+			assertThat(storedJarIndex.getClassFiles("")).containsExactly("org/example/A");
+			assertThat(storedJarIndex.isUpToDate()).isTrue();
+
+			createJarFile(jarFile, "org/example/A.class", "org/example/B.class");
+			setModificationTimes(past, jarFile);
+			assertThat(ClasspathIndex.getJarIndex(jarFile).getClassFiles("")).containsExactly("org/example/A",
+				"org/example/B");
+		}
+	}
+
+	private List<String> scanForClassNames(Path root) {
+		List<String> classNames = new ArrayList<>();
+		classpathScanner.scanForClassesInClasspathRoot(root.toUri(), clazz -> true, className -> {
+			classNames.add(className);
+			return false;
+		});
+		return classNames;
+	}
+
+	private static long countFiles(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	private static void setModificationTimes(FileTime modificationTime, Path... paths) throws IOException {
+		for (Path path : paths) {
+			Files.setLastModifiedTime(path, modificationTime);
+		}
+	}
+
+	private static Path createJarFile(Path jarFile, String... entryNames) throws IOException {
+		try (OutputStream out = Files.newOutputStream(jarFile);
+				JarOutputStream jarOutputStream = new JarOutputStream(out)) {
+			for (String entryName : entryNames) {
+				jarOutputStream.putNextEntry(new ZipEntry(entryName));
+				jarOutputStream.closeEntry();
+			}
+		}
+		return jarFile;
+	}
+
+}
@@ -333,6 +333,44 @@ class ClasspathScannerTests {
 		assertThat(loadedClasses).containsExactly(ClasspathScannerTests.class);
 	}
 
+	@Test
+	void findAllClassesInClasspathRootInParallelInSameOrderAsSequentially() throws Exception {
+		ClasspathScanner classpathScanner = new ClasspathScanner(ReflectionUtils::getDefaultClassLoader,
+			ReflectionUtils::loadClass);
+		URI root = getTestClasspathRoot();
+		List<Class<?>> expected = classpathScanner.scanForClassesInClasspathRoot(root, clazz -> true,
+			className -> true);
+
+		try (ParallelClasspathScan scope = ParallelClasspathScan.open(4)) {
+			List<Class<?>> classes = classpathScanner.scanForClassesInClasspathRoot(root, clazz -> true,
+				className -> true);
+
+			assertThat(classes).hasSize(expected.size()).containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	void scanForClassesInPackageInParallelInSameOrderAsSequentially() throws Exception {
+		ClasspathScanner classpathScanner = new ClasspathScanner(ReflectionUtils::getDefaultClassLoader,
+			ReflectionUtils::loadClass);
+		List<Class<?>> expected = classpathScanner.scanForClassesInPackage("org.junit.platform", clazz -> true,
+			className -> true);
+
+		try (ParallelClasspathScan scope = ParallelClasspathScan.open(4)) {
+			List<Class<?>> classes = classpathScanner.scanForClassesInPackage("org.junit.platform", clazz -> true,
+				className -> true);
+
+			assertThat(classes).hasSize(expected.size()).containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	void scanForClassesInClasspathRootWithinJarFileInParallel() throws Exception {
+		try (ParallelClasspathScan scope = ParallelClasspathScan.open(4)) {
+			scanForClassesInClasspathRootWithinJarFile("/jartest.jar");
+		}
+	}
+
 	private URI getTestClasspathRoot() throws Exception {
 		URL location = getClass().getProtectionDomain().getCodeSource().getLocation();
 		return location.toURI();
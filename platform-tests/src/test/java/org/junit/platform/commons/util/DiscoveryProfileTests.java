@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASSPATH_ROOT;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.CLASS_LOAD;
+import static org.junit.platform.commons.util.DiscoveryProfile.Section.SELECTOR;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.util.DiscoveryProfile.Measurement;
+
+/**
+ * Unit tests for {@link DiscoveryProfile}.
+ *
+ * @since 1.0
+ */
+class DiscoveryProfileTests {
+
+	@Test
+	void recordsNothingIfNoScopeIsOpen() {
+		assertThat(DiscoveryProfile.start()).isZero();
+
+		try (DiscoveryProfile profile = DiscoveryProfile.open()) {
+			DiscoveryProfile.record(SELECTOR, "selector", 0L);
+
+			assertThat(profile.getMeasurements(SELECTOR)).isEmpty();
+		}
+	}
+
+	@Test
+	void sumsUpMeasurementsWithSameSectionAndName() {
+		try (DiscoveryProfile profile = DiscoveryProfile.open()) {
+			DiscoveryProfile.record(SELECTOR, "slow", DiscoveryProfile.start() - 2_000);
+			DiscoveryProfile.record(SELECTOR, "fast", DiscoveryProfile.start() - 1_000);
+			DiscoveryProfile.record(SELECTOR, "slow", DiscoveryProfile.start() - 2_000);
+			DiscoveryProfile.record(CLASS_LOAD, "slow", DiscoveryProfile.start());
+
+			assertThat(profile.getMeasurements(SELECTOR)).extracting(Measurement::getName,
+				Measurement::getCount).containsExactly(tuple("slow", 2), tuple("fast", 1));
+			assertThat(profile.getMeasurements(SELECTOR).get(0).getTotalNanos()).isGreaterThanOrEqualTo(4_000);
+			assertThat(profile.getMeasurements(CLASS_LOAD)).hasSize(1);
+		}
+	}
+
+	@Test
+	void restoresPreviousScopeWhenClosed() {
+		try (DiscoveryProfile outer = DiscoveryProfile.open()) {
+			DiscoveryProfile inner = DiscoveryProfile.open();
+			DiscoveryProfile.record(SELECTOR, "inner", DiscoveryProfile.start());
+			inner.close();
+			inner.close();
+			DiscoveryProfile.record(SELECTOR, "outer", DiscoveryProfile.start());
+
+			assertThat(inner.getMeasurements(SELECTOR)).extracting(Measurement::getName).containsExactly("inner");
+			assertThat(outer.getMeasurements(SELECTOR)).extracting(Measurement::getName).containsExactly("outer");
+		}
+		assertThat(DiscoveryProfile.start()).isZero();
+	}
+
+	@Test
+	void recordsClasspathRootsAndClassLoadsOfScans() throws Exception {
+		Path classpathRoot = Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+
+		try (DiscoveryProfile profile = DiscoveryProfile.open()) {
+			ReflectionUtils.findAllClassesInClasspathRoot(classpathRoot.toUri(), clazz -> true,
+				className -> className.equals(DiscoveryProfileTests.class.getName()));
+
+			assertThat(profile.getMeasurements(CLASSPATH_ROOT)).extracting(Measurement::getName).containsExactly(
+				classpathRoot.toUri().toString());
+			assertThat(profile.getMeasurements(CLASS_LOAD)).extracting(Measurement::getName).containsExactly(
+				DiscoveryProfileTests.class.getName());
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+
+/**
+ * Unit tests for {@link JarIndexCache} and {@link JarIndex}.
+ *
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class JarIndexCacheTests {
+
+	@Test
+	void indexesClassFilesBelowDirectories(@Root Path tempDir) throws Exception {
+		Path jarFile = createJarFile(tempDir.resolve("test.jar"), "org/", "org/example/", "org/example/B.class",
+			"org/example/A.class", "org/example/sub/C.class", "org/example/package-info.class", "org/example/D.txt",
+			"org/examples/E.class", "module-info.class", "META-INF/versions/9/org/example/A.class", "F.class");
+
+		JarIndex jarIndex = JarIndex.read(jarFile);
+
+		assertThat(jarIndex.getJarFile()).isEqualTo(jarFile);
+		assertThat(jarIndex.getClassFiles("")).containsExactly("F", "org/example/A", "org/example/B",
+			"org/example/sub/C", "org/examples/E");
+		assertThat(jarIndex.getClassFiles("org/example/")).containsExactly("org/example/A", "org/example/B",
+			"org/example/sub/C");
+		assertThat(jarIndex.getClassFiles("org/other/")).isEmpty();
+	}
+
+	@Test
+	void readsIndexEveryTimeIfNoCacheIsActive(@Root Path tempDir) throws Exception {
+		Path jarFile = createJarFile(tempDir.resolve("test.jar"), "org/example/A.class");
+
+		assertThat(JarIndexCache.getJarIndex(jarFile)).isNotSameAs(JarIndexCache.getJarIndex(jarFile));
+	}
+
+	@Test
+	void reusesIndexWhileCacheIsActiveUntilJarFileIsModified(@Root Path tempDir) throws Exception {
+		Path jarFile = createJarFile(tempDir.resolve("test.jar"), "org/example/A.class");
+
+		try (JarIndexCache.Activation activation = new JarIndexCache().activate()) {
+			JarIndex first = JarIndexCache.getJarIndex(jarFile);
+			JarIndex second = JarIndexCache.getJarIndex(jarFile);
+			assertThat(second).isSameAs(first);
+
+			FileTime lastModifiedTime = Files.getLastModifiedTime(jarFile);
+			createJarFile(jarFile, "org/example/A.class", "org/example/B.class");
+			Files.setLastModifiedTime(jarFile, FileTime.fromMillis(lastModifiedTime.toMillis() + 2000));
+			JarIndex third = JarIndexCache.getJarIndex(jarFile);
+
+			assertThat(third).isNotSameAs(first);
+			assertThat(third.getClassFiles("")).containsExactly("org/example/A", "org/example/B");
+		}
+	}
+
+	@Test
+	void closingActivationReactivatesPreviousCache(@Root Path tempDir) throws Exception {
+		Path jarFile = createJarFile(tempDir.resolve("test.jar"), "org/example/A.class");
+		JarIndexCache.Activation outer = new JarIndexCache().activate();
+		JarIndex outerIndex = JarIndexCache.getJarIndex(jarFile);
+		JarIndexCache.Activation inner = new JarIndexCache().activate();
+		JarIndex innerIndex = JarIndexCache.getJarIndex(jarFile);
+
+		assertThat(innerIndex).isNotSameAs(outerIndex);
+
+		inner.close();
+		inner.close();
+		assertThat(JarIndexCache.getJarIndex(jarFile)).isSameAs(outerIndex);
+
+		outer.close();
+		assertThat(JarIndexCache.getJarIndex(jarFile)).isNotSameAs(outerIndex);
+	}
+
+	private static Path createJarFile(Path jarFile, String... entryNames) throws IOException {
+		try (OutputStream out = Files.newOutputStream(jarFile);
+				JarOutputStream jarOutputStream = new JarOutputStream(out)) {
+			for (String entryName : entryNames) {
+				jarOutputStream.putNextEntry(new ZipEntry(entryName));
+				jarOutputStream.closeEntry();
+			}
+		}
+		return jarFile;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ParallelClasspathScan}.
+ *
+ * @since 1.0
+ */
+class ParallelClasspathScanTests {
+
+	@Test
+	void providesNoPoolIfNoScopeIsOpen() {
+		assertThat(ParallelClasspathScan.getForkJoinPool()).isNull();
+	}
+
+	@Test
+	void providesPoolOfMostRecentlyOpenedScopeUntilItIsClosed() {
+		ParallelClasspathScan outer = ParallelClasspathScan.open(2);
+		ForkJoinPool outerPool = ParallelClasspathScan.getForkJoinPool();
+		ParallelClasspathScan inner = ParallelClasspathScan.open(3);
+		ForkJoinPool innerPool = ParallelClasspathScan.getForkJoinPool();
+
+		assertThat(outerPool.getParallelism()).isEqualTo(2);
+		assertThat(innerPool.getParallelism()).isEqualTo(3);
+
+		inner.close();
+		inner.close();
+		assertThat(ParallelClasspathScan.getForkJoinPool()).isSameAs(outerPool);
+		assertThat(innerPool.isShutdown()).isTrue();
+
+		outer.close();
+		assertThat(ParallelClasspathScan.getForkJoinPool()).isNull();
+		assertThat(outerPool.isShutdown()).isTrue();
+	}
+
+	@Test
+	void workersUseContextClassLoaderOfOpeningThread() {
+		ClassLoader contextClassLoader = new ClassLoader() {
+		};
+		Thread thread = Thread.currentThread();
+		ClassLoader originalClassLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(contextClassLoader);
+		ParallelClasspathScan scope;
+		try {
+			scope = ParallelClasspathScan.open(1);
+		}
+		finally {
+			thread.setContextClassLoader(originalClassLoader);
+		}
+		try {
+			ClassLoader workerClassLoader = ParallelClasspathScan.invoke(ParallelClasspathScan.getForkJoinPool(),
+				new RecursiveTask<ClassLoader>() {
+
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected ClassLoader compute() {
+						return Thread.currentThread().getContextClassLoader();
+					}
+				});
+
+			assertThat(workerClassLoader).isSameAs(contextClassLoader);
+		}
+		finally {
+			scope.close();
+		}
+	}
+
+	@Test
+	void rejectsNonPositiveParallelism() {
+		assertThrows(PreconditionViolationException.class, () -> ParallelClasspathScan.open(0));
+	}
+
+}
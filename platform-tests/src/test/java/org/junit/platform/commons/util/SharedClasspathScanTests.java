@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SharedClasspathScan}.
+ *
+ * @since 1.0
+ */
+class SharedClasspathScanTests {
+
+	private final URI root = URI.create("file:///classes/");
+
+	private final AtomicInteger scans = new AtomicInteger();
+
+	private final Supplier<List<ClassFile>> scanner = () -> {
+		scans.incrementAndGet();
+		return singletonList(new ClassFile("org.example.MyTests", "/classes/org/example/MyTests.class"));
+	};
+
+	@Test
+	void scansEveryTimeIfNoScopeIsOpen() {
+		SharedClasspathScan.getClassFiles(root, "org.example", scanner);
+		SharedClasspathScan.getClassFiles(root, "org.example", scanner);
+
+		assertThat(scans).hasValue(2);
+	}
+
+	@Test
+	void reusesScanResultsForSameRootAndPackageWhileScopeIsOpen() {
+		SharedClasspathScan scope = SharedClasspathScan.open();
+		try {
+			List<ClassFile> first = SharedClasspathScan.getClassFiles(root, "org.example", scanner);
+			List<ClassFile> second = SharedClasspathScan.getClassFiles(root, "org.example", scanner);
+			SharedClasspathScan.getClassFiles(root, "org.example.other", scanner);
+
+			assertThat(second).isSameAs(first);
+			assertThat(scans).hasValue(2);
+		}
+		finally {
+			scope.close();
+		}
+	}
+
+	@Test
+	void discardsScanResultsWhenLastScopeIsClosed() {
+		SharedClasspathScan outer = SharedClasspathScan.open();
+		SharedClasspathScan inner = SharedClasspathScan.open();
+		SharedClasspathScan.getClassFiles(root, "org.example", scanner);
+
+		inner.close();
+		inner.close();
+		SharedClasspathScan.getClassFiles(root, "org.example", scanner);
+		assertThat(scans).hasValue(1);
+
+		outer.close();
+		SharedClasspathScan.getClassFiles(root, "org.example", scanner);
+		assertThat(scans).hasValue(2);
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+
+/**
+ * Unit tests for {@link TestClassIndex}.
+ *
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class TestClassIndexTests {
+
+	private Path classesDir;
+
+	@BeforeEach
+	void createClassFiles(@Root Path tempDir) throws Exception {
+		classesDir = tempDir.resolve("classes");
+		Files.createDirectories(classesDir.resolve("org/example"));
+		Files.createDirectories(classesDir.resolve("other"));
+		Files.createFile(classesDir.resolve("org/example/ATests.class"));
+		Files.createFile(classesDir.resolve("org/example/B.class"));
+		Files.createFile(classesDir.resolve("other/CTests.class"));
+	}
+
+	@Test
+	void writesSortedClassNames() throws Exception {
+		Path file = TestClassIndex.write(classesDir, asList("other.CTests", "org.example.ATests"));
+
+		assertThat(file).isEqualTo(classesDir.resolve(TestClassIndex.RESOURCE_NAME));
+		assertThat(Files.readAllLines(file, UTF_8)).containsExactly("1", "org.example.ATests", "other.CTests");
+	}
+
+	@Test
+	void scansOnlyIndexedClassesWhileScopeIsOpen() throws Exception {
+		TestClassIndex.write(classesDir, asList("org.example.ATests", "other.CTests"));
+
+		try (TestClassIndex scope = TestClassIndex.open()) {
+			assertThat(scanForClassNames(classesDir)).containsExactly("org.example.ATests", "other.CTests");
+		}
+		assertThat(scanForClassNames(classesDir)).containsOnly("org.example.ATests", "org.example.B",
+			"other.CTests");
+	}
+
+	@Test
+	void scansOnlyIndexedClassesOfScannedPackage() throws Exception {
+		TestClassIndex.write(classesDir, asList("org.example.ATests", "other.CTests"));
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { classesDir.toUri().toURL() }, null);
+				TestClassIndex scope = TestClassIndex.open()) {
+			List<String> classNames = new ArrayList<>();
+			new ClasspathScanner(() -> classLoader, (name, loader) -> Optional.empty()).scanForClassesInPackage(
+				"org.example", clazz -> true, className -> {
+					classNames.add(className);
+					return false;
+				});
+
+			assertThat(classNames).containsExactly("org.example.ATests");
+		}
+	}
+
+	@Test
+	void scansDirectoryIfClassWasAddedAfterIndexWasWritten() throws Exception {
+		Path file = TestClassIndex.write(classesDir, asList("org.example.ATests", "other.CTests"));
+		Path addedClassFile = Files.createFile(classesDir.resolve("org/example/DTests.class"));
+		Files.setLastModifiedTime(addedClassFile,
+			FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000));
+
+		try (TestClassIndex scope = TestClassIndex.open()) {
+			assertThat(scanForClassNames(classesDir)).containsOnly("org.example.ATests", "org.example.B",
+				"org.example.DTests", "other.CTests");
+		}
+	}
+
+	@Test
+	void ignoresIndexInUnsupportedFormat() throws Exception {
+		Path file = TestClassIndex.write(classesDir, singletonList("org.example.ATests"));
+		Files.write(file, asList("2", "org.example.ATests"), UTF_8);
+
+		try (TestClassIndex scope = TestClassIndex.open()) {
+			assertThat(scanForClassNames(classesDir)).containsOnly("org.example.ATests", "org.example.B",
+				"other.CTests");
+		}
+	}
+
+	private static List<String> scanForClassNames(Path root) {
+		List<String> classNames = new ArrayList<>();
+		new ClasspathScanner(ReflectionUtils::getDefaultClassLoader,
+			(name, classLoader) -> Optional.empty()).scanForClassesInClasspathRoot(root.toUri(), clazz -> true,
+				className -> {
+					classNames.add(className);
+					return false;
+				});
+		return classNames;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.console;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.console.options.CommandLineOptions;
+import org.junit.platform.console.options.CommandLineOptionsParser;
+
+/**
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class ConsoleLauncherDaemonTests {
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+	@Test
+	void executesRequestsInDaemonAndStreamsOutputToClient(@Root Path tempDir) throws Exception {
+		CommandLineOptionsParser parser = createHelpPrintingParser();
+		Path addressFile = startDaemon(parser, tempDir);
+
+		int exitCode = ConsoleLauncherDaemon.executeInDaemon(addressFile,
+			new String[] { "--use-daemon", addressFile.toString(), "--help" }, new PrintStream(out),
+			new PrintStream(err));
+
+		assertThat(exitCode).isEqualTo(0);
+		assertThat(out.toString()).isEqualTo("help");
+		assertThat(err.toString()).isEqualTo("printing help");
+		verify(parser).parse("--help");
+	}
+
+	@Test
+	void rejectsClientsWithoutSecret(@Root Path tempDir) throws Exception {
+		Path addressFile = startDaemon(mock(CommandLineOptionsParser.class), tempDir);
+		List<String> lines = Files.readAllLines(addressFile, UTF_8);
+		Path wrongAddressFile = tempDir.resolve("wrong");
+		Files.write(wrongAddressFile, (lines.get(0) + "\nAAAA\n").getBytes(UTF_8));
+
+		assertThrows(IOException.class, () -> ConsoleLauncherDaemon.executeInDaemon(wrongAddressFile,
+			new String[] { "--help" }, new PrintStream(out), new PrintStream(err)));
+	}
+
+	@Test
+	void keepsServingAfterMalformedRequests(@Root Path tempDir) throws Exception {
+		Path addressFile = startDaemon(createHelpPrintingParser(), tempDir);
+		int port = Integer.parseInt(Files.readAllLines(addressFile, UTF_8).get(0));
+		for (int secretLength : new int[] { -1, Integer.MAX_VALUE }) {
+			try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+				DataOutputStream requestOut = new DataOutputStream(socket.getOutputStream());
+				requestOut.writeInt(secretLength);
+				requestOut.flush();
+				assertThat(socket.getInputStream().read()).isEqualTo(-1);
+			}
+		}
+
+		int exitCode = ConsoleLauncherDaemon.executeInDaemon(addressFile, new String[] { "--help" },
+			new PrintStream(out), new PrintStream(err));
+
+		assertThat(exitCode).isEqualTo(0);
+		assertThat(out.toString()).isEqualTo("help");
+	}
+
+	private static CommandLineOptionsParser createHelpPrintingParser() {
+		CommandLineOptions options = new CommandLineOptions();
+		options.setDisplayHelp(true);
+		CommandLineOptionsParser parser = mock(CommandLineOptionsParser.class);
+		when(parser.parse(any())).thenReturn(options);
+		doAnswer(invocation -> {
+			System.err.print("printing help");
+			((Writer) invocation.getArguments()[0]).write("help");
+			return null;
+		}).when(parser).printHelp(any());
+		return parser;
+	}
+
+	private static Path startDaemon(CommandLineOptionsParser parser, Path tempDir) throws InterruptedException {
+		Path addressFile = tempDir.resolve("daemon");
+		Thread thread = new Thread(() -> {
+			try {
+				new ConsoleLauncherDaemon(parser, addressFile).run(new PrintStream(new ByteArrayOutputStream()));
+			}
+			catch (IOException ex) {
+				throw new RuntimeException(ex);
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+		while (!Files.exists(addressFile)) {
+			Thread.sleep(10);
+		}
+		return addressFile;
+	}
+
+}
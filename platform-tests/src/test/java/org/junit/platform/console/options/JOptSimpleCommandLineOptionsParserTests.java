@@ -51,6 +51,7 @@ class JOptSimpleCommandLineOptionsParserTests {
 			() -> assertFalse(options.isDisplayHelp()),
 			() -> assertEquals(CommandLineOptions.DEFAULT_DETAILS, options.getDetails()),
 			() -> assertFalse(options.isScanClasspath()),
+			() -> assertFalse(options.isWriteTestIndex()),
 			() -> assertEquals(singletonList(STANDARD_INCLUDE_PATTERN), options.getIncludedClassNamePatterns()),
 			() -> assertEquals(emptyList(), options.getExcludedClassNamePatterns()),
 			() -> assertEquals(emptyList(), options.getIncludedPackages()),
@@ -59,6 +60,7 @@ class JOptSimpleCommandLineOptionsParserTests {
 			() -> assertEquals(emptyList(), options.getExcludedTags()),
 			() -> assertEquals(emptyList(), options.getAdditionalClasspathEntries()),
 			() -> assertEquals(Optional.empty(), options.getReportsDir()),
+			() -> assertEquals(0, options.getForks()),
 			() -> assertEquals(emptyList(), options.getSelectedUris()),
 			() -> assertEquals(emptyList(), options.getSelectedFiles()),
 			() -> assertEquals(emptyList(), options.getSelectedDirectories()),
@@ -73,7 +75,8 @@ class JOptSimpleCommandLineOptionsParserTests {
 		assertAll(
 			() -> assertParses("disable ansi", CommandLineOptions::isAnsiColorOutputDisabled, "--disable-ansi-colors"),
 			() -> assertParses("help", CommandLineOptions::isDisplayHelp, "-h", "--help"),
-			() -> assertParses("scan class path", CommandLineOptions::isScanClasspath, "--scan-class-path")
+			() -> assertParses("scan class path", CommandLineOptions::isScanClasspath, "--scan-class-path"),
+			() -> assertParses("write test index", CommandLineOptions::isWriteTestIndex, "--write-test-index")
 		);
 		// @formatter:on
 	}
@@ -270,6 +273,34 @@ class JOptSimpleCommandLineOptionsParserTests {
 		assertOptionWithMissingRequiredArgumentThrowsException("-cp", "--classpath", "--class-path");
 	}
 
+	@Test
+	public void parseValidForks() {
+		// @formatter:off
+		assertAll(
+			() -> assertEquals(4, parseArgLine("--forks 4").getForks()),
+			() -> assertEquals(4, parseArgLine("--forks=4").getForks())
+		);
+		// @formatter:on
+	}
+
+	@Test
+	public void parseValidDaemonFiles() {
+		Path file = Paths.get("build", "daemon");
+		// @formatter:off
+		assertAll(
+			() -> assertEquals(Optional.of(file), parseArgLine("--start-daemon build/daemon").getStartDaemonFile()),
+			() -> assertEquals(Optional.of(file), parseArgLine("--use-daemon=build/daemon").getUseDaemonFile()),
+			() -> assertEquals(Optional.empty(), parseArgLine("--use-daemon=build/daemon").getStartDaemonFile())
+		);
+		// @formatter:on
+	}
+
+	@Test
+	public void parseInvalidForks() {
+		assertOptionWithMissingRequiredArgumentThrowsException("--forks");
+		assertThrows(JUnitException.class, () -> parseArgLine("--forks=many"));
+	}
+
 	@Test
 	public void parseValidXmlReportsDirs() {
 		Path dir = Paths.get("build", "test-results");
@@ -10,6 +10,7 @@
 
 package org.junit.platform.console.tasks;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,17 +22,25 @@ import static org.junit.platform.launcher.core.LauncherFactoryForTestingPurposes
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.commons.util.TestClassIndex;
 import org.junit.platform.console.ConsoleLauncherExecutionResult;
 import org.junit.platform.console.options.CommandLineOptions;
 import org.junit.platform.console.options.Details;
+import org.junit.platform.engine.support.descriptor.ClassSource;
 import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestEngine;
 
 /**
  * @since 1.0
  */
+@ExtendWith(TempDirectory.class)
 class ConsoleTestExecutorTests {
 
 	private static final Runnable FAILING_BLOCK = () -> fail("should fail");
@@ -153,6 +162,24 @@ class ConsoleTestExecutorTests {
 		assertThat(stringWriter.toString()).contains("failingTest", "should fail", "1 tests failed");
 	}
 
+	@Test
+	void writesIndexOfTestClassesInScannedClasspathRoots(@Root Path tempDir) throws Exception {
+		options.setSelectedClasspathEntries(singletonList(tempDir));
+		Path classFile = tempDir.resolve(getClass().getName().replace('.', '/') + ".class");
+		Files.createDirectories(classFile.getParent());
+		Files.createFile(classFile);
+
+		dummyTestEngine.addContainer("container", "container", new ClassSource(getClass()));
+		dummyTestEngine.addTest(String.class.getMethod("length"), SUCCEEDING_TEST);
+
+		ConsoleTestExecutor task = new ConsoleTestExecutor(options, () -> createLauncher(dummyTestEngine));
+		task.writeTestIndex(new PrintWriter(stringWriter));
+
+		Path indexFile = tempDir.resolve(TestClassIndex.RESOURCE_NAME);
+		assertThat(Files.readAllLines(indexFile, UTF_8)).containsExactly("1", getClass().getName());
+		assertThat(stringWriter.toString()).contains("Wrote index of 1 test classes to " + indexFile);
+	}
+
 	private PrintWriter dummyWriter() {
 		return new PrintWriter(new StringWriter());
 	}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.console.tasks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.test.TestDescriptorStub;
+import org.junit.platform.launcher.TestIdentifier;
+
+/**
+ * @since 1.0
+ */
+class ForkProtocolTests {
+
+	private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	private final DataOutputStream out = new DataOutputStream(bytes);
+
+	@Test
+	void transfersStrings() throws Exception {
+		ForkProtocol.writeString(out, "[engine:junit-jupiter]/[class:Caf\u00e9Tests]");
+
+		assertThat(ForkProtocol.readString(in())).isEqualTo("[engine:junit-jupiter]/[class:Caf\u00e9Tests]");
+	}
+
+	@Test
+	void transfersResults() throws Exception {
+		ForkProtocol.writeResult(out, TestExecutionResult.successful());
+		ForkProtocol.writeResult(out, TestExecutionResult.aborted(new IllegalStateException("aborted")));
+
+		DataInputStream in = in();
+		assertThat(ForkProtocol.readResult(in).getStatus()).isEqualTo(Status.SUCCESSFUL);
+		TestExecutionResult aborted = ForkProtocol.readResult(in);
+		assertThat(aborted.getStatus()).isEqualTo(Status.ABORTED);
+		assertThat(aborted.getThrowable().get()).isInstanceOf(IllegalStateException.class).hasMessage("aborted");
+	}
+
+	@Test
+	void replacesThrowablesThatCannotBeSerialized() throws Exception {
+		NonSerializableException exception = new NonSerializableException();
+
+		ForkProtocol.writeResult(out, TestExecutionResult.failed(exception));
+
+		Throwable throwable = ForkProtocol.readResult(in()).getThrowable().get();
+		assertThat(throwable).isInstanceOf(JUnitException.class).hasMessage(
+			NonSerializableException.class.getName() + ": not serializable");
+		assertThat(throwable.getStackTrace()).isEqualTo(exception.getStackTrace());
+	}
+
+	@Test
+	void transfersKeyValuePairsAndTestIdentifiers() throws Exception {
+		Map<String, String> keyValuePairs = new LinkedHashMap<>();
+		keyValuePairs.put("key", "value");
+		keyValuePairs.put("other key", "other value");
+		TestIdentifier testIdentifier = TestIdentifier.from(
+			new TestDescriptorStub(UniqueId.root("dynamic-test", "#1"), "dynamic"));
+
+		ForkProtocol.writeKeyValuePairs(out, keyValuePairs);
+		ForkProtocol.writeObject(out, testIdentifier);
+
+		DataInputStream in = in();
+		assertThat(ForkProtocol.readKeyValuePairs(in)).containsExactly(entry("key", "value"),
+			entry("other key", "other value"));
+		assertThat(ForkProtocol.readObject(in)).isEqualTo(testIdentifier);
+	}
+
+	private DataInputStream in() throws IOException {
+		out.flush();
+		return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	@SuppressWarnings("serial")
+	private static class NonSerializableException extends RuntimeException {
+
+		private final Object state = new Object();
+
+		NonSerializableException() {
+			super("not serializable");
+		}
+
+	}
+
+}
@@ -336,6 +336,37 @@ class XmlReportsWritingListenerTests {
 		//@formatter:on
 	}
 
+	@Test
+	void writesDynamicTestsThatHaveBeenRemovedFromTestPlan(@Root Path tempDirectory) throws Exception {
+		EngineDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("engine"), "Engine");
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+
+		StringWriter out = new StringWriter();
+		XmlReportsWritingListener listener = new XmlReportsWritingListener(tempDirectory, new PrintWriter(out));
+
+		listener.testPlanExecutionStarted(testPlan);
+		TestDescriptorStub dynamicTest = new TestDescriptorStub(
+			UniqueId.forEngine("engine").append("dynamic-test", "#1"), "dynamicTest");
+		engineDescriptor.addChild(dynamicTest);
+		TestIdentifier testIdentifier = TestIdentifier.from(dynamicTest);
+		testPlan.add(testIdentifier);
+		listener.dynamicTestRegistered(testIdentifier);
+		listener.executionStarted(testIdentifier);
+		listener.executionFinished(testIdentifier, successful());
+		testPlan.remove(testIdentifier.getUniqueId());
+		listener.executionFinished(TestIdentifier.from(engineDescriptor), successful());
+
+		String content = readValidXmlFile(tempDirectory.resolve("TEST-engine.xml"));
+
+		//@formatter:off
+		assertThat(content)
+			.containsSequence(
+				"<testsuite name=\"Engine\" tests=\"1\" skipped=\"0\" failures=\"0\" errors=\"0\"",
+				"<testcase name=\"dynamicTest\" classname=\"Engine\"",
+				"</testsuite>");
+		//@formatter:on
+	}
+
 	@Test
 	void printsExceptionWhenReportsDirCannotBeCreated(@Root Path tempDirectory) throws Exception {
 		Path reportsDir = tempDirectory.resolve("dummy.txt");
@@ -10,10 +10,18 @@
 
 package org.junit.platform.engine;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.util.PreconditionViolationException;
 import org.junit.platform.engine.test.TestDescriptorStub;
 
 /**
@@ -35,4 +43,28 @@ public class TestDescriptorTests {
 
 		assertFalse(child.isRoot());
 	}
+
+	@Test
+	public void orderChildrenReordersChildren() {
+		TestDescriptor root = new TestDescriptorStub(UniqueId.root("root", "root"), "root");
+		TestDescriptor first = new TestDescriptorStub(UniqueId.root("child", "first"), "first");
+		TestDescriptor second = new TestDescriptorStub(UniqueId.root("child", "second"), "second");
+		root.addChild(first);
+		root.addChild(second);
+
+		root.orderChildren(children -> Arrays.asList(second, first));
+
+		assertEquals(Arrays.asList(second, first), new ArrayList<>(root.getChildren()));
+		assertSame(root, first.getParent().orElse(null));
+		assertSame(root, second.getParent().orElse(null));
+	}
+
+	@Test
+	public void orderChildrenRejectsRemovedChildren() {
+		TestDescriptor root = new TestDescriptorStub(UniqueId.root("root", "root"), "root");
+		root.addChild(new TestDescriptorStub(UniqueId.root("child", "first"), "first"));
+
+		assertThrows(PreconditionViolationException.class,
+			() -> root.orderChildren(children -> Collections.emptyList()));
+	}
 }
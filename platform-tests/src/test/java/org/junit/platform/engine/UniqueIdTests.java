@@ -11,6 +11,7 @@
 package org.junit.platform.engine;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.util.Optional;
 
@@ -113,6 +114,15 @@ class UniqueIdTests {
 			UniqueId parsedDirectly = UniqueId.parse("[engine:junit-jupiter]/[class:MyClass]/[method:myMethod]");
 			assertEquals("[engine:junit-jupiter]/[class:MyClass]/[method:myMethod]", parsedDirectly.toString());
 		}
+
+		@Test
+		void formatsStringRepresentationOnlyOnce() {
+			UniqueId uniqueId = UniqueId.forEngine(ENGINE_ID).append("class", "MyClass");
+
+			assertSame(uniqueId.toString(), uniqueId.toString());
+			assertEquals("[engine:junit-jupiter]/[class:MyClass]/[method:myMethod]",
+				uniqueId.append("method", "myMethod").toString());
+		}
 	}
 
 	@Nested
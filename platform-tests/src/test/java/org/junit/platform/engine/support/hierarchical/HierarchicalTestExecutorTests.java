@@ -25,14 +25,28 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.reporting.ExecutionTimings;
+import org.junit.platform.engine.reporting.ExecutionTimings.Phase;
 import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode;
 import org.junit.platform.engine.support.hierarchical.Node.DynamicTestExecutor;
+import org.junit.platform.engine.support.hierarchical.Node.ExecutionMode;
+import org.junit.platform.engine.test.event.ExecutionEventRecorder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.opentest4j.TestAbortedException;
@@ -364,6 +378,72 @@ public class HierarchicalTestExecutorTests {
 			TestExecutionResult.Status.SUCCESSFUL, TestExecutionResult.Status.SUCCESSFUL);
 	}
 
+	@Test
+	public void executesDeeplyNestedTreeWithSmallStack() throws Exception {
+		int depth = 10_000;
+		MyContainer parent = root;
+		for (int i = 0; i < depth; i++) {
+			MyContainer child = new MyContainer(UniqueId.root("container", "level " + i));
+			parent.addChild(child);
+			parent = child;
+		}
+		parent.addChild(new MyLeaf(UniqueId.root("leaf", "bottom")));
+
+		ExecutionEventRecorder eventRecorder = new ExecutionEventRecorder();
+		executor = new MyExecutor(new ExecutionRequest(root, eventRecorder, null), rootContext);
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread thread = new Thread(null, () -> {
+			try {
+				executor.execute();
+			}
+			catch (Throwable t) {
+				failure.set(t);
+			}
+		}, "small-stack", 128 * 1024);
+		thread.start();
+		thread.join();
+
+		assertThat(failure.get()).isNull();
+		assertThat(eventRecorder.getTestSuccessfulCount()).isEqualTo(1);
+		assertThat(eventRecorder.getContainerFinishedCount()).isEqualTo(depth + 1);
+	}
+
+	@Test
+	public void reportsTimingsOfAllPhasesBeforeFinishing() throws Exception {
+		MyLeaf child = spy(new MyLeaf(UniqueId.root("leaf", "child leaf")));
+		root.addChild(child);
+
+		InOrder inOrder = inOrder(listener);
+
+		executor.execute();
+
+		ArgumentCaptor<ExecutionTimings> timings = ArgumentCaptor.forClass(ExecutionTimings.class);
+		inOrder.verify(listener).executionStarted(child);
+		inOrder.verify(listener).executionTimingsRecorded(eq(child), timings.capture());
+		inOrder.verify(listener).executionFinished(eq(child), any(TestExecutionResult.class));
+
+		assertThat(timings.getValue().getDurations()).containsOnlyKeys(Phase.values());
+		assertThat(timings.getValue().getTotalDuration().isNegative()).isFalse();
+	}
+
+	@Test
+	public void reportsTimingsOfExecutedPhasesBeforeSkipping() throws Exception {
+		MyLeaf child = spy(new MyLeaf(UniqueId.root("leaf", "child leaf")));
+		when(child.shouldBeSkipped(rootContext)).thenReturn(Node.SkipResult.skip("in test"));
+		root.addChild(child);
+
+		InOrder inOrder = inOrder(listener);
+
+		executor.execute();
+
+		ArgumentCaptor<ExecutionTimings> timings = ArgumentCaptor.forClass(ExecutionTimings.class);
+		inOrder.verify(listener).executionTimingsRecorded(eq(child), timings.capture());
+		inOrder.verify(listener).executionSkipped(child, "in test");
+
+		assertThat(timings.getValue().getDurations()).containsOnlyKeys(Phase.PREPARE, Phase.SHOULD_BE_SKIPPED);
+	}
+
 	/**
 	 * Verifies support for blacklisted exceptions.
 	 */
@@ -392,6 +472,93 @@ public class HierarchicalTestExecutorTests {
 		assertSame(outOfMemoryError, actualException);
 	}
 
+	@Test
+	public void executesConcurrentChildrenInParallelIfEnabled() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		root.addChild(new MyConcurrentLeaf(UniqueId.root("leaf", "leaf 1"), latch));
+		root.addChild(new MyConcurrentLeaf(UniqueId.root("leaf", "leaf 2"), latch));
+
+		ExecutionEventRecorder eventRecorder = new ExecutionEventRecorder();
+		executor = new MyExecutor(new ExecutionRequest(root, eventRecorder, null), rootContext,
+			new ParallelExecutionConfiguration(true, 2));
+
+		executor.execute();
+
+		assertThat(eventRecorder.getTestSuccessfulCount()).isEqualTo(2);
+		assertThat(eventRecorder.getContainerFinishedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void executesNodesInForkJoinPoolOfCallerIfAvailable() throws Exception {
+		MyLeaf child = spy(new MyLeaf(UniqueId.root("leaf", "leaf")));
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		when(child.execute(eq(rootContext), any())).thenAnswer(invocation -> {
+			thread.set(Thread.currentThread());
+			return invocation.getArgument(0);
+		});
+		root.addChild(child);
+
+		ExecutionEventRecorder eventRecorder = new ExecutionEventRecorder();
+		executor = new MyExecutor(new ExecutionRequest(root, eventRecorder, null), rootContext,
+			new ParallelExecutionConfiguration(true, 4));
+
+		ForkJoinPool callerPool = new ForkJoinPool(2);
+		try {
+			callerPool.submit(() -> executor.execute()).get();
+		}
+		finally {
+			callerPool.shutdownNow();
+		}
+
+		assertThat(eventRecorder.getTestSuccessfulCount()).isEqualTo(1);
+		assertThat(thread.get()).isInstanceOf(ForkJoinWorkerThread.class);
+		assertThat(((ForkJoinWorkerThread) thread.get()).getPool()).isSameAs(callerPool);
+	}
+
+	@Test
+	public void executesSameThreadChildrenInThreadOfParent() throws Exception {
+		MyLeaf child = spy(new MyLeaf(UniqueId.root("leaf", "same thread leaf")));
+		when(child.getExecutionMode()).thenReturn(ExecutionMode.SAME_THREAD);
+		Thread[] threads = new Thread[2];
+		when(root.before(rootContext)).thenAnswer(invocation -> {
+			threads[0] = Thread.currentThread();
+			return invocation.getArgument(0);
+		});
+		when(child.execute(eq(rootContext), any())).thenAnswer(invocation -> {
+			threads[1] = Thread.currentThread();
+			return invocation.getArgument(0);
+		});
+		root.addChild(child);
+
+		ExecutionEventRecorder eventRecorder = new ExecutionEventRecorder();
+		executor = new MyExecutor(new ExecutionRequest(root, eventRecorder, null), rootContext,
+			new ParallelExecutionConfiguration(true, 4));
+
+		executor.execute();
+
+		assertThat(eventRecorder.getTestSuccessfulCount()).isEqualTo(1);
+		assertThat(threads[1]).isSameAs(threads[0]);
+	}
+
+	@Test
+	public void doesNotExecuteLeavesWithConflictingResourcesConcurrently() throws Exception {
+		AtomicInteger concurrentExecutions = new AtomicInteger();
+		AtomicInteger maxConcurrentExecutions = new AtomicInteger();
+		for (int i = 0; i < 4; i++) {
+			root.addChild(new MyLockingLeaf(UniqueId.root("leaf", "leaf " + i), concurrentExecutions,
+				maxConcurrentExecutions));
+		}
+
+		ExecutionEventRecorder eventRecorder = new ExecutionEventRecorder();
+		executor = new MyExecutor(new ExecutionRequest(root, eventRecorder, null), rootContext,
+			new ParallelExecutionConfiguration(true, 4));
+
+		executor.execute();
+
+		assertThat(eventRecorder.getTestSuccessfulCount()).isEqualTo(4);
+		assertThat(maxConcurrentExecutions.get()).isEqualTo(1);
+	}
+
 	// -------------------------------------------------------------------
 
 	private static class MyEngineExecutionContext implements EngineExecutionContext {
@@ -438,11 +605,62 @@ public class HierarchicalTestExecutorTests {
 		}
 	}
 
+	private static class MyConcurrentLeaf extends MyLeaf {
+
+		private final CountDownLatch latch;
+
+		MyConcurrentLeaf(UniqueId uniqueId, CountDownLatch latch) {
+			super(uniqueId);
+			this.latch = latch;
+		}
+
+		@Override
+		public MyEngineExecutionContext execute(MyEngineExecutionContext context,
+				DynamicTestExecutor dynamicTestExecutor) throws Exception {
+			// only succeeds if all leaves sharing the latch are executed at the same time
+			latch.countDown();
+			assertTrue(latch.await(5, TimeUnit.SECONDS), "leaves were not executed concurrently");
+			return context;
+		}
+	}
+
+	private static class MyLockingLeaf extends MyLeaf {
+
+		private final AtomicInteger concurrentExecutions;
+		private final AtomicInteger maxConcurrentExecutions;
+
+		MyLockingLeaf(UniqueId uniqueId, AtomicInteger concurrentExecutions, AtomicInteger maxConcurrentExecutions) {
+			super(uniqueId);
+			this.concurrentExecutions = concurrentExecutions;
+			this.maxConcurrentExecutions = maxConcurrentExecutions;
+		}
+
+		@Override
+		public Set<ExclusiveResource> getExclusiveResources() {
+			return Collections.singleton(new ExclusiveResource("shared", LockMode.READ_WRITE));
+		}
+
+		@Override
+		public MyEngineExecutionContext execute(MyEngineExecutionContext context,
+				DynamicTestExecutor dynamicTestExecutor) throws Exception {
+			int current = concurrentExecutions.incrementAndGet();
+			maxConcurrentExecutions.accumulateAndGet(current, Math::max);
+			Thread.sleep(10);
+			concurrentExecutions.decrementAndGet();
+			return context;
+		}
+	}
+
 	private static class MyExecutor extends HierarchicalTestExecutor<MyEngineExecutionContext> {
 
 		MyExecutor(ExecutionRequest request, MyEngineExecutionContext rootContext) {
 			super(request, rootContext);
 		}
+
+		MyExecutor(ExecutionRequest request, MyEngineExecutionContext rootContext,
+				ParallelExecutionConfiguration configuration) {
+			super(request, rootContext, configuration);
+		}
 	}
 
 }
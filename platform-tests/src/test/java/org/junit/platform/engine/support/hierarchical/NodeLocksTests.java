@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode;
+
+/**
+ * Unit tests for {@link NodeLocks}.
+ *
+ * @since 1.0
+ */
+public class NodeLocksTests {
+
+	private final MyNode root = new MyNode("root");
+
+	@Test
+	public void noLocksWithoutExclusiveResources() {
+		MyNode child = new MyNode("child");
+		root.addChild(child);
+
+		NodeLocks nodeLocks = new NodeLocks(root);
+
+		assertThat(nodeLocks.getLocks(root)).isEmpty();
+		assertThat(nodeLocks.getLocks(child)).isEmpty();
+		assertThat(nodeLocks.isExecutedInSameThread(child)).isFalse();
+	}
+
+	@Test
+	public void topmostNodeWithResourcesAcquiresLocksOfEntireSubtreeInKeyOrder() {
+		MyNode container = new MyNode("container", new ExclusiveResource("b", LockMode.READ));
+		MyNode leaf = new MyNode("leaf", new ExclusiveResource("a", LockMode.READ),
+			new ExclusiveResource("b", LockMode.READ_WRITE));
+		MyNode unrelated = new MyNode("unrelated");
+		root.addChild(container);
+		root.addChild(unrelated);
+		container.addChild(leaf);
+
+		NodeLocks nodeLocks = new NodeLocks(root);
+
+		assertThat(nodeLocks.getLocks(root)).isEmpty();
+		assertThat(nodeLocks.getLocks(unrelated)).isEmpty();
+		assertThat(nodeLocks.getLocks(leaf)).isEmpty();
+		assertThat(nodeLocks.getLocks(container)).hasSize(2);
+		assertThat(nodeLocks.getLocks(container).get(0)).isInstanceOf(ReentrantReadWriteLock.ReadLock.class);
+		assertThat(nodeLocks.getLocks(container).get(1)).isInstanceOf(ReentrantReadWriteLock.WriteLock.class);
+
+		assertThat(nodeLocks.isExecutedInSameThread(container)).isFalse();
+		assertThat(nodeLocks.isExecutedInSameThread(leaf)).isTrue();
+		assertThat(nodeLocks.isExecutedInSameThread(unrelated)).isFalse();
+	}
+
+	@Test
+	public void nodesWithSameResourceShareLock() {
+		MyNode first = new MyNode("first", new ExclusiveResource("a", LockMode.READ_WRITE));
+		MyNode second = new MyNode("second", new ExclusiveResource("a", LockMode.READ_WRITE));
+		root.addChild(first);
+		root.addChild(second);
+
+		NodeLocks nodeLocks = new NodeLocks(root);
+
+		assertThat(nodeLocks.getLocks(first)).containsExactlyElementsOf(nodeLocks.getLocks(second));
+	}
+
+	private static class MyNode extends AbstractTestDescriptor implements Node<EngineExecutionContext> {
+
+		private final Set<ExclusiveResource> exclusiveResources;
+
+		MyNode(String name, ExclusiveResource... exclusiveResources) {
+			super(UniqueId.root("node", name), name);
+			this.exclusiveResources = new LinkedHashSet<>(Arrays.asList(exclusiveResources));
+		}
+
+		@Override
+		public Type getType() {
+			return Type.CONTAINER_AND_TEST;
+		}
+
+		@Override
+		public Set<ExclusiveResource> getExclusiveResources() {
+			return this.exclusiveResources;
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine.PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * Unit tests for {@link ParallelExecutionConfiguration}.
+ *
+ * @since 1.0
+ */
+public class ParallelExecutionConfigurationTests {
+
+	private final ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+
+	@Test
+	public void sequentialByDefault() {
+		when(configParams.getBoolean(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME)).thenReturn(Optional.empty());
+
+		assertSame(ParallelExecutionConfiguration.SEQUENTIAL, ParallelExecutionConfiguration.from(configParams));
+		assertSame(ParallelExecutionConfiguration.SEQUENTIAL, ParallelExecutionConfiguration.from(null));
+	}
+
+	@Test
+	public void defaultParallelismIsNumberOfAvailableProcessors() {
+		when(configParams.getBoolean(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME)).thenReturn(Optional.of(true));
+		when(configParams.get(PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME)).thenReturn(Optional.empty());
+
+		ParallelExecutionConfiguration configuration = ParallelExecutionConfiguration.from(configParams);
+
+		assertTrue(configuration.isEnabled());
+		assertEquals(Runtime.getRuntime().availableProcessors(), configuration.getParallelism());
+	}
+
+	@Test
+	public void customParallelism() {
+		when(configParams.getBoolean(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME)).thenReturn(Optional.of(true));
+		when(configParams.get(PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME)).thenReturn(Optional.of(" 3 "));
+
+		ParallelExecutionConfiguration configuration = ParallelExecutionConfiguration.from(configParams);
+
+		assertTrue(configuration.isEnabled());
+		assertEquals(3, configuration.getParallelism());
+	}
+
+	@Test
+	public void invalidParallelism() {
+		when(configParams.getBoolean(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME)).thenReturn(Optional.of(true));
+
+		when(configParams.get(PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME)).thenReturn(Optional.of("many"));
+		assertThrows(JUnitException.class, () -> ParallelExecutionConfiguration.from(configParams));
+
+		when(configParams.get(PARALLEL_EXECUTION_PARALLELISM_PROPERTY_NAME)).thenReturn(Optional.of("0"));
+		assertThrows(JUnitException.class, () -> ParallelExecutionConfiguration.from(configParams));
+	}
+
+	@Test
+	public void disabledIgnoresParallelism() {
+		when(configParams.getBoolean(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME)).thenReturn(Optional.of(false));
+
+		assertFalse(ParallelExecutionConfiguration.from(configParams).isEnabled());
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.test.TestDescriptorStub;
+
+/**
+ * Unit tests for {@link TestPlan}.
+ *
+ * @since 1.0
+ */
+class TestPlanTests {
+
+	private final TestDescriptor engine = new TestDescriptorStub(UniqueId.forEngine("engine"), "engine");
+
+	@Test
+	void returnsChildrenFollowedByTheirDescendants() {
+		TestDescriptor container1 = addChild(engine, "container1");
+		TestDescriptor container2 = addChild(engine, "container2");
+		TestDescriptor test1 = addChild(container1, "test1");
+		TestDescriptor nested = addChild(container1, "nested");
+		TestDescriptor test2 = addChild(nested, "test2");
+		TestDescriptor test3 = addChild(container2, "test3");
+
+		TestPlan testPlan = TestPlan.from(singletonList(engine));
+
+		assertThat(uniqueIdsOfDescendants(testPlan, engine)).containsExactly(uniqueId(container1),
+			uniqueId(container2), uniqueId(test1), uniqueId(nested), uniqueId(test2), uniqueId(test3));
+		assertThat(uniqueIdsOfDescendants(testPlan, container1)).containsExactly(uniqueId(test1), uniqueId(nested),
+			uniqueId(test2));
+		assertThat(uniqueIdsOfDescendants(testPlan, test3)).isEmpty();
+	}
+
+	@Test
+	void returnsDescendantsAddedAfterDescendantsHaveBeenQueried() {
+		TestDescriptor container = addChild(engine, "container");
+		TestPlan testPlan = TestPlan.from(singletonList(engine));
+		assertThat(uniqueIdsOfDescendants(testPlan, engine)).containsExactly(uniqueId(container));
+
+		TestDescriptor dynamicTest = addChild(container, "dynamicTest");
+		testPlan.add(TestIdentifier.from(dynamicTest));
+
+		assertThat(uniqueIdsOfDescendants(testPlan, engine)).containsExactly(uniqueId(container),
+			uniqueId(dynamicTest));
+		assertThat(testPlan.getChildren(uniqueId(container))).extracting(TestIdentifier::getUniqueId).containsExactly(
+			uniqueId(dynamicTest));
+	}
+
+	@Test
+	void attachesChildrenAddedBeforeTheirParent() {
+		TestDescriptor container = addChild(engine, "container");
+		TestDescriptor test = addChild(container, "test");
+		TestPlan testPlan = TestPlan.from(new ArrayList<>());
+
+		testPlan.add(TestIdentifier.from(test));
+		assertThat(testPlan.getChildren(uniqueId(container))).hasSize(1);
+
+		testPlan.add(TestIdentifier.from(engine));
+		testPlan.add(TestIdentifier.from(container));
+
+		assertThat(testPlan.getRoots()).extracting(TestIdentifier::getUniqueId).containsExactly(uniqueId(engine));
+		assertThat(uniqueIdsOfDescendants(testPlan, engine)).containsExactly(uniqueId(container), uniqueId(test));
+		assertThat(testPlan.getParent(testPlan.getTestIdentifier(uniqueId(test))).map(
+			TestIdentifier::getUniqueId)).contains(uniqueId(container));
+	}
+
+	@Test
+	void sharesUniqueIdOfParentWithChildren() {
+		TestDescriptor test = addChild(engine, "test");
+
+		TestPlan testPlan = TestPlan.from(singletonList(engine));
+
+		TestIdentifier parent = testPlan.getTestIdentifier(uniqueId(engine));
+		TestIdentifier child = testPlan.getTestIdentifier(uniqueId(test));
+		assertThat(child.getParentId().get()).isSameAs(parent.getUniqueId());
+	}
+
+	@Test
+	void countsTestIdentifiers() {
+		addChild(addChild(engine, "container"), "test");
+
+		TestPlan testPlan = TestPlan.from(singletonList(engine));
+
+		assertThat(testPlan.countTestIdentifiers(TestIdentifier::isTest)).isEqualTo(1);
+		assertThat(testPlan.countTestIdentifiers(TestIdentifier::isContainer)).isEqualTo(2);
+	}
+
+	@Test
+	void removesTestIdentifiersAndReusesTheirIndices() {
+		TestDescriptor container = addChild(engine, "container");
+		TestDescriptor test1 = addChild(container, "test1");
+		TestDescriptor test2 = addChild(container, "test2");
+		TestPlan testPlan = TestPlan.from(singletonList(engine));
+		assertThat(uniqueIdsOfDescendants(testPlan, engine)).hasSize(3);
+
+		testPlan.remove(uniqueId(test1));
+		TestDescriptor test3 = addChild(container, "test3");
+		testPlan.add(TestIdentifier.from(test3));
+		testPlan.remove(uniqueId(test2));
+
+		assertThat(uniqueIdsOfDescendants(testPlan, engine)).containsExactly(uniqueId(container), uniqueId(test3));
+		assertThat(testPlan.getTestIdentifier(uniqueId(test3)).getParentId()).contains(uniqueId(container));
+		assertThat(testPlan.countTestIdentifiers(TestIdentifier::isTest)).isEqualTo(1);
+		assertThrows(PreconditionViolationException.class, () -> testPlan.getTestIdentifier(uniqueId(test1)));
+	}
+
+	@Test
+	void removesContainersOnlyOnceTheirChildrenHaveBeenRemoved() {
+		TestDescriptor container = addChild(engine, "container");
+		TestDescriptor test = addChild(container, "test");
+		TestPlan testPlan = TestPlan.from(singletonList(engine));
+
+		assertThrows(PreconditionViolationException.class, () -> testPlan.remove(uniqueId(container)));
+
+		testPlan.remove(uniqueId(test));
+		testPlan.remove(uniqueId(container));
+
+		assertThat(testPlan.getChildren(uniqueId(engine))).isEmpty();
+		assertThat(testPlan.countTestIdentifiers(identifier -> true)).isEqualTo(1);
+	}
+
+	private static TestDescriptor addChild(TestDescriptor parent, String name) {
+		TestDescriptor child = new TestDescriptorStub(parent.getUniqueId().append("child", name), name);
+		parent.addChild(child);
+		return child;
+	}
+
+	private static String uniqueId(TestDescriptor descriptor) {
+		return descriptor.getUniqueId().toString();
+	}
+
+	private static List<String> uniqueIdsOfDescendants(TestPlan testPlan, TestDescriptor descriptor) {
+		List<String> uniqueIds = new ArrayList<>();
+		testPlan.getDescendants(testPlan.getTestIdentifier(uniqueId(descriptor))).forEach(
+			identifier -> uniqueIds.add(identifier.getUniqueId()));
+		return uniqueIds;
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.AsyncTestExecutionListener.BackpressurePolicy;
+
+/**
+ * Unit tests for {@link AsyncTestExecutionListener}.
+ *
+ * @since 1.0
+ */
+class AsyncTestExecutionListenerTests {
+
+	private final TestPlan testPlan = TestPlan.from(new ArrayList<>());
+
+	@Test
+	void deliversAllEventsInOrderToEachListenerBeforeFinishing() {
+		RecordingListener fastListener = new RecordingListener();
+		RecordingListener slowListener = new RecordingListener() {
+
+			@Override
+			public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+				Thread.yield();
+				super.reportingEntryPublished(testIdentifier, entry);
+			}
+		};
+		AsyncTestExecutionListener listener = AsyncTestExecutionListener.start(asList(fastListener, slowListener),
+			4, BackpressurePolicy.BLOCK);
+
+		listener.testPlanExecutionStarted(testPlan);
+		for (int i = 0; i < 100; i++) {
+			listener.reportingEntryPublished(null, ReportEntry.from("index", String.valueOf(i)));
+		}
+		listener.testPlanExecutionFinished(testPlan);
+
+		List<String> expectedEvents = new ArrayList<>();
+		expectedEvents.add("started");
+		for (int i = 0; i < 100; i++) {
+			expectedEvents.add(String.valueOf(i));
+		}
+		expectedEvents.add("finished");
+		assertThat(fastListener.events).containsExactlyElementsOf(expectedEvents);
+		assertThat(slowListener.events).containsExactlyElementsOf(expectedEvents);
+	}
+
+	@Test
+	void discardsOptionalEventsIfBufferIsFullAndPolicyAllowsIt() throws Exception {
+		CountDownLatch blocked = new CountDownLatch(1);
+		RecordingListener blockingListener = new RecordingListener() {
+
+			@Override
+			public void testPlanExecutionStarted(TestPlan testPlan) {
+				try {
+					blocked.await();
+				}
+				catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+				super.testPlanExecutionStarted(testPlan);
+			}
+		};
+		AsyncTestExecutionListener listener = AsyncTestExecutionListener.start(singletonList(blockingListener), 2,
+			BackpressurePolicy.DISCARD_OPTIONAL);
+
+		listener.testPlanExecutionStarted(testPlan);
+		for (int i = 0; i < 10; i++) {
+			listener.reportingEntryPublished(null, ReportEntry.from("index", String.valueOf(i)));
+		}
+		blocked.countDown();
+		listener.testPlanExecutionFinished(testPlan);
+
+		assertThat(blockingListener.events).startsWith("started").endsWith("finished");
+		assertThat(blockingListener.events.size()).isLessThan(12);
+	}
+
+	@Test
+	void rethrowsExceptionsThrownByListenersWhenFinishing() {
+		RecordingListener recordingListener = new RecordingListener();
+		TestExecutionListener failingListener = new TestExecutionListener() {
+
+			@Override
+			public void testPlanExecutionStarted(TestPlan testPlan) {
+				throw new IllegalStateException("boom");
+			}
+		};
+		AsyncTestExecutionListener listener = AsyncTestExecutionListener.start(
+			asList(failingListener, recordingListener), 1, BackpressurePolicy.BLOCK);
+
+		listener.testPlanExecutionStarted(testPlan);
+		IllegalStateException exception = assertThrows(IllegalStateException.class,
+			() -> listener.testPlanExecutionFinished(testPlan));
+
+		assertThat(exception).hasMessage("boom");
+		assertThat(recordingListener.events).containsExactly("started", "finished");
+	}
+
+	@Test
+	void namesBackgroundThreadsAfterPositionAndClassOfListeners() {
+		List<String> threadNames = new ArrayList<>();
+		TestExecutionListener anonymousListener = new TestExecutionListener() {
+
+			@Override
+			public void testPlanExecutionStarted(TestPlan testPlan) {
+				threadNames.add(Thread.currentThread().getName());
+			}
+		};
+		AsyncTestExecutionListener listener = AsyncTestExecutionListener.start(
+			asList(new RecordingListener(), anonymousListener), 1, BackpressurePolicy.BLOCK);
+
+		listener.testPlanExecutionStarted(testPlan);
+		listener.testPlanExecutionFinished(testPlan);
+
+		assertThat(threadNames).containsExactly("junit-listener-2-" + anonymousListener.getClass().getName());
+	}
+
+	private static class RecordingListener implements TestExecutionListener {
+
+		final List<String> events = new ArrayList<>();
+
+		@Override
+		public void testPlanExecutionStarted(TestPlan testPlan) {
+			events.add("started");
+		}
+
+		@Override
+		public void testPlanExecutionFinished(TestPlan testPlan) {
+			events.add("finished");
+		}
+
+		@Override
+		public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+			events.add(entry.getKeyValuePairs().get("index"));
+		}
+	}
+
+}
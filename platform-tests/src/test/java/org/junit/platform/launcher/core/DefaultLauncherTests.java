@@ -10,6 +10,8 @@
 
 package org.junit.platform.launcher.core;
 
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -18,18 +20,37 @@ import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPacka
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
 import static org.junit.platform.launcher.EngineFilter.excludeEngines;
 import static org.junit.platform.launcher.EngineFilter.includeEngines;
+import static org.junit.platform.launcher.LauncherConstants.ASYNC_LISTENERS_CAPACITY_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.ASYNC_LISTENERS_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.DISCOVERY_PARALLELISM_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.DISCOVERY_PROFILE_FILE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.ENGINES_PARALLELISM_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.PARALLEL_ENGINES_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.STREAMING_EXECUTION_ENABLED_PROPERTY_NAME;
 import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
 import static org.junit.platform.launcher.core.LauncherFactoryForTestingPurposesOnly.createLauncher;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
 import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.util.PreconditionViolationException;
 import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.EngineDiscoveryRequest;
+import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.FilterResult;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestEngine;
+import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestDescriptor;
 import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestEngine;
@@ -160,6 +181,55 @@ class DefaultLauncherTests {
 		assertThat(testPlan.getChildren(UniqueId.forEngine("engine2").toString())).hasSize(1);
 	}
 
+	@Test
+	void discoverTestPlanForMultipleEnginesConcurrentlyIfEnabled() {
+		CountDownLatch latch = new CountDownLatch(2);
+		DefaultLauncher launcher = createLauncher(new LatchedTestEngine("engine1", latch, null),
+			new LatchedTestEngine("engine2", latch, null));
+
+		// @formatter:off
+		TestPlan testPlan = launcher.discover(request()
+				.configurationParameter(PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME, "true")
+				.configurationParameter(DISCOVERY_PARALLELISM_PROPERTY_NAME, "2")
+				.build());
+		// @formatter:on
+
+		assertThat(testPlan.getRoots()).extracting(TestIdentifier::getUniqueId).containsExactly("[engine:engine1]",
+			"[engine:engine2]");
+	}
+
+	@Test
+	void rethrowsExceptionThrownDuringConcurrentDiscovery() {
+		TestEngine engine = new TestEngineStub() {
+
+			@Override
+			public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+				throw new IllegalStateException("boom");
+			}
+		};
+		DefaultLauncher launcher = createLauncher(new TestEngineStub("engine1"), engine);
+
+		IllegalStateException exception = assertThrows(IllegalStateException.class,
+			() -> launcher.discover(request().configurationParameter(PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME,
+				"true").build()));
+
+		assertThat(exception).hasMessage("boom");
+	}
+
+	@Test
+	@ExtendWith(TempDirectory.class)
+	void writesDiscoveryProfileIfConfigured(@TempDirectory.Root Path tempDir) throws Exception {
+		Path profileFile = tempDir.resolve("profile.tsv");
+		DefaultLauncher launcher = createLauncher(new DemoHierarchicalTestEngine("engine1"),
+			new DemoHierarchicalTestEngine("engine2"));
+
+		launcher.discover(
+			request().configurationParameter(DISCOVERY_PROFILE_FILE_PROPERTY_NAME, profileFile.toString()).build());
+
+		List<String> lines = Files.readAllLines(profileFile);
+		assertThat(lines).hasSize(2).allMatch(line -> line.matches("ENGINE\t1\t\\d+\tengine[12]"));
+	}
+
 	@Test
 	void launcherWillNotExecuteEnginesIfNotIncludedByAnEngineFilter() {
 		DemoHierarchicalTestEngine firstEngine = new DemoHierarchicalTestEngine("first");
@@ -353,4 +423,197 @@ class DefaultLauncherTests {
 		assertThat(listener.getSummary().getContainersFoundCount()).isEqualTo(1);
 		assertThat(listener.getSummary().getTestsFoundCount()).isEqualTo(1);
 	}
+
+	@Test
+	void executesDiscoveredTestPlanWithoutRediscoveringTests() {
+		TestEngineSpy engine = new TestEngineSpy();
+		AtomicReference<TestPlan> executedTestPlan = new AtomicReference<>();
+		TestExecutionListener listener = new TestExecutionListener() {
+
+			@Override
+			public void testPlanExecutionStarted(TestPlan testPlan) {
+				executedTestPlan.set(testPlan);
+			}
+		};
+
+		DefaultLauncher launcher = createLauncher(engine);
+		TestPlan testPlan = launcher.discover(request().configurationParameter("key", "value").build());
+		engine.discoveryRequestForDiscovery = null;
+
+		launcher.execute(testPlan, listener);
+
+		assertThat(engine.discoveryRequestForDiscovery).isNull();
+		assertThat(executedTestPlan.get()).isSameAs(testPlan);
+		assertThat(engine.requestForExecution.getRootTestDescriptor().getUniqueId()).isEqualTo(
+			engine.uniqueIdForDiscovery);
+		assertThat(engine.requestForExecution.getConfigurationParameters().get("key")).contains("value");
+	}
+
+	@Test
+	void executingDiscoveredTestPlanTwiceIsRejected() {
+		DefaultLauncher launcher = createLauncher(new TestEngineSpy());
+		TestPlan testPlan = launcher.discover(request().build());
+		launcher.execute(testPlan);
+
+		PreconditionViolationException exception = assertThrows(PreconditionViolationException.class,
+			() -> launcher.execute(testPlan));
+
+		assertThat(exception).hasMessageContaining("TestPlan must only be executed once");
+	}
+
+	@Test
+	void executingTestPlanNotDiscoveredByLauncherIsRejected() {
+		DefaultLauncher launcher = createLauncher(new TestEngineSpy());
+
+		PreconditionViolationException exception = assertThrows(PreconditionViolationException.class,
+			() -> launcher.execute(TestPlan.from(emptySet())));
+
+		assertThat(exception).hasMessageContaining("TestPlan must have been discovered by this Launcher");
+	}
+
+	@Test
+	void executingTestPlanDiscoveredByOtherLauncherIsRejected() {
+		DefaultLauncher launcher = createLauncher(new TestEngineSpy());
+		TestPlan testPlan = createLauncher(new TestEngineSpy()).discover(request().build());
+
+		PreconditionViolationException exception = assertThrows(PreconditionViolationException.class,
+			() -> launcher.execute(testPlan));
+
+		assertThat(exception).hasMessageContaining("TestPlan must have been discovered by this Launcher");
+	}
+
+	@Test
+	void notifiesListenersAsynchronouslyIfEnabled() {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("myEngine");
+		engine.addTest("test1", noOp);
+		engine.addTest("test2", noOp);
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+		Thread testThread = Thread.currentThread();
+		AtomicReference<Thread> listenerThread = new AtomicReference<>();
+		TestExecutionListener threadRecordingListener = new TestExecutionListener() {
+
+			@Override
+			public void executionStarted(TestIdentifier testIdentifier) {
+				listenerThread.set(Thread.currentThread());
+			}
+		};
+
+		DefaultLauncher launcher = createLauncher(engine);
+		// @formatter:off
+		launcher.execute(request()
+				.configurationParameter(ASYNC_LISTENERS_ENABLED_PROPERTY_NAME, "true")
+				.configurationParameter(ASYNC_LISTENERS_CAPACITY_PROPERTY_NAME, "2")
+				.build(), listener, threadRecordingListener);
+		// @formatter:on
+
+		assertThat(listener.getSummary().getTestsSucceededCount()).isEqualTo(2);
+		assertThat(listenerThread.get()).isNotNull().isNotSameAs(testThread);
+	}
+
+	@Test
+	void pipelinedDiscoveryWithParallelDiscoveryIsRejected() {
+		DefaultLauncher launcher = createLauncher(new DemoHierarchicalTestEngine("myEngine"));
+
+		// @formatter:off
+		JUnitException exception = assertThrows(JUnitException.class, () -> launcher.execute(request()
+				.configurationParameter(PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME, "true")
+				.configurationParameter(PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME, "true")
+				.build()));
+		// @formatter:on
+
+		assertThat(exception).hasMessageContaining(
+			"Configuration parameter [" + PIPELINED_DISCOVERY_ENABLED_PROPERTY_NAME + "] cannot be combined with");
+	}
+
+	@Test
+	void streamingExecutionWithAsynchronousListenersIsRejected() {
+		DefaultLauncher launcher = createLauncher(new DemoHierarchicalTestEngine("myEngine"));
+
+		// @formatter:off
+		JUnitException exception = assertThrows(JUnitException.class, () -> launcher.execute(request()
+				.configurationParameter(ASYNC_LISTENERS_ENABLED_PROPERTY_NAME, "true")
+				.configurationParameter(STREAMING_EXECUTION_ENABLED_PROPERTY_NAME, "true")
+				.build()));
+		// @formatter:on
+
+		assertThat(exception).hasMessage("Configuration parameter [" + STREAMING_EXECUTION_ENABLED_PROPERTY_NAME
+				+ "] cannot be combined with [" + ASYNC_LISTENERS_ENABLED_PROPERTY_NAME + "]");
+	}
+
+	@Test
+	void executesEnginesConcurrentlyIfEnabled() {
+		CountDownLatch latch = new CountDownLatch(2);
+		DefaultLauncher launcher = createLauncher(new LatchedTestEngine("engine1", null, latch),
+			new LatchedTestEngine("engine2", null, latch));
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		// @formatter:off
+		launcher.execute(request()
+				.configurationParameter(PARALLEL_ENGINES_ENABLED_PROPERTY_NAME, "true")
+				.configurationParameter(ENGINES_PARALLELISM_PROPERTY_NAME, "2")
+				.build(), listener);
+		// @formatter:on
+
+		assertThat(listener.getSummary().getContainersSucceededCount()).isEqualTo(2);
+	}
+
+	@Test
+	void rethrowsExceptionThrownDuringConcurrentExecution() {
+		TestEngine engine = new TestEngineStub("failing") {
+
+			@Override
+			public void execute(ExecutionRequest request) {
+				throw new IllegalStateException("boom");
+			}
+		};
+		DefaultLauncher launcher = createLauncher(new TestEngineStub("engine1"), engine);
+
+		IllegalStateException exception = assertThrows(IllegalStateException.class,
+			() -> launcher.execute(
+				request().configurationParameter(PARALLEL_ENGINES_ENABLED_PROPERTY_NAME, "true").build()));
+
+		assertThat(exception).hasMessageContaining("boom");
+	}
+
+	private static class LatchedTestEngine extends TestEngineStub {
+
+		private final CountDownLatch discoveryLatch;
+		private final CountDownLatch executionLatch;
+
+		LatchedTestEngine(String id, CountDownLatch discoveryLatch, CountDownLatch executionLatch) {
+			super(id);
+			this.discoveryLatch = discoveryLatch;
+			this.executionLatch = executionLatch;
+		}
+
+		@Override
+		public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+			awaitOthers(this.discoveryLatch);
+			return super.discover(discoveryRequest, uniqueId);
+		}
+
+		@Override
+		public void execute(ExecutionRequest request) {
+			awaitOthers(this.executionLatch);
+			request.getEngineExecutionListener().executionStarted(request.getRootTestDescriptor());
+			request.getEngineExecutionListener().executionFinished(request.getRootTestDescriptor(),
+				TestExecutionResult.successful());
+		}
+
+		private static void awaitOthers(CountDownLatch latch) {
+			if (latch == null) {
+				return;
+			}
+			latch.countDown();
+			try {
+				if (!latch.await(10, SECONDS)) {
+					throw new IllegalStateException("Engines were not invoked concurrently");
+				}
+			}
+			catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathRoots;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+import static org.junit.platform.launcher.LauncherConstants.DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+import static org.junit.platform.launcher.core.LauncherFactoryForTestingPurposesOnly.createLauncher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.EngineDiscoveryRequest;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClasspathRootSelector;
+import org.junit.platform.engine.discovery.UniqueIdSelector;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestDescriptor;
+import org.junit.platform.engine.test.TestEngineStub;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class DiscoveryCacheTests {
+
+	private final ClassFileTestEngine engine = new ClassFileTestEngine();
+	private final DefaultLauncher launcher = createLauncher(engine);
+
+	@Test
+	void resolvesCachedUniqueIdsInsteadOfScanningUnchangedClasspathRoots(@Root Path tempDir) throws Exception {
+		Path first = createClasspathRoot(tempDir.resolve("first"), "Foo", "Bar");
+		Path second = createClasspathRoot(tempDir.resolve("second"), "Baz");
+		LauncherDiscoveryRequest request = createRequest(tempDir.resolve("cache"), first, second);
+
+		List<String> uniqueIds = discoverUniqueIds(request);
+		assertThat(engine.selectors).hasSize(2).allMatch(ClasspathRootSelector.class::isInstance);
+
+		assertThat(discoverUniqueIds(request)).containsExactlyElementsOf(uniqueIds);
+		assertThat(engine.selectors).hasSize(3).allMatch(UniqueIdSelector.class::isInstance);
+	}
+
+	@Test
+	void rescansOnlyChangedClasspathRoots(@Root Path tempDir) throws Exception {
+		Path first = createClasspathRoot(tempDir.resolve("first"), "Foo");
+		Path second = createClasspathRoot(tempDir.resolve("second"), "Bar");
+		LauncherDiscoveryRequest request = createRequest(tempDir.resolve("cache"), first, second);
+		discoverUniqueIds(request);
+
+		Files.write(second.resolve("Baz.class"), new byte[0]);
+
+		assertThat(discoverUniqueIds(request)).containsExactlyInAnyOrder("[engine:cache]/[class:Foo]",
+			"[engine:cache]/[class:Bar]", "[engine:cache]/[class:Baz]");
+		assertThat(engine.selectors).hasSize(2);
+		assertThat(engine.selectors.get(0)).isInstanceOf(UniqueIdSelector.class);
+		assertThat(((ClasspathRootSelector) engine.selectors.get(1)).getClasspathRoot()).isEqualTo(second.toUri());
+
+		discoverUniqueIds(request);
+		assertThat(engine.selectors).hasSize(3).allMatch(UniqueIdSelector.class::isInstance);
+	}
+
+	@Test
+	void doesNotCacheRequestsWithOtherSelectors(@Root Path tempDir) {
+		Path cacheDirectory = tempDir.resolve("cache");
+		LauncherDiscoveryRequest request = request() //
+				.selectors(selectPackage("foo")) //
+				.configurationParameter(DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME, cacheDirectory.toString()) //
+				.build();
+
+		launcher.discover(request);
+
+		assertThat(engine.selectors).containsExactlyElementsOf(request.getSelectorsByType(DiscoverySelector.class));
+		assertThat(cacheDirectory).doesNotExist();
+	}
+
+	private List<String> discoverUniqueIds(LauncherDiscoveryRequest request) {
+		TestPlan testPlan = launcher.discover(request);
+		TestIdentifier engineIdentifier = testPlan.getRoots().iterator().next();
+		return testPlan.getChildren(engineIdentifier).stream().map(TestIdentifier::getUniqueId).collect(toList());
+	}
+
+	private static LauncherDiscoveryRequest createRequest(Path cacheDirectory, Path... classpathRoots) {
+		LinkedHashSet<Path> roots = new LinkedHashSet<>();
+		Stream.of(classpathRoots).forEach(roots::add);
+		// @formatter:off
+		return request()
+				.selectors(selectClasspathRoots(roots))
+				.configurationParameter(DISCOVERY_CACHE_DIRECTORY_PROPERTY_NAME, cacheDirectory.toString())
+				.build();
+		// @formatter:on
+	}
+
+	private static Path createClasspathRoot(Path directory, String... classNames) throws IOException {
+		Files.createDirectories(directory);
+		for (String className : classNames) {
+			Files.write(directory.resolve(className + ".class"), new byte[0]);
+		}
+		return directory;
+	}
+
+	/**
+	 * Discovers a test for each class file in the selected classpath roots and
+	 * for each selected unique ID.
+	 */
+	private static class ClassFileTestEngine extends TestEngineStub {
+
+		private final List<DiscoverySelector> selectors = new ArrayList<>();
+
+		ClassFileTestEngine() {
+			super("cache");
+		}
+
+		@Override
+		public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+			selectors.clear();
+			selectors.addAll(discoveryRequest.getSelectorsByType(DiscoverySelector.class));
+			EngineDescriptor engineDescriptor = new EngineDescriptor(uniqueId, getId());
+			for (DiscoverySelector selector : selectors) {
+				if (selector instanceof ClasspathRootSelector) {
+					listClassNames(Paths.get(((ClasspathRootSelector) selector).getClasspathRoot())).forEach(
+						className -> addClass(engineDescriptor, className));
+				}
+				else if (selector instanceof UniqueIdSelector) {
+					List<UniqueId.Segment> segments = ((UniqueIdSelector) selector).getUniqueId().getSegments();
+					addClass(engineDescriptor, segments.get(segments.size() - 1).getValue());
+				}
+			}
+			return engineDescriptor;
+		}
+
+		private static List<String> listClassNames(Path root) {
+			try (Stream<Path> files = Files.list(root)) {
+				// @formatter:off
+				return files.map(file -> file.getFileName().toString())
+						.map(fileName -> fileName.substring(0, fileName.length() - ".class".length()))
+						.sorted()
+						.collect(toList());
+				// @formatter:on
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		private static void addClass(EngineDescriptor engineDescriptor, String className) {
+			UniqueId uniqueId = engineDescriptor.getUniqueId().append("class", className);
+			engineDescriptor.addChild(
+				new DemoHierarchicalTestDescriptor(uniqueId, className, new ClassSource(className), () -> {
+				}));
+		}
+	}
+
+}
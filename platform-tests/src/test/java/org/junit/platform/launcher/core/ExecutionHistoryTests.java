@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+import static org.junit.platform.launcher.LauncherConstants.EXECUTION_HISTORY_FILE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.EXECUTION_ORDER_PROPERTY_NAME;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+import static org.junit.platform.launcher.core.LauncherFactoryForTestingPurposesOnly.createLauncher;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalContainerDescriptor;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestDescriptor;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestEngine;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class ExecutionHistoryTests {
+
+	private static final Runnable noOp = () -> {
+	};
+
+	@Test
+	void ordersFailedTestsFirstThenByAscendingDuration(@TempDirectory.Root Path tempDir) {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine();
+		TestDescriptor slow = engine.addTest("slow", noOp);
+		TestDescriptor fast = engine.addTest("fast", noOp);
+		TestDescriptor failed = engine.addTest("failed", noOp);
+		TestDescriptor unknown = engine.addTest("unknown", noOp);
+		ExecutionHistory history = ExecutionHistory.load(tempDir.resolve("history"));
+		history.record(slow.getUniqueId().toString(), 50, false);
+		history.record(fast.getUniqueId().toString(), 10, false);
+		history.record(failed.getUniqueId().toString(), 30, true);
+
+		history.order(createRoot(engine));
+
+		assertThat(engine.getEngineDescriptor().getChildren()).containsExactly(failed, unknown, fast, slow);
+	}
+
+	@Test
+	void ordersContainersByTheirChildren(@TempDirectory.Root Path tempDir) {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine();
+		DemoHierarchicalContainerDescriptor slowContainer = engine.addContainer("slow", noOp);
+		DemoHierarchicalTestDescriptor slowTest = addTest(slowContainer, "slow");
+		DemoHierarchicalContainerDescriptor fastContainer = engine.addContainer("fast", noOp);
+		DemoHierarchicalTestDescriptor fastTest = addTest(fastContainer, "fast");
+		DemoHierarchicalContainerDescriptor failedContainer = engine.addContainer("failed", noOp);
+		DemoHierarchicalTestDescriptor passedTest = addTest(failedContainer, "passed");
+		DemoHierarchicalTestDescriptor failedTest = addTest(failedContainer, "failed");
+		ExecutionHistory history = ExecutionHistory.load(tempDir.resolve("history"));
+		history.record(slowTest.getUniqueId().toString(), 100, false);
+		history.record(fastTest.getUniqueId().toString(), 1, false);
+		history.record(passedTest.getUniqueId().toString(), 1, false);
+		history.record(failedTest.getUniqueId().toString(), 200, true);
+
+		history.order(createRoot(engine));
+
+		assertThat(engine.getEngineDescriptor().getChildren()).containsExactly(failedContainer, fastContainer,
+			slowContainer);
+		assertThat(failedContainer.getChildren()).containsExactly(failedTest, passedTest);
+	}
+
+	@Test
+	void recordsHistoryDuringExecutionAndOrdersTestsOfSubsequentRuns(@TempDirectory.Root Path tempDir) {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine();
+		TestDescriptor passing = engine.addTest("passing", noOp);
+		TestDescriptor failing = engine.addTest("failing", () -> {
+			throw new AssertionError("failing");
+		});
+		DefaultLauncher launcher = createLauncher(engine);
+		Path historyFile = tempDir.resolve("history");
+
+		launcher.execute(request().selectors(selectPackage("foo")).configurationParameter(
+			EXECUTION_HISTORY_FILE_PROPERTY_NAME, historyFile.toString()).build());
+
+		ExecutionHistory history = ExecutionHistory.load(historyFile);
+		assertThat(history.hasFailed(failing.getUniqueId().toString())).isTrue();
+		assertThat(history.hasFailed(passing.getUniqueId().toString())).isFalse();
+		assertThat(history.getDuration(passing.getUniqueId().toString())).isGreaterThanOrEqualTo(0);
+
+		// @formatter:off
+		LauncherDiscoveryRequest request = request()
+				.selectors(selectPackage("foo"))
+				.configurationParameter(EXECUTION_HISTORY_FILE_PROPERTY_NAME, historyFile.toString())
+				.configurationParameter(EXECUTION_ORDER_PROPERTY_NAME, "history")
+				.build();
+		// @formatter:on
+		TestPlan testPlan = launcher.discover(request);
+
+		TestIdentifier engineIdentifier = testPlan.getRoots().iterator().next();
+		List<String> uniqueIds = testPlan.getChildren(engineIdentifier).stream().map(
+			TestIdentifier::getUniqueId).collect(toList());
+		assertThat(uniqueIds).containsExactly(failing.getUniqueId().toString(), passing.getUniqueId().toString());
+	}
+
+	@Test
+	void orderingByHistoryRequiresHistoryFile() {
+		DefaultLauncher launcher = createLauncher(new DemoHierarchicalTestEngine());
+		LauncherDiscoveryRequest request = request().selectors(selectPackage("foo")).configurationParameter(
+			EXECUTION_ORDER_PROPERTY_NAME, "history").build();
+
+		JUnitException exception = assertThrows(JUnitException.class, () -> launcher.discover(request));
+
+		assertThat(exception).hasMessageContaining(EXECUTION_HISTORY_FILE_PROPERTY_NAME);
+	}
+
+	private static Root createRoot(DemoHierarchicalTestEngine engine) {
+		Root root = new Root();
+		root.add(engine, engine.getEngineDescriptor());
+		return root;
+	}
+
+	private static DemoHierarchicalTestDescriptor addTest(TestDescriptor parent, String name) {
+		DemoHierarchicalTestDescriptor test = new DemoHierarchicalTestDescriptor(
+			parent.getUniqueId().append("test", name), name, null, noOp);
+		parent.addChild(test);
+		return test;
+	}
+
+}
@@ -11,16 +11,21 @@
 package org.junit.platform.launcher.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
 
 import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.util.PreconditionViolationException;
 import org.junit.platform.commons.util.ReflectionUtils;
 import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.engine.support.descriptor.DemoMethodTestDescriptor;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.test.TestEngineStub;
 import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.TestPlan;
@@ -51,6 +56,52 @@ class ExecutionListenerAdapterTests {
 		assertThat(testExecutionListener.testIdentifier).isEqualTo(testIdentifier);
 	}
 
+	@Test
+	void releasesFinishedDynamicTestsInStreamingMode() {
+		EngineDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("engine"), "engine");
+		TestPlan testPlan = TestPlan.from(Collections.singleton(engineDescriptor));
+		MockTestExecutionListener testExecutionListener = new MockTestExecutionListener();
+		ExecutionListenerAdapter executionListenerAdapter = new ExecutionListenerAdapter(testPlan,
+			testExecutionListener, true);
+
+		TestDescriptor dynamicTest = new EngineDescriptor(engineDescriptor.getUniqueId().append("dynamic", "1"),
+			"dynamic");
+		engineDescriptor.addChild(dynamicTest);
+		executionListenerAdapter.dynamicTestRegistered(dynamicTest);
+		executionListenerAdapter.executionStarted(dynamicTest);
+		executionListenerAdapter.executionFinished(dynamicTest, TestExecutionResult.successful());
+
+		assertThat(testExecutionListener.finishedTestIdentifier.getUniqueId()).isEqualTo(
+			dynamicTest.getUniqueId().toString());
+		assertThat(engineDescriptor.getChildren()).isEmpty();
+		assertThrows(PreconditionViolationException.class,
+			() -> testPlan.getTestIdentifier(dynamicTest.getUniqueId().toString()));
+		assertThat(testPlan.getRoots()).hasSize(1);
+	}
+
+	@Test
+	void resolvesIdentifiersOfInternalTestPlansByUniqueId() {
+		EngineDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("engine"), "engine");
+		Root root = new Root();
+		root.add(new TestEngineStub("engine"), engineDescriptor);
+		InternalTestPlan testPlan = InternalTestPlan.from(root, null);
+		MockTestExecutionListener testExecutionListener = new MockTestExecutionListener();
+		ExecutionListenerAdapter executionListenerAdapter = new ExecutionListenerAdapter(testPlan,
+			testExecutionListener, true);
+
+		TestDescriptor dynamicTest = new EngineDescriptor(engineDescriptor.getUniqueId().append("dynamic", "1"),
+			"dynamic");
+		engineDescriptor.addChild(dynamicTest);
+		executionListenerAdapter.dynamicTestRegistered(dynamicTest);
+		TestIdentifier dynamicTestIdentifier = testPlan.getTestIdentifier(dynamicTest);
+		executionListenerAdapter.executionFinished(dynamicTest, TestExecutionResult.successful());
+
+		assertThat(testPlan.getTestIdentifier(engineDescriptor)).isSameAs(
+			testPlan.getTestIdentifier(engineDescriptor.getUniqueId().toString()));
+		assertThat(testExecutionListener.finishedTestIdentifier).isSameAs(dynamicTestIdentifier);
+		assertThrows(PreconditionViolationException.class, () -> testPlan.getTestIdentifier(dynamicTest));
+	}
+
 	private TestDescriptor getSampleMethodTestDescriptor() {
 		Method localMethodNamedNothing = ReflectionUtils.findMethod(this.getClass(), "nothing", new Class<?>[0]).get();
 		return new DemoMethodTestDescriptor(UniqueId.root("method", "unique_id"), this.getClass(),
@@ -65,6 +116,7 @@ class ExecutionListenerAdapterTests {
 
 		public TestIdentifier testIdentifier;
 		public ReportEntry entry;
+		public TestIdentifier finishedTestIdentifier;
 
 		@Override
 		public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
@@ -72,6 +124,11 @@ class ExecutionListenerAdapterTests {
 			this.entry = entry;
 		}
 
+		@Override
+		public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+			this.finishedTestIdentifier = testIdentifier;
+		}
+
 	}
 
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.discovery.ClassNameFilter.includeClassNamePatterns;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.engine.discovery.MethodSelector;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.mockito.InOrder;
+
+/**
+ * @since 1.0
+ */
+class PipelinedDiscoveryTests {
+
+	@Test
+	void selectsScannedClassesInSubsequentRequests() {
+		// @formatter:off
+		LauncherDiscoveryRequest discoveryRequest = request()
+				.selectors(selectPackage(getClass().getPackage().getName()), selectClass(SelectedTestCase.class))
+				.filters(includeClassNamePatterns(".*" + getClass().getSimpleName() + "\\$.*"))
+				.build();
+		// @formatter:on
+
+		try (PipelinedDiscovery pipelinedDiscovery = PipelinedDiscovery.start(discoveryRequest)) {
+			assertThat(pipelinedDiscovery.getInitialRequest().getSelectorsByType(ClassSelector.class)).extracting(
+				ClassSelector::getJavaClass).containsExactly(SelectedTestCase.class);
+			assertThat(collectScannedClassNames(pipelinedDiscovery)).containsExactly(StaticTestCase.class.getName());
+		}
+	}
+
+	@Test
+	void scansClassesSelectedByMethodSelectors() {
+		// @formatter:off
+		LauncherDiscoveryRequest discoveryRequest = request()
+				.selectors(selectPackage(getClass().getPackage().getName()), selectMethod(StaticTestCase.class, "test"))
+				.filters(includeClassNamePatterns(".*" + getClass().getSimpleName() + "\\$.*"))
+				.build();
+		// @formatter:on
+
+		try (PipelinedDiscovery pipelinedDiscovery = PipelinedDiscovery.start(discoveryRequest)) {
+			assertThat(pipelinedDiscovery.getInitialRequest().getSelectorsByType(MethodSelector.class)).extracting(
+				MethodSelector::getClassName).containsExactly(StaticTestCase.class.getName());
+			assertThat(collectScannedClassNames(pipelinedDiscovery)).containsOnly(SelectedTestCase.class.getName(),
+				StaticTestCase.class.getName());
+		}
+	}
+
+	@Test
+	void reportsEnginesOnceWithFirstUnsuccessfulResult() {
+		EngineExecutionListener delegate = mock(EngineExecutionListener.class);
+		PipelinedExecutionListener listener = new PipelinedExecutionListener(delegate);
+		TestDescriptor firstBatch = new EngineDescriptor(UniqueId.forEngine("engine"), "engine");
+		TestDescriptor secondBatch = new EngineDescriptor(UniqueId.forEngine("engine"), "engine");
+		TestExecutionResult failure = TestExecutionResult.failed(new AssertionError("first"));
+
+		listener.executionStarted(firstBatch);
+		listener.executionFinished(firstBatch, TestExecutionResult.successful());
+		listener.executionStarted(secondBatch);
+		listener.executionFinished(secondBatch, failure);
+		verify(delegate, never()).executionFinished(firstBatch, failure);
+		listener.finishEngines();
+
+		InOrder inOrder = inOrder(delegate);
+		inOrder.verify(delegate).executionStarted(firstBatch);
+		inOrder.verify(delegate).executionFinished(firstBatch, failure);
+		inOrder.verifyNoMoreInteractions();
+	}
+
+	private static List<String> collectScannedClassNames(PipelinedDiscovery pipelinedDiscovery) {
+		List<String> scannedClassNames = new ArrayList<>();
+		for (Optional<LauncherDiscoveryRequest> request = pipelinedDiscovery.nextRequest(); request.isPresent();
+				request = pipelinedDiscovery.nextRequest()) {
+			request.get().getSelectorsByType(ClassSelector.class).forEach(
+				selector -> scannedClassNames.add(selector.getClassName()));
+		}
+		return scannedClassNames;
+	}
+
+	static class SelectedTestCase {
+	}
+
+	static class StaticTestCase {
+	}
+
+	@SuppressWarnings("unused")
+	private static class PrivateTestCase {
+	}
+
+	abstract static class AbstractTestCase {
+	}
+
+	class InnerTestCase {
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class TestImpactAnalysisTests {
+
+	@Test
+	void extractsReferencedClassesFromConstantPool() throws Exception {
+		byte[] classFile = readClassFile(AffectedTestCase.class);
+
+		assertThat(ClassFileDependencies.parse(classFile)) //
+				.contains(Dependency.class.getName(), List.class.getName()) //
+				.doesNotContain(AffectedTestCase.class.getName());
+	}
+
+	@Test
+	void executesAllTestClassesWithoutRecordedFootprint(@Root Path tempDir) throws Exception {
+		TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(tempDir.resolve("index"),
+			singletonList(createClasspathRoot(tempDir)));
+
+		assertThat(impactAnalysis.isAffected(AffectedTestCase.class.getName())).isTrue();
+		assertThat(impactAnalysis.isAffected(UnaffectedTestCase.class.getName())).isTrue();
+	}
+
+	@Test
+	void excludesTestClassesWhoseDependenciesAreUnchanged(@Root Path tempDir) throws Exception {
+		Path indexFile = tempDir.resolve("index");
+		List<Path> classpathRoots = singletonList(createClasspathRoot(tempDir));
+		recordSuccessfulExecution(TestImpactAnalysis.open(indexFile, classpathRoots), AffectedTestCase.class,
+			UnaffectedTestCase.class);
+
+		PostDiscoveryFilter filter = TestImpactAnalysis.open(indexFile, classpathRoots).createFilter();
+
+		assertThat(filter.apply(createTestDescriptor(AffectedTestCase.class)).excluded()).isTrue();
+		assertThat(filter.apply(createTestDescriptor(UnaffectedTestCase.class)).excluded()).isTrue();
+		assertThat(filter.apply(createTestDescriptor(TestImpactAnalysisTests.class)).included()).isTrue();
+	}
+
+	@Test
+	void includesTestClassesDependingOnChangedClasses(@Root Path tempDir) throws Exception {
+		Path indexFile = tempDir.resolve("index");
+		Path classpathRoot = createClasspathRoot(tempDir);
+		recordSuccessfulExecution(TestImpactAnalysis.open(indexFile, singletonList(classpathRoot)),
+			AffectedTestCase.class, UnaffectedTestCase.class);
+
+		Files.write(classpathRoot.resolve(toClassFileName(Dependency.class)), new byte[] { 0 }, APPEND);
+
+		TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(indexFile, singletonList(classpathRoot));
+		assertThat(impactAnalysis.isAffected(AffectedTestCase.class.getName())).isTrue();
+		assertThat(impactAnalysis.isAffected(UnaffectedTestCase.class.getName())).isFalse();
+	}
+
+	@Test
+	void includesAllTestClassesOnceResourcesChanged(@Root Path tempDir) throws Exception {
+		Path indexFile = tempDir.resolve("index");
+		Path classpathRoot = createClasspathRoot(tempDir);
+		Path resource = classpathRoot.resolve(toClassFileName(UnaffectedTestCase.class)).resolveSibling("data.txt");
+		Files.write(resource, new byte[] { 0 });
+		recordSuccessfulExecution(TestImpactAnalysis.open(indexFile, singletonList(classpathRoot)),
+			UnaffectedTestCase.class);
+
+		Files.write(resource, new byte[] { 0 }, APPEND);
+
+		TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(indexFile, singletonList(classpathRoot));
+		assertThat(impactAnalysis.isAffected(UnaffectedTestCase.class.getName())).isTrue();
+	}
+
+	@Test
+	void recordsOnlyTestClassesWhoseTestsAllPassed(@Root Path tempDir) throws Exception {
+		Path indexFile = tempDir.resolve("index");
+		List<Path> classpathRoots = singletonList(createClasspathRoot(tempDir));
+		TestDescriptor failingTest = createTestDescriptor(AffectedTestCase.class);
+		TestDescriptor passingTest = createTestDescriptor(UnaffectedTestCase.class);
+		TestDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("engine"), "engine");
+		engineDescriptor.addChild(failingTest);
+		engineDescriptor.addChild(passingTest);
+		TestPlan testPlan = TestPlan.from(singletonList(engineDescriptor));
+
+		TestExecutionListener listener = TestImpactAnalysis.open(indexFile, classpathRoots).createRecordingListener();
+		listener.testPlanExecutionStarted(testPlan);
+		listener.executionFinished(TestIdentifier.from(failingTest), TestExecutionResult.failed(new Exception()));
+		listener.executionFinished(TestIdentifier.from(passingTest), TestExecutionResult.successful());
+		listener.testPlanExecutionFinished(testPlan);
+
+		TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(indexFile, classpathRoots);
+		assertThat(impactAnalysis.isAffected(AffectedTestCase.class.getName())).isTrue();
+		assertThat(impactAnalysis.isAffected(UnaffectedTestCase.class.getName())).isFalse();
+	}
+
+	@Test
+	void recordsTestClassesWithSkippedTestsButNotSkippedTestClasses(@Root Path tempDir) throws Exception {
+		Path indexFile = tempDir.resolve("index");
+		List<Path> classpathRoots = singletonList(createClasspathRoot(tempDir));
+		TestDescriptor skippedClass = createTestDescriptor(AffectedTestCase.class);
+		UniqueId classId = UniqueId.forEngine("engine").append("class", UnaffectedTestCase.class.getName());
+		TestDescriptor classWithSkippedTest = new DemoHierarchicalTestDescriptor(classId, "class",
+			new ClassSource(UnaffectedTestCase.class), null);
+		TestDescriptor passingTest = createTestDescriptor(classId.append("method", "passing"),
+			new MethodSource(UnaffectedTestCase.class.getName(), "passing"));
+		TestDescriptor skippedTest = createTestDescriptor(classId.append("method", "skipped"),
+			new MethodSource(UnaffectedTestCase.class.getName(), "skipped"));
+		classWithSkippedTest.addChild(passingTest);
+		classWithSkippedTest.addChild(skippedTest);
+		TestDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("engine"), "engine");
+		engineDescriptor.addChild(skippedClass);
+		engineDescriptor.addChild(classWithSkippedTest);
+		TestPlan testPlan = TestPlan.from(singletonList(engineDescriptor));
+
+		TestExecutionListener listener = TestImpactAnalysis.open(indexFile, classpathRoots).createRecordingListener();
+		listener.testPlanExecutionStarted(testPlan);
+		listener.executionSkipped(TestIdentifier.from(skippedClass), "disabled");
+		listener.executionFinished(TestIdentifier.from(passingTest), TestExecutionResult.successful());
+		listener.executionSkipped(TestIdentifier.from(skippedTest), "disabled");
+		listener.executionFinished(TestIdentifier.from(classWithSkippedTest), TestExecutionResult.successful());
+		listener.testPlanExecutionFinished(testPlan);
+
+		TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(indexFile, classpathRoots);
+		assertThat(impactAnalysis.isAffected(AffectedTestCase.class.getName())).isTrue();
+		assertThat(impactAnalysis.isAffected(UnaffectedTestCase.class.getName())).isFalse();
+	}
+
+	@Test
+	void ignoresUnreadableIndex(@Root Path tempDir) throws Exception {
+		Path indexFile = tempDir.resolve("index");
+		Files.write(indexFile, new byte[] { 1, 2, 3 });
+
+		TestImpactAnalysis impactAnalysis = TestImpactAnalysis.open(indexFile,
+			singletonList(createClasspathRoot(tempDir)));
+
+		assertThat(impactAnalysis.isAffected(UnaffectedTestCase.class.getName())).isTrue();
+	}
+
+	private static void recordSuccessfulExecution(TestImpactAnalysis impactAnalysis, Class<?>... testClasses) {
+		impactAnalysis.recordSuccessfulExecution(Arrays.stream(testClasses).map(Class::getName).collect(toSet()));
+		impactAnalysis.write();
+	}
+
+	private static TestDescriptor createTestDescriptor(Class<?> testClass) {
+		return createTestDescriptor(UniqueId.forEngine("engine").append("class", testClass.getName()),
+			new ClassSource(testClass));
+	}
+
+	private static TestDescriptor createTestDescriptor(UniqueId uniqueId, TestSource source) {
+		return new DemoHierarchicalTestDescriptor(uniqueId, uniqueId.toString(), source, () -> {
+		});
+	}
+
+	private static Path createClasspathRoot(Path tempDir) throws IOException {
+		Path classpathRoot = tempDir.resolve("classes");
+		for (Class<?> clazz : Arrays.asList(AffectedTestCase.class, UnaffectedTestCase.class, Dependency.class)) {
+			Path classFile = classpathRoot.resolve(toClassFileName(clazz));
+			Files.createDirectories(classFile.getParent());
+			Files.write(classFile, readClassFile(clazz));
+		}
+		return classpathRoot;
+	}
+
+	private static String toClassFileName(Class<?> clazz) {
+		return clazz.getName().replace('.', '/') + ".class";
+	}
+
+	private static byte[] readClassFile(Class<?> clazz) throws IOException {
+		try (InputStream in = clazz.getResourceAsStream("/" + toClassFileName(clazz))) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	static class Dependency {
+	}
+
+	static class AffectedTestCase {
+
+		List<Dependency> dependencies;
+
+	}
+
+	static class UnaffectedTestCase {
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_COUNT_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_INDEX_PROPERTY_NAME;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+import static org.junit.platform.launcher.core.LauncherFactoryForTestingPurposesOnly.createLauncher;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalContainerDescriptor;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestDescriptor;
+import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestEngine;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class TestShardingTests {
+
+	private static final Runnable noOp = () -> {
+	};
+
+	@Test
+	void assignsEveryTestToExactlyOneShard() {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine();
+		List<String> allTests = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			DemoHierarchicalContainerDescriptor container = engine.addContainer("container" + i, noOp);
+			allTests.add(addTest(container, "first").getUniqueId().toString());
+			allTests.add(addTest(container, "second").getUniqueId().toString());
+		}
+		DefaultLauncher launcher = createLauncher(engine);
+
+		List<String> executedTests = new ArrayList<>();
+		for (int shardIndex = 0; shardIndex < 3; shardIndex++) {
+			// @formatter:off
+			LauncherDiscoveryRequest request = request()
+					.selectors(selectPackage("foo"))
+					.configurationParameter(SHARD_COUNT_PROPERTY_NAME, "3")
+					.configurationParameter(SHARD_INDEX_PROPERTY_NAME, String.valueOf(shardIndex))
+					.build();
+			// @formatter:on
+			List<String> testsOfShard = getTests(launcher.discover(request));
+			assertThat(testsOfShard).isNotEmpty();
+			executedTests.addAll(testsOfShard);
+		}
+
+		assertThat(executedTests).containsExactlyInAnyOrder(allTests.toArray(new String[0]));
+	}
+
+	@Test
+	void keepsTestsOfTopLevelContainerTogether() {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine();
+		DemoHierarchicalContainerDescriptor container = engine.addContainer("container", noOp);
+		DemoHierarchicalContainerDescriptor nested = new DemoHierarchicalContainerDescriptor(
+			container.getUniqueId().append("nested", "nested"), "nested", null, noOp);
+		container.addChild(nested);
+		DemoHierarchicalTestDescriptor first = addTest(nested, "first");
+		DemoHierarchicalTestDescriptor second = addTest(container, "second");
+
+		TestSharding sharding = TestSharding.partition(createRoot(engine), 5, Optional.empty());
+
+		assertThat(sharding.getShard(first)).isEqualTo(sharding.getShard(container)).isEqualTo(
+			sharding.getShard(second)).isBetween(0, 4);
+	}
+
+	@Test
+	void balancesShardsByRecordedDurations(@TempDirectory.Root Path tempDir) {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine();
+		TestDescriptor a = engine.addContainer("a", noOp);
+		TestDescriptor b = engine.addContainer("b", noOp);
+		TestDescriptor c = engine.addContainer("c", noOp);
+		TestDescriptor d = engine.addContainer("d", noOp);
+		TestDescriptor e = engine.addContainer("e", noOp);
+		ExecutionHistory history = ExecutionHistory.load(tempDir.resolve("history"));
+		history.record(a.getUniqueId().toString(), 100, false);
+		history.record(b.getUniqueId().toString(), 60, false);
+		history.record(c.getUniqueId().toString(), 50, false);
+		history.record(d.getUniqueId().toString(), 40, false);
+
+		TestSharding sharding = TestSharding.partition(createRoot(engine), 2, Optional.of(history));
+
+		// e is expected to take the average duration of 62 ms
+		assertThat(sharding.getShard(a)).isEqualTo(0);
+		assertThat(sharding.getShard(e)).isEqualTo(1);
+		assertThat(sharding.getShard(b)).isEqualTo(1);
+		assertThat(sharding.getShard(c)).isEqualTo(0);
+		assertThat(sharding.getShard(d)).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsShardIndexOutOfRange() {
+		DefaultLauncher launcher = createLauncher(new DemoHierarchicalTestEngine());
+		// @formatter:off
+		LauncherDiscoveryRequest request = request()
+				.selectors(selectPackage("foo"))
+				.configurationParameter(SHARD_COUNT_PROPERTY_NAME, "2")
+				.configurationParameter(SHARD_INDEX_PROPERTY_NAME, "2")
+				.build();
+		// @formatter:on
+
+		JUnitException exception = assertThrows(JUnitException.class, () -> launcher.discover(request));
+
+		assertThat(exception).hasMessageContaining(SHARD_INDEX_PROPERTY_NAME);
+	}
+
+	private static List<String> getTests(TestPlan testPlan) {
+		Set<TestIdentifier> identifiers = new HashSet<>();
+		testPlan.getRoots().forEach(root -> identifiers.addAll(testPlan.getDescendants(root)));
+		List<String> tests = new ArrayList<>();
+		identifiers.stream().filter(TestIdentifier::isTest).forEach(
+			identifier -> tests.add(identifier.getUniqueId()));
+		return tests;
+	}
+
+	private static Root createRoot(DemoHierarchicalTestEngine engine) {
+		Root root = new Root();
+		root.add(engine, engine.getEngineDescriptor());
+		return root;
+	}
+
+	private static DemoHierarchicalTestDescriptor addTest(TestDescriptor parent, String name) {
+		DemoHierarchicalTestDescriptor test = new DemoHierarchicalTestDescriptor(
+			parent.getUniqueId().append("test", name), name, null, noOp);
+		parent.addChild(test);
+		return test;
+	}
+
+}
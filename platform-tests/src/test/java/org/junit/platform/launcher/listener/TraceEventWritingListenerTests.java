@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015-2017 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v1.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.junit.platform.launcher.listener;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.reporting.ExecutionTimings;
+import org.junit.platform.engine.reporting.ExecutionTimings.Phase;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.engine.test.TestDescriptorStub;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.listeners.TraceEventWritingListener;
+
+/**
+ * @since 1.0
+ */
+@ExtendWith(TempDirectory.class)
+class TraceEventWritingListenerTests {
+
+	private final TestPlan testPlan = TestPlan.from(Collections.emptyList());
+
+	@Test
+	void writesSpansOfExecutedContainersAndTestsAndTheirPhases(@Root Path tempDir) throws Exception {
+		Path traceFile = tempDir.resolve("traces/trace.json");
+		TraceEventWritingListener listener = new TraceEventWritingListener(traceFile);
+		TestIdentifier container = createIdentifier("container", true);
+		TestIdentifier test = createIdentifier("test", false);
+		Map<Phase, Duration> durations = new EnumMap<>(Phase.class);
+		durations.put(Phase.BEFORE, Duration.ofMillis(1));
+
+		listener.testPlanExecutionStarted(testPlan);
+		listener.executionStarted(container);
+		listener.executionStarted(test);
+		listener.executionFinished(test, TestExecutionResult.failed(new AssertionError("boom")));
+		listener.executionTimingsRecorded(container, ExecutionTimings.from(durations));
+		listener.executionFinished(container, TestExecutionResult.successful());
+		listener.testPlanExecutionFinished(testPlan);
+
+		String trace = new String(Files.readAllBytes(traceFile), UTF_8);
+		assertThat(trace).startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[").endsWith("]}\n");
+		Thread thread = Thread.currentThread();
+		assertThat(trace).contains("{\"name\":\"thread_name\",\"ph\":\"M\",\"ts\":0,\"pid\":1,\"tid\":" + thread.getId()
+				+ ",\"args\":{\"name\":\"" + thread.getName() + "\"}}");
+		assertThat(trace).containsPattern("\\{\"name\":\"test\",\"ph\":\"X\",\"ts\":\\d+,\"pid\":1,\"tid\":\\d+,"
+				+ "\"cat\":\"test\",\"args\":\\{\"uniqueId\":\"\\[test:test\\]\",\"status\":\"FAILED\","
+				+ "\"throwable\":\"java.lang.AssertionError: boom\"\\},\"dur\":\\d+\\}");
+		assertThat(trace).containsPattern("\\{\"name\":\"container\",\"ph\":\"X\",.*\"cat\":\"container\",");
+		assertThat(trace).containsPattern("\\{\"name\":\"before\",\"ph\":\"X\",.*\"cat\":\"phase\",\"dur\":1000\\}");
+		assertThat(trace).doesNotContain("\"name\":\"after\"");
+	}
+
+	@Test
+	void writesInstantsForSkippedTestsAndReportEntries(@Root Path tempDir) throws Exception {
+		Path traceFile = tempDir.resolve("trace.json");
+		TraceEventWritingListener listener = new TraceEventWritingListener(traceFile);
+		TestIdentifier skipped = createIdentifier("skipped", false);
+		TestIdentifier reporting = createIdentifier("reporting", false);
+
+		listener.testPlanExecutionStarted(testPlan);
+		listener.executionSkipped(skipped, "disabled");
+		listener.executionStarted(reporting);
+		listener.reportingEntryPublished(reporting, ReportEntry.from("key", "\"quoted\"\n"));
+		listener.executionFinished(reporting, TestExecutionResult.successful());
+		listener.testPlanExecutionFinished(testPlan);
+
+		String trace = new String(Files.readAllBytes(traceFile), UTF_8);
+		assertThat(trace).containsPattern("\\{\"name\":\"skipped\",\"ph\":\"i\",.*\"cat\":\"skipped\","
+				+ "\"args\":\\{\"uniqueId\":\"\\[test:skipped\\]\",\"reason\":\"disabled\"\\},\"s\":\"t\"\\}");
+		assertThat(trace).contains("\"cat\":\"report\",\"args\":{\"uniqueId\":\"[test:reporting]\","
+				+ "\"key\":\"\\\"quoted\\\"\\u000a\"},\"s\":\"t\"}");
+	}
+
+	private TestIdentifier createIdentifier(String name, boolean container) {
+		TestIdentifier identifier = TestIdentifier.from(new TestDescriptorStub(UniqueId.root("test", name), name) {
+
+			@Override
+			public Type getType() {
+				return container ? Type.CONTAINER : Type.TEST;
+			}
+		});
+		testPlan.add(identifier);
+		return identifier;
+	}
+
+}